@@ -0,0 +1,62 @@
+package Aplicacion;
+
+import Modelo.RegistroCambios;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Exportador de línea de comandos del registro de cambios.
+ * <p>
+ * Escribe en la salida estándar, como líneas JSON, los cambios posteriores a una secuencia. Lee
+ * directamente el archivo del registro, así que no carga las tareas y puede ejecutarse mientras la
+ * aplicación está abierta:
+ * <pre>
+ * java -cp ... Aplicacion.ExportarCambios 1200 [tareas-cambios.jsonl]
+ * </pre>
+ * Quien replica las tareas guarda la secuencia de la última línea recibida y la usa en la próxima
+ * exportación. Si el registro ya no conserva esos cambios, el programa termina con código 2 y hay
+ * que volver a copiar todas las tareas.
+ */
+public class ExportarCambios {
+
+    /** Archivo del registro que se lee si no se indica otro. */
+    private static final String REGISTRO = "tareas-cambios.jsonl";
+
+    /**
+     * Punto de entrada del exportador.
+     *
+     * @param args la última secuencia ya procesada y, opcionalmente, la ruta del registro
+     */
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Uso: ExportarCambios <secuencia> [archivo-registro]");
+            System.exit(1);
+        }
+        long desde;
+        try {
+            desde = Long.parseLong(args[0]);
+        } catch (NumberFormatException e) {
+            System.err.println("La secuencia debe ser un número: " + args[0]);
+            System.exit(1);
+            return;
+        }
+        Path ruta = Path.of(args.length > 1 ? args[1] : REGISTRO);
+
+        Writer salida = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        try {
+            long escritos = RegistroCambios.exportarArchivo(ruta, desde, salida);
+            System.err.println("Cambios exportados: " + escritos);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el registro de cambios: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package Aplicacion;
 
 import Controlador.TareaControlador;
-import Modelo.TareaRepository;
+import Modelo.GestorEspacios;
+import Modelo.PlanificadorVencimientos;
 import Modelo.TareaService;
 import Vista.VentanaPrincipal;
 
@@ -16,18 +17,27 @@ public class Main {
     /**
      * Punto de entrada de la aplicación.
      * <p>
-     * Inicializa el repositorio, servicio, vista y controlador de tareas, 
-     * y lanza la ventana principal en el hilo de la interfaz gráfica.
+     * Inicializa los espacios de trabajo con el espacio principal activo, la vista y el
+     * controlador de tareas, conecta el planificador de vencimientos al espacio que se muestra,
+     * guarda los índices de los espacios cargados al salir y lanza la ventana principal en el
+     * hilo de la interfaz gráfica.
      *
      * @param args argumentos de línea de comandos (no utilizados)
      */
     public static void main(String[] args) {
         javax.swing.SwingUtilities.invokeLater(() -> {
-            TareaRepository repo = new TareaRepository();
-            TareaService service = new TareaService(repo);
+            GestorEspacios espacios = GestorEspacios.porDefecto();
+            TareaService service = espacios.activar(GestorEspacios.PRINCIPAL);
+            Runtime.getRuntime().addShutdownHook(new Thread(espacios::close, "punto-control-indices"));
             VentanaPrincipal vista = new VentanaPrincipal();
-            new TareaControlador(service, vista);
+            TareaControlador controlador = new TareaControlador(service, vista, espacios);
             vista.setVisible(true);
+
+            PlanificadorVencimientos planificador = new PlanificadorVencimientos();
+            planificador.agregarOyente(controlador::recibirAviso);
+            planificador.conectar(service);
+            controlador.alCambiarEspacio(planificador::conectar);
+            planificador.iniciar();
         });
     }
 }
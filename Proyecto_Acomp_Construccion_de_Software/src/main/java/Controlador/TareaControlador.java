@@ -1,17 +1,31 @@
 package Controlador;
 
+import Modelo.AvisoVencimiento;
+import Modelo.CambiosArchivo;
+import Modelo.ErrorValidacion;
+import Modelo.GestorEspacios;
+import Modelo.Recurrencia;
+import Modelo.Registro;
+import Modelo.ResultadoActualizacion;
+import Modelo.ResultadoAlta;
 import Modelo.Tarea;
 import Modelo.TareaService;
+import Modelo.VigilanteArchivo;
 import Vista.VentanaPrincipal;
 
 import javax.swing.*;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 import Modelo.Estado;
 import Modelo.Prioridad;
 import Vista.DialogoFiltroTarea;
 import Vista.FormularioTareaDialog;
+import Vista.OrdenadorTareas;
 import Vista.TareaTableModel;
 
 /**
@@ -19,13 +33,41 @@ import Vista.TareaTableModel;
  * {@link VentanaPrincipal} y la lógica de negocio {@link TareaService}.
  * <p>
  * Se encarga de manejar las acciones del usuario relacionadas con la gestión de tareas:
- * agregar, actualizar, eliminar, buscar y filtrar.
+ * agregar, actualizar, eliminar, buscar y filtrar. Si se le da un {@link GestorEspacios}, también
+ * permite cambiar de espacio de trabajo; el espacio nuevo se carga en segundo plano y la ventana
+ * sigue respondiendo mientras tanto.
  */
 public class TareaControlador {
-    private final TareaService service;
+
+    /** Cantidad máxima de tareas que muestra la búsqueda por palabras parecidas. */
+    private static final int LIMITE_BUSQUEDA_DIFUSA = 200;
+
+    /** Período, desde hoy, del que la tabla muestra las ocurrencias de las tareas recurrentes. */
+    private static final Period VENTANA_OCURRENCIAS = Period.ofWeeks(4);
+
+    /** Servicio del espacio de trabajo que se está mostrando; solo cambia en el hilo de eventos. */
+    private TareaService service;
     private final VentanaPrincipal vista;
+
+    /** Gestor de los espacios de trabajo, o null si no se usan. */
+    private final GestorEspacios gestor;
+
+    /** Reciben el servicio del espacio nuevo cada vez que se cambia de espacio. */
+    private final List<Consumer<TareaService>> oyentesEspacio = new ArrayList<>();
+
+    /** Indica que el selector de espacios se está cambiando desde el código, no por el usuario. */
+    private boolean actualizandoSelector;
     private TareaTableModel tablaModelo;
 
+    /** Indica si la tabla muestra todas las tareas o el resultado de un filtro o búsqueda. */
+    private boolean mostrandoTodas = true;
+
+    /** Vigila el archivo de tareas para reflejar los cambios hechos por otros programas. */
+    private VigilanteArchivo vigilante;
+
+    /** Avisos de vencimiento recibidos que aún no se mostraron; solo se usa en el hilo de eventos. */
+    private final List<AvisoVencimiento> avisosPendientes = new ArrayList<>();
+
     /**
      * Crea una instancia del controlador, inicializando los manejadores de eventos
      * y cargando las tareas existentes en la tabla de la vista.
@@ -34,39 +76,279 @@ public class TareaControlador {
      * @param vista   instancia de la ventana principal que actúa como interfaz de usuario
      */
     public TareaControlador(TareaService service, VentanaPrincipal vista) {
+        this(service, vista, null);
+    }
+
+    /**
+     * Crea una instancia del controlador que además permite cambiar de espacio de trabajo.
+     *
+     * @param service servicio del espacio activo del gestor
+     * @param vista   instancia de la ventana principal que actúa como interfaz de usuario
+     * @param gestor  gestor de los espacios de trabajo, o null si no se usan
+     */
+    public TareaControlador(TareaService service, VentanaPrincipal vista, GestorEspacios gestor) {
         this.service = service;
         this.vista = vista;
+        this.gestor = gestor;
 
         vista.getBtnAgregar().addActionListener(e -> agregarTarea());
         vista.getBtnActualizar().addActionListener(e -> actualizarTarea());
         vista.getBtnEliminar().addActionListener(e -> eliminarTarea());
         vista.getBtnFiltrar().addActionListener(e -> filtrarTareas());
         vista.getBtnBuscar().addActionListener(e -> buscarTareas());
+        vista.getComboEspacios().addActionListener(e -> {
+            if (!actualizandoSelector) {
+                cambiarEspacio((String) vista.getComboEspacios().getSelectedItem());
+            }
+        });
+        vista.getBtnNuevoEspacio().addActionListener(e -> crearEspacio());
+        vista.setEspaciosVisibles(gestor != null);
+        if (gestor != null) {
+            mostrarEspacios(gestor.getActivo());
+        }
+
+        cargarTareasEnTabla();
+        iniciarRecargaEnVivo();
+
+        // Las vencidas cambian con el día aunque no cambie ninguna tarea
+        new Timer(60_000, e -> actualizarResumen()).start();
+    }
+
+    /**
+     * Registra un receptor que recibe el servicio del espacio nuevo cada vez que se cambia de
+     * espacio de trabajo, en el hilo de eventos. Sirve para reconectar a él los componentes que
+     * siguen las tareas, como el planificador de vencimientos.
+     *
+     * @param oyente el receptor del servicio nuevo
+     */
+    public void alCambiarEspacio(Consumer<TareaService> oyente) {
+        oyentesEspacio.add(oyente);
+    }
+
+    /**
+     * Llena el selector con los espacios existentes y selecciona uno, sin provocar un cambio.
+     *
+     * @param seleccionado el espacio a seleccionar
+     */
+    private void mostrarEspacios(String seleccionado) {
+        actualizandoSelector = true;
+        try {
+            JComboBox<String> combo = vista.getComboEspacios();
+            combo.removeAllItems();
+            for (String nombre : gestor.nombres()) {
+                combo.addItem(nombre);
+            }
+            if (seleccionado != null && ((DefaultComboBoxModel<String>) combo.getModel()).getIndexOf(seleccionado) < 0) {
+                combo.addItem(seleccionado);
+            }
+            combo.setSelectedItem(seleccionado);
+        } finally {
+            actualizandoSelector = false;
+        }
+    }
+
+    /**
+     * Pide el nombre de un espacio de trabajo nuevo y cambia a él.
+     */
+    private void crearEspacio() {
+        String nombre = JOptionPane.showInputDialog(vista, "Nombre del nuevo espacio:");
+        if (nombre == null || nombre.isBlank()) {
+            return;
+        }
+        nombre = nombre.trim();
+        if (!GestorEspacios.esNombreValido(nombre)) {
+            JOptionPane.showMessageDialog(vista,
+                    "El nombre solo puede tener letras, números, espacios, guiones y guiones bajos (hasta 64).",
+                    "Nombre inválido", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        mostrarEspacios(nombre);
+        cambiarEspacio(nombre);
+    }
+
+    /**
+     * Cambia al espacio de trabajo indicado. La carga del espacio (y la descarga de los que ya no
+     * entran en memoria) se hace en un {@link SwingWorker}; mientras tanto la ventana desactiva
+     * sus acciones pero sigue respondiendo. Al terminar, la tabla pasa a mostrar las tareas del
+     * espacio nuevo.
+     *
+     * @param nombre el nombre del espacio
+     */
+    private void cambiarEspacio(String nombre) {
+        String anterior = gestor == null ? null : gestor.getActivo();
+        if (gestor == null || nombre == null || nombre.equals(anterior)) {
+            return;
+        }
+        vista.setCambiandoEspacio(true);
+        new SwingWorker<TareaService, Void>() {
+            @Override
+            protected TareaService doInBackground() {
+                return gestor.activar(nombre);
+            }
+
+            @Override
+            protected void done() {
+                vista.setCambiandoEspacio(false);
+                try {
+                    usarServicio(get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Registro.global().error("TareaControlador", "No se pudo abrir el espacio " + nombre, e.getCause());
+                    JOptionPane.showMessageDialog(vista, "No se pudo abrir el espacio \"" + nombre + "\".",
+                            "Error", JOptionPane.ERROR_MESSAGE);
+                    mostrarEspacios(anterior);
+                }
+            }
+        }.execute();
+    }
 
+    /**
+     * Pasa a mostrar las tareas de otro servicio: deja de vigilar el archivo del anterior, recarga
+     * la tabla conservando su orden y avisa a los receptores de {@link #alCambiarEspacio(Consumer)}.
+     *
+     * @param nuevo el servicio del espacio nuevo
+     */
+    private void usarServicio(TareaService nuevo) {
+        if (vigilante != null) {
+            vigilante.close();
+            vigilante = null;
+        }
+        service = nuevo;
         cargarTareasEnTabla();
+        iniciarRecargaEnVivo();
+        for (Consumer<TareaService> oyente : oyentesEspacio) {
+            oyente.accept(nuevo);
+        }
+    }
+
+    /**
+     * Muestra en la vista el resumen de las estadísticas del servicio, sin recorrer las tareas.
+     */
+    private void actualizarResumen() {
+        vista.getPanelResumen().mostrar(service.getEstadisticas().resumen());
+    }
+
+    /**
+     * Empieza a vigilar el archivo de tareas. Cuando otro programa lo modifica, los cambios se
+     * recargan en el hilo de eventos y se aplican fila por fila.
+     */
+    private void iniciarRecargaEnVivo() {
+        try {
+            vigilante = service.vigilarArchivo(() -> SwingUtilities.invokeLater(this::aplicarCambiosExternos));
+        } catch (IOException e) {
+            Registro.global().aviso("TareaControlador", "No se pudo vigilar el archivo de tareas: {}", e.getMessage());
+        }
     }
 
     /**
-     * Carga todas las tareas desde el servicio y las muestra en la tabla de la vista.
+     * Recibe un aviso de vencimiento desde cualquier hilo. Los avisos que llegan juntos (por ejemplo
+     * todas las tareas que vencen hoy) se muestran en un único mensaje.
+     *
+     * @param aviso el aviso recibido
+     */
+    public void recibirAviso(AvisoVencimiento aviso) {
+        SwingUtilities.invokeLater(() -> {
+            avisosPendientes.add(aviso);
+            if (avisosPendientes.size() == 1) {
+                SwingUtilities.invokeLater(this::mostrarAvisos);
+            }
+        });
+    }
+
+    /**
+     * Muestra en un mensaje los avisos de vencimiento acumulados.
+     */
+    private void mostrarAvisos() {
+        StringBuilder venceHoy = new StringBuilder();
+        StringBuilder vencidas = new StringBuilder();
+        for (AvisoVencimiento aviso : avisosPendientes) {
+            StringBuilder destino = aviso.tipo() == AvisoVencimiento.Tipo.VENCE_HOY ? venceHoy : vencidas;
+            destino.append("\n - ").append(aviso.tarea().getTitulo());
+        }
+        avisosPendientes.clear();
+
+        StringBuilder mensaje = new StringBuilder();
+        if (!venceHoy.isEmpty()) {
+            mensaje.append("Vencen hoy:").append(venceHoy);
+        }
+        if (!vencidas.isEmpty()) {
+            if (!mensaje.isEmpty()) {
+                mensaje.append("\n\n");
+            }
+            mensaje.append("Vencidas sin completar:").append(vencidas);
+        }
+        JOptionPane.showMessageDialog(vista, mensaje.toString(), "Vencimientos", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Recarga en el servicio y en la tabla los cambios que otro programa escribió en el archivo.
+     */
+    private void aplicarCambiosExternos() {
+        CambiosArchivo cambios;
+        try {
+            cambios = service.recargarCambiosExternos();
+        } catch (IOException e) {
+            return; // contenido incompleto o inválido: se espera al siguiente cambio
+        }
+        if (cambios.estaVacio()) {
+            return;
+        }
+        if (mostrandoTodas) {
+            tablaModelo.agregarTareas(cambios.agregadas());
+        }
+        tablaModelo.actualizarTareas(cambios.actualizadas());
+        tablaModelo.eliminarTareas(cambios.eliminadas());
+        actualizarResumen();
+    }
+
+    /**
+     * Carga todas las tareas desde el servicio y las muestra en la tabla de la vista, junto con
+     * las ocurrencias recurrentes de las próximas semanas. La primera vez crea el modelo y su
+     * ordenador; después reemplaza las tareas del mismo modelo, así la tabla conserva el orden
+     * elegido por el usuario.
      */
     private void cargarTareasEnTabla() {
         List<Tarea> tareas = service.obtenerTodas();
-        tablaModelo = new TareaTableModel(tareas);
-        vista.getTablaTareas().setModel(tablaModelo);
+        LocalDate hoy = LocalDate.now();
+        tareas.addAll(service.obtenerOcurrencias(hoy, hoy.plus(VENTANA_OCURRENCIAS)));
+        if (tablaModelo == null) {
+            tablaModelo = new TareaTableModel(tareas);
+            vista.getTablaTareas().setModel(tablaModelo);
+            vista.getTablaTareas().setRowSorter(new OrdenadorTareas(tablaModelo));
+        } else {
+            tablaModelo.setTareas(tareas);
+        }
+        mostrandoTodas = true;
+        actualizarResumen();
     }
 
     /**
      * Abre un formulario para agregar una nueva tarea.
-     * Si se confirma la creación, la tarea se guarda y se actualiza la tabla.
+     * Si se confirma la creación, la tarea se guarda y se actualiza la tabla; si no pasa la
+     * validación, se muestra el motivo. Si se eligió repetirla, se crea una plantilla recurrente.
      */
     private void agregarTarea() {
         FormularioTareaDialog dialogo = new FormularioTareaDialog(vista);
         dialogo.setVisible(true);
 
         Tarea nuevaTarea = dialogo.getTarea();
+        Recurrencia recurrencia = dialogo.getRecurrencia();
 
-        if (nuevaTarea != null) {
-            service.agregarTarea(nuevaTarea);
+        if (nuevaTarea != null && recurrencia != null) {
+            ErrorValidacion error = service.validar(nuevaTarea);
+            if (error != null) {
+                JOptionPane.showMessageDialog(vista, error.getMensaje(), "Tarea inválida", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            service.agregarPlantilla(nuevaTarea, recurrencia);
+            cargarTareasEnTabla();
+        } else if (nuevaTarea != null) {
+            ResultadoAlta resultado = service.agregarTarea(nuevaTarea);
+            if (!resultado.esExitosa()) {
+                JOptionPane.showMessageDialog(vista, resultado.error().getMensaje(), "Tarea inválida", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
             cargarTareasEnTabla();
         }
     }
@@ -82,21 +364,41 @@ public class TareaControlador {
             return;
         }
 
-        Tarea tareaExistente = tablaModelo.getTareaEnFila(filaSeleccionada);
+        Tarea tareaExistente = tablaModelo.getTareaEnFila(vista.getTablaTareas().convertRowIndexToModel(filaSeleccionada));
+        int versionLeida = tareaExistente.getVersion();
         FormularioTareaDialog dialogo = new FormularioTareaDialog(vista, tareaExistente);
         dialogo.setVisible(true);
 
         if (dialogo.isConfirmado()) {
             Tarea datosActualizados = dialogo.getTarea();
+            if (datosActualizados == null) {
+                return; // fecha inválida, el formulario ya mostró el error
+            }
 
-            tareaExistente.setTitulo(datosActualizados.getTitulo());
-            tareaExistente.setDescripcion(datosActualizados.getDescripcion());
-            tareaExistente.setFechaVencimiento(datosActualizados.getFechaVencimiento());
-            tareaExistente.setPrioridad(datosActualizados.getPrioridad());
-            tareaExistente.setEstado(datosActualizados.getEstado());
-
-            service.actualizarTarea(tareaExistente);
-            tablaModelo.fireTableDataChanged();
+            // Solo se aplica si nadie más modificó la tarea mientras el formulario estaba abierto
+            ResultadoActualizacion resultado =
+                    service.actualizarSiVersion(tareaExistente.getId(), datosActualizados, versionLeida);
+            switch (resultado.tipo()) {
+                case ACTUALIZADA -> {
+                    if (resultado.tarea().getId() == tareaExistente.getId()) {
+                        tablaModelo.actualizarTareas(List.of(resultado.tarea()));
+                    } else {
+                        cargarTareasEnTabla(); // una ocurrencia recurrente pasó a ser una tarea
+                    }
+                }
+                case CONFLICTO -> {
+                    tablaModelo.actualizarTareas(List.of(resultado.tarea()));
+                    JOptionPane.showMessageDialog(vista,
+                            "La tarea fue modificada por otro usuario mientras la editabas.\n"
+                                    + "La tabla muestra ahora sus datos actuales; vuelve a editarla si es necesario.",
+                            "Conflicto de edición", JOptionPane.WARNING_MESSAGE);
+                }
+                case NO_ENCONTRADA -> {
+                    JOptionPane.showMessageDialog(vista, "La tarea ya no existe.", "Error", JOptionPane.ERROR_MESSAGE);
+                    cargarTareasEnTabla();
+                }
+            }
+            actualizarResumen();
         }
     }
 
@@ -106,7 +408,7 @@ public class TareaControlador {
     private void eliminarTarea() {
         int filaSeleccionada = vista.getTablaTareas().getSelectedRow();
         if (filaSeleccionada != -1) {
-            Tarea tareaSeleccionada = tablaModelo.getTareaEnFila(filaSeleccionada);
+            Tarea tareaSeleccionada = tablaModelo.getTareaEnFila(vista.getTablaTareas().convertRowIndexToModel(filaSeleccionada));
 
             int opcion = JOptionPane.showConfirmDialog(vista,
                     "¿Estás seguro de que deseas eliminar la tarea?",
@@ -162,28 +464,33 @@ public class TareaControlador {
                 JOptionPane.showMessageDialog(vista, "No se encontraron tareas con los criterios seleccionados.");
             } else {
                 tablaModelo.setTareas(tareasFiltradas);
-                tablaModelo.fireTableDataChanged();
+                mostrandoTodas = false;
             }
         }
     }
 
     /**
      * Permite buscar tareas que contengan una palabra clave en su título o descripción.
-     * Si no se ingresa palabra clave, se restauran todas las tareas.
+     * Si no hay coincidencias exactas, se muestran las tareas con palabras parecidas, de la más
+     * parecida a la menos. Si no se ingresa palabra clave, se restauran todas las tareas.
      */
     private void buscarTareas() {
         String palabraClave = JOptionPane.showInputDialog(null, "Ingresa una palabra clave para buscar:");
 
         if (palabraClave != null && !palabraClave.trim().isEmpty()) {
             List<Tarea> resultados = service.buscarPorPalabraClave(palabraClave.trim());
+            if (resultados.isEmpty()) {
+                resultados = service.buscarDifuso(palabraClave.trim(), LIMITE_BUSQUEDA_DIFUSA);
+            }
 
             if (resultados.isEmpty()) {
                 JOptionPane.showMessageDialog(null, "No se encontraron tareas que coincidan.");
             } else {
                 tablaModelo.setTareas(resultados);
+                mostrandoTodas = false;
             }
         } else {
-            tablaModelo.setTareas(service.obtenerTodas());
+            cargarTareasEnTabla();
         }
     }
 
@@ -0,0 +1,183 @@
+package Modelo;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lectura y escritura de las {@link PlantillaRecurrente}s en un archivo JSON aparte del de las
+ * tareas (por ejemplo {@code tareas-plantillas.json}). Las ocurrencias no se guardan: solo la
+ * plantilla, su regla y las fechas excluidas.
+ * <p>
+ * El archivo también guarda el ID de la próxima plantilla, para que el de una plantilla eliminada
+ * no se vuelva a usar: los IDs de las ocurrencias se derivan de él. Los archivos anteriores, que
+ * solo tenían la lista de plantillas, se siguen leyendo.
+ */
+final class ArchivoPlantillas {
+
+    private ArchivoPlantillas() {
+    }
+
+    /**
+     * Contenido del archivo de plantillas.
+     *
+     * @param plantillas las plantillas
+     * @param siguienteId el ID de la próxima plantilla que se cree
+     */
+    record Contenido(List<PlantillaRecurrente> plantillas, int siguienteId) {
+    }
+
+    /**
+     * Lee las plantillas de un archivo.
+     *
+     * @param ruta la ruta del archivo
+     * @return las plantillas y el próximo ID, o ninguna plantilla y el ID 1 si el archivo no existe
+     * @throws IOException si el archivo no se puede leer o su contenido no es válido
+     */
+    static Contenido leer(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            return new Contenido(new ArrayList<>(), 1);
+        }
+        try (Reader origen = Files.newBufferedReader(ruta, StandardCharsets.UTF_8);
+             JsonReader in = new JsonReader(origen)) {
+            List<PlantillaRecurrente> plantillas = new ArrayList<>();
+            int siguienteId = 1;
+            if (in.peek() == JsonToken.BEGIN_ARRAY) {
+                leerLista(in, plantillas); // formato anterior, sin el próximo ID
+            } else {
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "siguienteId" -> siguienteId = in.nextInt();
+                        case "plantillas" -> leerLista(in, plantillas);
+                        default -> in.skipValue();
+                    }
+                }
+                in.endObject();
+            }
+            for (PlantillaRecurrente p : plantillas) {
+                siguienteId = Math.max(siguienteId, p.getId() + 1);
+            }
+            return new Contenido(plantillas, siguienteId);
+        } catch (JsonParseException | IllegalStateException | DateTimeException | IllegalArgumentException e) {
+            throw new IOException("Archivo de plantillas inválido: " + ruta, e);
+        }
+    }
+
+    /**
+     * Reemplaza el contenido del archivo por las plantillas indicadas. Se escribe en un archivo
+     * temporal que luego se mueve sobre el original, así nunca queda a medio escribir.
+     *
+     * @param ruta la ruta del archivo
+     * @param plantillas las plantillas a guardar
+     * @param siguienteId el ID de la próxima plantilla que se cree
+     * @throws IOException si no se puede escribir
+     */
+    static void escribir(Path ruta, Collection<PlantillaRecurrente> plantillas, int siguienteId) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (Writer destino = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8);
+             JsonWriter out = new JsonWriter(destino)) {
+            out.setIndent("  ");
+            out.beginObject();
+            out.name("siguienteId").value(siguienteId);
+            out.name("plantillas").beginArray();
+            for (PlantillaRecurrente p : plantillas) {
+                escribirPlantilla(out, p);
+            }
+            out.endArray();
+            out.endObject();
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void leerLista(JsonReader in, List<PlantillaRecurrente> plantillas) throws IOException {
+        in.beginArray();
+        while (in.hasNext()) {
+            plantillas.add(leerPlantilla(in));
+        }
+        in.endArray();
+    }
+
+    private static void escribirPlantilla(JsonWriter out, PlantillaRecurrente p) throws IOException {
+        out.beginObject();
+        out.name("id").value(p.getId());
+        out.name("titulo").value(p.getTitulo());
+        if (p.getDescripcion() != null) {
+            out.name("descripcion").value(p.getDescripcion());
+        }
+        if (p.getPrioridad() != null) {
+            out.name("prioridad").value(p.getPrioridad().name());
+        }
+        out.name("inicio").value(p.getInicio().toString());
+        Recurrencia r = p.getRecurrencia();
+        out.name("frecuencia").value(r.frecuencia().name());
+        out.name("intervalo").value(r.intervalo());
+        if (r.hasta() != null) {
+            out.name("hasta").value(r.hasta().toString());
+        }
+        out.name("excepciones").beginArray();
+        for (LocalDate fecha : p.getExcepciones()) {
+            out.value(fecha.toString());
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    private static PlantillaRecurrente leerPlantilla(JsonReader in) throws IOException {
+        int id = 0;
+        String titulo = null;
+        String descripcion = null;
+        Prioridad prioridad = null;
+        LocalDate inicio = null;
+        Recurrencia.Frecuencia frecuencia = null;
+        int intervalo = 1;
+        LocalDate hasta = null;
+        List<LocalDate> excepciones = new ArrayList<>();
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String nombre = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (nombre) {
+                case "id" -> id = in.nextInt();
+                case "titulo" -> titulo = in.nextString();
+                case "descripcion" -> descripcion = in.nextString();
+                case "prioridad" -> prioridad = Prioridad.valueOf(in.nextString());
+                case "inicio" -> inicio = LocalDate.parse(in.nextString());
+                case "frecuencia" -> frecuencia = Recurrencia.Frecuencia.valueOf(in.nextString());
+                case "intervalo" -> intervalo = in.nextInt();
+                case "hasta" -> hasta = LocalDate.parse(in.nextString());
+                case "excepciones" -> {
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        excepciones.add(LocalDate.parse(in.nextString()));
+                    }
+                    in.endArray();
+                }
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        PlantillaRecurrente plantilla = new PlantillaRecurrente(id, titulo, descripcion, prioridad, inicio,
+                new Recurrencia(frecuencia, intervalo, hasta));
+        excepciones.forEach(plantilla::omitir);
+        return plantilla;
+    }
+}
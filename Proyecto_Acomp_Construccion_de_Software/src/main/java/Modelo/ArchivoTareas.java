@@ -0,0 +1,218 @@
+package Modelo;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Almacenamiento en frío de las tareas archivadas.
+ * <p>
+ * Las tareas se guardan en un segmento comprimido de solo agregado: cada operación de archivado
+ * añade al final del archivo un nuevo miembro GZIP con una línea por tarea, con la forma
+ * {@code id<TAB>json}. {@link GZIPInputStream} lee los miembros concatenados como un único flujo.
+ * <p>
+ * En memoria solo se conserva, por cada tarea archivada, una {@link Entrada} con su ID, estado,
+ * prioridad y fecha. Con esas entradas se decide sin tocar el disco si una consulta necesita
+ * leer el segmento, y al leerlo el ID al inicio de cada línea permite saltar sin decodificar
+ * las tareas que no interesan.
+ */
+public class ArchivoTareas {
+
+    /** Ruta del segmento comprimido. */
+    private final Path ruta;
+
+    /** Adaptador con el que se escriben y leen las tareas. */
+    private final TareaTypeAdapter adaptador = new TareaTypeAdapter();
+
+    /** Entradas de índice de las tareas archivadas, en el orden en que se archivaron. */
+    private final Map<Integer, Entrada> entradas = new LinkedHashMap<>();
+
+    /**
+     * Abre el segmento indicado y carga en memoria sus entradas de índice. Si el archivo no
+     * existe, se creará al archivar por primera vez.
+     *
+     * @param ruta ruta del segmento comprimido
+     * @throws IOException si el segmento existe pero no se puede leer
+     */
+    public ArchivoTareas(Path ruta) throws IOException {
+        this.ruta = ruta;
+        if (Files.exists(ruta)) {
+            recorrer(null, tarea -> {
+                entradas.put(tarea.getId(), Entrada.de(tarea));
+                Tarea.reservarHasta(tarea.getId()); // sus IDs no deben volver a asignarse
+            });
+        }
+    }
+
+    /**
+     * Agrega tareas al final del segmento y registra sus entradas de índice.
+     *
+     * @param tareas las tareas a archivar
+     * @throws IOException si no se puede escribir el segmento
+     */
+    public synchronized void archivar(Collection<Tarea> tareas) throws IOException {
+        if (tareas.isEmpty()) {
+            return;
+        }
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                Files.newOutputStream(ruta, StandardOpenOption.CREATE, StandardOpenOption.APPEND)),
+                StandardCharsets.UTF_8))) {
+            for (Tarea tarea : tareas) {
+                writer.write(Integer.toString(tarea.getId()));
+                writer.write('\t');
+                writer.write(codificar(tarea));
+                writer.write('\n');
+            }
+        }
+        for (Tarea tarea : tareas) {
+            entradas.put(tarea.getId(), Entrada.de(tarea));
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de tareas archivadas.
+     *
+     * @return la cantidad de tareas en el segmento
+     */
+    public synchronized int cantidad() {
+        return entradas.size();
+    }
+
+    /**
+     * Indica si una tarea está archivada.
+     *
+     * @param id el ID de la tarea
+     * @return true si la tarea está en el segmento
+     */
+    public synchronized boolean contiene(int id) {
+        return entradas.containsKey(id);
+    }
+
+    /**
+     * Lee las tareas archivadas cuyas entradas de índice cumplen un criterio. Si ninguna lo
+     * cumple, el segmento no se lee.
+     *
+     * @param criterio el criterio sobre estado, prioridad y fecha
+     * @return las tareas que cumplen el criterio, en el orden en que se archivaron
+     * @throws IOException si no se puede leer el segmento
+     */
+    public synchronized List<Tarea> buscar(Predicate<Entrada> criterio) throws IOException {
+        Set<Integer> ids = entradas.values().stream()
+                .filter(criterio)
+                .map(Entrada::id)
+                .collect(Collectors.toSet());
+        List<Tarea> encontradas = new ArrayList<>(ids.size());
+        if (!ids.isEmpty()) {
+            recorrer(ids, encontradas::add);
+        }
+        return encontradas;
+    }
+
+    /**
+     * Lee todas las tareas archivadas que cumplen un criterio sobre sus datos completos, por
+     * ejemplo una búsqueda por texto. Siempre recorre el segmento entero.
+     *
+     * @param criterio el criterio sobre la tarea
+     * @return las tareas que cumplen el criterio, en el orden en que se archivaron
+     * @throws IOException si no se puede leer el segmento
+     */
+    public synchronized List<Tarea> filtrar(Predicate<Tarea> criterio) throws IOException {
+        List<Tarea> encontradas = new ArrayList<>();
+        if (!entradas.isEmpty()) {
+            recorrer(null, tarea -> {
+                if (criterio.test(tarea)) {
+                    encontradas.add(tarea);
+                }
+            });
+        }
+        return encontradas;
+    }
+
+    /**
+     * Recorre el segmento decodificando las tareas con los IDs indicados.
+     * <p>
+     * Si el último miembro GZIP quedó incompleto (por ejemplo, el proceso terminó mientras se
+     * archivaba), se conservan las tareas leídas hasta ese punto.
+     *
+     * @param ids los IDs a decodificar, o null para decodificar todas
+     * @param visitante recibe cada tarea decodificada
+     * @throws IOException si no se puede leer el segmento
+     */
+    private void recorrer(Set<Integer> ids, Consumer<Tarea> visitante) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(ruta)), StandardCharsets.UTF_8))) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                int tab = linea.indexOf('\t');
+                if (tab <= 0) {
+                    continue;
+                }
+                if (ids != null && !ids.contains(Integer.parseInt(linea, 0, tab, 10))) {
+                    continue; // se salta sin decodificar el JSON
+                }
+                visitante.accept(adaptador.read(new JsonReader(new StringReader(linea.substring(tab + 1)))));
+            }
+        } catch (EOFException e) {
+            // miembro final truncado: se ignora lo que no llegó a escribirse completo
+        }
+    }
+
+    /**
+     * Convierte una tarea en JSON compacto de una sola línea.
+     *
+     * @param tarea la tarea a convertir
+     * @return el JSON de la tarea
+     * @throws IOException si el adaptador falla
+     */
+    private String codificar(Tarea tarea) throws IOException {
+        StringWriter salida = new StringWriter();
+        adaptador.write(new JsonWriter(salida), tarea);
+        return salida.toString();
+    }
+
+    /**
+     * Entrada de índice que se mantiene en memoria por cada tarea archivada.
+     *
+     * @param id el ID de la tarea
+     * @param estado el estado de la tarea
+     * @param prioridad la prioridad de la tarea
+     * @param fechaVencimiento la fecha de vencimiento de la tarea
+     */
+    public record Entrada(int id, Estado estado, Prioridad prioridad, LocalDate fechaVencimiento) {
+
+        /**
+         * Crea la entrada de índice de una tarea.
+         *
+         * @param tarea la tarea
+         * @return su entrada de índice
+         */
+        static Entrada de(Tarea tarea) {
+            return new Entrada(tarea.getId(), tarea.getEstado(), tarea.getPrioridad(), tarea.getFechaVencimiento());
+        }
+    }
+}
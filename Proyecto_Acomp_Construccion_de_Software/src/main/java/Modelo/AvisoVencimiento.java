@@ -0,0 +1,22 @@
+package Modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Aviso que emite el {@link PlanificadorVencimientos} cuando llega la fecha de una tarea.
+ *
+ * @param tipo si la tarea vence hoy o ya está vencida
+ * @param tarea la tarea a la que se refiere el aviso
+ * @param fechaVencimiento la fecha de vencimiento con la que se programó el aviso
+ */
+public record AvisoVencimiento(Tipo tipo, Tarea tarea, LocalDate fechaVencimiento) {
+
+    /** Tipos de aviso. */
+    public enum Tipo {
+        /** Empezó el día de vencimiento de la tarea. */
+        VENCE_HOY,
+
+        /** Terminó el día de vencimiento y la tarea no se completó. */
+        VENCIDA
+    }
+}
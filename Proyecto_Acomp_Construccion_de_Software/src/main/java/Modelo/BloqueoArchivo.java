@@ -0,0 +1,124 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bloqueo entre procesos de un archivo de datos, con su contador de generación.
+ * <p>
+ * Se apoya en un archivo auxiliar (por ejemplo {@code tareas.lock}) que se bloquea con
+ * {@link FileChannel#lock} y cuyos primeros 8 bytes guardan la generación: un contador que cada
+ * escritura confirmada aumenta en uno. Los lectores toman el bloqueo compartido y los escritores
+ * el exclusivo, de modo que nadie lee el archivo de datos mientras otro proceso lo reemplaza.
+ * <p>
+ * Los bloqueos de archivo pertenecen a todo el proceso y la JVM no permite que dos canales
+ * bloqueen el mismo archivo a la vez, así que dentro de la JVM el acceso se ordena además con
+ * un monitor por ruta.
+ */
+final class BloqueoArchivo {
+
+    /** Monitores por ruta absoluta, compartidos por todas las instancias de la JVM. */
+    private static final ConcurrentHashMap<Path, Object> MONITORES = new ConcurrentHashMap<>();
+
+    /** Ruta del archivo de bloqueo. */
+    private final Path ruta;
+
+    /** Monitor de la ruta dentro de esta JVM. */
+    private final Object monitor;
+
+    /**
+     * Crea el bloqueo sobre un archivo auxiliar; el archivo se crea al usarlo por primera vez.
+     *
+     * @param ruta ruta del archivo de bloqueo
+     */
+    BloqueoArchivo(Path ruta) {
+        this.ruta = ruta.toAbsolutePath().normalize();
+        this.monitor = MONITORES.computeIfAbsent(this.ruta, r -> new Object());
+    }
+
+    /**
+     * Ejecuta una lectura con el bloqueo compartido tomado.
+     *
+     * @param lectura la lectura, que recibe la generación actual
+     * @param <T> el tipo del resultado
+     * @return el resultado de la lectura
+     * @throws IOException si no se puede tomar el bloqueo o la lectura falla
+     */
+    <T> T leer(Operacion<T> lectura) throws IOException {
+        synchronized (monitor) {
+            try (FileChannel canal = abrir()) {
+                canal.lock(0, Long.MAX_VALUE, true); // se suelta al cerrar el canal
+                return lectura.ejecutar(leerGeneracion(canal));
+            }
+        }
+    }
+
+    /**
+     * Ejecuta una escritura con el bloqueo exclusivo tomado y, si termina sin errores, aumenta la
+     * generación en uno y la guarda en disco antes de soltar el bloqueo.
+     *
+     * @param escritura la escritura, que recibe la generación anterior
+     * @param <T> el tipo del resultado
+     * @return el resultado de la escritura
+     * @throws IOException si no se puede tomar el bloqueo o la escritura falla; si falla la
+     *                     escritura, la generación no cambia
+     */
+    <T> T confirmar(Operacion<T> escritura) throws IOException {
+        synchronized (monitor) {
+            try (FileChannel canal = abrir()) {
+                canal.lock(); // se suelta al cerrar el canal
+                long anterior = leerGeneracion(canal);
+                T resultado = escritura.ejecutar(anterior);
+                canal.write(ByteBuffer.allocate(Long.BYTES).putLong(0, anterior + 1), 0);
+                canal.force(false);
+                return resultado;
+            }
+        }
+    }
+
+    /**
+     * Lee la generación actual tomando el bloqueo compartido solo el tiempo de leer 8 bytes.
+     *
+     * @return la generación, o 0 si todavía no hubo ninguna escritura
+     * @throws IOException si no se puede leer el archivo de bloqueo
+     */
+    long generacion() throws IOException {
+        return leer(generacion -> generacion);
+    }
+
+    private FileChannel abrir() throws IOException {
+        return FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static long leerGeneracion(FileChannel canal) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        while (buffer.hasRemaining()) {
+            if (canal.read(buffer, buffer.position()) <= 0) {
+                return 0; // archivo recién creado
+            }
+        }
+        return buffer.getLong(0);
+    }
+
+    /**
+     * Operación que se ejecuta con el bloqueo tomado.
+     *
+     * @param <T> el tipo del resultado
+     */
+    @FunctionalInterface
+    interface Operacion<T> {
+
+        /**
+         * Ejecuta la operación.
+         *
+         * @param generacion la generación vigente al tomar el bloqueo
+         * @return el resultado
+         * @throws IOException si la operación falla
+         */
+        T ejecutar(long generacion) throws IOException;
+    }
+}
@@ -0,0 +1,378 @@
+package Modelo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Búsqueda tolerante a errores de escritura sobre el título y la descripción de las tareas.
+ * <p>
+ * Los textos se normalizan (minúsculas y sin tildes) y se dividen en palabras. Cada palabra
+ * distinta recibe un número; por cada una se guarda la lista de tareas que la contienen, por
+ * cada trigrama la lista de palabras del vocabulario que lo contienen y por cada tarea los
+ * números de sus palabras, para poder quitarla aunque su texto ya haya cambiado. Una palabra de la consulta coincide con una del vocabulario si
+ * la distancia de Damerau-Levenshtein (variante de alineamiento óptimo de cadenas) entre ambas
+ * no supera {@link #distanciaMaxima(int)}, o si es un prefijo de ella. Los trigramas descartan
+ * sin calcular la distancia las palabras que no pueden estar tan cerca: cada edición cambia a lo
+ * sumo cuatro trigramas. Las palabras de menos de tres letras solo coinciden exactamente.
+ * <p>
+ * Las palabras que dejan de usarse siguen en el vocabulario con su lista vacía; se descartan
+ * al reconstruir el buscador.
+ */
+public class BuscadorDifuso {
+
+    /** Largo mínimo de una palabra de la consulta para aceptar coincidencias por prefijo. */
+    private static final int LARGO_MINIMO_PREFIJO = 3;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Número de cada palabra normalizada del vocabulario. */
+    private final Map<String, Integer> numeroPalabra = new HashMap<>();
+
+    /** Palabras del vocabulario, por número. */
+    private final List<String> vocabulario = new ArrayList<>();
+
+    /** Tareas que contienen cada palabra, por número de palabra. */
+    private final List<ListaIds> tareasPorPalabra = new ArrayList<>();
+
+    /** Números de las palabras del vocabulario que contienen cada trigrama. */
+    private final Map<Long, ListaIds> palabrasPorTrigrama = new HashMap<>();
+
+    /** Números de las palabras con las que se indexó cada tarea. */
+    private final Map<Integer, int[]> palabrasPorTarea = new HashMap<>();
+
+    /**
+     * Una tarea encontrada y su puntaje, entre 0 y la cantidad de palabras de la consulta.
+     *
+     * @param id el ID de la tarea
+     * @param puntaje la suma de la calidad de coincidencia de cada palabra de la consulta
+     */
+    public record Resultado(int id, double puntaje) {
+    }
+
+    /**
+     * Construye el buscador con las tareas indicadas.
+     *
+     * @param tareas las tareas a indexar
+     * @return el buscador
+     */
+    public static BuscadorDifuso construir(Collection<Tarea> tareas) {
+        BuscadorDifuso buscador = new BuscadorDifuso();
+        for (Tarea t : tareas) {
+            buscador.agregar(t);
+        }
+        return buscador;
+    }
+
+    /**
+     * Indexa las palabras de una tarea con su texto actual, reemplazando las que tuviera.
+     *
+     * @param tarea la tarea a indexar
+     */
+    public synchronized void agregar(Tarea tarea) {
+        int id = tarea.getId();
+        quitar(id);
+        Set<String> palabras = palabras(tarea);
+        int[] numeros = new int[palabras.size()];
+        int i = 0;
+        for (String palabra : palabras) {
+            int numero = numeroPalabra.computeIfAbsent(palabra, this::agregarAlVocabulario);
+            tareasPorPalabra.get(numero).agregar(id);
+            numeros[i++] = numero;
+        }
+        palabrasPorTarea.put(id, numeros);
+    }
+
+    /**
+     * Quita una tarea del buscador. Se usan las palabras con las que se indexó, así que da igual
+     * si su texto ya cambió.
+     *
+     * @param tarea la tarea a quitar
+     */
+    public synchronized void quitar(Tarea tarea) {
+        quitar(tarea.getId());
+    }
+
+    /**
+     * Quita una tarea del buscador conociendo solo su ID.
+     *
+     * @param id el ID de la tarea a quitar
+     */
+    synchronized void quitar(int id) {
+        int[] numeros = palabrasPorTarea.remove(id);
+        if (numeros != null) {
+            for (int numero : numeros) {
+                tareasPorPalabra.get(numero).quitar(id);
+            }
+        }
+    }
+
+    /**
+     * Busca las tareas que contienen todas las palabras de la consulta, admitiendo errores de
+     * escritura y tildes distintas, ordenadas de mejor a peor puntaje y, a igual puntaje, por ID.
+     * <p>
+     * Las palabras del vocabulario se recorren de la mejor coincidencia a la peor, así que la
+     * búsqueda termina en cuanto ninguna tarea pendiente puede superar a las ya encontradas.
+     *
+     * @param consulta las palabras a buscar
+     * @param limite la cantidad máxima de resultados
+     * @return los mejores resultados, como mucho {@code limite}
+     */
+    public synchronized List<Resultado> buscar(String consulta, int limite) {
+        List<String> terminos = new ArrayList<>(tokens(consulta));
+        if (terminos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        List<List<Coincidencia>> coincidencias = new ArrayList<>();
+        for (String termino : terminos) {
+            List<Coincidencia> delTermino = coincidencias(termino);
+            if (delTermino.isEmpty()) {
+                return List.of(); // una palabra sin coincidencias descarta todas las tareas
+            }
+            coincidencias.add(delTermino);
+        }
+
+        // Se recorren las tareas de la palabra más selectiva y se comprueban las demás
+        int guia = 0;
+        for (int i = 1; i < coincidencias.size(); i++) {
+            if (total(coincidencias.get(i)) < total(coincidencias.get(guia))) {
+                guia = i;
+            }
+        }
+        double otras = 0; // lo máximo que pueden sumar las demás palabras
+        for (int j = 0; j < coincidencias.size(); j++) {
+            if (j != guia) {
+                otras += coincidencias.get(j).get(0).puntaje();
+            }
+        }
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(
+                Comparator.comparingDouble(Resultado::puntaje).thenComparing(Resultado::id, Comparator.reverseOrder()));
+        BitSet vistas = new BitSet();
+        for (Coincidencia c : coincidencias.get(guia)) {
+            if (mejores.size() == limite && c.puntaje() + otras < mejores.peek().puntaje()) {
+                break; // ninguna tarea restante puede entrar entre los mejores
+            }
+            double cota = c.puntaje() + otras;
+            ListaIds ids = tareasPorPalabra.get(c.palabra());
+            for (int i = 0; i < ids.cantidad(); i++) {
+                int id = ids.get(i);
+                if (mejores.size() == limite && cota == mejores.peek().puntaje() && id > mejores.peek().id()) {
+                    break; // los IDs crecen y, a igual puntaje, gana el menor
+                }
+                if (vistas.get(id)) {
+                    continue;
+                }
+                vistas.set(id);
+                double puntaje = c.puntaje();
+                for (int j = 0; j < coincidencias.size() && puntaje >= 0; j++) {
+                    if (j != guia) {
+                        puntaje = sumar(puntaje, mejorPuntaje(coincidencias.get(j), id));
+                    }
+                }
+                if (puntaje < 0) {
+                    continue;
+                }
+                Resultado r = new Resultado(id, puntaje);
+                if (mejores.size() < limite) {
+                    mejores.add(r);
+                } else if (mejores.comparator().compare(r, mejores.peek()) > 0) {
+                    mejores.poll();
+                    mejores.add(r);
+                }
+            }
+        }
+
+        List<Resultado> resultado = new ArrayList<>(mejores);
+        resultado.sort(mejores.comparator().reversed());
+        return resultado;
+    }
+
+    /**
+     * Normaliza un texto para compararlo: minúsculas y sin tildes ni otras marcas diacríticas.
+     *
+     * @param texto el texto
+     * @return el texto normalizado
+     */
+    public static String normalizar(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return MARCAS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Calcula la distancia de Damerau-Levenshtein restringida (alineamiento óptimo de cadenas)
+     * entre dos palabras: inserciones, borrados, sustituciones y trasposiciones de letras vecinas.
+     * Deja de calcular en cuanto la distancia supera el máximo.
+     *
+     * @param a la primera palabra
+     * @param b la segunda palabra
+     * @param maximo la distancia máxima que interesa
+     * @return la distancia, o {@code maximo + 1} si es mayor que el máximo
+     */
+    static int distancia(String a, String b, int maximo) {
+        if (Math.abs(a.length() - b.length()) > maximo) {
+            return maximo + 1;
+        }
+        int[] anterior2 = new int[b.length() + 1];
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            int minimoFila = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int costo = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int valor = Math.min(Math.min(anterior[j] + 1, actual[j - 1] + 1), anterior[j - 1] + costo);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    valor = Math.min(valor, anterior2[j - 2] + 1);
+                }
+                actual[j] = valor;
+                minimoFila = Math.min(minimoFila, valor);
+            }
+            if (minimoFila > maximo) {
+                return maximo + 1;
+            }
+            int[] libre = anterior2;
+            anterior2 = anterior;
+            anterior = actual;
+            actual = libre;
+        }
+        return Math.min(anterior[b.length()], maximo + 1);
+    }
+
+    /**
+     * Cantidad de errores que se toleran en una palabra de la consulta según su largo.
+     *
+     * @param largo el largo de la palabra
+     * @return 0 hasta 3 letras, 1 hasta 6 y 2 a partir de 7
+     */
+    static int distanciaMaxima(int largo) {
+        return largo <= 3 ? 0 : largo <= 6 ? 1 : 2;
+    }
+
+    /** Palabras normalizadas, sin repetir, del título y la descripción de una tarea. */
+    private static Set<String> palabras(Tarea tarea) {
+        Set<String> palabras = new LinkedHashSet<>();
+        if (tarea.getTitulo() != null) {
+            palabras.addAll(tokens(tarea.getTitulo()));
+        }
+        if (tarea.getDescripcion() != null) {
+            palabras.addAll(tokens(tarea.getDescripcion()));
+        }
+        return palabras;
+    }
+
+    /** Divide un texto en palabras normalizadas. */
+    private static List<String> tokens(String texto) {
+        List<String> tokens = new ArrayList<>();
+        for (String t : SEPARADORES.split(normalizar(texto))) {
+            if (!t.isEmpty()) {
+                tokens.add(t);
+            }
+        }
+        return tokens;
+    }
+
+    /** Agrega una palabra nueva al vocabulario y devuelve su número. */
+    private int agregarAlVocabulario(String palabra) {
+        int numero = vocabulario.size();
+        vocabulario.add(palabra);
+        tareasPorPalabra.add(new ListaIds());
+        for (long trigrama : IndiceTareas.trigramasDe(palabra)) {
+            palabrasPorTrigrama.computeIfAbsent(trigrama, k -> new ListaIds()).agregar(numero);
+        }
+        return numero;
+    }
+
+    /**
+     * Busca en el vocabulario las palabras que coinciden con un término, de mejor a peor.
+     * La coincidencia exacta vale 1; con errores, {@code 1 - distancia / (largo + 1)}; por prefijo,
+     * la proporción del término en la palabra multiplicada por 0,8.
+     */
+    private List<Coincidencia> coincidencias(String termino) {
+        int maximo = distanciaMaxima(termino.length());
+        List<Integer> candidatas = new ArrayList<>();
+        if (termino.length() < IndiceTareas.LARGO_TRIGRAMA) {
+            Integer exacta = numeroPalabra.get(termino); // tan cortas solo coinciden exactamente
+            if (exacta != null) {
+                candidatas.add(exacta);
+            }
+        } else {
+            long[] trigramas = IndiceTareas.trigramasDe(termino);
+            // Cada edición cambia a lo sumo cuatro trigramas; siempre se exige al menos uno en común
+            int minimoComun = Math.max(1, trigramas.length - 4 * maximo);
+            Map<Integer, Integer> comunes = new HashMap<>();
+            for (long trigrama : trigramas) {
+                ListaIds numeros = palabrasPorTrigrama.get(trigrama);
+                for (int i = 0; numeros != null && i < numeros.cantidad(); i++) {
+                    comunes.merge(numeros.get(i), 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Integer, Integer> e : comunes.entrySet()) {
+                if (e.getValue() >= minimoComun || vocabulario.get(e.getKey()).startsWith(termino)) {
+                    candidatas.add(e.getKey());
+                }
+            }
+        }
+
+        List<Coincidencia> resultado = new ArrayList<>();
+        for (int numero : candidatas) {
+            if (tareasPorPalabra.get(numero).cantidad() == 0) {
+                continue;
+            }
+            String palabra = vocabulario.get(numero);
+            double puntaje;
+            int d = distancia(termino, palabra, maximo);
+            if (d <= maximo) {
+                puntaje = 1.0 - (double) d / (Math.max(termino.length(), palabra.length()) + 1);
+            } else if (termino.length() >= LARGO_MINIMO_PREFIJO && palabra.startsWith(termino)) {
+                puntaje = 0.8 * termino.length() / palabra.length();
+            } else {
+                continue;
+            }
+            resultado.add(new Coincidencia(numero, puntaje));
+        }
+        resultado.sort(Comparator.comparingDouble(Coincidencia::puntaje).reversed()
+                .thenComparing(c -> vocabulario.get(c.palabra())));
+        return resultado;
+    }
+
+    /** Cantidad total de tareas de las palabras que coinciden con un término. */
+    private long total(List<Coincidencia> coincidencias) {
+        long total = 0;
+        for (Coincidencia c : coincidencias) {
+            total += tareasPorPalabra.get(c.palabra()).cantidad();
+        }
+        return total;
+    }
+
+    /** Mejor puntaje de un término en una tarea, o -1 si la tarea no contiene ninguna de sus palabras. */
+    private double mejorPuntaje(List<Coincidencia> coincidencias, int id) {
+        for (Coincidencia c : coincidencias) { // ordenadas de mejor a peor: la primera que aparece gana
+            if (tareasPorPalabra.get(c.palabra()).contiene(id)) {
+                return c.puntaje();
+            }
+        }
+        return -1;
+    }
+
+    private static double sumar(double puntaje, double otro) {
+        return otro < 0 ? -1 : puntaje + otro;
+    }
+
+    /** Palabra del vocabulario, por número, que coincide con un término de la consulta. */
+    private record Coincidencia(int palabra, double puntaje) {
+    }
+}
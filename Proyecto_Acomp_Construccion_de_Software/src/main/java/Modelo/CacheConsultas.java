@@ -0,0 +1,278 @@
+package Modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caché de los resultados de las consultas de {@link TareaService}, para que repetir un mismo
+ * filtro o búsqueda entre dos cambios no vuelva a recorrer las tareas.
+ * <p>
+ * Cada resultado se guarda con la clave normalizada de su consulta (por ejemplo
+ * {@code palabra:informe}), el criterio que decide si una tarea le pertenece y los IDs que
+ * contiene. Cuando una tarea cambia, solo se descartan los resultados a los que el cambio puede
+ * afectar: los que contenían la tarea con sus datos anteriores y aquellos cuyo criterio acepta sus
+ * datos nuevos. Los demás siguen sirviendo, porque la tarea no estaba ni va a estar en ellos.
+ * <p>
+ * La caché está acotada por cantidad de resultados y por la suma de sus tareas; al superar
+ * cualquiera de los dos límites se descarta el resultado usado hace más tiempo. Los límites de la
+ * caché por defecto se configuran con las propiedades {@value #PROPIEDAD_ENTRADAS} y
+ * {@value #PROPIEDAD_TAREAS}; con 0 resultados la caché queda desactivada.
+ */
+public class CacheConsultas {
+
+    /** Propiedad del sistema con la cantidad máxima de resultados guardados. */
+    public static final String PROPIEDAD_ENTRADAS = "tareas.cache.entradas";
+
+    /** Propiedad del sistema con la suma máxima de tareas entre todos los resultados guardados. */
+    public static final String PROPIEDAD_TAREAS = "tareas.cache.tareas";
+
+    /** Cantidad máxima de resultados por defecto. */
+    public static final int ENTRADAS_POR_DEFECTO = 256;
+
+    /** Suma máxima de tareas por defecto. */
+    public static final long TAREAS_POR_DEFECTO = 1_000_000;
+
+    /**
+     * Cantidad de tareas a partir de la cual un cambio masivo vacía la caché en lugar de revisar
+     * cada resultado por cada tarea.
+     */
+    static final int LOTE_MAXIMO = 1_024;
+
+    private final int maxEntradas;
+    private final long maxTareas;
+
+    /** Resultados guardados, del usado hace más tiempo al más reciente. */
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Suma de las tareas de los resultados guardados. */
+    private long tareasRetenidas;
+
+    /**
+     * Cantidad de cambios avisados. Un resultado calculado mientras cambiaron las tareas no se
+     * guarda, porque puede no incluir el cambio.
+     */
+    private long cambios;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder invalidadas = new LongAdder();
+    private final LongAdder desalojadas = new LongAdder();
+
+    /**
+     * Crea una caché con los límites indicados.
+     *
+     * @param maxEntradas la cantidad máxima de resultados; con 0 no se guarda ninguno
+     * @param maxTareas la suma máxima de tareas entre todos los resultados
+     * @throws IllegalArgumentException si algún límite es negativo
+     */
+    public CacheConsultas(int maxEntradas, long maxTareas) {
+        if (maxEntradas < 0 || maxTareas < 0) {
+            throw new IllegalArgumentException("Los límites de la caché no pueden ser negativos");
+        }
+        this.maxEntradas = maxEntradas;
+        this.maxTareas = maxTareas;
+    }
+
+    /**
+     * Crea una caché con los límites de las propiedades {@value #PROPIEDAD_ENTRADAS} y
+     * {@value #PROPIEDAD_TAREAS}.
+     *
+     * @return la caché
+     */
+    public static CacheConsultas porDefecto() {
+        return new CacheConsultas(Integer.getInteger(PROPIEDAD_ENTRADAS, ENTRADAS_POR_DEFECTO),
+                Long.getLong(PROPIEDAD_TAREAS, TAREAS_POR_DEFECTO));
+    }
+
+    /**
+     * Obtiene el resultado de una consulta desde la caché o, si no está, lo calcula y lo guarda.
+     * La consulta se ejecuta sin bloquear la caché.
+     *
+     * @param clave la clave normalizada de la consulta
+     * @param criterio acepta las tareas que pertenecen al resultado
+     * @param conOcurrencias si el resultado incluye ocurrencias recurrentes
+     * @param consulta calcula el resultado
+     * @return una copia del resultado, que el llamador puede modificar
+     */
+    List<Tarea> obtener(String clave, Predicate<? super Tarea> criterio, boolean conOcurrencias,
+                        Supplier<List<Tarea>> consulta) {
+        long marca;
+        synchronized (this) {
+            Entrada entrada = entradas.get(clave);
+            if (entrada != null) {
+                aciertos.increment();
+                return new ArrayList<>(entrada.tareas());
+            }
+            marca = cambios;
+        }
+        fallos.increment();
+        List<Tarea> resultado = consulta.get();
+        guardar(clave, resultado, criterio, conOcurrencias, marca);
+        return resultado;
+    }
+
+    /**
+     * Guarda un resultado si ninguna tarea cambió desde que se empezó a calcular y entra en los
+     * límites, y descarta los usados hace más tiempo hasta volver a cumplirlos.
+     */
+    private synchronized void guardar(String clave, List<Tarea> resultado, Predicate<? super Tarea> criterio,
+                                      boolean conOcurrencias, long marca) {
+        if (marca != cambios || maxEntradas == 0 || resultado.size() > maxTareas) {
+            return;
+        }
+        int[] ids = new int[resultado.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = resultado.get(i).getId();
+        }
+        Arrays.sort(ids);
+        Entrada anterior = entradas.put(clave, new Entrada(List.copyOf(resultado), ids, criterio, conOcurrencias));
+        if (anterior != null) {
+            tareasRetenidas -= anterior.ids().length;
+        }
+        tareasRetenidas += ids.length;
+
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (entradas.size() > maxEntradas || tareasRetenidas > maxTareas) {
+            tareasRetenidas -= it.next().ids().length;
+            it.remove();
+            desalojadas.increment();
+        }
+    }
+
+    /**
+     * Descarta los resultados que contienen una tarea. Se llama con los datos anteriores de una
+     * tarea que se va a modificar o que se quitó.
+     *
+     * @param id el ID de la tarea
+     */
+    synchronized void invalidarId(int id) {
+        cambios++;
+        descartar(e -> Arrays.binarySearch(e.ids(), id) >= 0);
+    }
+
+    /**
+     * Descarta los resultados a los que pertenecería una tarea con sus datos actuales. Se llama
+     * con una tarea agregada o recién modificada.
+     *
+     * @param tarea la tarea
+     */
+    synchronized void invalidar(Tarea tarea) {
+        cambios++;
+        descartar(e -> e.criterio().test(tarea));
+    }
+
+    /**
+     * Descarta los resultados que incluyen ocurrencias recurrentes, porque cambió una plantilla.
+     */
+    synchronized void invalidarOcurrencias() {
+        cambios++;
+        descartar(Entrada::conOcurrencias);
+    }
+
+    /**
+     * Prepara la caché para un cambio que afecta a muchas tareas: si son más de
+     * {@link #LOTE_MAXIMO}, la vacía, porque revisar cada resultado por cada tarea costaría más
+     * que volver a calcularlos.
+     *
+     * @param cantidad la cantidad de tareas que van a cambiar
+     */
+    void prepararLote(int cantidad) {
+        if (cantidad > LOTE_MAXIMO) {
+            vaciar();
+        }
+    }
+
+    /**
+     * Descarta todos los resultados guardados.
+     */
+    public synchronized void vaciar() {
+        cambios++;
+        invalidadas.add(entradas.size());
+        entradas.clear();
+        tareasRetenidas = 0;
+    }
+
+    /** Descarta los resultados que cumplen una condición. Debe llamarse con la caché bloqueada. */
+    private void descartar(Predicate<Entrada> afectada) {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada e = it.next();
+            if (afectada.test(e)) {
+                tareasRetenidas -= e.ids().length;
+                it.remove();
+                invalidadas.increment();
+            }
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de consultas respondidas desde la caché.
+     *
+     * @return los aciertos
+     */
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de consultas que hubo que calcular.
+     *
+     * @return los fallos
+     */
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de resultados descartados porque cambió una tarea que podía afectarlos.
+     *
+     * @return los resultados invalidados
+     */
+    public long getInvalidadas() {
+        return invalidadas.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de resultados descartados por falta de espacio.
+     *
+     * @return los resultados desalojados
+     */
+    public long getDesalojadas() {
+        return desalojadas.sum();
+    }
+
+    /**
+     * Obtiene la cantidad de resultados guardados.
+     *
+     * @return la cantidad de resultados
+     */
+    public synchronized int getCantidad() {
+        return entradas.size();
+    }
+
+    /**
+     * Obtiene la suma de las tareas de los resultados guardados.
+     *
+     * @return la cantidad de tareas retenidas
+     */
+    public synchronized long getTareasRetenidas() {
+        return tareasRetenidas;
+    }
+
+    /**
+     * Resultado guardado de una consulta.
+     *
+     * @param tareas el resultado, inmutable
+     * @param ids los IDs del resultado, ordenados
+     * @param criterio acepta las tareas que pertenecen al resultado
+     * @param conOcurrencias si incluye ocurrencias recurrentes
+     */
+    private record Entrada(List<Tarea> tareas, int[] ids, Predicate<? super Tarea> criterio, boolean conOcurrencias) {
+    }
+}
@@ -0,0 +1,22 @@
+package Modelo;
+
+import java.util.List;
+
+/**
+ * Diferencia entre las tareas en memoria y el contenido nuevo del archivo, calculada por ID.
+ *
+ * @param agregadas tareas que aparecieron en el archivo y se agregaron a memoria
+ * @param actualizadas tareas en memoria cuyos datos se actualizaron con los del archivo
+ * @param eliminadas IDs de las tareas que ya no están en el archivo y se quitaron de memoria
+ */
+public record CambiosArchivo(List<Tarea> agregadas, List<Tarea> actualizadas, List<Integer> eliminadas) {
+
+    /**
+     * Indica si el archivo no tenía ninguna diferencia con la memoria.
+     *
+     * @return true si no hubo cambios
+     */
+    public boolean estaVacio() {
+        return agregadas.isEmpty() && actualizadas.isEmpty() && eliminadas.isEmpty();
+    }
+}
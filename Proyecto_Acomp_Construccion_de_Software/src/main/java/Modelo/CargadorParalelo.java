@@ -0,0 +1,234 @@
+package Modelo;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Carga en paralelo un arreglo JSON de tareas usando un {@link ForkJoinPool}.
+ * <p>
+ * El archivo se lee completo en memoria y se recorre una vez byte a byte para localizar dónde empieza
+ * y termina cada objeto del arreglo principal (teniendo en cuenta cadenas y caracteres escapados).
+ * Ese recorrido es muy barato comparado con la decodificación, que es lo que se reparte: los
+ * objetos se dividen en bloques contiguos y cada bloque se decodifica en un hilo del pool con
+ * un único {@link JsonReader}.
+ * Cada tarea se escribe en la misma posición que ocupaba en el archivo, así que el orden original
+ * se conserva, y el ID máximo se calcula combinando el máximo de cada bloque.
+ * <p>
+ * Solo admite archivos de hasta 2 GB, el límite de un arreglo de bytes. El archivo se copia a un
+ * buffer del heap en lugar de mapearlo: en Windows un mapeo mantiene el archivo bloqueado hasta que
+ * el recolector de basura libera el buffer, y eso impediría reemplazarlo al guardar.
+ */
+public class CargadorParalelo {
+
+    /** Cantidad mínima de objetos por bloque, para que el reparto compense su costo. */
+    private static final int MINIMO_POR_BLOQUE = 64;
+
+    /** Pool donde se decodifican los bloques. */
+    private final ForkJoinPool pool;
+
+    /** Adaptador que convierte cada objeto JSON en una tarea. */
+    private final TypeAdapter<Tarea> adaptador;
+
+    /**
+     * Crea un cargador que decodifica sobre el pool indicado.
+     *
+     * @param pool el pool donde se decodifican los bloques
+     * @param adaptador adaptador que convierte cada objeto JSON en una tarea;
+     *                  debe poder usarse desde varios hilos a la vez
+     */
+    public CargadorParalelo(ForkJoinPool pool, TypeAdapter<Tarea> adaptador) {
+        this.pool = pool;
+        this.adaptador = adaptador;
+    }
+
+    /**
+     * Carga todas las tareas del archivo.
+     *
+     * @param archivo ruta de un archivo que contiene un arreglo JSON de tareas
+     * @return las tareas en el orden del archivo y el mayor ID encontrado
+     * @throws IOException si el archivo no se puede leer o supera los 2 GB
+     * @throws com.google.gson.JsonParseException si algún objeto no es una tarea válida
+     */
+    public Resultado cargar(Path archivo) throws IOException {
+        ByteBuffer buffer = leerCompleto(archivo);
+
+        Limites limites = localizarObjetos(buffer);
+        Tarea[] tareas = new Tarea[limites.cantidad];
+        int tamanioBloque = Math.max(MINIMO_POR_BLOQUE, limites.cantidad / (pool.getParallelism() * 4));
+        int maxId = pool.invoke(new DecodificarBloque(buffer, limites, tareas, 0, limites.cantidad, tamanioBloque));
+
+        return new Resultado(Arrays.asList(tareas), maxId);
+    }
+
+    /**
+     * Lee el archivo completo en un buffer del heap y cierra el canal enseguida.
+     *
+     * @param archivo la ruta del archivo
+     * @return el contenido del archivo
+     * @throws IOException si el archivo no se puede leer o supera los 2 GB
+     */
+    static ByteBuffer leerCompleto(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            if (tamanio > Integer.MAX_VALUE - 8) {
+                throw new IOException("El archivo es demasiado grande para cargarlo en memoria: " + archivo);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) tamanio);
+            while (buffer.hasRemaining()) {
+                if (canal.read(buffer) < 0) {
+                    break; // el archivo se acortó mientras se leía
+                }
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Recorre el buffer y registra el inicio y el fin de cada objeto del arreglo principal.
+     *
+     * @param buffer el contenido del archivo
+     * @return las posiciones de los objetos encontrados
+     */
+    static Limites localizarObjetos(ByteBuffer buffer) {
+        Limites limites = new Limites();
+        int profundidad = 0;
+        int inicio = -1;
+        boolean enCadena = false;
+        boolean escapado = false;
+
+        for (int i = 0, n = buffer.limit(); i < n; i++) {
+            byte b = buffer.get(i);
+            if (enCadena) {
+                // Los bytes de caracteres multibyte en UTF-8 son >= 0x80 y nunca coinciden con estos
+                if (escapado) {
+                    escapado = false;
+                } else if (b == '\\') {
+                    escapado = true;
+                } else if (b == '"') {
+                    enCadena = false;
+                }
+                continue;
+            }
+            switch (b) {
+                case '"' -> enCadena = true;
+                case '{', '[' -> {
+                    if (b == '{' && profundidad == 1) {
+                        inicio = i;
+                    }
+                    profundidad++;
+                }
+                case '}', ']' -> {
+                    profundidad--;
+                    if (b == '}' && profundidad == 1) {
+                        limites.agregar(inicio, i + 1);
+                    }
+                }
+                default -> { }
+            }
+        }
+        return limites;
+    }
+
+    /**
+     * Resultado de una carga.
+     *
+     * @param tareas las tareas en el orden en que aparecen en el archivo
+     * @param maxId el mayor ID encontrado, o 0 si no hay tareas
+     */
+    public record Resultado(List<Tarea> tareas, int maxId) {
+    }
+
+    /**
+     * Posiciones de inicio (inclusive) y fin (exclusive) de cada objeto dentro del archivo.
+     */
+    static final class Limites {
+        private int[] inicios = new int[1024];
+        private int[] fines = new int[1024];
+        private int cantidad;
+
+        private void agregar(int inicio, int fin) {
+            if (cantidad == inicios.length) {
+                inicios = Arrays.copyOf(inicios, cantidad * 2);
+                fines = Arrays.copyOf(fines, cantidad * 2);
+            }
+            inicios[cantidad] = inicio;
+            fines[cantidad] = fin;
+            cantidad++;
+        }
+    }
+
+    /**
+     * Decodifica un rango de objetos, dividiéndolo en mitades mientras supere el tamaño de bloque.
+     * Devuelve el mayor ID del rango.
+     */
+    private final class DecodificarBloque extends RecursiveTask<Integer> {
+        private final ByteBuffer buffer;
+        private final Limites limites;
+        private final Tarea[] destino;
+        private final int desde;
+        private final int hasta;
+        private final int tamanioBloque;
+
+        private DecodificarBloque(ByteBuffer buffer, Limites limites, Tarea[] destino,
+                                  int desde, int hasta, int tamanioBloque) {
+            this.buffer = buffer;
+            this.limites = limites;
+            this.destino = destino;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tamanioBloque = tamanioBloque;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (hasta - desde > tamanioBloque) {
+                int medio = (desde + hasta) >>> 1;
+                DecodificarBloque izquierda = new DecodificarBloque(buffer, limites, destino, desde, medio, tamanioBloque);
+                izquierda.fork();
+                int maxDerecha = new DecodificarBloque(buffer, limites, destino, medio, hasta, tamanioBloque).compute();
+                return Math.max(izquierda.join(), maxDerecha);
+            }
+            if (desde == hasta) {
+                return 0; // archivo sin tareas
+            }
+
+            // El bloque es contiguo en el archivo: se copia una sola vez, envuelto en corchetes para
+            // que sea un arreglo JSON válido, y se decodifica con un único lector.
+            int inicio = limites.inicios[desde];
+            int largo = limites.fines[hasta - 1] - inicio;
+            byte[] bytes = new byte[largo + 2];
+            bytes[0] = '[';
+            buffer.get(inicio, bytes, 1, largo); // lectura absoluta, no altera la posición
+            bytes[largo + 1] = ']';
+
+            int maxId = 0;
+            try (JsonReader reader = new JsonReader(new InputStreamReader(
+                    new ByteArrayInputStream(bytes), StandardCharsets.UTF_8))) {
+                reader.beginArray();
+                for (int i = desde; i < hasta; i++) {
+                    Tarea tarea = adaptador.read(reader);
+                    destino[i] = tarea;
+                    maxId = Math.max(maxId, tarea.getId());
+                }
+                reader.endArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return maxId;
+        }
+    }
+}
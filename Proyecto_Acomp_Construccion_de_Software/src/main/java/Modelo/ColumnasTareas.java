@@ -0,0 +1,308 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Copia en columnas compactas del estado, la prioridad y la fecha de vencimiento de las tareas,
+ * para evaluar filtros compuestos ({@link FiltroTareas}) recorriendo arreglos de primitivos en vez
+ * de objetos.
+ * <p>
+ * Cada tarea ocupa una fila: su estado y su prioridad se guardan como el ordinal en un
+ * {@code byte} (-1 si es null) y su fecha como días desde la época en un {@code int}
+ * ({@code Integer.MIN_VALUE} si es null). Un filtro produce un mapa de bits con una fila por bit,
+ * que después se convierte en IDs. Las filas de las tareas quitadas se marcan como libres en otro
+ * mapa de bits y se reutilizan si la tarea vuelve; cuando son más de la mitad, las columnas se
+ * compactan.
+ * <p>
+ * La evaluación usa la Vector API si el módulo {@code jdk.incubator.vector} está disponible (hay
+ * que lanzar la JVM con {@code --add-modules jdk.incubator.vector}) y, si no, una evaluación
+ * escalar sin saltos. Ambas dan el mismo resultado. Los métodos están sincronizados, como en
+ * {@link IndiceTareas}.
+ */
+public class ColumnasTareas {
+
+    /** Evaluador elegido al cargar la clase según el módulo de vectores esté o no disponible. */
+    private static final EvaluadorColumnas EVALUADOR = elegirEvaluador();
+
+    /** ID de la tarea de cada fila. */
+    private int[] ids;
+
+    /** Código del estado de cada fila. */
+    private byte[] estados;
+
+    /** Código de la prioridad de cada fila. */
+    private byte[] prioridades;
+
+    /** Día de vencimiento de cada fila. */
+    private int[] fechas;
+
+    /** Un bit por fila ocupada por una tarea presente. */
+    private long[] ocupadas;
+
+    /** Cantidad de filas usadas, ocupadas o libres. */
+    private int filas;
+
+    /** Cantidad de filas libres. */
+    private int libres;
+
+    /**
+     * Fila de cada ID más uno (0 si el ID no tiene fila), incluidas las libres que todavía no se
+     * compactaron. Los IDs son enteros positivos consecutivos, así que un arreglo indexado por ID
+     * ocupa menos que un mapa.
+     */
+    private int[] filaPorId = new int[1024];
+
+    /** Evaluador con el que se recorren las columnas. */
+    private final EvaluadorColumnas evaluador;
+
+    /**
+     * Crea columnas vacías que usan el evaluador disponible.
+     */
+    public ColumnasTareas() {
+        this(EVALUADOR);
+    }
+
+    /**
+     * Crea columnas vacías con un evaluador determinado.
+     *
+     * @param evaluador el evaluador con el que se recorren las columnas
+     */
+    ColumnasTareas(EvaluadorColumnas evaluador) {
+        this.evaluador = evaluador;
+        ids = new int[1024];
+        estados = new byte[1024];
+        prioridades = new byte[1024];
+        fechas = new int[1024];
+        ocupadas = new long[1024 / 64];
+    }
+
+    /**
+     * Construye las columnas de un conjunto de tareas.
+     *
+     * @param tareas las tareas
+     * @return las columnas
+     */
+    public static ColumnasTareas construir(Iterable<Tarea> tareas) {
+        ColumnasTareas columnas = new ColumnasTareas();
+        for (Tarea t : tareas) {
+            columnas.registrar(t);
+        }
+        return columnas;
+    }
+
+    /**
+     * Obtiene el nombre del evaluador que se usa por defecto.
+     *
+     * @return "vectorial" con el ancho de vector, o "escalar"
+     */
+    public static String getEvaluador() {
+        return EVALUADOR.nombre();
+    }
+
+    /**
+     * Agrega una tarea o actualiza su fila con sus datos actuales.
+     *
+     * @param tarea la tarea
+     */
+    public synchronized void registrar(Tarea tarea) {
+        int id = tarea.getId();
+        if (id < 0) {
+            throw new IllegalArgumentException("Las columnas solo admiten tareas guardadas: " + id);
+        }
+        int fila = filaDe(id);
+        int i;
+        if (fila >= 0) {
+            i = fila;
+            if ((ocupadas[i >>> 6] & 1L << i) == 0) {
+                ocupadas[i >>> 6] |= 1L << i;
+                libres--;
+            }
+        } else {
+            asegurarCapacidad(filas + 1);
+            i = filas++;
+            ids[i] = id;
+            asignarFila(id, i);
+            ocupadas[i >>> 6] |= 1L << i;
+        }
+        estados[i] = codigo(tarea.getEstado());
+        prioridades[i] = codigo(tarea.getPrioridad());
+        fechas[i] = dia(tarea.getFechaVencimiento());
+    }
+
+    /**
+     * Quita una tarea. Su fila queda libre para la misma tarea hasta la próxima compactación.
+     *
+     * @param id el ID de la tarea
+     */
+    public synchronized void quitar(int id) {
+        int fila = filaDe(id);
+        if (fila < 0 || (ocupadas[fila >>> 6] & 1L << fila) == 0) {
+            return;
+        }
+        ocupadas[fila >>> 6] &= ~(1L << fila);
+        libres++;
+        if (libres > 1024 && libres > filas / 2) {
+            compactar();
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de tareas presentes.
+     *
+     * @return la cantidad de filas ocupadas
+     */
+    public synchronized int getCantidad() {
+        return filas - libres;
+    }
+
+    /**
+     * Evalúa un filtro y devuelve los IDs de las tareas que lo cumplen.
+     *
+     * @param filtro el filtro
+     * @return los IDs, en el orden de las filas
+     */
+    public synchronized int[] seleccionar(FiltroTareas filtro) {
+        long[] seleccion = evaluar(filtro);
+        int total = 0;
+        for (long palabra : seleccion) {
+            total += Long.bitCount(palabra);
+        }
+        int[] resultado = new int[total];
+        int n = 0;
+        for (int p = 0; p < seleccion.length; p++) {
+            for (long bits = seleccion[p]; bits != 0; bits &= bits - 1) {
+                resultado[n++] = ids[(p << 6) + Long.numberOfTrailingZeros(bits)];
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta las tareas que cumplen un filtro sin convertir la selección en IDs.
+     *
+     * @param filtro el filtro
+     * @return la cantidad de tareas
+     */
+    public synchronized int contar(FiltroTareas filtro) {
+        int total = 0;
+        for (long palabra : evaluar(filtro)) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    /**
+     * Evalúa un filtro sobre las filas ocupadas.
+     *
+     * @param filtro el filtro
+     * @return el mapa de bits de las filas que lo cumplen
+     */
+    private long[] evaluar(FiltroTareas filtro) {
+        int palabras = (filas + 63) >>> 6;
+        long[] seleccion = new long[palabras];
+        evaluador.evaluar(filtro, estados, prioridades, fechas, filas, seleccion);
+        for (int p = 0; p < palabras; p++) {
+            seleccion[p] &= ocupadas[p];
+        }
+        return seleccion;
+    }
+
+    /**
+     * Mueve las filas ocupadas al principio y olvida las libres.
+     */
+    private void compactar() {
+        int destino = 0;
+        Arrays.fill(filaPorId, 0);
+        long[] nuevasOcupadas = new long[ocupadas.length];
+        for (int i = 0; i < filas; i++) {
+            if ((ocupadas[i >>> 6] & 1L << i) != 0) {
+                ids[destino] = ids[i];
+                estados[destino] = estados[i];
+                prioridades[destino] = prioridades[i];
+                fechas[destino] = fechas[i];
+                nuevasOcupadas[destino >>> 6] |= 1L << destino;
+                asignarFila(ids[destino], destino);
+                destino++;
+            }
+        }
+        ocupadas = nuevasOcupadas;
+        filas = destino;
+        libres = 0;
+    }
+
+    private int filaDe(int id) {
+        return id >= 0 && id < filaPorId.length ? filaPorId[id] - 1 : -1;
+    }
+
+    private void asignarFila(int id, int fila) {
+        if (id >= filaPorId.length) {
+            filaPorId = Arrays.copyOf(filaPorId, Math.max(id + 1, filaPorId.length * 2));
+        }
+        filaPorId[id] = fila + 1;
+    }
+
+    private void asegurarCapacidad(int minimo) {
+        if (minimo <= ids.length) {
+            return;
+        }
+        int capacidad = Math.max(minimo, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacidad);
+        estados = Arrays.copyOf(estados, capacidad);
+        prioridades = Arrays.copyOf(prioridades, capacidad);
+        fechas = Arrays.copyOf(fechas, capacidad);
+        ocupadas = Arrays.copyOf(ocupadas, (capacidad + 63) >>> 6);
+    }
+
+    /**
+     * Obtiene el código de columna de un estado o una prioridad.
+     *
+     * @param valor el valor, que puede ser null
+     * @return su ordinal, o -1 si es null
+     */
+    static byte codigo(Enum<?> valor) {
+        return valor == null ? -1 : (byte) valor.ordinal();
+    }
+
+    /**
+     * Obtiene el código de columna de una fecha.
+     *
+     * @param fecha la fecha, que puede ser null
+     * @return los días desde la época, o {@code Integer.MIN_VALUE} si es null
+     */
+    static int dia(LocalDate fecha) {
+        return fecha == null ? Integer.MIN_VALUE : (int) fecha.toEpochDay();
+    }
+
+    /**
+     * Evalúa un filtro sobre los códigos de una fila.
+     *
+     * @param filtro el filtro
+     * @param estado el código del estado
+     * @param prioridad el código de la prioridad
+     * @param dia el código de la fecha
+     * @return true si la fila cumple el filtro
+     */
+    static boolean acepta(FiltroTareas filtro, byte estado, byte prioridad, int dia) {
+        return ((filtro.estados >>> estado) & (filtro.prioridades >>> prioridad) & 1) != 0
+                && Integer.compareUnsigned(dia - filtro.desde, filtro.hasta - filtro.desde) <= 0;
+    }
+
+    /**
+     * Elige la evaluación vectorial si el módulo {@code jdk.incubator.vector} está cargado. La clase
+     * que lo usa se carga por reflexión, así que sin el módulo no llega a enlazarse.
+     *
+     * @return el evaluador
+     */
+    private static EvaluadorColumnas elegirEvaluador() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (EvaluadorColumnas) Class.forName("Modelo.EvaluadorVectorial")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                Registro.global().aviso("ColumnasTareas", "Se usa la evaluación escalar: {}", e.toString());
+            }
+        }
+        return new EvaluadorEscalar();
+    }
+}
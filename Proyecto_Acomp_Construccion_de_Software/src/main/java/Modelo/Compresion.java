@@ -0,0 +1,211 @@
+package Modelo;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compresión con la que {@link TareaRepository} escribe el archivo de tareas.
+ * <p>
+ * Los datos se comprimen mientras el códec los escribe y se descomprimen mientras los lee, sin
+ * reunir el archivo completo en memoria. Al leer no hace falta saber con qué compresión se
+ * escribió: el formato se reconoce por los primeros bytes del archivo ({@code 1f 8b} en GZIP y la
+ * cabecera de dos bytes de zlib), y cualquier otro contenido se lee como JSON sin comprimir. Así
+ * se puede cambiar la configuración sin convertir los archivos existentes.
+ * <p>
+ * La compresión por defecto se elige con las propiedades del sistema {@code tareas.compresion}
+ * ({@code ninguna}, {@code gzip} o {@code zlib}) y {@code tareas.compresion.nivel} (de 0 a 9).
+ *
+ * @param formato el formato de los datos comprimidos
+ * @param nivel el nivel de {@link Deflater}, de 0 (sin comprimir) a 9 (máxima compresión), o
+ *              {@link Deflater#DEFAULT_COMPRESSION}
+ */
+public record Compresion(Formato formato, int nivel) {
+
+    /** Propiedad del sistema que indica el formato de compresión por defecto. */
+    public static final String PROPIEDAD_COMPRESION = "tareas.compresion";
+
+    /** Propiedad del sistema que indica el nivel de compresión por defecto. */
+    public static final String PROPIEDAD_NIVEL = "tareas.compresion.nivel";
+
+    /** Tamaño de los búferes de compresión y descompresión. */
+    private static final int BUFER = 64 * 1024;
+
+    /** Archivo sin comprimir. */
+    public static final Compresion NINGUNA = new Compresion(Formato.NINGUNA, Deflater.DEFAULT_COMPRESSION);
+
+    /** Formatos en los que se puede escribir el archivo de tareas. */
+    public enum Formato {
+        /** JSON sin comprimir. */
+        NINGUNA,
+        /** Flujo GZIP, legible con {@code gunzip}. */
+        GZIP,
+        /** Flujo zlib (Deflate con cabecera de dos bytes y suma Adler-32), algo más pequeño que GZIP. */
+        ZLIB
+    }
+
+    /**
+     * Crea una configuración de compresión.
+     *
+     * @param formato el formato de los datos comprimidos
+     * @param nivel el nivel de compresión
+     * @throws IllegalArgumentException si el nivel no está entre 0 y 9 ni es el nivel por defecto
+     */
+    public Compresion {
+        if (formato == null) {
+            throw new IllegalArgumentException("El formato de compresión no puede ser nulo");
+        }
+        if (nivel != Deflater.DEFAULT_COMPRESSION && (nivel < Deflater.NO_COMPRESSION || nivel > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Nivel de compresión fuera de rango: " + nivel);
+        }
+    }
+
+    /**
+     * Obtiene una compresión GZIP con el nivel indicado.
+     *
+     * @param nivel el nivel de compresión, de 0 a 9
+     * @return la configuración
+     */
+    public static Compresion gzip(int nivel) {
+        return new Compresion(Formato.GZIP, nivel);
+    }
+
+    /**
+     * Obtiene una compresión zlib con el nivel indicado.
+     *
+     * @param nivel el nivel de compresión, de 0 a 9
+     * @return la configuración
+     */
+    public static Compresion zlib(int nivel) {
+        return new Compresion(Formato.ZLIB, nivel);
+    }
+
+    /**
+     * Obtiene la compresión configurada en las propiedades {@value #PROPIEDAD_COMPRESION} y
+     * {@value #PROPIEDAD_NIVEL}, o ninguna si no se indica.
+     *
+     * @return la compresión por defecto
+     * @throws IllegalArgumentException si el formato o el nivel no son válidos
+     */
+    public static Compresion porDefecto() {
+        String formato = System.getProperty(PROPIEDAD_COMPRESION, "ninguna");
+        return new Compresion(Formato.valueOf(formato.trim().toUpperCase(Locale.ROOT)),
+                Integer.getInteger(PROPIEDAD_NIVEL, Deflater.DEFAULT_COMPRESSION));
+    }
+
+    /**
+     * Envuelve un flujo de salida para que lo que se escriba en él llegue comprimido. Los datos
+     * quedan completos al cerrar el flujo devuelto o al llamar a {@link #terminar(OutputStream)}.
+     *
+     * @param salida el flujo de destino
+     * @return el flujo en el que escribir, o el mismo si no se comprime
+     * @throws IOException si no se puede escribir la cabecera
+     */
+    public OutputStream comprimir(OutputStream salida) throws IOException {
+        return switch (formato) {
+            case NINGUNA -> salida;
+            case GZIP -> new GZIPOutputStream(salida, BUFER) {
+                {
+                    def.setLevel(nivel); // antes de escribir datos; la cabecera no pasa por el Deflater
+                }
+            };
+            case ZLIB -> new DeflaterOutputStream(salida, new Deflater(nivel), BUFER) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end(); // el Deflater es propio, el flujo no lo libera
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Escribe lo que falte de los datos comprimidos sin cerrar el destino, para poder forzarlo a
+     * disco antes de cerrarlo.
+     *
+     * @param comprimido el flujo devuelto por {@link #comprimir(OutputStream)}
+     * @throws IOException si no se puede escribir
+     */
+    public static void terminar(OutputStream comprimido) throws IOException {
+        if (comprimido instanceof DeflaterOutputStream deflater) {
+            deflater.finish();
+        }
+        comprimido.flush();
+    }
+
+    /**
+     * Abre un flujo de entrada reconociendo su formato por los primeros bytes y lo descomprime si
+     * hace falta.
+     *
+     * @param entrada el flujo de origen
+     * @return el flujo con los datos sin comprimir
+     * @throws IOException si no se puede leer la cabecera
+     */
+    public static InputStream descomprimir(InputStream entrada) throws IOException {
+        BufferedInputStream origen = new BufferedInputStream(entrada, BUFER);
+        origen.mark(2);
+        int primero = origen.read();
+        int segundo = origen.read();
+        origen.reset();
+        return switch (detectar(primero, segundo)) {
+            case NINGUNA -> origen;
+            case GZIP -> new GZIPInputStream(origen, BUFER);
+            case ZLIB -> new InflaterInputStream(origen, new Inflater(), BUFER) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inf.end();
+                    }
+                }
+            };
+        };
+    }
+
+    /**
+     * Reconoce el formato de un archivo por sus primeros bytes.
+     *
+     * @param ruta el archivo
+     * @return el formato, o {@link Formato#NINGUNA} si no está comprimido o tiene menos de dos bytes
+     * @throws IOException si no se puede leer el archivo
+     */
+    public static Formato detectar(Path ruta) throws IOException {
+        try (InputStream entrada = Files.newInputStream(ruta)) {
+            return detectar(entrada.read(), entrada.read());
+        }
+    }
+
+    /**
+     * Reconoce el formato por los dos primeros bytes. Un JSON empieza por un corchete, una llave,
+     * un espacio o la marca de orden de bytes, así que nunca se confunde con una cabecera.
+     *
+     * @param primero el primer byte, o -1 si no hay
+     * @param segundo el segundo byte, o -1 si no hay
+     * @return el formato reconocido
+     */
+    static Formato detectar(int primero, int segundo) {
+        if (primero == 0x1f && segundo == 0x8b) {
+            return Formato.GZIP;
+        }
+        // Cabecera zlib: método 8 (Deflate) y los dos bytes, como número, múltiplo de 31
+        if (primero >= 0 && segundo >= 0 && (primero & 0x0f) == 8 && (primero >> 4) <= 7
+                && ((primero << 8) | segundo) % 31 == 0) {
+            return Formato.ZLIB;
+        }
+        return Formato.NINGUNA;
+    }
+}
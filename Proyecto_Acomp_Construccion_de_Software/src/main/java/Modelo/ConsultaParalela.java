@@ -0,0 +1,191 @@
+package Modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+/**
+ * Ejecuta los recorridos de consultas sobre listas de tareas, repartiéndolos entre varios hilos
+ * cuando la lista es grande.
+ * <p>
+ * Por debajo de un umbral de elementos el recorrido es un bucle simple en el hilo que consulta:
+ * dividir el trabajo, despertar hilos y unir los resultados cuesta más que lo que se gana. Por
+ * encima, la lista se divide en bloques contiguos que se filtran en un {@link ForkJoinPool}
+ * propio, para no competir con el pool común que usan la carga del archivo y los streams
+ * paralelos de otras partes. Los resultados de cada bloque se concatenan en orden, así que el
+ * resultado es el mismo que el del recorrido secuencial.
+ * <p>
+ * El paralelismo y el umbral de la instancia compartida se configuran con las propiedades
+ * {@value #PROPIEDAD_PARALELISMO} (por defecto, la cantidad de procesadores) y
+ * {@value #PROPIEDAD_UMBRAL}. El umbral por defecto sale de {@code ConsultaParalelaBenchmark}.
+ */
+public class ConsultaParalela {
+
+    /** Propiedad del sistema con la cantidad de hilos del pool de consultas. */
+    public static final String PROPIEDAD_PARALELISMO = "tareas.consultas.paralelismo";
+
+    /** Propiedad del sistema con la cantidad mínima de tareas para recorrer en paralelo. */
+    public static final String PROPIEDAD_UMBRAL = "tareas.consultas.umbral";
+
+    /** Cantidad mínima de tareas a partir de la cual conviene recorrer en paralelo. */
+    public static final int UMBRAL_POR_DEFECTO = 20_000;
+
+    /** Cantidad mínima de elementos por bloque, para que cada tarea del pool compense su costo. */
+    private static final int MINIMO_POR_BLOQUE = 4_096;
+
+    /** Instancia compartida, creada la primera vez que se usa. */
+    private static volatile ConsultaParalela compartida;
+
+    /** Pool propio de las consultas; null si el paralelismo es 1. */
+    private final ForkJoinPool pool;
+
+    private final int paralelismo;
+    private final int umbral;
+
+    /**
+     * Crea un ejecutor con su propio pool de hilos.
+     *
+     * @param paralelismo la cantidad de hilos; con 1 los recorridos siempre son secuenciales
+     * @param umbral la cantidad mínima de elementos para recorrer en paralelo
+     * @throws IllegalArgumentException si el paralelismo no es positivo o el umbral es negativo
+     */
+    public ConsultaParalela(int paralelismo, int umbral) {
+        if (paralelismo < 1) {
+            throw new IllegalArgumentException("El paralelismo debe ser positivo: " + paralelismo);
+        }
+        if (umbral < 0) {
+            throw new IllegalArgumentException("El umbral no puede ser negativo: " + umbral);
+        }
+        this.paralelismo = paralelismo;
+        this.umbral = umbral;
+        this.pool = paralelismo == 1 ? null : new ForkJoinPool(paralelismo, p -> {
+            ForkJoinWorkerThread hilo = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            hilo.setName("consultas-" + hilo.getPoolIndex());
+            hilo.setDaemon(true);
+            return hilo;
+        }, null, false);
+    }
+
+    /**
+     * Obtiene el ejecutor compartido por la aplicación, configurado con las propiedades
+     * {@value #PROPIEDAD_PARALELISMO} y {@value #PROPIEDAD_UMBRAL}.
+     *
+     * @return el ejecutor compartido
+     */
+    public static ConsultaParalela compartida() {
+        ConsultaParalela c = compartida;
+        if (c == null) {
+            synchronized (ConsultaParalela.class) {
+                c = compartida;
+                if (c == null) {
+                    c = new ConsultaParalela(
+                            Integer.getInteger(PROPIEDAD_PARALELISMO, Runtime.getRuntime().availableProcessors()),
+                            Integer.getInteger(PROPIEDAD_UMBRAL, UMBRAL_POR_DEFECTO));
+                    compartida = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Obtiene la cantidad de hilos del pool.
+     *
+     * @return el paralelismo
+     */
+    public int getParalelismo() {
+        return paralelismo;
+    }
+
+    /**
+     * Obtiene la cantidad mínima de elementos para recorrer en paralelo.
+     *
+     * @return el umbral
+     */
+    public int getUmbral() {
+        return umbral;
+    }
+
+    /**
+     * Indica si una lista de cierto tamaño se recorre en paralelo.
+     *
+     * @param cantidad la cantidad de elementos
+     * @return true si el recorrido se reparte en el pool
+     */
+    public boolean enParalelo(int cantidad) {
+        return pool != null && cantidad >= umbral && cantidad >= 2 * MINIMO_POR_BLOQUE;
+    }
+
+    /**
+     * Obtiene los elementos de una lista que cumplen un criterio, en el orden de la lista.
+     *
+     * @param datos la lista a recorrer; no debe modificarse estructuralmente mientras tanto
+     * @param criterio el criterio; puede evaluarse desde varios hilos a la vez
+     * @param <T> el tipo de los elementos
+     * @return los elementos que cumplen el criterio
+     */
+    public <T> List<T> filtrar(List<? extends T> datos, Predicate<? super T> criterio) {
+        if (!enParalelo(datos.size())) {
+            return filtrarBloque(datos, criterio, 0, datos.size());
+        }
+        int tamanioBloque = Math.max(MINIMO_POR_BLOQUE, datos.size() / (paralelismo * 4));
+        return pool.invoke(new Filtrar<T>(datos, criterio, 0, datos.size(), tamanioBloque));
+    }
+
+    /**
+     * Detiene los hilos del pool. Solo debe llamarse cuando ya no se usará el ejecutor: los
+     * recorridos en paralelo posteriores se rechazan.
+     */
+    public void cerrar() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private static <T> List<T> filtrarBloque(List<? extends T> datos, Predicate<? super T> criterio, int desde, int hasta) {
+        List<T> resultado = new ArrayList<>();
+        for (int i = desde; i < hasta; i++) {
+            T elemento = datos.get(i);
+            if (criterio.test(elemento)) {
+                resultado.add(elemento);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Filtra un rango de la lista, dividiéndolo en mitades mientras supere el tamaño de bloque.
+     * La mitad derecha se agrega al final de la izquierda para conservar el orden.
+     */
+    private static final class Filtrar<T> extends RecursiveTask<List<T>> {
+        private final List<? extends T> datos;
+        private final Predicate<? super T> criterio;
+        private final int desde;
+        private final int hasta;
+        private final int tamanioBloque;
+
+        private Filtrar(List<? extends T> datos, Predicate<? super T> criterio, int desde, int hasta, int tamanioBloque) {
+            this.datos = datos;
+            this.criterio = criterio;
+            this.desde = desde;
+            this.hasta = hasta;
+            this.tamanioBloque = tamanioBloque;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (hasta - desde <= tamanioBloque) {
+                return filtrarBloque(datos, criterio, desde, hasta);
+            }
+            int medio = (desde + hasta) >>> 1;
+            Filtrar<T> derecha = new Filtrar<T>(datos, criterio, medio, hasta, tamanioBloque);
+            derecha.fork();
+            List<T> izquierda = new Filtrar<T>(datos, criterio, desde, medio, tamanioBloque).compute();
+            izquierda.addAll(derecha.join());
+            return izquierda;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package Modelo;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posición de una consulta paginada: la clave de orden y el ID de la última tarea entregada.
+ * <p>
+ * Se codifica en Base64 para URL junto con la consulta que lo generó, de modo que quien lo recibe
+ * no depende de su formato y no puede usarlo para otra consulta.
+ *
+ * @param consulta identifica la consulta y su orden, por ejemplo {@code "estado:PENDIENTE"}
+ * @param clave la clave de orden de la última tarea (día de la fecha, ordinal de la prioridad o 0)
+ * @param id el ID de la última tarea
+ */
+record CursorPagina(String consulta, long clave, int id) {
+
+    /**
+     * Codifica el cursor como texto opaco.
+     *
+     * @return el cursor codificado
+     */
+    String codificar() {
+        byte[] texto = consulta.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer datos = ByteBuffer.allocate(Integer.BYTES + texto.length + Long.BYTES + Integer.BYTES);
+        datos.putInt(texto.length).put(texto).putLong(clave).putInt(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(datos.array());
+    }
+
+    /**
+     * Decodifica un cursor y comprueba que pertenezca a la consulta indicada.
+     *
+     * @param cursor el cursor codificado, o null para empezar desde el principio
+     * @param consulta la consulta que se está paginando
+     * @return el cursor, o null si {@code cursor} es null
+     * @throws IllegalArgumentException si el cursor está dañado o es de otra consulta
+     */
+    static CursorPagina leer(String cursor, String consulta) {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            ByteBuffer datos = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            int largo = datos.getInt();
+            if (largo < 0 || largo > datos.remaining()) {
+                throw new IllegalArgumentException("Cursor de página inválido");
+            }
+            byte[] texto = new byte[largo];
+            datos.get(texto);
+            CursorPagina leido = new CursorPagina(new String(texto, StandardCharsets.UTF_8), datos.getLong(), datos.getInt());
+            if (datos.hasRemaining() || !leido.consulta.equals(consulta)) {
+                throw new IllegalArgumentException("El cursor no corresponde a esta consulta");
+            }
+            return leido;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Cursor de página inválido", e);
+        }
+    }
+}
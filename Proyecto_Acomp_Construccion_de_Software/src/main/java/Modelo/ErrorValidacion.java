@@ -0,0 +1,28 @@
+package Modelo;
+
+/**
+ * Motivos por los que {@link TareaService} rechaza una tarea nueva.
+ */
+public enum ErrorValidacion {
+    /** La tarea no tiene título o solo tiene espacios. */
+    TITULO_VACIO("El titulo no puede estar vacio."),
+
+    /** La tarea no tiene fecha de vencimiento o es anterior a hoy. */
+    FECHA_PASADA("La fecha de vencimiento debe ser hoy o una fecha futura.");
+
+    /** Mensaje para mostrar al usuario. */
+    private final String mensaje;
+
+    ErrorValidacion(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    /**
+     * Obtiene el mensaje para mostrar al usuario.
+     *
+     * @return el mensaje
+     */
+    public String getMensaje() {
+        return mensaje;
+    }
+}
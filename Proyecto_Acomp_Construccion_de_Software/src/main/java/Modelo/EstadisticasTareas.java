@@ -0,0 +1,303 @@
+package Modelo;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Estadísticas de las tareas que se mantienen al día con cada alta, cambio y baja, de modo que
+ * consultarlas no requiere recorrer las tareas.
+ * <p>
+ * Se guardan los conteos por estado y prioridad, la cantidad de tareas abiertas (no completadas)
+ * por fecha de vencimiento y por semana, y la cantidad de tareas vencidas. Para poder restar la
+ * contribución anterior de una tarea que cambió, se conserva una instantánea de su estado,
+ * prioridad y fecha. Cuando cambia el día, las tareas que vencieron en el intervalo se suman a
+ * las vencidas con una sola consulta de rango sobre las fechas.
+ */
+public class EstadisticasTareas {
+
+    /** Reloj con el que se decide qué día es hoy. */
+    private final Clock reloj;
+
+    /** Cantidad de tareas por estado (primer índice) y prioridad (segundo índice). */
+    private final int[][] conteo = new int[Estado.values().length][Prioridad.values().length];
+
+    /** Cantidad de tareas por estado. */
+    private final int[] porEstado = new int[Estado.values().length];
+
+    /** Cantidad de tareas por prioridad. */
+    private final int[] porPrioridad = new int[Prioridad.values().length];
+
+    /** Datos con los que se contó cada tarea, por ID. */
+    private final Map<Integer, Instantanea> instantaneas = new HashMap<>();
+
+    /** Tareas abiertas por fecha de vencimiento. */
+    private final NavigableMap<LocalDate, Integer> abiertasPorFecha = new TreeMap<>();
+
+    /** Tareas abiertas por semana de vencimiento, identificada por su lunes. */
+    private final NavigableMap<LocalDate, Integer> abiertasPorSemana = new TreeMap<>();
+
+    /** Día en el que se calculó {@link #vencidas}. */
+    private LocalDate hoy;
+
+    /** Tareas abiertas cuya fecha de vencimiento es anterior a {@link #hoy}. */
+    private int vencidas;
+
+    /**
+     * Crea estadísticas vacías que usan el reloj del sistema.
+     */
+    public EstadisticasTareas() {
+        this(Clock.systemDefaultZone());
+    }
+
+    /**
+     * Crea estadísticas vacías.
+     *
+     * @param reloj reloj con el que se decide qué día es hoy
+     */
+    public EstadisticasTareas(Clock reloj) {
+        this.reloj = reloj;
+        this.hoy = LocalDate.now(reloj);
+    }
+
+    /**
+     * Cuenta una tarea nueva o vuelve a contar una que cambió.
+     *
+     * @param tarea la tarea con sus datos actuales
+     */
+    public synchronized void registrar(Tarea tarea) {
+        actualizarDia();
+        Instantanea anterior = instantaneas.remove(tarea.getId());
+        if (anterior != null) {
+            sumar(anterior, -1);
+        }
+        Instantanea actual = new Instantanea(tarea.getEstado(), tarea.getPrioridad(), tarea.getFechaVencimiento());
+        instantaneas.put(tarea.getId(), actual);
+        sumar(actual, 1);
+    }
+
+    /**
+     * Deja de contar una tarea.
+     *
+     * @param id el ID de la tarea
+     */
+    public synchronized void quitar(int id) {
+        actualizarDia();
+        Instantanea anterior = instantaneas.remove(id);
+        if (anterior != null) {
+            sumar(anterior, -1);
+        }
+    }
+
+    /**
+     * Descarta todos los conteos y cuenta las tareas indicadas.
+     *
+     * @param tareas las tareas a contar
+     */
+    public synchronized void reiniciar(Collection<Tarea> tareas) {
+        for (int[] fila : conteo) {
+            Arrays.fill(fila, 0);
+        }
+        Arrays.fill(porEstado, 0);
+        Arrays.fill(porPrioridad, 0);
+        instantaneas.clear();
+        abiertasPorFecha.clear();
+        abiertasPorSemana.clear();
+        hoy = LocalDate.now(reloj);
+        vencidas = 0;
+        for (Tarea tarea : tareas) {
+            registrar(tarea);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad total de tareas contadas.
+     *
+     * @return la cantidad de tareas
+     */
+    public synchronized int getTotal() {
+        return instantaneas.size();
+    }
+
+    /**
+     * Obtiene la cantidad de tareas con un estado y una prioridad.
+     *
+     * @param estado el estado
+     * @param prioridad la prioridad
+     * @return la cantidad de tareas
+     */
+    public synchronized int contar(Estado estado, Prioridad prioridad) {
+        return conteo[estado.ordinal()][prioridad.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de tareas con un estado.
+     *
+     * @param estado el estado
+     * @return la cantidad de tareas
+     */
+    public synchronized int contar(Estado estado) {
+        return porEstado[estado.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de tareas con una prioridad.
+     *
+     * @param prioridad la prioridad
+     * @return la cantidad de tareas
+     */
+    public synchronized int contar(Prioridad prioridad) {
+        return porPrioridad[prioridad.ordinal()];
+    }
+
+    /**
+     * Obtiene la cantidad de tareas no completadas cuya fecha de vencimiento ya pasó.
+     *
+     * @return la cantidad de tareas vencidas
+     */
+    public synchronized int getVencidas() {
+        actualizarDia();
+        return vencidas;
+    }
+
+    /**
+     * Obtiene cuántas tareas abiertas vencen en cada semana a partir de la semana de una fecha.
+     * Las semanas empiezan el lunes.
+     *
+     * @param desde una fecha de la primera semana
+     * @param semanas la cantidad de semanas
+     * @return la cantidad de tareas abiertas que vencen en cada semana, en orden
+     */
+    public synchronized int[] histogramaSemanal(LocalDate desde, int semanas) {
+        int[] histograma = new int[semanas];
+        LocalDate lunes = lunesDe(desde);
+        for (int i = 0; i < semanas; i++) {
+            histograma[i] = abiertasPorSemana.getOrDefault(lunes.plusWeeks(i), 0);
+        }
+        return histograma;
+    }
+
+    /**
+     * Obtiene una copia consistente de los conteos principales.
+     *
+     * @return el resumen
+     */
+    public synchronized Resumen resumen() {
+        Map<Estado, Integer> estados = new EnumMap<>(Estado.class);
+        for (Estado e : Estado.values()) {
+            estados.put(e, porEstado[e.ordinal()]);
+        }
+        Map<Prioridad, Integer> prioridades = new EnumMap<>(Prioridad.class);
+        for (Prioridad p : Prioridad.values()) {
+            prioridades.put(p, porPrioridad[p.ordinal()]);
+        }
+        return new Resumen(getTotal(), estados, prioridades, getVencidas());
+    }
+
+    /**
+     * Suma o resta la contribución de una tarea a todos los conteos.
+     *
+     * @param datos los datos con los que se cuenta la tarea
+     * @param signo 1 para sumar, -1 para restar
+     */
+    private void sumar(Instantanea datos, int signo) {
+        if (datos.estado() != null && datos.prioridad() != null) {
+            conteo[datos.estado().ordinal()][datos.prioridad().ordinal()] += signo;
+        }
+        if (datos.estado() != null) {
+            porEstado[datos.estado().ordinal()] += signo;
+        }
+        if (datos.prioridad() != null) {
+            porPrioridad[datos.prioridad().ordinal()] += signo;
+        }
+        if (datos.estado() == Estado.COMPLETADA || datos.fecha() == null) {
+            return;
+        }
+        abiertasPorFecha.merge(datos.fecha(), signo, EstadisticasTareas::sumarOQuitar);
+        abiertasPorSemana.merge(lunesDe(datos.fecha()), signo, EstadisticasTareas::sumarOQuitar);
+        if (datos.fecha().isBefore(hoy)) {
+            vencidas += signo;
+        }
+    }
+
+    /**
+     * Si cambió el día, ajusta las vencidas con las tareas abiertas que vencen entre el día
+     * anterior y el actual.
+     */
+    private void actualizarDia() {
+        LocalDate actual = LocalDate.now(reloj);
+        if (actual.isAfter(hoy)) {
+            vencidas += sumaEntre(hoy, actual);
+        } else if (actual.isBefore(hoy)) {
+            vencidas -= sumaEntre(actual, hoy); // el reloj retrocedió
+        }
+        hoy = actual;
+    }
+
+    /**
+     * Suma las tareas abiertas con fecha en un intervalo.
+     *
+     * @param desde inicio del intervalo, inclusive
+     * @param hasta fin del intervalo, exclusive
+     * @return la cantidad de tareas abiertas en el intervalo
+     */
+    private int sumaEntre(LocalDate desde, LocalDate hasta) {
+        int suma = 0;
+        for (int cantidad : abiertasPorFecha.subMap(desde, true, hasta, false).values()) {
+            suma += cantidad;
+        }
+        return suma;
+    }
+
+    /**
+     * Obtiene el lunes de la semana de una fecha.
+     *
+     * @param fecha la fecha
+     * @return el lunes de esa semana
+     */
+    private static LocalDate lunesDe(LocalDate fecha) {
+        return fecha.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Combina dos conteos de un mapa, quitando la entrada si queda en cero.
+     *
+     * @param a el conteo actual
+     * @param b el cambio
+     * @return la suma, o null si es cero
+     */
+    private static Integer sumarOQuitar(Integer a, Integer b) {
+        int suma = a + b;
+        return suma == 0 ? null : suma;
+    }
+
+    /**
+     * Datos de una tarea que intervienen en los conteos.
+     *
+     * @param estado el estado
+     * @param prioridad la prioridad
+     * @param fecha la fecha de vencimiento
+     */
+    private record Instantanea(Estado estado, Prioridad prioridad, LocalDate fecha) {
+    }
+
+    /**
+     * Copia de los conteos principales en un momento dado.
+     *
+     * @param total la cantidad total de tareas
+     * @param porEstado la cantidad de tareas por estado
+     * @param porPrioridad la cantidad de tareas por prioridad
+     * @param vencidas la cantidad de tareas no completadas con fecha pasada
+     */
+    public record Resumen(int total, Map<Estado, Integer> porEstado, Map<Prioridad, Integer> porPrioridad,
+                          int vencidas) {
+    }
+}
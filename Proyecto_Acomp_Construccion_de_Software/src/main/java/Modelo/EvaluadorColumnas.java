@@ -0,0 +1,29 @@
+package Modelo;
+
+/**
+ * Evalúa un {@link FiltroTareas} sobre las columnas de {@link ColumnasTareas} y produce un mapa
+ * de bits de selección: el bit {@code i % 64} de la palabra {@code i / 64} vale 1 si la fila
+ * {@code i} cumple el filtro.
+ */
+interface EvaluadorColumnas {
+
+    /**
+     * Evalúa el filtro sobre las primeras {@code filas} filas.
+     *
+     * @param filtro el filtro
+     * @param estados el código del estado de cada fila
+     * @param prioridades el código de la prioridad de cada fila
+     * @param fechas el día de vencimiento de cada fila
+     * @param filas la cantidad de filas a evaluar
+     * @param seleccion recibe el mapa de bits; debe tener al menos {@code (filas + 63) / 64}
+     *                  palabras y las palabras que no se evalúan no se modifican
+     */
+    void evaluar(FiltroTareas filtro, byte[] estados, byte[] prioridades, int[] fechas, int filas, long[] seleccion);
+
+    /**
+     * Obtiene el nombre del evaluador, para informarlo en mediciones y registros.
+     *
+     * @return el nombre
+     */
+    String nombre();
+}
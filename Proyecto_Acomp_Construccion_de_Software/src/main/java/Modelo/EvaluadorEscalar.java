@@ -0,0 +1,55 @@
+package Modelo;
+
+/**
+ * Evaluación fila por fila, sin instrucciones vectoriales explícitas. Es la alternativa cuando el
+ * módulo {@code jdk.incubator.vector} no está disponible, y también completa las filas finales que
+ * no llenan una palabra en {@link EvaluadorVectorial}.
+ * <p>
+ * No tiene saltos que dependan de los datos: cada condición se convierte en un bit con
+ * desplazamientos y una comparación sin signo, así que el predictor de saltos no falla aunque
+ * las filas que cumplen estén desordenadas.
+ */
+final class EvaluadorEscalar implements EvaluadorColumnas {
+
+    @Override
+    public void evaluar(FiltroTareas filtro, byte[] estados, byte[] prioridades, int[] fechas, int filas, long[] seleccion) {
+        evaluarDesde(filtro, estados, prioridades, fechas, 0, filas, seleccion);
+    }
+
+    /**
+     * Evalúa las filas de un rango que empieza al principio de una palabra.
+     *
+     * @param filtro el filtro
+     * @param estados el código del estado de cada fila
+     * @param prioridades el código de la prioridad de cada fila
+     * @param fechas el día de vencimiento de cada fila
+     * @param desde la primera fila, múltiplo de 64
+     * @param hasta la fila siguiente a la última
+     * @param seleccion recibe el mapa de bits
+     */
+    static void evaluarDesde(FiltroTareas filtro, byte[] estados, byte[] prioridades, int[] fechas,
+                             int desde, int hasta, long[] seleccion) {
+        int mascaraEstados = filtro.estados;
+        int mascaraPrioridades = filtro.prioridades;
+        int inicio = filtro.desde;
+        int largo = filtro.hasta - filtro.desde; // sin signo: el rango puede abarcar todos los int
+        for (int palabra = desde >>> 6; palabra << 6 < hasta; palabra++) {
+            int base = palabra << 6;
+            int fin = Math.min(64, hasta - base);
+            long bits = 0;
+            for (int j = 0; j < fin; j++) {
+                int i = base + j;
+                // Un código null (-1) desplaza 31 posiciones, donde las máscaras de valores tienen 0
+                int cumple = (mascaraEstados >>> estados[i]) & (mascaraPrioridades >>> prioridades[i]) & 1
+                        & (Integer.compareUnsigned(fechas[i] - inicio, largo) <= 0 ? 1 : 0);
+                bits |= (long) cumple << j;
+            }
+            seleccion[palabra] = bits;
+        }
+    }
+
+    @Override
+    public String nombre() {
+        return "escalar";
+    }
+}
@@ -0,0 +1,93 @@
+package Modelo;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluación con la Vector API ({@code jdk.incubator.vector}): compara varias filas por
+ * instrucción con el ancho de vector preferido del procesador (por ejemplo 64 bytes o 16 enteros
+ * con AVX-512) y convierte las máscaras de comparación directamente en bits de la selección.
+ * <p>
+ * Se trabaja de a 64 filas, una palabra de la selección: cada columna de bytes se recorre con
+ * {@code 64 / lanes} vectores y la de fechas con {@code 64 / lanes} vectores de enteros, y las
+ * máscaras de cada condición se combinan con "y". Las columnas que el filtro no restringe no se
+ * leen. Las filas finales que no completan una palabra se evalúan con {@link EvaluadorEscalar}.
+ * <p>
+ * Esta clase solo se carga si el módulo está disponible; ver {@link ColumnasTareas}.
+ */
+final class EvaluadorVectorial implements EvaluadorColumnas {
+
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> ENTEROS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void evaluar(FiltroTareas filtro, byte[] estados, byte[] prioridades, int[] fechas, int filas, long[] seleccion) {
+        int completas = filas & ~63;
+        for (int base = 0; base < completas; base += 64) {
+            long bits = -1L;
+            if (filtro.filtraEstado()) {
+                bits &= enConjunto(estados, base, filtro.estados);
+            }
+            if (filtro.filtraPrioridad()) {
+                bits &= enConjunto(prioridades, base, filtro.prioridades);
+            }
+            if (filtro.filtraFecha()) {
+                bits &= enRango(fechas, base, filtro.desde, filtro.hasta);
+            }
+            seleccion[base >>> 6] = bits;
+        }
+        if (completas < filas) {
+            EvaluadorEscalar.evaluarDesde(filtro, estados, prioridades, fechas, completas, filas, seleccion);
+        }
+    }
+
+    /**
+     * Evalúa si el código de cada una de 64 filas está en un conjunto.
+     *
+     * @param columna la columna de códigos
+     * @param base la primera fila
+     * @param mascara un bit por cada código aceptado
+     * @return un bit por fila
+     */
+    private static long enConjunto(byte[] columna, int base, int mascara) {
+        long bits = 0;
+        for (int j = 0; j < 64; j += BYTES.length()) {
+            ByteVector v = ByteVector.fromArray(BYTES, columna, base + j);
+            VectorMask<Byte> cumple = BYTES.maskAll(false);
+            for (int codigo = 0; mascara >>> codigo != 0; codigo++) {
+                if ((mascara >>> codigo & 1) != 0) {
+                    cumple = cumple.or(v.compare(VectorOperators.EQ, (byte) codigo));
+                }
+            }
+            bits |= cumple.toLong() << j;
+        }
+        return bits;
+    }
+
+    /**
+     * Evalúa si el día de cada una de 64 filas está en un rango.
+     *
+     * @param columna la columna de días
+     * @param base la primera fila
+     * @param desde el primer día aceptado
+     * @param hasta el último día aceptado
+     * @return un bit por fila
+     */
+    private static long enRango(int[] columna, int base, int desde, int hasta) {
+        long bits = 0;
+        for (int j = 0; j < 64; j += ENTEROS.length()) {
+            IntVector v = IntVector.fromArray(ENTEROS, columna, base + j);
+            VectorMask<Integer> cumple = v.compare(VectorOperators.GE, desde).and(v.compare(VectorOperators.LE, hasta));
+            bits |= cumple.toLong() << j;
+        }
+        return bits;
+    }
+
+    @Override
+    public String nombre() {
+        return "vectorial (" + BYTES.vectorBitSize() + " bits)";
+    }
+}
@@ -0,0 +1,78 @@
+package Modelo;
+
+import java.util.List;
+
+/**
+ * Cambio ocurrido en las tareas del {@link TareaService}, publicado a los suscriptores.
+ * <p>
+ * Todos los eventos tienen las mismas tres listas, de modo que un suscriptor puede procesarlos
+ * sin distinguir el tipo; en los eventos individuales solo una de ellas tiene un elemento.
+ * Las tareas son las instancias vivas del servicio, no copias: cuando el suscriptor procesa el
+ * evento sus datos pueden haber cambiado otra vez. Como los suscriptores corren en hilos de
+ * entrega, no deben modificarlas; para trabajar con sus datos conviene usar el ID y consultar el
+ * servicio, o pasar al hilo que modifica las tareas (en la interfaz, el hilo de eventos de Swing).
+ *
+ * @param tipo el tipo de cambio
+ * @param agregadas las tareas agregadas
+ * @param actualizadas las tareas modificadas
+ * @param eliminadas las tareas eliminadas
+ */
+public record EventoTarea(Tipo tipo, List<Tarea> agregadas, List<Tarea> actualizadas, List<Tarea> eliminadas) {
+
+    /** Tipos de cambio que se publican. */
+    public enum Tipo {
+        /** Se agregó una tarea. */
+        AGREGADA,
+
+        /** Se modificó una tarea. */
+        ACTUALIZADA,
+
+        /** Se eliminó una tarea. */
+        ELIMINADA,
+
+        /** Operación por lotes o recarga externa que puede combinar los tres tipos de cambio. */
+        MASIVO
+    }
+
+    /**
+     * Crea el evento de una tarea agregada.
+     *
+     * @param tarea la tarea agregada
+     * @return el evento
+     */
+    public static EventoTarea agregada(Tarea tarea) {
+        return new EventoTarea(Tipo.AGREGADA, List.of(tarea), List.of(), List.of());
+    }
+
+    /**
+     * Crea el evento de una tarea modificada.
+     *
+     * @param tarea la tarea modificada
+     * @return el evento
+     */
+    public static EventoTarea actualizada(Tarea tarea) {
+        return new EventoTarea(Tipo.ACTUALIZADA, List.of(), List.of(tarea), List.of());
+    }
+
+    /**
+     * Crea el evento de una tarea eliminada.
+     *
+     * @param tarea la tarea eliminada
+     * @return el evento
+     */
+    public static EventoTarea eliminada(Tarea tarea) {
+        return new EventoTarea(Tipo.ELIMINADA, List.of(), List.of(), List.of(tarea));
+    }
+
+    /**
+     * Crea el evento de una operación masiva.
+     *
+     * @param agregadas las tareas agregadas
+     * @param actualizadas las tareas modificadas
+     * @param eliminadas las tareas eliminadas
+     * @return el evento
+     */
+    public static EventoTarea masivo(List<Tarea> agregadas, List<Tarea> actualizadas, List<Tarea> eliminadas) {
+        return new EventoTarea(Tipo.MASIVO, List.copyOf(agregadas), List.copyOf(actualizadas), List.copyOf(eliminadas));
+    }
+}
@@ -0,0 +1,142 @@
+package Modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Filtro compuesto por estado, prioridad y rango de fechas de vencimiento, que
+ * {@link ColumnasTareas} evalúa sobre columnas compactas sin recorrer las tareas.
+ * <p>
+ * Es inmutable: cada método devuelve un filtro nuevo. Las condiciones se combinan con "y"; las
+ * que no se indican no restringen (y entonces también aceptan los valores null). Por ejemplo:
+ * <pre>
+ * FiltroTareas.todas()
+ *         .conEstados(Estado.PENDIENTE, Estado.EN_PROGRESO)
+ *         .conPrioridades(Prioridad.ALTA)
+ *         .venceEntre(hoy, hoy.plusDays(14));
+ * </pre>
+ */
+public final class FiltroTareas {
+
+    /** Máscara que acepta cualquier valor, incluido null. */
+    static final int CUALQUIERA = -1;
+
+    private static final FiltroTareas TODAS = new FiltroTareas(CUALQUIERA, CUALQUIERA, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    /** Bit {@code 1 << ordinal} por cada estado aceptado, o {@link #CUALQUIERA}. */
+    final int estados;
+
+    /** Bit {@code 1 << ordinal} por cada prioridad aceptada, o {@link #CUALQUIERA}. */
+    final int prioridades;
+
+    /** Primer día aceptado, en días desde la época; {@code Integer.MIN_VALUE} si no hay rango. */
+    final int desde;
+
+    /** Último día aceptado, en días desde la época; {@code Integer.MAX_VALUE} si no hay rango. */
+    final int hasta;
+
+    private FiltroTareas(int estados, int prioridades, int desde, int hasta) {
+        this.estados = estados;
+        this.prioridades = prioridades;
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    /**
+     * Obtiene el filtro que acepta todas las tareas.
+     *
+     * @return el filtro sin condiciones
+     */
+    public static FiltroTareas todas() {
+        return TODAS;
+    }
+
+    /**
+     * Restringe el filtro a las tareas con alguno de los estados indicados.
+     *
+     * @param aceptados los estados aceptados
+     * @return el filtro nuevo
+     */
+    public FiltroTareas conEstados(Estado... aceptados) {
+        int mascara = 0;
+        for (Estado e : aceptados) {
+            mascara |= 1 << e.ordinal();
+        }
+        return new FiltroTareas(mascara, prioridades, desde, hasta);
+    }
+
+    /**
+     * Restringe el filtro a las tareas con alguna de las prioridades indicadas.
+     *
+     * @param aceptadas las prioridades aceptadas
+     * @return el filtro nuevo
+     */
+    public FiltroTareas conPrioridades(Prioridad... aceptadas) {
+        int mascara = 0;
+        for (Prioridad p : aceptadas) {
+            mascara |= 1 << p.ordinal();
+        }
+        return new FiltroTareas(estados, mascara, desde, hasta);
+    }
+
+    /**
+     * Restringe el filtro a las tareas que vencen entre dos fechas, incluidas ambas. Las tareas
+     * sin fecha no cumplen esta condición.
+     *
+     * @param primera la primera fecha aceptada
+     * @param ultima la última fecha aceptada
+     * @return el filtro nuevo
+     */
+    public FiltroTareas venceEntre(LocalDate primera, LocalDate ultima) {
+        // Integer.MIN_VALUE representa una fecha null en las columnas: nunca entra en un rango
+        return new FiltroTareas(estados, prioridades,
+                Math.max(Integer.MIN_VALUE + 1, (int) primera.toEpochDay()), (int) ultima.toEpochDay());
+    }
+
+    /**
+     * Indica si el filtro restringe el estado.
+     *
+     * @return true si solo acepta algunos estados
+     */
+    boolean filtraEstado() {
+        return estados != CUALQUIERA;
+    }
+
+    /**
+     * Indica si el filtro restringe la prioridad.
+     *
+     * @return true si solo acepta algunas prioridades
+     */
+    boolean filtraPrioridad() {
+        return prioridades != CUALQUIERA;
+    }
+
+    /**
+     * Indica si el filtro restringe la fecha de vencimiento.
+     *
+     * @return true si solo acepta un rango de fechas
+     */
+    boolean filtraFecha() {
+        return desde != Integer.MIN_VALUE || hasta != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Obtiene un texto que identifica las condiciones del filtro. Dos filtros con las mismas
+     * condiciones tienen la misma clave, sin importar en qué orden se indicaron.
+     *
+     * @return la clave del filtro
+     */
+    String clave() {
+        return Integer.toHexString(estados) + ':' + Integer.toHexString(prioridades) + ':' + desde + ':' + hasta;
+    }
+
+    /**
+     * Evalúa el filtro sobre una tarea, con la misma semántica que la evaluación por columnas.
+     *
+     * @param tarea la tarea
+     * @return true si la tarea cumple todas las condiciones
+     */
+    public boolean acepta(Tarea tarea) {
+        return ColumnasTareas.acepta(this, ColumnasTareas.codigo(tarea.getEstado()),
+                ColumnasTareas.codigo(tarea.getPrioridad()), ColumnasTareas.dia(tarea.getFechaVencimiento()));
+    }
+}
@@ -0,0 +1,377 @@
+package Modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Espacios de trabajo: listas de tareas separadas, por ejemplo una por proyecto, cada una con su
+ * propio repositorio y su propio {@link TareaService}.
+ * <p>
+ * El espacio {@value #PRINCIPAL} usa los archivos de siempre en la carpeta de trabajo
+ * ({@code tareas.json} y sus archivos auxiliares), así que los datos existentes aparecen en él. Cada
+ * otro espacio vive en una subcarpeta con su nombre dentro de la carpeta de espacios, con los
+ * mismos archivos.
+ * <p>
+ * Un espacio se carga la primera vez que se usa. Los cargados se conservan en memoria hasta que la
+ * suma de su memoria estimada ({@link TareaService#estimarMemoria()}) supera el presupuesto;
+ * entonces se descargan, del usado hace más tiempo al más reciente, los que no están activos.
+ * Antes de descargar un espacio se guarda su punto de control si tiene cambios, para que volver a
+ * él no tenga que reconstruir los índices; las tareas ya están guardadas, porque cada cambio se
+ * persiste al hacerse. El espacio activo nunca se descarga, aunque por sí solo supere el
+ * presupuesto, y tampoco uno prestado con {@link #obtener(String)} hasta que se devuelve: así nadie
+ * usa un servicio cerrado ni se carga un segundo servicio sobre los mismos archivos.
+ * <p>
+ * Cargar un espacio lee su archivo completo: {@link #activar(String)} y {@link #obtener(String)}
+ * deben llamarse fuera del hilo de eventos de Swing.
+ * <p>
+ * La carpeta de espacios y el presupuesto se configuran con las propiedades
+ * {@value #PROPIEDAD_CARPETA} y {@value #PROPIEDAD_MEMORIA} (en megabytes).
+ */
+public class GestorEspacios implements AutoCloseable {
+
+    /** Propiedad del sistema con la carpeta donde se crean los espacios. */
+    public static final String PROPIEDAD_CARPETA = "tareas.espacios.carpeta";
+
+    /** Propiedad del sistema con el presupuesto de memoria de los espacios cargados, en megabytes. */
+    public static final String PROPIEDAD_MEMORIA = "tareas.espacios.memoria";
+
+    /** Nombre del espacio que usa los archivos de la carpeta de trabajo. */
+    public static final String PRINCIPAL = "principal";
+
+    /** Presupuesto de memoria por defecto, en megabytes. */
+    public static final long MEMORIA_POR_DEFECTO = 256;
+
+    /** Nombres válidos de espacio: se usan como nombre de carpeta. */
+    private static final Pattern NOMBRE_VALIDO = Pattern.compile("[\\p{L}\\p{N}_-][\\p{L}\\p{N} _-]{0,63}");
+
+    private static final String ORIGEN = "GestorEspacios";
+
+    /** Carpeta que contiene una subcarpeta por espacio, salvo el principal. */
+    private final Path carpeta;
+
+    /** Presupuesto de memoria de los espacios cargados, en bytes. */
+    private final long presupuesto;
+
+    /** Crea el repositorio de un espacio a partir de la carpeta de sus archivos. */
+    private final Function<Path, RepositorioTareas> abrirRepositorio;
+
+    /** Servicios de los espacios cargados, del usado hace más tiempo al más reciente. */
+    private final LinkedHashMap<String, TareaService> cargados = new LinkedHashMap<>(16, 0.75f, true);
+
+    /** Cantidad de préstamos sin devolver de cada espacio; los que tienen alguno no se descargan. */
+    private final Map<String, Integer> prestados = new HashMap<>();
+
+    /** Nombre del espacio activo, o null si todavía no se activó ninguno. */
+    private volatile String activo;
+
+    /**
+     * Crea un gestor con los repositorios configurados en {@link RepositorioTareas#PROPIEDAD_REPOSITORIO}.
+     *
+     * @param carpeta la carpeta donde se crean los espacios
+     * @param presupuesto la memoria estimada máxima de los espacios cargados, en bytes
+     */
+    public GestorEspacios(Path carpeta, long presupuesto) {
+        this(carpeta, presupuesto, RepositorioTareas::enCarpeta);
+    }
+
+    /**
+     * Crea un gestor indicando cómo se abre el repositorio de cada espacio.
+     *
+     * @param carpeta la carpeta donde se crean los espacios
+     * @param presupuesto la memoria estimada máxima de los espacios cargados, en bytes
+     * @param abrirRepositorio crea el repositorio de un espacio a partir de la carpeta de sus archivos
+     * @throws IllegalArgumentException si el presupuesto es negativo
+     */
+    public GestorEspacios(Path carpeta, long presupuesto, Function<Path, RepositorioTareas> abrirRepositorio) {
+        if (presupuesto < 0) {
+            throw new IllegalArgumentException("El presupuesto de memoria no puede ser negativo: " + presupuesto);
+        }
+        this.carpeta = carpeta;
+        this.presupuesto = presupuesto;
+        this.abrirRepositorio = abrirRepositorio;
+    }
+
+    /**
+     * Crea un gestor con la carpeta de {@value #PROPIEDAD_CARPETA} (por defecto {@code espacios})
+     * y el presupuesto de {@value #PROPIEDAD_MEMORIA}.
+     *
+     * @return el gestor
+     */
+    public static GestorEspacios porDefecto() {
+        return new GestorEspacios(Path.of(System.getProperty(PROPIEDAD_CARPETA, "espacios")),
+                Long.getLong(PROPIEDAD_MEMORIA, MEMORIA_POR_DEFECTO) * 1024 * 1024);
+    }
+
+    /**
+     * Indica si un texto se puede usar como nombre de espacio: letras, dígitos, espacios, guiones
+     * y guiones bajos, sin empezar por espacio, hasta 64 caracteres.
+     *
+     * @param nombre el nombre
+     * @return true si es válido
+     */
+    public static boolean esNombreValido(String nombre) {
+        return nombre != null && NOMBRE_VALIDO.matcher(nombre).matches() && !nombre.endsWith(" ");
+    }
+
+    /**
+     * Obtiene los nombres de los espacios existentes, cargados o no: el principal seguido de los
+     * demás en orden alfabético. Solo lee la carpeta de espacios, sin esperar a una carga en curso.
+     *
+     * @return los nombres de los espacios
+     * @throws UncheckedIOException si no se puede leer la carpeta de espacios
+     */
+    public List<String> nombres() {
+        TreeSet<String> otros = new TreeSet<>();
+        if (Files.isDirectory(carpeta)) {
+            try (Stream<Path> contenido = Files.list(carpeta)) {
+                contenido.filter(Files::isDirectory)
+                        .map(p -> p.getFileName().toString())
+                        .filter(GestorEspacios::esNombreValido)
+                        .forEach(otros::add);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo leer la carpeta de espacios " + carpeta, e);
+            }
+        }
+        otros.remove(PRINCIPAL);
+        List<String> nombres = new ArrayList<>(otros.size() + 1);
+        nombres.add(PRINCIPAL);
+        nombres.addAll(otros);
+        return nombres;
+    }
+
+    /**
+     * Convierte un espacio en el activo, cargándolo si hace falta, y descarga los espacios
+     * inactivos necesarios para volver al presupuesto. Si el espacio no existe, se crea vacío.
+     * <p>
+     * El espacio que deja de estar activo puede descargarse en esta misma llamada, salvo que esté
+     * prestado; su servicio sigue funcionando para quien todavía lo use (los cambios se siguen
+     * guardando), pero ya no publica eventos. Quien necesite seguir usándolo después de cambiar de
+     * espacio debe pedirlo con {@link #obtener(String)}.
+     *
+     * @param nombre el nombre del espacio
+     * @return el servicio del espacio
+     * @throws IllegalArgumentException si el nombre no es válido
+     * @throws UncheckedIOException si no se puede crear la carpeta del espacio o leer sus datos
+     */
+    public synchronized TareaService activar(String nombre) {
+        TareaService service = cargar(nombre);
+        activo = nombre;
+        ajustarMemoria(nombre);
+        return service;
+    }
+
+    /**
+     * Presta el servicio de un espacio sin cambiar el activo, cargándolo si hace falta. El espacio
+     * no se descarga mientras el préstamo no se devuelva con {@link Prestamo#close()}, así que
+     * conviene usarlo en un try-with-resources.
+     *
+     * @param nombre el nombre del espacio
+     * @return el préstamo del servicio del espacio
+     * @throws IllegalArgumentException si el nombre no es válido
+     * @throws UncheckedIOException si no se puede crear la carpeta del espacio o leer sus datos
+     */
+    public synchronized Prestamo obtener(String nombre) {
+        TareaService service = cargar(nombre);
+        prestados.merge(nombre, 1, Integer::sum);
+        ajustarMemoria(nombre);
+        return new Prestamo(nombre, service);
+    }
+
+    /**
+     * Obtiene el nombre del espacio activo. No espera a que termine una carga en curso.
+     *
+     * @return el nombre, o null si no se activó ninguno
+     */
+    public String getActivo() {
+        return activo;
+    }
+
+    /**
+     * Indica si un espacio está cargado en memoria.
+     *
+     * @param nombre el nombre del espacio
+     * @return true si está cargado
+     */
+    public synchronized boolean estaCargado(String nombre) {
+        return cargados.containsKey(nombre);
+    }
+
+    /**
+     * Obtiene los nombres de los espacios cargados, del usado hace más tiempo al más reciente.
+     *
+     * @return los nombres de los espacios cargados
+     */
+    public synchronized List<String> getCargados() {
+        return List.copyOf(cargados.keySet());
+    }
+
+    /**
+     * Obtiene la memoria estimada de todos los espacios cargados.
+     *
+     * @return la memoria en bytes
+     */
+    public synchronized long getMemoriaEstimada() {
+        long total = 0;
+        for (TareaService service : cargados.values()) {
+            total += service.estimarMemoria();
+        }
+        return total;
+    }
+
+    /**
+     * Obtiene el presupuesto de memoria de los espacios cargados.
+     *
+     * @return el presupuesto en bytes
+     */
+    public long getPresupuesto() {
+        return presupuesto;
+    }
+
+    /**
+     * Descarga todos los espacios, guardando antes sus puntos de control pendientes. Los préstamos
+     * sin devolver dejan de retener sus espacios.
+     */
+    @Override
+    public synchronized void close() {
+        for (Map.Entry<String, TareaService> e : cargados.entrySet()) {
+            descargar(e.getKey(), e.getValue());
+        }
+        cargados.clear();
+        prestados.clear();
+    }
+
+    /**
+     * Devuelve un préstamo y descarga los espacios que ya no hace falta conservar.
+     */
+    private synchronized void devolver(String nombre) {
+        prestados.computeIfPresent(nombre, (n, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+        ajustarMemoria(null);
+    }
+
+    /**
+     * Obtiene el servicio de un espacio cargado, marcándolo como el usado más recientemente, o
+     * lo carga. Debe llamarse con el gestor bloqueado.
+     */
+    private TareaService cargar(String nombre) {
+        if (!esNombreValido(nombre)) {
+            throw new IllegalArgumentException("Nombre de espacio no válido: " + nombre);
+        }
+        TareaService service = cargados.get(nombre);
+        if (service != null) {
+            return service;
+        }
+        Path ubicacion = PRINCIPAL.equals(nombre) ? Path.of("") : carpeta.resolve(nombre);
+        try {
+            Files.createDirectories(ubicacion.toAbsolutePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo crear la carpeta del espacio " + nombre, e);
+        }
+        long inicio = System.nanoTime();
+        service = new TareaService(abrirRepositorio.apply(ubicacion));
+        cargados.put(nombre, service);
+        Registro.global().info(ORIGEN, "Espacio {} cargado en {} ms", nombre, (System.nanoTime() - inicio) / 1_000_000);
+        return service;
+    }
+
+    /**
+     * Descarga espacios inactivos, del usado hace más tiempo al más reciente, hasta que la memoria
+     * estimada entre en el presupuesto. Los espacios prestados no se descargan. Debe llamarse con
+     * el gestor bloqueado.
+     *
+     * @param enUso el espacio que se acaba de pedir, que tampoco se descarga, o null
+     */
+    private void ajustarMemoria(String enUso) {
+        Map<String, Long> memoria = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, TareaService> e : cargados.entrySet()) {
+            long estimada = e.getValue().estimarMemoria();
+            memoria.put(e.getKey(), estimada);
+            total += estimada;
+        }
+        Iterator<Map.Entry<String, TareaService>> it = cargados.entrySet().iterator();
+        while (total > presupuesto && it.hasNext()) {
+            Map.Entry<String, TareaService> e = it.next();
+            if (e.getKey().equals(enUso) || e.getKey().equals(activo) || prestados.containsKey(e.getKey())) {
+                continue;
+            }
+            descargar(e.getKey(), e.getValue());
+            it.remove();
+            total -= memoria.get(e.getKey());
+        }
+    }
+
+    /**
+     * Guarda el punto de control de un espacio si tiene cambios y cierra su servicio. Un fallo al
+     * guardar solo se registra: las tareas ya están en el repositorio y los índices se
+     * reconstruirán al volver a cargarlo.
+     */
+    private void descargar(String nombre, TareaService service) {
+        if (service.tienePuntoControlPendiente()) {
+            try {
+                service.guardarPuntoControl();
+            } catch (IOException e) {
+                Registro.global().error(ORIGEN, "No se pudo guardar el punto de control del espacio " + nombre, e);
+            }
+        }
+        service.cerrar();
+        Registro.global().info(ORIGEN, "Espacio {} descargado", nombre);
+    }
+
+    /**
+     * Servicio de un espacio prestado por {@link #obtener(String)}. Mientras no se devuelva, el
+     * espacio sigue cargado y el servicio abierto.
+     */
+    public final class Prestamo implements AutoCloseable {
+
+        private final String nombre;
+        private final TareaService service;
+        private boolean devuelto;
+
+        private Prestamo(String nombre, TareaService service) {
+            this.nombre = nombre;
+            this.service = service;
+        }
+
+        /**
+         * Obtiene el servicio prestado.
+         *
+         * @return el servicio del espacio
+         * @throws IllegalStateException si el préstamo ya se devolvió
+         */
+        public TareaService getService() {
+            synchronized (GestorEspacios.this) {
+                if (devuelto) {
+                    throw new IllegalStateException("El préstamo del espacio " + nombre + " ya se devolvió");
+                }
+                return service;
+            }
+        }
+
+        /**
+         * Devuelve el préstamo; el espacio vuelve a poder descargarse. Devolverlo más de una vez no
+         * tiene efecto.
+         */
+        @Override
+        public void close() {
+            synchronized (GestorEspacios.this) {
+                if (devuelto) {
+                    return;
+                }
+                devuelto = true;
+                devolver(nombre);
+            }
+        }
+    }
+}
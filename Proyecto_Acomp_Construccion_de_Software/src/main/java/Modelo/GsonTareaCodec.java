@@ -0,0 +1,95 @@
+package Modelo;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Códec basado en el enlace reflexivo de Gson, con salida indentada.
+ * <p>
+ * Es la configuración original del repositorio y se mantiene como códec por defecto para
+ * conservar el formato de {@code tareas.json}.
+ */
+public class GsonTareaCodec implements TareaCodec {
+
+    /** Nombre con el que se selecciona este códec. */
+    public static final String NOMBRE = "gson";
+
+    /** Instancia de Gson configurada para manejar LocalDate y formato bonito. */
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+            .setPrettyPrinting()
+            .create();
+
+    @Override
+    public String nombre() {
+        return NOMBRE;
+    }
+
+    @Override
+    public void escribir(List<Tarea> tareas, Writer destino) throws IOException {
+        try {
+            gson.toJson(tareas, destino);
+        } catch (JsonIOException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public List<Tarea> leer(Reader origen) throws IOException {
+        try {
+            Type tareaListType = new TypeToken<ArrayList<Tarea>>() {}.getType();
+            List<Tarea> tareas = gson.fromJson(origen, tareaListType);
+            return tareas != null ? tareas : new ArrayList<>(); // archivo vacío
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public TypeAdapter<Tarea> adaptador() {
+        return gson.getAdapter(Tarea.class);
+    }
+
+    /**
+     * Adaptador personalizado para serializar y deserializar objetos {@link LocalDate}
+     * en formato ISO-8601 cuando se usa Gson.
+     */
+    private static class LocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
+
+        /**
+         * Serializa un {@code LocalDate} a un {@code JsonElement}.
+         *
+         * @param date la fecha a serializar
+         * @param typeOfSrc el tipo del objeto de origen
+         * @param context el contexto de serialización
+         * @return representación JSON de la fecha (cadena ISO-8601)
+         */
+        @Override
+        public JsonElement serialize(LocalDate date, Type typeOfSrc, JsonSerializationContext context) {
+            return new JsonPrimitive(date.toString());
+        }
+
+        /**
+         * Deserializa un {@code JsonElement} a un {@code LocalDate}.
+         *
+         * @param json el elemento JSON
+         * @param typeOfT el tipo del objeto destino
+         * @param context el contexto de deserialización
+         * @return objeto LocalDate correspondiente
+         * @throws JsonParseException si el formato no es válido
+         */
+        @Override
+        public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
+                throws JsonParseException {
+            return LocalDate.parse(json.getAsString());
+        }
+    }
+}
@@ -0,0 +1,589 @@
+package Modelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Índices secundarios de las tareas en memoria: por estado, por prioridad, por fecha de
+ * vencimiento y por trigramas del texto (título y descripción en minúsculas).
+ * <p>
+ * Cada entrada es una {@link ListaIds} ordenada, así que las consultas devuelven los IDs en orden
+ * creciente. La búsqueda por texto interseca las listas de los trigramas de la palabra buscada;
+ * el resultado son candidatos que el llamador debe verificar, porque compartir trigramas no
+ * garantiza contener la palabra.
+ * <p>
+ * Los índices se pueden guardar en un punto de control binario junto al archivo de datos. El
+ * archivo lleva la generación de los datos de los que se construyó y una suma CRC32C de su
+ * contenido; al arrancar se carga solo si ambas coinciden, y si no se reconstruye a partir de las
+ * tareas. El archivo se lee completo al heap en lugar de mapearlo, porque en Windows un mapeo
+ * impediría reemplazarlo al guardar el siguiente punto de control.
+ */
+public class IndiceTareas {
+
+    /** Marca al inicio del punto de control ("TIDX"). */
+    private static final int MAGIA = 0x54494458;
+
+    /** Versión del formato del punto de control. */
+    private static final int FORMATO = 1;
+
+    /** Tamaño de la cabecera: magia, formato, generación, CRC y largo del contenido. */
+    private static final int CABECERA = 4 + 4 + 8 + 4 + 8;
+
+    /** Longitud mínima de una palabra para buscarla por trigramas. */
+    public static final int LARGO_TRIGRAMA = 3;
+
+    private final Map<Estado, ListaIds> porEstado = new EnumMap<>(Estado.class);
+    private final Map<Prioridad, ListaIds> porPrioridad = new EnumMap<>(Prioridad.class);
+    private final NavigableMap<LocalDate, ListaIds> porFecha = new TreeMap<>();
+    private final Map<Long, ListaIds> porTrigrama = new HashMap<>();
+
+    /** Cantidad de tareas indexadas. */
+    private int cantidad;
+
+    /**
+     * Construye los índices de un conjunto de tareas.
+     *
+     * @param tareas las tareas a indexar
+     * @return los índices
+     */
+    public static IndiceTareas construir(Collection<Tarea> tareas) {
+        IndiceTareas indice = new IndiceTareas();
+        for (Tarea t : tareas) {
+            indice.agregar(t);
+        }
+        return indice;
+    }
+
+    /**
+     * Agrega una tarea a los índices con sus datos actuales.
+     *
+     * @param tarea la tarea
+     */
+    public synchronized void agregar(Tarea tarea) {
+        int id = tarea.getId();
+        if (tarea.getEstado() != null) {
+            porEstado.computeIfAbsent(tarea.getEstado(), e -> new ListaIds()).agregar(id);
+        }
+        if (tarea.getPrioridad() != null) {
+            porPrioridad.computeIfAbsent(tarea.getPrioridad(), p -> new ListaIds()).agregar(id);
+        }
+        if (tarea.getFechaVencimiento() != null) {
+            porFecha.computeIfAbsent(tarea.getFechaVencimiento(), f -> new ListaIds()).agregar(id);
+        }
+        for (long trigrama : trigramas(tarea)) {
+            porTrigrama.computeIfAbsent(trigrama, t -> new ListaIds()).agregar(id);
+        }
+        cantidad++;
+    }
+
+    /**
+     * Quita una tarea de los índices. Debe llamarse con los mismos datos con los que se agregó,
+     * es decir, antes de modificarla. Si la tarea no estaba en los índices, la cantidad no cambia.
+     *
+     * @param tarea la tarea
+     */
+    public synchronized void quitar(Tarea tarea) {
+        int id = tarea.getId();
+        long[] claves = trigramas(tarea);
+        boolean estaba = quitarDe(porEstado, tarea.getEstado(), id);
+        estaba |= quitarDe(porPrioridad, tarea.getPrioridad(), id);
+        estaba |= quitarDe(porFecha, tarea.getFechaVencimiento(), id);
+        for (long trigrama : claves) {
+            estaba |= quitarDe(porTrigrama, trigrama, id);
+        }
+        // Una tarea sin ningún dato indexable se contó al agregarla aunque no esté en ninguna lista
+        boolean sinClaves = tarea.getEstado() == null && tarea.getPrioridad() == null
+                && tarea.getFechaVencimiento() == null && claves.length == 0;
+        if (estaba || sinClaves) {
+            cantidad--;
+        }
+    }
+
+    /**
+     * Quita una tarea de los índices sin conocer los datos con los que se agregó, buscándola en
+     * todas las listas, incluidas las de trigramas. Es para cuando quien llama ya modificó la
+     * tarea; cuesta un recorrido de todas las listas, así que si se conocen los datos anteriores
+     * conviene {@link #quitar(Tarea)}.
+     *
+     * @param id el ID de la tarea
+     */
+    public synchronized void quitarPorId(int id) {
+        boolean estaba = quitarDeTodas(porEstado, id);
+        estaba |= quitarDeTodas(porPrioridad, id);
+        estaba |= quitarDeTodas(porFecha, id);
+        estaba |= quitarDeTodas(porTrigrama, id);
+        if (estaba) {
+            cantidad--;
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de tareas indexadas.
+     *
+     * @return la cantidad de tareas
+     */
+    public synchronized int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene los IDs de las tareas con un estado.
+     *
+     * @param estado el estado
+     * @return los IDs en orden creciente
+     */
+    public synchronized int[] conEstado(Estado estado) {
+        return arreglo(porEstado.get(estado));
+    }
+
+    /**
+     * Obtiene los IDs de las tareas con una prioridad.
+     *
+     * @param prioridad la prioridad
+     * @return los IDs en orden creciente
+     */
+    public synchronized int[] conPrioridad(Prioridad prioridad) {
+        return arreglo(porPrioridad.get(prioridad));
+    }
+
+    /**
+     * Obtiene los IDs de las tareas que vencen en una fecha.
+     *
+     * @param fecha la fecha
+     * @return los IDs en orden creciente
+     */
+    public synchronized int[] conFecha(LocalDate fecha) {
+        return arreglo(porFecha.get(fecha));
+    }
+
+    /**
+     * Obtiene los IDs de las tareas que vencen entre dos fechas, incluidas ambas.
+     *
+     * @param desde la primera fecha
+     * @param hasta la última fecha
+     * @return los IDs ordenados por fecha y luego por ID
+     */
+    public synchronized int[] conFechaEntre(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            return new int[0];
+        }
+        Collection<ListaIds> listas = porFecha.subMap(desde, true, hasta, true).values();
+        int total = 0;
+        for (ListaIds lista : listas) {
+            total += lista.cantidad();
+        }
+        int[] resultado = new int[total];
+        int n = 0;
+        for (ListaIds lista : listas) {
+            for (int i = 0; i < lista.cantidad(); i++) {
+                resultado[n++] = lista.get(i);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene una porción de los IDs de las tareas con un estado, para paginar.
+     *
+     * @param estado el estado
+     * @param despuesDe el último ID ya entregado (0 para empezar)
+     * @param cantidad la cantidad máxima de IDs
+     * @return los IDs mayores que {@code despuesDe}, en orden creciente
+     */
+    public synchronized int[] conEstadoDesde(Estado estado, int despuesDe, int cantidad) {
+        return porcion(porEstado.get(estado), despuesDe, cantidad);
+    }
+
+    /**
+     * Obtiene una porción de los IDs de las tareas con una prioridad, para paginar.
+     *
+     * @param prioridad la prioridad
+     * @param despuesDe el último ID ya entregado (0 para empezar)
+     * @param cantidad la cantidad máxima de IDs
+     * @return los IDs mayores que {@code despuesDe}, en orden creciente
+     */
+    public synchronized int[] conPrioridadDesde(Prioridad prioridad, int despuesDe, int cantidad) {
+        return porcion(porPrioridad.get(prioridad), despuesDe, cantidad);
+    }
+
+    /**
+     * Obtiene una porción de los IDs de las tareas que vencen en una fecha, para paginar.
+     *
+     * @param fecha la fecha
+     * @param despuesDe el último ID ya entregado (0 para empezar)
+     * @param cantidad la cantidad máxima de IDs
+     * @return los IDs mayores que {@code despuesDe}, en orden creciente
+     */
+    public synchronized int[] conFechaDesde(LocalDate fecha, int despuesDe, int cantidad) {
+        return porcion(porFecha.get(fecha), despuesDe, cantidad);
+    }
+
+    /**
+     * Obtiene una porción de los IDs de las tareas con fecha ordenados por fecha y luego por ID,
+     * a partir de la posición siguiente a (fecha, ID). Las tareas sin fecha no están en este orden.
+     *
+     * @param fecha la fecha de la última tarea ya entregada, o null para empezar
+     * @param despuesDe el ID de la última tarea ya entregada
+     * @param cantidad la cantidad máxima de IDs
+     * @return los IDs siguientes en ese orden
+     */
+    public synchronized int[] porFechaDesde(LocalDate fecha, int despuesDe, int cantidad) {
+        int[] resultado = new int[cantidad];
+        int n = 0;
+        var grupos = fecha == null ? porFecha.entrySet() : porFecha.tailMap(fecha, true).entrySet();
+        for (var grupo : grupos) {
+            ListaIds lista = grupo.getValue();
+            int i = grupo.getKey().equals(fecha) ? lista.posicionDespuesDe(despuesDe) : 0;
+            while (i < lista.cantidad() && n < cantidad) {
+                resultado[n++] = lista.get(i++);
+            }
+            if (n == cantidad) {
+                break;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Obtiene una porción de los IDs de las tareas con prioridad ordenados por prioridad (de
+     * {@link Prioridad#ALTA} a {@link Prioridad#BAJA}) y luego por ID, a partir de la posición
+     * siguiente a (prioridad, ID). Las tareas sin prioridad no están en este orden.
+     *
+     * @param prioridad la prioridad de la última tarea ya entregada, o null para empezar
+     * @param despuesDe el ID de la última tarea ya entregada
+     * @param cantidad la cantidad máxima de IDs
+     * @return los IDs siguientes en ese orden
+     */
+    public synchronized int[] porPrioridadDesde(Prioridad prioridad, int despuesDe, int cantidad) {
+        int[] resultado = new int[cantidad];
+        int n = 0;
+        Prioridad[] valores = Prioridad.values();
+        for (int p = prioridad == null ? 0 : prioridad.ordinal(); p < valores.length && n < cantidad; p++) {
+            ListaIds lista = porPrioridad.get(valores[p]);
+            if (lista == null) {
+                continue;
+            }
+            int i = valores[p] == prioridad ? lista.posicionDespuesDe(despuesDe) : 0;
+            while (i < lista.cantidad() && n < cantidad) {
+                resultado[n++] = lista.get(i++);
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Obtiene una porción de los candidatos de {@link #candidatosTexto(String)}, para paginar sin
+     * intersecar las listas completas: se recorre la lista más corta desde el ID indicado.
+     *
+     * @param palabraMinusculas la palabra buscada, ya en minúsculas
+     * @param despuesDe el último ID ya revisado (0 para empezar)
+     * @param cantidad la cantidad máxima de candidatos
+     * @return los candidatos mayores que {@code despuesDe} en orden creciente, o null si la
+     *         palabra tiene menos de {@value #LARGO_TRIGRAMA} caracteres y el índice no sirve
+     */
+    public synchronized int[] candidatosTextoDesde(String palabraMinusculas, int despuesDe, int cantidad) {
+        if (palabraMinusculas.length() < LARGO_TRIGRAMA) {
+            return null;
+        }
+        long[] claves = trigramasDe(palabraMinusculas);
+        ListaIds[] listas = new ListaIds[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            listas[i] = porTrigrama.get(claves[i]);
+            if (listas[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(listas, Comparator.comparingInt(ListaIds::cantidad));
+        int[] resultado = new int[cantidad];
+        int n = 0;
+        for (int i = listas[0].posicionDespuesDe(despuesDe); i < listas[0].cantidad() && n < cantidad; i++) {
+            int id = listas[0].get(i);
+            boolean enTodas = true;
+            for (int j = 1; j < listas.length && enTodas; j++) {
+                enTodas = listas[j].contiene(id);
+            }
+            if (enTodas) {
+                resultado[n++] = id;
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    /**
+     * Obtiene los IDs de las tareas cuyo título o descripción contienen todos los trigramas de
+     * una palabra. Hay que verificar cada candidato.
+     *
+     * @param palabraMinusculas la palabra buscada, ya en minúsculas
+     * @return los IDs candidatos en orden creciente, o null si la palabra tiene menos de
+     *         {@value #LARGO_TRIGRAMA} caracteres y el índice no sirve
+     */
+    public synchronized int[] candidatosTexto(String palabraMinusculas) {
+        if (palabraMinusculas.length() < LARGO_TRIGRAMA) {
+            return null;
+        }
+        long[] claves = trigramasDe(palabraMinusculas);
+        ListaIds[] listas = new ListaIds[claves.length];
+        for (int i = 0; i < claves.length; i++) {
+            listas[i] = porTrigrama.get(claves[i]);
+            if (listas[i] == null) {
+                return new int[0];
+            }
+        }
+        // Se empieza por la lista más corta y se descartan los IDs que faltan en las demás
+        Arrays.sort(listas, Comparator.comparingInt(ListaIds::cantidad));
+        int[] candidatos = listas[0].aArreglo();
+        int n = candidatos.length;
+        for (int i = 1; i < listas.length && n > 0; i++) {
+            int quedan = 0;
+            for (int j = 0; j < n; j++) {
+                if (listas[i].contiene(candidatos[j])) {
+                    candidatos[quedan++] = candidatos[j];
+                }
+            }
+            n = quedan;
+        }
+        return Arrays.copyOf(candidatos, n);
+    }
+
+    /**
+     * Guarda los índices en un punto de control. Se escribe en un archivo temporal que luego
+     * reemplaza al anterior, para no dejar nunca un punto de control a medio escribir.
+     *
+     * @param ruta la ruta del punto de control
+     * @param generacion la generación de los datos de los que se construyeron los índices
+     * @throws IOException si no se puede escribir
+     */
+    public synchronized void guardar(Path ruta, long generacion) throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            canal.position(CABECERA);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(canal), crc), 1 << 16));
+            out.writeInt(cantidad);
+            escribirListas(out, porEstado, Estado.values());
+            escribirListas(out, porPrioridad, Prioridad.values());
+            out.writeInt(porFecha.size());
+            for (Map.Entry<LocalDate, ListaIds> e : porFecha.entrySet()) {
+                out.writeLong(e.getKey().toEpochDay());
+                escribirLista(out, e.getValue());
+            }
+            out.writeInt(porTrigrama.size());
+            for (Map.Entry<Long, ListaIds> e : porTrigrama.entrySet()) {
+                out.writeLong(e.getKey());
+                escribirLista(out, e.getValue());
+            }
+            out.flush();
+
+            long largo = canal.position() - CABECERA;
+            ByteBuffer cabecera = ByteBuffer.allocate(CABECERA)
+                    .putInt(MAGIA).putInt(FORMATO).putLong(generacion).putInt((int) crc.getValue()).putLong(largo)
+                    .flip();
+            canal.write(cabecera, 0);
+            canal.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carga un punto de control si corresponde a la generación indicada y no está dañado.
+     *
+     * @param ruta la ruta del punto de control
+     * @param generacion la generación actual de los datos
+     * @return los índices, o null si el archivo no existe, es de otra generación o está dañado
+     * @throws IOException si el archivo existe pero no se puede leer
+     */
+    public static IndiceTareas cargar(Path ruta, long generacion) throws IOException {
+        ByteBuffer buffer;
+        try {
+            long tamanio = Files.size(ruta);
+            if (tamanio < CABECERA || tamanio > Integer.MAX_VALUE - 8) {
+                return null;
+            }
+            buffer = ByteBuffer.wrap(Files.readAllBytes(ruta));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+
+        if (buffer.getInt() != MAGIA || buffer.getInt() != FORMATO || buffer.getLong() != generacion) {
+            return null;
+        }
+        int crcEsperado = buffer.getInt();
+        long largo = buffer.getLong();
+        if (largo != buffer.capacity() - CABECERA) {
+            return null;
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(CABECERA, (int) largo));
+        if ((int) crc.getValue() != crcEsperado) {
+            return null;
+        }
+
+        try {
+            IndiceTareas indice = new IndiceTareas();
+            indice.cantidad = buffer.getInt();
+            leerListas(buffer, indice.porEstado, Estado.values());
+            leerListas(buffer, indice.porPrioridad, Prioridad.values());
+            for (int i = buffer.getInt(); i > 0; i--) {
+                indice.porFecha.put(LocalDate.ofEpochDay(buffer.getLong()), leerLista(buffer));
+            }
+            for (int i = buffer.getInt(); i > 0; i--) {
+                indice.porTrigrama.put(buffer.getLong(), leerLista(buffer));
+            }
+            return indice;
+        } catch (RuntimeException e) {
+            return null; // contenido inconsistente con su cabecera: se reconstruye
+        }
+    }
+
+    /**
+     * Calcula los trigramas del título y la descripción de una tarea, en minúsculas.
+     *
+     * @param tarea la tarea
+     * @return las claves de los trigramas, sin repetidos
+     */
+    static long[] trigramas(Tarea tarea) {
+        long[] titulo = tarea.getTitulo() != null ? trigramasDe(tarea.getTitulo().toLowerCase()) : new long[0];
+        long[] descripcion = tarea.getDescripcion() != null
+                ? trigramasDe(tarea.getDescripcion().toLowerCase()) : new long[0];
+        long[] todos = Arrays.copyOf(titulo, titulo.length + descripcion.length);
+        System.arraycopy(descripcion, 0, todos, titulo.length, descripcion.length);
+        return unicos(todos);
+    }
+
+    /**
+     * Calcula los trigramas de un texto. Cada trigrama se codifica en un long con sus tres
+     * caracteres de 16 bits.
+     *
+     * @param texto el texto, ya en minúsculas
+     * @return las claves de los trigramas, sin repetidos
+     */
+    static long[] trigramasDe(String texto) {
+        int n = texto.length() - LARGO_TRIGRAMA + 1;
+        if (n <= 0) {
+            return new long[0];
+        }
+        long[] claves = new long[n];
+        for (int i = 0; i < n; i++) {
+            claves[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        return unicos(claves);
+    }
+
+    private static long[] unicos(long[] claves) {
+        if (claves.length < 2) {
+            return claves;
+        }
+        Arrays.sort(claves);
+        int n = 1;
+        for (int i = 1; i < claves.length; i++) {
+            if (claves[i] != claves[n - 1]) {
+                claves[n++] = claves[i];
+            }
+        }
+        return Arrays.copyOf(claves, n);
+    }
+
+    private static <K> boolean quitarDe(Map<K, ListaIds> indice, K clave, int id) {
+        if (clave == null) {
+            return false;
+        }
+        ListaIds lista = indice.get(clave);
+        if (lista == null || !lista.quitar(id)) {
+            return false;
+        }
+        if (lista.cantidad() == 0) {
+            indice.remove(clave);
+        }
+        return true;
+    }
+
+    /** Quita un ID de todas las listas de un índice y descarta las que quedan vacías. */
+    private static boolean quitarDeTodas(Map<?, ListaIds> indice, int id) {
+        boolean estaba = false;
+        for (Iterator<ListaIds> it = indice.values().iterator(); it.hasNext(); ) {
+            ListaIds lista = it.next();
+            if (lista.quitar(id)) {
+                estaba = true;
+                if (lista.cantidad() == 0) {
+                    it.remove();
+                }
+            }
+        }
+        return estaba;
+    }
+
+    private static int[] arreglo(ListaIds lista) {
+        return lista != null ? lista.aArreglo() : new int[0];
+    }
+
+    private static int[] porcion(ListaIds lista, int despuesDe, int cantidad) {
+        if (lista == null) {
+            return new int[0];
+        }
+        int desde = lista.posicionDespuesDe(despuesDe);
+        int hasta = (int) Math.min(lista.cantidad(), (long) desde + cantidad);
+        int[] resultado = new int[Math.max(0, hasta - desde)];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = lista.get(desde + i);
+        }
+        return resultado;
+    }
+
+    private static <E extends Enum<E>> void escribirListas(DataOutputStream out, Map<E, ListaIds> indice,
+                                                          E[] valores) throws IOException {
+        out.writeInt(valores.length);
+        for (E valor : valores) {
+            escribirLista(out, indice.get(valor));
+        }
+    }
+
+    private static void escribirLista(DataOutputStream out, ListaIds lista) throws IOException {
+        int n = lista != null ? lista.cantidad() : 0;
+        out.writeInt(n);
+        for (int i = 0; i < n; i++) {
+            out.writeInt(lista.get(i));
+        }
+    }
+
+    private static <E extends Enum<E>> void leerListas(ByteBuffer buffer, Map<E, ListaIds> indice, E[] valores) {
+        if (buffer.getInt() != valores.length) {
+            throw new IllegalStateException("Cambió la cantidad de valores de " + valores.getClass().getComponentType());
+        }
+        for (E valor : valores) {
+            ListaIds lista = leerLista(buffer);
+            if (lista.cantidad() > 0) {
+                indice.put(valor, lista);
+            }
+        }
+    }
+
+    private static ListaIds leerLista(ByteBuffer buffer) {
+        int[] ids = new int[buffer.getInt()];
+        buffer.asIntBuffer().get(ids); // copia en bloque desde el contenido leído
+        buffer.position(buffer.position() + ids.length * Integer.BYTES);
+        return new ListaIds(ids);
+    }
+}
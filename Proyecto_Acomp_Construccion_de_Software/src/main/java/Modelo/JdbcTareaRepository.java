@@ -0,0 +1,442 @@
+package Modelo;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Repositorio que guarda las tareas en una base de datos H2 embebida en archivo.
+ * <p>
+ * A diferencia de {@link TareaRepository}, que reescribe el archivo completo, este repositorio
+ * solo escribe las filas afectadas por cada cambio, agrupadas en lotes de sentencias preparadas
+ * dentro de una transacción. Las columnas de estado, prioridad y fecha están indexadas.
+ * <p>
+ * Resuelve las consultas en SQL ({@link #admiteConsultas()}), así que {@link TareaService} no
+ * carga las tareas: cada filtro, conteo y página lee solo las filas que coinciden, y se puede
+ * trabajar con un volumen de tareas que no cabe en memoria.
+ * <p>
+ * Usa una única conexión; todos los métodos son sincronizados.
+ */
+public class JdbcTareaRepository implements RepositorioTareas, AutoCloseable {
+
+    /** Cantidad de filas por lote al escribir. */
+    private static final int TAMANIO_LOTE = 500;
+
+    /** Columnas de la tabla, en el orden en que se leen y escriben. */
+    private static final String COLUMNAS = "id, titulo, descripcion, fecha_vencimiento, prioridad, estado, version";
+
+    /**
+     * Clave de orden de la prioridad: su ordinal en {@link Prioridad}, de alta a baja, o NULL si
+     * la fila no tiene prioridad.
+     */
+    private static final String ORDEN_PRIORIDAD = ordenPrioridad();
+
+    /** Conexión a la base de datos. */
+    private final Connection conexion;
+
+    /** Ruta del segmento de tareas archivadas. */
+    private final Path rutaArchivadas;
+
+    /** Ruta del registro de cambios, o null si solo se conserva en memoria. */
+    private final Path rutaCambios;
+
+    /** Ruta del archivo de plantillas recurrentes, o null si solo se conservan en memoria. */
+    private final Path rutaPlantillas;
+
+    /**
+     * Abre (o crea) la base de datos H2 ubicada en la ruta indicada, sin extensión
+     * (por ejemplo {@code tareas} crea {@code tareas.mv.db}).
+     *
+     * @param base ruta base de la base de datos
+     */
+    public JdbcTareaRepository(Path base) {
+        this("jdbc:h2:file:" + base.toAbsolutePath(),
+                base.resolveSibling(base.getFileName() + "-archivadas.jsonl.gz"),
+                base.resolveSibling(base.getFileName() + "-cambios.jsonl"),
+                base.resolveSibling(base.getFileName() + "-plantillas.json"));
+    }
+
+    /**
+     * Abre la base de datos de la URL JDBC indicada sin persistir el registro de cambios.
+     *
+     * @param url la URL JDBC
+     * @param rutaArchivadas la ruta del segmento de tareas archivadas
+     * @throws IllegalStateException si no se puede abrir la base de datos
+     */
+    public JdbcTareaRepository(String url, Path rutaArchivadas) {
+        this(url, rutaArchivadas, null);
+    }
+
+    /**
+     * Abre la base de datos de la URL JDBC indicada y crea la tabla y sus índices si no existen.
+     * Garantiza que el contador de ID de las tareas quede por encima del máximo encontrado.
+     *
+     * @param url la URL JDBC
+     * @param rutaArchivadas la ruta del segmento de tareas archivadas
+     * @param rutaCambios la ruta del registro de cambios, o null para conservarlo solo en memoria
+     * @throws IllegalStateException si no se puede abrir la base de datos
+     */
+    public JdbcTareaRepository(String url, Path rutaArchivadas, Path rutaCambios) {
+        this(url, rutaArchivadas, rutaCambios, null);
+    }
+
+    /**
+     * Abre la base de datos de la URL JDBC indicada y crea la tabla y sus índices si no existen.
+     * Garantiza que el contador de ID de las tareas quede por encima del máximo encontrado.
+     *
+     * @param url la URL JDBC
+     * @param rutaArchivadas la ruta del segmento de tareas archivadas
+     * @param rutaCambios la ruta del registro de cambios, o null para conservarlo solo en memoria
+     * @param rutaPlantillas la ruta del archivo de plantillas recurrentes, o null para
+     *                       conservarlas solo en memoria
+     * @throws IllegalStateException si no se puede abrir la base de datos
+     */
+    public JdbcTareaRepository(String url, Path rutaArchivadas, Path rutaCambios, Path rutaPlantillas) {
+        this.rutaArchivadas = rutaArchivadas;
+        this.rutaCambios = rutaCambios;
+        this.rutaPlantillas = rutaPlantillas;
+        try {
+            this.conexion = DriverManager.getConnection(url);
+            try (Statement st = conexion.createStatement()) {
+                st.execute("CREATE TABLE IF NOT EXISTS tareas ("
+                        + "id INT PRIMARY KEY, "
+                        + "titulo VARCHAR NOT NULL, "
+                        + "descripcion VARCHAR, "
+                        + "fecha_vencimiento DATE, "
+                        + "prioridad VARCHAR(16), "
+                        + "estado VARCHAR(16), "
+                        + "version INT NOT NULL DEFAULT 0)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_tareas_estado ON tareas(estado)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_tareas_prioridad ON tareas(prioridad)");
+                st.execute("CREATE INDEX IF NOT EXISTS idx_tareas_fecha ON tareas(fecha_vencimiento)");
+                try (ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(id), 0) FROM tareas")) {
+                    rs.next();
+                    Tarea.reservarHasta(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo abrir la base de datos de tareas: " + url, e);
+        }
+    }
+
+    @Override
+    public synchronized List<Tarea> obtenerTareas() {
+        return consultar("SELECT " + COLUMNAS + " FROM tareas ORDER BY id");
+    }
+
+    @Override
+    public synchronized void guardar(List<Tarea> tareas) {
+        enTransaccion(() -> {
+            try (Statement st = conexion.createStatement()) {
+                st.execute("DELETE FROM tareas");
+            }
+            escribir(tareas);
+        });
+    }
+
+    @Override
+    public synchronized void guardarCambios(List<Tarea> todas, Collection<Tarea> agregadas,
+                                            Collection<Tarea> actualizadas, Collection<Integer> eliminadas) {
+        if (agregadas.isEmpty() && actualizadas.isEmpty() && eliminadas.isEmpty()) {
+            return;
+        }
+        enTransaccion(() -> {
+            escribir(agregadas);
+            escribir(actualizadas);
+            if (!eliminadas.isEmpty()) {
+                try (PreparedStatement ps = conexion.prepareStatement("DELETE FROM tareas WHERE id = ?")) {
+                    int enLote = 0;
+                    for (int id : eliminadas) {
+                        ps.setInt(1, id);
+                        ps.addBatch();
+                        if (++enLote == TAMANIO_LOTE) {
+                            ps.executeBatch();
+                            enLote = 0;
+                        }
+                    }
+                    ps.executeBatch();
+                }
+            }
+        });
+    }
+
+    @Override
+    public Path getRutaArchivadas() {
+        return rutaArchivadas;
+    }
+
+    @Override
+    public Path getRutaCambios() {
+        return rutaCambios;
+    }
+
+    @Override
+    public Path getRutaPlantillas() {
+        return rutaPlantillas;
+    }
+
+    @Override
+    public boolean admiteConsultas() {
+        return true;
+    }
+
+    @Override
+    public synchronized Tarea buscarPorId(int id) {
+        List<Tarea> encontradas = consultar("SELECT " + COLUMNAS + " FROM tareas WHERE id = ?", id);
+        return encontradas.isEmpty() ? null : encontradas.get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Las condiciones de estado, prioridad y fecha usan los índices de sus columnas. La palabra se
+     * busca con {@code LIKE}, con sus comodines tomados de forma literal.
+     */
+    @Override
+    public synchronized List<Tarea> consultar(FiltroTareas filtro, String palabra, PaginaTareas.Orden orden,
+                                              long clave, int despuesDe, int limite) {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUMNAS + " FROM tareas WHERE ");
+        List<Object> parametros = new ArrayList<>();
+        condiciones(filtro, palabra, sql, parametros);
+        String columnaOrden = switch (orden) {
+            case ID -> null;
+            case FECHA -> "fecha_vencimiento";
+            case PRIORIDAD -> ORDEN_PRIORIDAD;
+        };
+        if (columnaOrden != null) {
+            sql.append(" AND ").append(columnaOrden).append(" IS NOT NULL");
+        }
+        if (despuesDe > 0) {
+            if (columnaOrden == null) {
+                sql.append(" AND id > ?");
+            } else {
+                Object valor = orden == PaginaTareas.Orden.FECHA ? Date.valueOf(LocalDate.ofEpochDay(clave)) : (int) clave;
+                sql.append(" AND (").append(columnaOrden).append(" > ? OR (")
+                        .append(columnaOrden).append(" = ? AND id > ?))");
+                parametros.add(valor);
+                parametros.add(valor);
+            }
+            parametros.add(despuesDe);
+        }
+        sql.append(" ORDER BY ").append(columnaOrden == null ? "" : columnaOrden + ", ").append("id LIMIT ?");
+        parametros.add(limite);
+        return consultar(sql.toString(), parametros.toArray());
+    }
+
+    @Override
+    public synchronized int contar(FiltroTareas filtro) {
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM tareas WHERE ");
+        List<Object> parametros = new ArrayList<>();
+        condiciones(filtro, null, sql, parametros);
+        try (PreparedStatement ps = conexion.prepareStatement(sql.toString())) {
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setObject(i + 1, parametros.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error al consultar la base de datos de tareas", e);
+        }
+    }
+
+    /**
+     * Cierra la conexión a la base de datos.
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            conexion.close();
+        } catch (SQLException e) {
+            Registro.global().error("JdbcTareaRepository", "No se pudo cerrar la conexión", e);
+        }
+    }
+
+    /**
+     * Agrega a una consulta las condiciones de un filtro y de una palabra. Como en
+     * {@link FiltroTareas}, las columnas null solo cumplen las condiciones que no se restringen.
+     *
+     * @param filtro el filtro por estado, prioridad y fecha
+     * @param palabra el texto a buscar en el título o la descripción, o null
+     * @param sql la consulta, que termina en {@code WHERE}
+     * @param parametros recibe los valores de los parámetros agregados, en orden
+     */
+    private static void condiciones(FiltroTareas filtro, String palabra, StringBuilder sql, List<Object> parametros) {
+        sql.append("TRUE");
+        if (filtro.filtraEstado()) {
+            enLista("estado", Estado.values(), filtro.estados, sql, parametros);
+        }
+        if (filtro.filtraPrioridad()) {
+            enLista("prioridad", Prioridad.values(), filtro.prioridades, sql, parametros);
+        }
+        if (filtro.filtraFecha()) {
+            sql.append(" AND fecha_vencimiento BETWEEN ? AND ?");
+            parametros.add(Date.valueOf(LocalDate.ofEpochDay(filtro.desde)));
+            parametros.add(Date.valueOf(LocalDate.ofEpochDay(filtro.hasta)));
+        }
+        if (palabra != null) {
+            String patron = "%" + palabra.toLowerCase()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            sql.append(" AND (LOWER(titulo) LIKE ? ESCAPE '\\' OR LOWER(descripcion) LIKE ? ESCAPE '\\')");
+            parametros.add(patron);
+            parametros.add(patron);
+        }
+    }
+
+    /**
+     * Agrega la condición de que una columna tenga alguno de los valores de una máscara de bits
+     * por ordinal.
+     *
+     * @param columna la columna
+     * @param valores todos los valores posibles
+     * @param mascara bit {@code 1 << ordinal} por cada valor aceptado
+     * @param sql la consulta
+     * @param parametros recibe los nombres de los valores aceptados
+     */
+    private static void enLista(String columna, Enum<?>[] valores, int mascara, StringBuilder sql, List<Object> parametros) {
+        StringJoiner lista = new StringJoiner(", ", " AND " + columna + " IN (", ")");
+        lista.setEmptyValue(" AND FALSE");
+        for (Enum<?> valor : valores) {
+            if ((mascara >>> valor.ordinal() & 1) != 0) {
+                lista.add("?");
+                parametros.add(valor.name());
+            }
+        }
+        sql.append(lista);
+    }
+
+    /**
+     * Arma la expresión que convierte la prioridad de una fila en su ordinal.
+     *
+     * @return la expresión {@code CASE}
+     */
+    private static String ordenPrioridad() {
+        StringBuilder caso = new StringBuilder("CASE prioridad");
+        for (Prioridad p : Prioridad.values()) {
+            caso.append(" WHEN '").append(p.name()).append("' THEN ").append(p.ordinal());
+        }
+        return caso.append(" END").toString();
+    }
+
+    /**
+     * Inserta o reemplaza las tareas indicadas, en lotes.
+     *
+     * @param tareas las tareas a escribir
+     * @throws SQLException si falla la escritura
+     */
+    private void escribir(Collection<Tarea> tareas) throws SQLException {
+        if (tareas.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conexion.prepareStatement(
+                "MERGE INTO tareas (" + COLUMNAS + ") KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            int enLote = 0;
+            for (Tarea t : tareas) {
+                ps.setInt(1, t.getId());
+                ps.setString(2, t.getTitulo());
+                ps.setString(3, t.getDescripcion());
+                if (t.getFechaVencimiento() != null) {
+                    ps.setDate(4, Date.valueOf(t.getFechaVencimiento()));
+                } else {
+                    ps.setNull(4, Types.DATE);
+                }
+                ps.setString(5, t.getPrioridad() != null ? t.getPrioridad().name() : null);
+                ps.setString(6, t.getEstado() != null ? t.getEstado().name() : null);
+                ps.setInt(7, t.getVersion());
+                ps.addBatch();
+                if (++enLote == TAMANIO_LOTE) {
+                    ps.executeBatch();
+                    enLote = 0;
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Ejecuta una consulta y convierte cada fila en una tarea.
+     *
+     * @param sql la consulta, con parámetros {@code ?}
+     * @param parametros los valores de los parámetros, en orden
+     * @return las tareas obtenidas
+     */
+    private List<Tarea> consultar(String sql, Object... parametros) {
+        try (PreparedStatement ps = conexion.prepareStatement(sql)) {
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setObject(i + 1, parametros[i]);
+            }
+            List<Tarea> tareas = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    tareas.add(leerFila(rs));
+                }
+            }
+            return tareas;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Error al consultar la base de datos de tareas", e);
+        }
+    }
+
+    /**
+     * Convierte la fila actual de un resultado en una tarea, sin consumir IDs del contador.
+     *
+     * @param rs el resultado posicionado en una fila
+     * @return la tarea
+     * @throws SQLException si falla la lectura
+     */
+    private static Tarea leerFila(ResultSet rs) throws SQLException {
+        Date fecha = rs.getDate("fecha_vencimiento");
+        String prioridad = rs.getString("prioridad");
+        String estado = rs.getString("estado");
+        Tarea tarea = new Tarea(rs.getInt("id"), rs.getString("titulo"), rs.getString("descripcion"),
+                fecha != null ? fecha.toLocalDate() : null,
+                prioridad != null ? Prioridad.valueOf(prioridad) : null,
+                estado != null ? Estado.valueOf(estado) : null);
+        tarea.setVersion(rs.getInt("version"));
+        return tarea;
+    }
+
+    /**
+     * Ejecuta una operación de escritura en una transacción, deshaciéndola si falla. Como en
+     * {@link TareaRepository#guardarEnArchivo(List)}, los errores de escritura se informan en la
+     * salida de errores y no se propagan.
+     *
+     * @param operacion la operación a ejecutar
+     */
+    private void enTransaccion(OperacionSql operacion) {
+        try {
+            conexion.setAutoCommit(false);
+            try {
+                operacion.ejecutar();
+                conexion.commit();
+            } catch (SQLException e) {
+                conexion.rollback();
+                throw e;
+            } finally {
+                conexion.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            Registro.global().error("JdbcTareaRepository", "No se pudieron guardar los cambios", e);
+        }
+    }
+
+    /**
+     * Operación sobre la base de datos que puede lanzar {@link SQLException}.
+     */
+    @FunctionalInterface
+    private interface OperacionSql {
+        void ejecutar() throws SQLException;
+    }
+}
@@ -0,0 +1,107 @@
+package Modelo;
+
+import java.util.Arrays;
+
+/**
+ * Lista ordenada y sin repetidos de IDs de tareas, guardada en un arreglo de enteros.
+ * <p>
+ * Como los IDs nuevos casi siempre son mayores que los existentes, agregar suele ser un simple
+ * añadido al final. Quitar desplaza los elementos siguientes. No es segura para hilos.
+ */
+final class ListaIds {
+
+    private int[] ids;
+    private int cantidad;
+
+    ListaIds() {
+        this.ids = new int[4];
+    }
+
+    /**
+     * Crea una lista a partir de un arreglo ya ordenado y sin repetidos, sin copiarlo.
+     *
+     * @param ordenados los IDs ordenados
+     */
+    ListaIds(int[] ordenados) {
+        this.ids = ordenados;
+        this.cantidad = ordenados.length;
+    }
+
+    /**
+     * Agrega un ID si no estaba.
+     *
+     * @param id el ID a agregar
+     */
+    void agregar(int id) {
+        int posicion;
+        if (cantidad == 0 || ids[cantidad - 1] < id) {
+            posicion = cantidad;
+        } else {
+            posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -posicion - 1;
+        }
+        if (cantidad == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, cantidad * 2));
+        }
+        System.arraycopy(ids, posicion, ids, posicion + 1, cantidad - posicion);
+        ids[posicion] = id;
+        cantidad++;
+    }
+
+    /**
+     * Quita un ID si estaba.
+     *
+     * @param id el ID a quitar
+     * @return true si estaba en la lista
+     */
+    boolean quitar(int id) {
+        int posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+        if (posicion < 0) {
+            return false;
+        }
+        System.arraycopy(ids, posicion + 1, ids, posicion, cantidad - posicion - 1);
+        cantidad--;
+        return true;
+    }
+
+    /**
+     * Indica si la lista contiene un ID.
+     *
+     * @param id el ID a buscar
+     * @return true si está en la lista
+     */
+    boolean contiene(int id) {
+        return Arrays.binarySearch(ids, 0, cantidad, id) >= 0;
+    }
+
+    /**
+     * Busca la posición del primer ID mayor que uno dado.
+     *
+     * @param id el ID de referencia
+     * @return la posición del primer ID mayor, o la cantidad si no hay ninguno
+     */
+    int posicionDespuesDe(int id) {
+        int posicion = Arrays.binarySearch(ids, 0, cantidad, id);
+        return posicion >= 0 ? posicion + 1 : -posicion - 1;
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    int get(int i) {
+        return ids[i];
+    }
+
+    /**
+     * Copia los IDs a un arreglo nuevo.
+     *
+     * @return los IDs en orden creciente
+     */
+    int[] aArreglo() {
+        return Arrays.copyOf(ids, cantidad);
+    }
+}
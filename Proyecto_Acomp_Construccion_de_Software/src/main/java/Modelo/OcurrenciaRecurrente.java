@@ -0,0 +1,87 @@
+package Modelo;
+
+import java.time.LocalDate;
+
+/**
+ * Ocurrencia de una {@link PlantillaRecurrente} generada al consultarla, que no está guardada
+ * como tarea.
+ * <p>
+ * Se comporta como cualquier {@link Tarea} en la tabla y en los filtros, con estado
+ * {@link Estado#PENDIENTE}. Su ID es negativo y se deriva del ID de la plantilla y del número de
+ * ocurrencia, de modo que la misma ocurrencia tiene siempre el mismo ID y el servicio puede
+ * encontrar su plantilla para materializarla o eliminarla.
+ */
+public class OcurrenciaRecurrente extends Tarea {
+
+    /** Plantilla que generó la ocurrencia. */
+    private final PlantillaRecurrente plantilla;
+
+    /** Número de la ocurrencia dentro de su plantilla, empezando en 0. */
+    private final int numero;
+
+    OcurrenciaRecurrente(PlantillaRecurrente plantilla, int numero, LocalDate fecha) {
+        super(idDe(plantilla.getId(), numero), plantilla.getTitulo(), plantilla.getDescripcion(), fecha,
+                plantilla.getPrioridad(), Estado.PENDIENTE);
+        this.plantilla = plantilla;
+        this.numero = numero;
+    }
+
+    /**
+     * Obtiene la plantilla que generó la ocurrencia.
+     *
+     * @return la plantilla
+     */
+    public PlantillaRecurrente getPlantilla() {
+        return plantilla;
+    }
+
+    /**
+     * Obtiene el número de la ocurrencia dentro de su plantilla.
+     *
+     * @return el número, empezando en 0
+     */
+    public int getNumero() {
+        return numero;
+    }
+
+    /**
+     * Indica si un ID corresponde a una ocurrencia generada por una plantilla.
+     *
+     * @param id el ID
+     * @return true si es el ID de una ocurrencia
+     */
+    public static boolean esOcurrencia(int id) {
+        return id < 0;
+    }
+
+    /**
+     * Calcula el ID de una ocurrencia.
+     *
+     * @param plantilla el ID de la plantilla
+     * @param numero el número de la ocurrencia
+     * @return el ID, siempre negativo
+     */
+    static int idDe(int plantilla, int numero) {
+        return -((plantilla << 16) | numero);
+    }
+
+    /**
+     * Obtiene el ID de la plantilla de una ocurrencia.
+     *
+     * @param id el ID de la ocurrencia
+     * @return el ID de su plantilla
+     */
+    static int plantillaDe(int id) {
+        return -id >>> 16;
+    }
+
+    /**
+     * Obtiene el número de ocurrencia a partir de su ID.
+     *
+     * @param id el ID de la ocurrencia
+     * @return el número dentro de su plantilla
+     */
+    static int numeroDe(int id) {
+        return -id & 0xFFFF;
+    }
+}
@@ -0,0 +1,34 @@
+package Modelo;
+
+import java.util.List;
+
+/**
+ * Página de una consulta de tareas paginada por clave.
+ * <p>
+ * El cursor {@code siguiente} es un texto opaco que identifica la última tarea entregada; se pasa
+ * tal cual para pedir la página siguiente. Solo sirve para la misma consulta que lo generó.
+ *
+ * @param tareas las tareas de la página, en el orden de la consulta
+ * @param siguiente el cursor de la página siguiente; null si esta es la última
+ */
+public record PaginaTareas(List<Tarea> tareas, String siguiente) {
+
+    /** Órdenes en los que se puede paginar el total de las tareas. */
+    public enum Orden {
+        /** Por ID creciente. */
+        ID,
+        /** Por fecha de vencimiento y luego por ID; no incluye las tareas sin fecha. */
+        FECHA,
+        /** De prioridad alta a baja y luego por ID; no incluye las tareas sin prioridad. */
+        PRIORIDAD
+    }
+
+    /**
+     * Indica si hay una página siguiente.
+     *
+     * @return true si hay más tareas después de esta página
+     */
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+}
@@ -0,0 +1,407 @@
+package Modelo;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Emite avisos cuando vencen las tareas, usando una rueda de temporización jerárquica.
+ * <p>
+ * La rueda tiene {@value #NIVELES} niveles de {@value #RANURAS} ranuras. Cada ranura del nivel 0
+ * dura un tic ({@code resolucion}); cada ranura del nivel {@code n} abarca {@code 64^n} tics.
+ * Un vencimiento se inserta en el nivel más bajo que lo alcanza, en una lista doblemente enlazada,
+ * por lo que programar y cancelar son O(1). Cuando el nivel 0 da una vuelta, la ranura
+ * correspondiente del nivel siguiente se redistribuye hacia abajo. Con tics de un minuto la rueda
+ * cubre más de 30 años; los vencimientos más lejanos se reubican al acercarse.
+ * <p>
+ * Cada tarea no completada tiene un único nodo: primero avisa {@link AvisoVencimiento.Tipo#VENCE_HOY}
+ * al empezar el día de vencimiento y luego {@link AvisoVencimiento.Tipo#VENCIDA} al terminar.
+ * Las tareas completadas o eliminadas se cancelan. Todo el trabajo lo hace un único hilo que
+ * avanza la rueda una vez por tic, sin importar cuántos vencimientos haya pendientes.
+ */
+public class PlanificadorVencimientos implements AutoCloseable {
+
+    /** Duración por defecto de un tic. */
+    public static final Duration RESOLUCION_POR_DEFECTO = Duration.ofMinutes(1);
+
+    /** Bits del índice de ranura dentro de un nivel. */
+    private static final int BITS = 6;
+
+    /** Cantidad de ranuras por nivel. */
+    private static final int RANURAS = 1 << BITS;
+
+    /** Máscara para obtener el índice de ranura. */
+    private static final int MASCARA = RANURAS - 1;
+
+    /** Cantidad de niveles de la rueda. */
+    private static final int NIVELES = 4;
+
+    /** Mayor distancia en tics que la rueda puede representar directamente. */
+    private static final long ALCANCE = 1L << (BITS * NIVELES);
+
+    /** Reloj del que se obtiene la hora actual y la zona horaria de las fechas. */
+    private final Clock reloj;
+
+    /** Duración de un tic en milisegundos. */
+    private final long resolucionMs;
+
+    /** Instante que corresponde al tic 0. */
+    private final long origenMs;
+
+    /** Cabeceras de las listas de cada ranura, por nivel. */
+    private final Nodo[][] ranuras = new Nodo[NIVELES][RANURAS];
+
+    /** Nodo de cada tarea programada, para cancelar o reprogramar en O(1). */
+    private final Map<Integer, Nodo> nodos = new HashMap<>();
+
+    /** Receptores de los avisos. */
+    private final List<Consumer<AvisoVencimiento>> oyentes = new CopyOnWriteArrayList<>();
+
+    /** Tic que se procesará a continuación. */
+    private long ticActual;
+
+    /** Cantidad de nodos enlazados en la rueda. */
+    private int pendientes;
+
+    /** Hilo que avanza la rueda; null hasta que se llama a {@link #iniciar()}. */
+    private ScheduledExecutorService hilo;
+
+    /** Suscripción a los eventos del servicio conectado; null si no hay ninguno. */
+    private CompletableFuture<Void> suscripcion;
+
+    /**
+     * Crea un planificador con la resolución por defecto y el reloj del sistema.
+     */
+    public PlanificadorVencimientos() {
+        this(Clock.systemDefaultZone(), RESOLUCION_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un planificador.
+     *
+     * @param reloj reloj con la hora actual y la zona en la que empiezan los días
+     * @param resolucion duración de un tic; los avisos pueden llegar hasta un tic tarde
+     */
+    public PlanificadorVencimientos(Clock reloj, Duration resolucion) {
+        if (resolucion.toMillis() <= 0) {
+            throw new IllegalArgumentException("La resolución debe ser de al menos un milisegundo.");
+        }
+        this.reloj = reloj;
+        this.resolucionMs = resolucion.toMillis();
+        this.origenMs = reloj.millis();
+    }
+
+    /**
+     * Registra un receptor de avisos. Se invoca en el hilo del planificador.
+     *
+     * @param oyente el receptor
+     */
+    public void agregarOyente(Consumer<AvisoVencimiento> oyente) {
+        oyentes.add(oyente);
+    }
+
+    /**
+     * Programa todas las tareas actuales del servicio y se suscribe a sus cambios para
+     * programar, reprogramar o cancelar a medida que las tareas se crean, cambian o completan.
+     * Si ya estaba conectado a otro servicio (por ejemplo al cambiar de espacio de trabajo), antes
+     * se desconecta de él.
+     *
+     * @param service el servicio cuyas tareas se vigilan
+     */
+    public void conectar(TareaService service) {
+        desconectar();
+        // Primero la suscripción, para no perder cambios ocurridos durante la carga inicial
+        CompletableFuture<Void> nueva = service.escuchar(evento -> {
+            evento.agregadas().forEach(this::programar);
+            evento.actualizadas().forEach(this::programar);
+            evento.eliminadas().forEach(t -> cancelar(t.getId()));
+        });
+        synchronized (this) {
+            suscripcion = nueva;
+        }
+        service.obtenerTodas().forEach(this::programar);
+    }
+
+    /**
+     * Deja de recibir los cambios del servicio conectado y cancela todos los avisos pendientes.
+     */
+    public synchronized void desconectar() {
+        if (suscripcion != null) {
+            suscripcion.cancel(false); // el publicador deja de entregarle eventos
+            suscripcion = null;
+        }
+        for (Nodo[] nivel : ranuras) {
+            Arrays.fill(nivel, null);
+        }
+        nodos.clear();
+        pendientes = 0;
+    }
+
+    /**
+     * Empieza a avanzar la rueda en un hilo propio, una vez por tic.
+     */
+    public synchronized void iniciar() {
+        if (hilo != null) {
+            return;
+        }
+        hilo = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "planificador-vencimientos");
+            t.setDaemon(true);
+            return t;
+        });
+        hilo.scheduleAtFixedRate(() -> avanzarHasta(reloj.instant()), 0, resolucionMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Detiene el hilo del planificador.
+     */
+    @Override
+    public synchronized void close() {
+        if (hilo != null) {
+            hilo.shutdownNow();
+            hilo = null;
+        }
+    }
+
+    /**
+     * Programa los avisos de una tarea, o la cancela si está completada. Si ya estaba programada
+     * con la misma fecha no cambia nada, para no repetir avisos ya emitidos.
+     *
+     * @param tarea la tarea a programar
+     */
+    public synchronized void programar(Tarea tarea) {
+        Nodo existente = nodos.get(tarea.getId());
+        if (tarea.getEstado() == Estado.COMPLETADA || tarea.getFechaVencimiento() == null) {
+            cancelar(tarea.getId());
+            return;
+        }
+        if (existente != null && existente.fecha.equals(tarea.getFechaVencimiento())) {
+            return;
+        }
+        cancelar(tarea.getId());
+
+        Nodo nodo = new Nodo(tarea, tarea.getFechaVencimiento());
+        nodos.put(tarea.getId(), nodo);
+        long inicioDia = ticDe(nodo.fecha);
+        if (ticActual <= inicioDia) {
+            nodo.tipo = AvisoVencimiento.Tipo.VENCE_HOY;
+            nodo.tic = inicioDia;
+        } else {
+            // El día de vencimiento ya empezó (o ya pasó): solo queda avisar que está vencida
+            nodo.tipo = AvisoVencimiento.Tipo.VENCIDA;
+            nodo.tic = ticDe(nodo.fecha.plusDays(1));
+        }
+        insertar(nodo);
+    }
+
+    /**
+     * Cancela los avisos pendientes de una tarea.
+     *
+     * @param idTarea el ID de la tarea
+     */
+    public synchronized void cancelar(int idTarea) {
+        Nodo nodo = nodos.remove(idTarea);
+        if (nodo != null && nodo.enlazado) {
+            desenlazar(nodo);
+        }
+    }
+
+    /**
+     * Obtiene la cantidad de avisos pendientes en la rueda.
+     *
+     * @return la cantidad de vencimientos programados
+     */
+    public synchronized int getPendientes() {
+        return pendientes;
+    }
+
+    /**
+     * Procesa todos los tics hasta el instante indicado, emitiendo los avisos que correspondan.
+     * Normalmente lo llama el hilo del planificador; también sirve para avanzar a mano en pruebas.
+     *
+     * @param instante el instante hasta el que avanzar
+     */
+    public void avanzarHasta(Instant instante) {
+        long objetivo = Math.floorDiv(instante.toEpochMilli() - origenMs, resolucionMs);
+        while (true) {
+            List<AvisoVencimiento> avisos;
+            synchronized (this) {
+                if (ticActual > objetivo) {
+                    return;
+                }
+                avisos = procesarTic();
+            }
+            // Los oyentes se ejecutan fuera del bloqueo para que puedan programar o cancelar
+            for (AvisoVencimiento aviso : avisos) {
+                for (Consumer<AvisoVencimiento> oyente : oyentes) {
+                    try {
+                        oyente.accept(aviso);
+                    } catch (RuntimeException e) {
+                        Registro.global().error("PlanificadorVencimientos", "Falló un oyente de avisos", e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Procesa el tic actual: redistribuye los niveles superiores si el nivel 0 completó una vuelta
+     * y vacía la ranura del nivel 0 correspondiente.
+     *
+     * @return los avisos a emitir
+     */
+    private List<AvisoVencimiento> procesarTic() {
+        int indice = (int) (ticActual & MASCARA);
+        if (indice == 0) {
+            for (int nivel = 1; nivel < NIVELES; nivel++) {
+                int ranura = (int) ((ticActual >>> (BITS * nivel)) & MASCARA);
+                redistribuir(nivel, ranura);
+                if (ranura != 0) {
+                    break;
+                }
+            }
+        }
+
+        List<AvisoVencimiento> avisos = List.of();
+        Nodo nodo = ranuras[0][indice];
+        ranuras[0][indice] = null;
+        while (nodo != null) {
+            Nodo siguiente = nodo.siguiente;
+            nodo.enlazado = false;
+            nodo.anterior = nodo.siguiente = null;
+            pendientes--;
+            if (nodo.tic > ticActual) {
+                insertar(nodo); // vencimiento más allá del alcance de la rueda: se reubica
+            } else {
+                if (avisos.isEmpty()) {
+                    avisos = new ArrayList<>();
+                }
+                avisos.add(new AvisoVencimiento(nodo.tipo, nodo.tarea, nodo.fecha));
+                if (nodo.tipo == AvisoVencimiento.Tipo.VENCE_HOY) {
+                    nodo.tipo = AvisoVencimiento.Tipo.VENCIDA;
+                    nodo.tic = ticDe(nodo.fecha.plusDays(1));
+                    insertar(nodo);
+                }
+                // Tras avisar VENCIDA el nodo queda en el mapa, sin enlazar, para no repetir avisos
+            }
+            nodo = siguiente;
+        }
+        ticActual++;
+        return avisos;
+    }
+
+    /**
+     * Vacía una ranura de un nivel superior reinsertando sus nodos según el tiempo que les falta.
+     *
+     * @param nivel el nivel de la ranura
+     * @param ranura el índice de la ranura
+     */
+    private void redistribuir(int nivel, int ranura) {
+        Nodo nodo = ranuras[nivel][ranura];
+        ranuras[nivel][ranura] = null;
+        while (nodo != null) {
+            Nodo siguiente = nodo.siguiente;
+            nodo.enlazado = false;
+            nodo.anterior = nodo.siguiente = null;
+            pendientes--;
+            insertar(nodo);
+            nodo = siguiente;
+        }
+    }
+
+    /**
+     * Enlaza un nodo en la ranura que le corresponde según la distancia a su tic.
+     *
+     * @param nodo el nodo a insertar
+     */
+    private void insertar(Nodo nodo) {
+        long distancia = nodo.tic - ticActual;
+        long tic = nodo.tic;
+        if (distancia < 0) {
+            tic = ticActual; // ya venció: se procesa en el tic actual
+            distancia = 0;
+        } else if (distancia >= ALCANCE) {
+            tic = ticActual + ALCANCE - 1; // se reubicará al acercarse
+            distancia = ALCANCE - 1;
+        }
+
+        int nivel = 0;
+        while (distancia >= (1L << (BITS * (nivel + 1)))) {
+            nivel++;
+        }
+        int ranura = (int) ((tic >>> (BITS * nivel)) & MASCARA);
+
+        nodo.nivel = nivel;
+        nodo.ranura = ranura;
+        nodo.anterior = null;
+        nodo.siguiente = ranuras[nivel][ranura];
+        if (nodo.siguiente != null) {
+            nodo.siguiente.anterior = nodo;
+        }
+        ranuras[nivel][ranura] = nodo;
+        nodo.enlazado = true;
+        pendientes++;
+    }
+
+    /**
+     * Quita un nodo de la lista de su ranura.
+     *
+     * @param nodo el nodo a quitar
+     */
+    private void desenlazar(Nodo nodo) {
+        if (nodo.anterior != null) {
+            nodo.anterior.siguiente = nodo.siguiente;
+        } else {
+            ranuras[nodo.nivel][nodo.ranura] = nodo.siguiente;
+        }
+        if (nodo.siguiente != null) {
+            nodo.siguiente.anterior = nodo.anterior;
+        }
+        nodo.anterior = nodo.siguiente = null;
+        nodo.enlazado = false;
+        pendientes--;
+    }
+
+    /**
+     * Calcula el primer tic en el que ya empezó el día indicado, en la zona del reloj.
+     *
+     * @param fecha el día
+     * @return el tic correspondiente al inicio del día, redondeado hacia arriba
+     */
+    private long ticDe(LocalDate fecha) {
+        long ms = fecha.atStartOfDay(reloj.getZone()).toInstant().toEpochMilli();
+        return -Math.floorDiv(-(ms - origenMs), resolucionMs); // división redondeando hacia arriba
+    }
+
+    /**
+     * Nodo de la rueda con el próximo aviso de una tarea.
+     */
+    private static final class Nodo {
+        private final Tarea tarea;
+        private final LocalDate fecha;
+        private AvisoVencimiento.Tipo tipo;
+        private long tic;
+        private int nivel;
+        private int ranura;
+        private boolean enlazado;
+        private Nodo anterior;
+        private Nodo siguiente;
+
+        private Nodo(Tarea tarea, LocalDate fecha) {
+            this.tarea = tarea;
+            this.fecha = fecha;
+        }
+    }
+}
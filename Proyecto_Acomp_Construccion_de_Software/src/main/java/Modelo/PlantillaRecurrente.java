@@ -0,0 +1,184 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tarea que se repite, como un pago mensual o una revisión semanal.
+ * <p>
+ * En vez de guardar una copia de la tarea por cada vencimiento, se guarda una sola plantilla con
+ * los datos comunes, la fecha de la primera ocurrencia y una {@link Recurrencia}. Las ocurrencias
+ * se generan al consultarlas y solo para las fechas pedidas, como {@link OcurrenciaRecurrente}s
+ * que no ocupan lugar en el archivo de tareas. Cuando se edita una ocurrencia, el servicio la
+ * convierte en una tarea real y la fecha queda registrada como excepción, para que la plantilla
+ * no la vuelva a generar; lo mismo pasa cuando se elimina.
+ */
+public class PlantillaRecurrente {
+
+    /** Cantidad máxima de ocurrencias por plantilla; el número de ocurrencia forma parte de su ID. */
+    public static final int MAX_OCURRENCIAS = 1 << 16;
+
+    /** ID máximo de una plantilla, para que los IDs de sus ocurrencias sean enteros negativos. */
+    public static final int MAX_ID = (1 << 15) - 1;
+
+    private final int id;
+    private final String titulo;
+    private final String descripcion;
+    private final Prioridad prioridad;
+    private final LocalDate inicio;
+    private final Recurrencia recurrencia;
+
+    /** Fechas que la plantilla ya no genera porque su ocurrencia se materializó o se eliminó. */
+    private final NavigableSet<LocalDate> excepciones = new ConcurrentSkipListSet<>();
+
+    /**
+     * Crea una plantilla.
+     *
+     * @param id el identificador de la plantilla, entre 1 y {@value #MAX_ID}
+     * @param titulo el título de cada ocurrencia
+     * @param descripcion la descripción de cada ocurrencia
+     * @param prioridad la prioridad de cada ocurrencia
+     * @param inicio la fecha de vencimiento de la primera ocurrencia
+     * @param recurrencia la regla con la que se repite
+     * @throws IllegalArgumentException si el ID está fuera de rango o falta la fecha o la regla
+     */
+    public PlantillaRecurrente(int id, String titulo, String descripcion, Prioridad prioridad,
+                               LocalDate inicio, Recurrencia recurrencia) {
+        if (id < 1 || id > MAX_ID) {
+            throw new IllegalArgumentException("ID de plantilla fuera de rango: " + id);
+        }
+        if (inicio == null || recurrencia == null) {
+            throw new IllegalArgumentException("La plantilla necesita una fecha de inicio y una recurrencia.");
+        }
+        this.id = id;
+        this.titulo = titulo;
+        this.descripcion = descripcion;
+        this.prioridad = prioridad;
+        this.inicio = inicio;
+        this.recurrencia = recurrencia;
+    }
+
+    /**
+     * Obtiene el identificador de la plantilla.
+     *
+     * @return el identificador de la plantilla
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Obtiene el título de cada ocurrencia.
+     *
+     * @return el título
+     */
+    public String getTitulo() {
+        return titulo;
+    }
+
+    /**
+     * Obtiene la descripción de cada ocurrencia.
+     *
+     * @return la descripción
+     */
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    /**
+     * Obtiene la prioridad de cada ocurrencia.
+     *
+     * @return la prioridad
+     */
+    public Prioridad getPrioridad() {
+        return prioridad;
+    }
+
+    /**
+     * Obtiene la fecha de vencimiento de la primera ocurrencia.
+     *
+     * @return la fecha de la primera ocurrencia
+     */
+    public LocalDate getInicio() {
+        return inicio;
+    }
+
+    /**
+     * Obtiene la regla con la que se repite.
+     *
+     * @return la regla
+     */
+    public Recurrencia getRecurrencia() {
+        return recurrencia;
+    }
+
+    /**
+     * Obtiene las fechas que la plantilla ya no genera.
+     *
+     * @return las fechas excluidas, en orden; la vista no se puede modificar
+     */
+    public Set<LocalDate> getExcepciones() {
+        return Collections.unmodifiableSet(excepciones);
+    }
+
+    /**
+     * Excluye una fecha de las ocurrencias generadas.
+     *
+     * @param fecha la fecha de la ocurrencia que ya no se genera
+     * @return true si la fecha no estaba excluida
+     */
+    boolean omitir(LocalDate fecha) {
+        return excepciones.add(fecha);
+    }
+
+    /**
+     * Genera las ocurrencias que vencen entre dos fechas, incluidas ambas. Empieza directamente en
+     * la primera ocurrencia de la ventana, así que el costo depende solo de su tamaño.
+     *
+     * @param desde la primera fecha de la ventana
+     * @param hasta la última fecha de la ventana
+     * @return las ocurrencias en orden de fecha
+     */
+    public List<Tarea> ocurrenciasEntre(LocalDate desde, LocalDate hasta) {
+        LocalDate fin = recurrencia.hasta() != null && recurrencia.hasta().isBefore(hasta) ? recurrencia.hasta() : hasta;
+        List<Tarea> resultado = new ArrayList<>();
+        for (long n = recurrencia.primeraDesde(inicio, desde); n < MAX_OCURRENCIAS; n++) {
+            LocalDate fecha = recurrencia.fecha(inicio, n);
+            if (fecha.isAfter(fin)) {
+                break;
+            }
+            if (!excepciones.contains(fecha)) {
+                resultado.add(new OcurrenciaRecurrente(this, (int) n, fecha));
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Genera una ocurrencia a partir de su número.
+     *
+     * @param numero el número de la ocurrencia, empezando en 0
+     * @return la ocurrencia, o null si no existe, terminó la recurrencia o su fecha está excluida
+     */
+    public OcurrenciaRecurrente ocurrencia(int numero) {
+        if (numero < 0 || numero >= MAX_OCURRENCIAS) {
+            return null;
+        }
+        LocalDate fecha = recurrencia.fecha(inicio, numero);
+        if ((recurrencia.hasta() != null && fecha.isAfter(recurrencia.hasta())) || excepciones.contains(fecha)) {
+            return null;
+        }
+        return new OcurrenciaRecurrente(this, numero, fecha);
+    }
+
+    @Override
+    public String toString() {
+        return "PlantillaRecurrente{id=" + id + ", titulo='" + titulo + "', inicio=" + inicio
+                + ", recurrencia=" + recurrencia + '}';
+    }
+}
@@ -0,0 +1,95 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Regla con la que se repite una {@link PlantillaRecurrente}: cada cuántos días, semanas o meses
+ * vence una nueva ocurrencia y hasta cuándo.
+ * <p>
+ * La ocurrencia número {@code n} se calcula directamente desde la fecha de inicio, sin recorrer
+ * las anteriores, así que pedir las ocurrencias de una ventana lejana cuesta lo mismo que las de
+ * la semana actual. En las mensuales el día se ajusta al último del mes cuando no existe (una
+ * plantilla que empieza el 31 de enero vence el 28 o 29 de febrero y vuelve al 31 en marzo).
+ *
+ * @param frecuencia la unidad en la que se repite
+ * @param intervalo cada cuántas unidades se repite; al menos 1
+ * @param hasta la última fecha en la que puede vencer una ocurrencia, o null si no termina
+ */
+public record Recurrencia(Frecuencia frecuencia, int intervalo, LocalDate hasta) {
+
+    /** Unidades en las que se repite una plantilla. */
+    public enum Frecuencia {
+        DIARIA,
+        SEMANAL,
+        MENSUAL
+    }
+
+    /**
+     * Valida la regla.
+     *
+     * @throws IllegalArgumentException si falta la frecuencia o el intervalo no es positivo
+     */
+    public Recurrencia {
+        if (frecuencia == null) {
+            throw new IllegalArgumentException("La recurrencia necesita una frecuencia.");
+        }
+        if (intervalo < 1) {
+            throw new IllegalArgumentException("El intervalo de la recurrencia debe ser al menos 1: " + intervalo);
+        }
+    }
+
+    /**
+     * Crea una regla sin fecha de fin.
+     *
+     * @param frecuencia la unidad en la que se repite
+     * @param intervalo cada cuántas unidades se repite
+     * @return la regla
+     */
+    public static Recurrencia cada(int intervalo, Frecuencia frecuencia) {
+        return new Recurrencia(frecuencia, intervalo, null);
+    }
+
+    /**
+     * Calcula la fecha de una ocurrencia.
+     *
+     * @param inicio la fecha de la primera ocurrencia
+     * @param numero el número de la ocurrencia, empezando en 0
+     * @return la fecha en la que vence
+     */
+    public LocalDate fecha(LocalDate inicio, long numero) {
+        long unidades = numero * intervalo;
+        return switch (frecuencia) {
+            case DIARIA -> inicio.plusDays(unidades);
+            case SEMANAL -> inicio.plusWeeks(unidades);
+            case MENSUAL -> inicio.plusMonths(unidades);
+        };
+    }
+
+    /**
+     * Calcula el número de la primera ocurrencia que vence en una fecha o después.
+     *
+     * @param inicio la fecha de la primera ocurrencia
+     * @param desde la fecha desde la que se buscan ocurrencias
+     * @return el número de la ocurrencia, empezando en 0
+     */
+    public long primeraDesde(LocalDate inicio, LocalDate desde) {
+        if (!desde.isAfter(inicio)) {
+            return 0;
+        }
+        ChronoUnit unidad = switch (frecuencia) {
+            case DIARIA -> ChronoUnit.DAYS;
+            case SEMANAL -> ChronoUnit.WEEKS;
+            case MENSUAL -> ChronoUnit.MONTHS;
+        };
+        long numero = unidad.between(inicio, desde) / intervalo;
+        // between trunca: se corrige con a lo sumo un par de pasos
+        while (fecha(inicio, numero).isBefore(desde)) {
+            numero++;
+        }
+        while (numero > 0 && !fecha(inicio, numero - 1).isBefore(desde)) {
+            numero--;
+        }
+        return numero;
+    }
+}
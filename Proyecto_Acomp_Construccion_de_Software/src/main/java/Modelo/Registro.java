@@ -0,0 +1,389 @@
+package Modelo;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Registro de mensajes asíncrono, para no escribir en la consola desde el camino de las operaciones.
+ * <p>
+ * Quien registra un mensaje solo lo copia en un búfer circular de tamaño fijo y sigue; un hilo de
+ * fondo lo vacía y le da formato. El búfer es una cola acotada sin bloqueos: cada posición lleva
+ * un número de secuencia que indica si está libre o escrita, los escritores reservan una posición
+ * con una comparación atómica y nadie espera a nadie. Si el búfer está lleno el mensaje se
+ * descarta y se cuenta, y el hilo de fondo avisa cuántos se perdieron.
+ * <p>
+ * Los mensajes tienen nivel, origen y un texto con marcadores {@code {}} que se reemplazan por los
+ * argumentos al escribirlos, así que armar el texto tampoco cuesta en el hilo que registra. Los
+ * mensajes de nivel inferior al configurado se descartan con una sola lectura; si armar los
+ * argumentos es costoso, se puede preguntar antes con {@link #activo(Nivel)}.
+ * <p>
+ * Las líneas tienen la forma
+ * <pre>
+ * 2024-05-01T10:15:30.123Z INFO  [main] TareaService - Tarea agregada: id=7 titulo=Informe
+ * </pre>
+ */
+public final class Registro {
+
+    /** Niveles de los mensajes, de menor a mayor importancia. */
+    public enum Nivel {
+        /** Detalle para diagnosticar problemas. */
+        DEPURACION,
+
+        /** Funcionamiento normal, por ejemplo cada tarea agregada. */
+        INFO,
+
+        /** Algo inesperado que no impidió continuar, por ejemplo una tarea rechazada. */
+        AVISO,
+
+        /** Una operación que falló. */
+        ERROR
+    }
+
+    /** Cantidad de mensajes que caben en el búfer por defecto. */
+    public static final int CAPACIDAD = 8192;
+
+    /** Propiedad del sistema con el nivel mínimo del registro global. */
+    public static final String PROPIEDAD_NIVEL = "tareas.registro.nivel";
+
+    /** Espera máxima del hilo de fondo cuando no hay mensajes, en nanosegundos. */
+    private static final long ESPERA_NANOS = 1_000_000;
+
+    /** Registro compartido por toda la aplicación, creado al usarlo por primera vez. */
+    private static volatile Registro global;
+
+    /** Posiciones del búfer; su cantidad es una potencia de dos. */
+    private final Ranura[] ranuras;
+
+    /** Máscara para pasar de secuencia a posición. */
+    private final int mascara;
+
+    /** Secuencia de la próxima posición a reservar por los escritores. */
+    private final AtomicLong escritura = new AtomicLong();
+
+    /** Secuencia de la próxima posición a leer; solo la modifica el hilo de fondo. */
+    private volatile long lectura;
+
+    /** Mensajes descartados por búfer lleno desde el último aviso. */
+    private final LongAdder descartados = new LongAdder();
+
+    /** Total de mensajes descartados por búfer lleno. */
+    private final LongAdder descartadosTotal = new LongAdder();
+
+    /** Destino de las líneas; solo lo usa el hilo de fondo. */
+    private final Writer destino;
+
+    /** Nivel mínimo de los mensajes que se registran. */
+    private volatile Nivel minimo;
+
+    /** Indica si se pidió cerrar el registro. */
+    private volatile boolean cerrado;
+
+    /** Hilo que vacía el búfer. */
+    private final Thread escritor;
+
+    /**
+     * Crea un registro y arranca su hilo de fondo.
+     *
+     * @param destino donde se escriben las líneas
+     * @param capacidad cantidad de mensajes que caben en el búfer; se redondea a una potencia de dos
+     * @param minimo nivel mínimo de los mensajes que se registran
+     */
+    public Registro(Writer destino, int capacidad, Nivel minimo) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva.");
+        }
+        int tamanio = Integer.highestOneBit(Math.max(2, capacidad - 1)) << 1;
+        this.ranuras = new Ranura[tamanio];
+        for (int i = 0; i < tamanio; i++) {
+            ranuras[i] = new Ranura(i);
+        }
+        this.mascara = tamanio - 1;
+        this.destino = destino;
+        this.minimo = minimo;
+        this.escritor = new Thread(this::escribirPendientes, "registro");
+        escritor.setDaemon(true);
+        escritor.start();
+    }
+
+    /**
+     * Obtiene el registro compartido por la aplicación, que escribe en la salida estándar. Su
+     * nivel mínimo se toma de la propiedad {@value #PROPIEDAD_NIVEL} (por defecto INFO) y los
+     * mensajes pendientes se escriben al terminar la JVM.
+     *
+     * @return el registro global
+     */
+    public static Registro global() {
+        Registro r = global;
+        if (r == null) {
+            synchronized (Registro.class) {
+                r = global;
+                if (r == null) {
+                    Nivel nivel = Nivel.valueOf(System.getProperty(PROPIEDAD_NIVEL, Nivel.INFO.name()));
+                    r = new Registro(new OutputStreamWriter(System.out), CAPACIDAD, nivel);
+                    Registro creado = r;
+                    Runtime.getRuntime().addShutdownHook(new Thread(creado::vaciar, "registro-cierre"));
+                    global = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Cambia el nivel mínimo de los mensajes que se registran.
+     *
+     * @param nivel el nuevo nivel mínimo
+     */
+    public void setNivel(Nivel nivel) {
+        this.minimo = nivel;
+    }
+
+    /**
+     * Obtiene el nivel mínimo de los mensajes que se registran.
+     *
+     * @return el nivel mínimo
+     */
+    public Nivel getNivel() {
+        return minimo;
+    }
+
+    /**
+     * Indica si se registran los mensajes de un nivel.
+     *
+     * @param nivel el nivel
+     * @return true si los mensajes de ese nivel se escriben
+     */
+    public boolean activo(Nivel nivel) {
+        return nivel.ordinal() >= minimo.ordinal();
+    }
+
+    /**
+     * Obtiene la cantidad de mensajes descartados porque el búfer estaba lleno.
+     *
+     * @return el total de mensajes descartados
+     */
+    public long getDescartados() {
+        return descartadosTotal.sum();
+    }
+
+    /**
+     * Registra un mensaje de depuración.
+     *
+     * @param origen quién registra el mensaje
+     * @param mensaje el texto, con un {@code {}} por argumento
+     * @param argumentos los argumentos, que se convierten a texto en el hilo de fondo
+     */
+    public void depuracion(String origen, String mensaje, Object... argumentos) {
+        if (activo(Nivel.DEPURACION)) {
+            publicar(Nivel.DEPURACION, origen, mensaje, argumentos, null);
+        }
+    }
+
+    /**
+     * Registra un mensaje informativo.
+     *
+     * @param origen quién registra el mensaje
+     * @param mensaje el texto, con un {@code {}} por argumento
+     * @param argumentos los argumentos, que se convierten a texto en el hilo de fondo
+     */
+    public void info(String origen, String mensaje, Object... argumentos) {
+        if (activo(Nivel.INFO)) {
+            publicar(Nivel.INFO, origen, mensaje, argumentos, null);
+        }
+    }
+
+    /**
+     * Registra un aviso.
+     *
+     * @param origen quién registra el mensaje
+     * @param mensaje el texto, con un {@code {}} por argumento
+     * @param argumentos los argumentos, que se convierten a texto en el hilo de fondo
+     */
+    public void aviso(String origen, String mensaje, Object... argumentos) {
+        if (activo(Nivel.AVISO)) {
+            publicar(Nivel.AVISO, origen, mensaje, argumentos, null);
+        }
+    }
+
+    /**
+     * Registra un error junto con la excepción que lo causó.
+     *
+     * @param origen quién registra el mensaje
+     * @param mensaje el texto
+     * @param causa la excepción, cuya traza se escribe debajo del mensaje
+     */
+    public void error(String origen, String mensaje, Throwable causa) {
+        if (activo(Nivel.ERROR)) {
+            publicar(Nivel.ERROR, origen, mensaje, null, causa);
+        }
+    }
+
+    /**
+     * Espera a que se escriban todos los mensajes registrados hasta ahora.
+     */
+    public void vaciar() {
+        long hasta = escritura.get();
+        while (lectura < hasta && escritor.isAlive()) {
+            LockSupport.unpark(escritor);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Escribe los mensajes pendientes y detiene el hilo de fondo. Los mensajes posteriores se
+     * descartan.
+     */
+    public void cerrar() {
+        cerrado = true;
+        LockSupport.unpark(escritor);
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Copia un mensaje en una posición libre del búfer, o lo descarta si no hay ninguna.
+     */
+    private void publicar(Nivel nivel, String origen, String mensaje, Object[] argumentos, Throwable causa) {
+        if (cerrado) {
+            return;
+        }
+        long posicion = escritura.get();
+        while (true) {
+            Ranura ranura = ranuras[(int) posicion & mascara];
+            long diferencia = ranura.secuencia - posicion;
+            if (diferencia == 0) {
+                if (escritura.compareAndSet(posicion, posicion + 1)) {
+                    ranura.nivel = nivel;
+                    ranura.milisegundos = System.currentTimeMillis();
+                    ranura.hilo = Thread.currentThread().getName();
+                    ranura.origen = origen;
+                    ranura.mensaje = mensaje;
+                    ranura.argumentos = argumentos;
+                    ranura.causa = causa;
+                    ranura.secuencia = posicion + 1; // publica la ranura para el hilo de fondo
+                    return;
+                }
+                posicion = escritura.get();
+            } else if (diferencia < 0) {
+                descartados.increment(); // el hilo de fondo todavía no liberó esta posición
+                descartadosTotal.increment();
+                return;
+            } else {
+                posicion = escritura.get(); // otro escritor ya la reservó
+            }
+        }
+    }
+
+    /** Ciclo del hilo de fondo: vacía el búfer y espera un poco cuando no hay mensajes. */
+    private void escribirPendientes() {
+        StringBuilder linea = new StringBuilder(256);
+        while (true) {
+            boolean escribio = false;
+            long posicion = lectura;
+            Ranura ranura;
+            while ((ranura = ranuras[(int) posicion & mascara]).secuencia == posicion + 1) {
+                formatear(ranura, linea);
+                ranura.argumentos = null;
+                ranura.causa = null;
+                ranura.secuencia = posicion + ranuras.length; // libre para la próxima vuelta
+                posicion++;
+                escribir(linea);
+                escribio = true;
+            }
+            long perdidos = descartados.sumThenReset();
+            if (perdidos > 0) {
+                linea.setLength(0);
+                linea.append(Instant.now()).append(' ').append(etiqueta(Nivel.AVISO))
+                        .append(" [registro] Registro - Se descartaron ").append(perdidos)
+                        .append(" mensajes por búfer lleno").append(System.lineSeparator());
+                escribir(linea);
+                escribio = true;
+            }
+            if (escribio) {
+                try {
+                    destino.flush();
+                } catch (IOException e) {
+                    // sin otro lugar donde avisar: se siguen descartando las líneas
+                }
+            }
+            lectura = posicion;
+            if (!escribio) {
+                if (cerrado) {
+                    return;
+                }
+                LockSupport.parkNanos(this, ESPERA_NANOS);
+            }
+        }
+    }
+
+    private void escribir(StringBuilder linea) {
+        try {
+            destino.append(linea);
+        } catch (IOException e) {
+            // sin otro lugar donde avisar: se descarta la línea
+        }
+    }
+
+    /** Arma la línea de un mensaje, reemplazando cada {@code {}} por el argumento siguiente. */
+    private static void formatear(Ranura ranura, StringBuilder linea) {
+        linea.setLength(0);
+        linea.append(Instant.ofEpochMilli(ranura.milisegundos)).append(' ')
+                .append(etiqueta(ranura.nivel)).append(" [").append(ranura.hilo).append("] ")
+                .append(ranura.origen).append(" - ");
+        String mensaje = ranura.mensaje;
+        Object[] argumentos = ranura.argumentos;
+        int usado = 0;
+        int desde = 0;
+        int marcador;
+        while (argumentos != null && usado < argumentos.length && (marcador = mensaje.indexOf("{}", desde)) >= 0) {
+            linea.append(mensaje, desde, marcador).append(argumentos[usado++]);
+            desde = marcador + 2;
+        }
+        linea.append(mensaje, desde, mensaje.length()).append(System.lineSeparator());
+        if (ranura.causa != null) {
+            StringWriter traza = new StringWriter();
+            ranura.causa.printStackTrace(new PrintWriter(traza));
+            linea.append(traza);
+        }
+    }
+
+    /** Nombre del nivel con ancho fijo, para que los mensajes queden alineados. */
+    private static String etiqueta(Nivel nivel) {
+        return switch (nivel) {
+            case DEPURACION -> "DEPUR";
+            case INFO -> "INFO ";
+            case AVISO -> "AVISO";
+            case ERROR -> "ERROR";
+        };
+    }
+
+    /**
+     * Posición del búfer. Su secuencia vale la posición absoluta cuando está libre para esa vuelta
+     * y la posición más uno cuando ya está escrita; los demás campos se leen después de ver la
+     * secuencia, que es volátil, y por eso no necesitan serlo.
+     */
+    private static final class Ranura {
+        volatile long secuencia;
+        Nivel nivel;
+        long milisegundos;
+        String hilo;
+        String origen;
+        String mensaje;
+        Object[] argumentos;
+        Throwable causa;
+
+        Ranura(long secuencia) {
+            this.secuencia = secuencia;
+        }
+    }
+}
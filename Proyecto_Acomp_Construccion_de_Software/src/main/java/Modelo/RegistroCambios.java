@@ -0,0 +1,330 @@
+package Modelo;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Registro acotado de los cambios hechos en las tareas, para que otros sistemas puedan
+ * sincronizarse leyendo solo lo que cambió desde la última vez.
+ * <p>
+ * Cada alta, modificación o baja recibe un número de secuencia creciente y se guarda como una
+ * línea JSON con la forma
+ * <pre>
+ * {"secuencia":42,"tipo":"ACTUALIZADA","id":7,"tarea":{...}}
+ * </pre>
+ * donde {@code tarea} es el contenido completo de la tarea después del cambio y se omite en las
+ * bajas. La propiedad {@code secuencia} siempre va primero, así que se puede leer sin decodificar
+ * la tarea.
+ * <p>
+ * En memoria se conservan los últimos {@code capacidad} cambios. Si hay ruta, las líneas también
+ * se agregan a un archivo que se compacta a esos mismos cambios cuando duplica la capacidad; al
+ * abrir el registro, la secuencia continúa desde la última línea del archivo. Quien pida cambios
+ * anteriores a los conservados debe volver a copiar todas las tareas.
+ */
+public class RegistroCambios {
+
+    /** Cantidad de cambios que se conservan por defecto. */
+    public static final int CAPACIDAD = 10_000;
+
+    /** Tipos de cambio registrados. */
+    public enum Tipo {
+        /** Se agregó una tarea. */
+        AGREGADA,
+
+        /** Se modificó una tarea. */
+        ACTUALIZADA,
+
+        /** La tarea dejó de estar entre las tareas activas (eliminada o archivada). */
+        ELIMINADA
+    }
+
+    /** Ruta del archivo del registro, o null si solo se conserva en memoria. */
+    private final Path ruta;
+
+    /** Cantidad máxima de cambios conservados. */
+    private final int capacidad;
+
+    /** Adaptador con el que se escriben las tareas. */
+    private final TareaTypeAdapter adaptador = new TareaTypeAdapter();
+
+    /** Últimos cambios, del más antiguo al más reciente. */
+    private final ArrayDeque<Linea> recientes = new ArrayDeque<>();
+
+    /** Secuencia del último cambio registrado. */
+    private long secuencia;
+
+    /** Cantidad de líneas escritas en el archivo desde la última compactación. */
+    private int lineasEnArchivo;
+
+    /**
+     * Abre el registro y recupera los últimos cambios del archivo, si existe.
+     *
+     * @param ruta ruta del archivo del registro, o null para conservarlo solo en memoria
+     * @param capacidad cantidad de cambios a conservar
+     * @throws IOException si el archivo existe pero no se puede leer
+     */
+    public RegistroCambios(Path ruta, int capacidad) throws IOException {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva.");
+        }
+        this.ruta = ruta;
+        this.capacidad = capacidad;
+        if (ruta != null && Files.exists(ruta)) {
+            boolean incompleto = false;
+            try (BufferedReader reader = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+                String linea;
+                while ((linea = reader.readLine()) != null) {
+                    long s;
+                    try {
+                        s = secuenciaDe(linea);
+                    } catch (IOException | IllegalStateException e) {
+                        incompleto = true; // línea cortada por un cierre abrupto
+                        break;
+                    }
+                    conservar(new Linea(s, linea));
+                    secuencia = s;
+                    lineasEnArchivo++;
+                }
+            }
+            if (incompleto) {
+                compactar(); // para que las líneas nuevas no queden detrás de la cortada
+            }
+        }
+    }
+
+    /**
+     * Obtiene la secuencia del último cambio registrado.
+     *
+     * @return la última secuencia, o 0 si todavía no hubo cambios
+     */
+    public synchronized long getSecuencia() {
+        return secuencia;
+    }
+
+    /**
+     * Indica si el registro todavía conserva todos los cambios posteriores a una secuencia.
+     *
+     * @param desde la última secuencia que ya conoce quien pregunta
+     * @return true si se pueden exportar los cambios desde esa secuencia
+     */
+    public synchronized boolean cubre(long desde) {
+        long primera = recientes.isEmpty() ? secuencia + 1 : recientes.peekFirst().secuencia();
+        return desde >= primera - 1;
+    }
+
+    /**
+     * Registra un cambio sobre las tareas y lo agrega al archivo. Los errores de escritura se
+     * informan sin interrumpir el cambio, que ya se aplicó en memoria.
+     *
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas modificadas
+     * @param eliminadas los IDs de las tareas quitadas
+     */
+    public synchronized void registrar(Collection<Tarea> agregadas, Collection<Tarea> actualizadas,
+                                       Collection<Integer> eliminadas) {
+        List<Linea> nuevas = new ArrayList<>(agregadas.size() + actualizadas.size() + eliminadas.size());
+        try {
+            for (Tarea t : agregadas) {
+                nuevas.add(codificar(++secuencia, Tipo.AGREGADA, t.getId(), t));
+            }
+            for (Tarea t : actualizadas) {
+                nuevas.add(codificar(++secuencia, Tipo.ACTUALIZADA, t.getId(), t));
+            }
+            for (int id : eliminadas) {
+                nuevas.add(codificar(++secuencia, Tipo.ELIMINADA, id, null));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // StringWriter no falla
+        }
+        for (Linea l : nuevas) {
+            conservar(l);
+        }
+        if (ruta == null || nuevas.isEmpty()) {
+            return;
+        }
+        try {
+            if (lineasEnArchivo + nuevas.size() > 2 * capacidad) {
+                compactar();
+            } else {
+                escribir(nuevas);
+                lineasEnArchivo += nuevas.size();
+            }
+        } catch (IOException e) {
+            Registro.global().error("RegistroCambios", "No se pudo escribir el registro de cambios " + ruta, e);
+        }
+    }
+
+    /**
+     * Escribe en formato de líneas JSON los cambios posteriores a una secuencia, del más antiguo
+     * al más reciente. Las líneas se copian en memoria con el registro bloqueado y se escriben
+     * después, así que un destino lento no frena a quien modifica las tareas.
+     *
+     * @param desde la última secuencia que ya conoce el destino (0 para pedir todos)
+     * @param destino donde se escriben las líneas
+     * @return la cantidad de cambios escritos
+     * @throws IllegalArgumentException si los cambios pedidos ya no se conservan
+     * @throws IOException si no se puede escribir en el destino
+     */
+    public long exportarDesde(long desde, Writer destino) throws IOException {
+        List<String> lineas = new ArrayList<>();
+        synchronized (this) {
+            if (!cubre(desde)) {
+                throw new IllegalArgumentException(sinHistoria(desde));
+            }
+            for (var it = recientes.descendingIterator(); it.hasNext(); ) {
+                Linea l = it.next();
+                if (l.secuencia() <= desde) {
+                    break;
+                }
+                lineas.add(l.json());
+            }
+        }
+        for (int i = lineas.size() - 1; i >= 0; i--) {
+            destino.write(lineas.get(i));
+            destino.write('\n');
+        }
+        destino.flush();
+        return lineas.size();
+    }
+
+    /**
+     * Escribe los cambios posteriores a una secuencia leyéndolos directamente de un archivo de
+     * registro, sin abrir el repositorio ni cargar las tareas. Lo usa el exportador de línea de
+     * comandos, que puede ejecutarse mientras la aplicación está abierta.
+     *
+     * @param ruta ruta del archivo de registro
+     * @param desde la última secuencia que ya conoce el destino (0 para pedir todos)
+     * @param destino donde se escriben las líneas
+     * @return la cantidad de cambios escritos
+     * @throws IllegalArgumentException si el archivo ya no conserva los cambios pedidos
+     * @throws IOException si no se puede leer el archivo o escribir en el destino
+     */
+    public static long exportarArchivo(Path ruta, long desde, Writer destino) throws IOException {
+        if (!Files.exists(ruta)) {
+            if (desde > 0) {
+                throw new IllegalArgumentException(sinHistoria(desde));
+            }
+            return 0;
+        }
+        long escritas = 0;
+        boolean primera = true;
+        try (BufferedReader reader = Files.newBufferedReader(ruta, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = reader.readLine()) != null) {
+                long s;
+                try {
+                    s = secuenciaDe(linea);
+                } catch (IOException | IllegalStateException e) {
+                    break; // línea que se está escribiendo en este momento
+                }
+                if (primera && s > desde + 1) {
+                    throw new IllegalArgumentException(sinHistoria(desde));
+                }
+                primera = false;
+                if (s > desde) {
+                    destino.write(linea);
+                    destino.write('\n');
+                    escritas++;
+                }
+            }
+        }
+        destino.flush();
+        return escritas;
+    }
+
+    /**
+     * Lee la secuencia de una línea del registro y comprueba que la línea esté completa, sin
+     * decodificar la tarea.
+     *
+     * @param linea la línea JSON
+     * @return su secuencia
+     * @throws IOException si la línea no es JSON válido o está cortada
+     * @throws IllegalStateException si la línea no empieza con la secuencia
+     */
+    static long secuenciaDe(String linea) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(linea))) {
+            reader.beginObject();
+            if (!"secuencia".equals(reader.nextName())) {
+                throw new IllegalStateException("La línea no empieza con la secuencia: " + linea);
+            }
+            long secuencia = reader.nextLong();
+            while (reader.hasNext()) {
+                reader.nextName();
+                reader.skipValue();
+            }
+            reader.endObject();
+            return secuencia;
+        }
+    }
+
+    private Linea codificar(long s, Tipo tipo, int id, Tarea tarea) throws IOException {
+        StringWriter texto = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(texto)) {
+            writer.beginObject();
+            writer.name("secuencia").value(s);
+            writer.name("tipo").value(tipo.name());
+            writer.name("id").value(id);
+            if (tarea != null) {
+                writer.name("tarea");
+                adaptador.write(writer, tarea);
+            }
+            writer.endObject();
+        }
+        return new Linea(s, texto.toString());
+    }
+
+    private void conservar(Linea linea) {
+        if (recientes.size() == capacidad) {
+            recientes.pollFirst();
+        }
+        recientes.addLast(linea);
+    }
+
+    /** Reescribe el archivo solo con los cambios conservados en memoria. */
+    private void compactar() throws IOException {
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporal, StandardCharsets.UTF_8)) {
+            for (Linea l : recientes) {
+                writer.write(l.json());
+                writer.write('\n');
+            }
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        lineasEnArchivo = recientes.size();
+    }
+
+    /** Agrega líneas al final del archivo. */
+    private void escribir(List<Linea> lineas) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(ruta, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Linea l : lineas) {
+                writer.write(l.json());
+                writer.write('\n');
+            }
+        }
+    }
+
+    private static String sinHistoria(long desde) {
+        return "El registro ya no conserva los cambios posteriores a la secuencia " + desde
+                + "; hace falta una copia completa de las tareas.";
+    }
+
+    /** Un cambio ya codificado junto con su secuencia. */
+    private record Linea(long secuencia, String json) {
+    }
+}
@@ -0,0 +1,209 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Almacenamiento persistente de las tareas.
+ * <p>
+ * {@link TareaService} solo depende de esta interfaz. Las implementaciones incluidas son:
+ * <ul>
+ *   <li>{@code json}: {@link TareaRepository}, un archivo JSON que se reescribe completo
+ *       (comportamiento original y opción por defecto).</li>
+ *   <li>{@code h2}: {@link JdbcTareaRepository}, una base de datos H2 embebida en archivo que solo
+ *       escribe las filas que cambiaron.</li>
+ * </ul>
+ * Si el repositorio resuelve las consultas por sí mismo ({@link #admiteConsultas()}), como el de
+ * H2, el servicio no carga las tareas: le pasa cada filtro y cada página. Si no, las carga todas
+ * al crearse y resuelve las consultas con sus índices en memoria.
+ * La implementación por defecto se elige con la propiedad del sistema {@code tareas.repositorio}.
+ */
+public interface RepositorioTareas {
+
+    /** Propiedad del sistema que indica qué repositorio usar. */
+    String PROPIEDAD_REPOSITORIO = "tareas.repositorio";
+
+    /**
+     * Obtiene una copia de las tareas almacenadas.
+     *
+     * @return lista de tareas
+     */
+    List<Tarea> obtenerTareas();
+
+    /**
+     * Reemplaza todo el contenido almacenado por la lista indicada.
+     *
+     * @param tareas lista completa de tareas a guardar
+     */
+    void guardar(List<Tarea> tareas);
+
+    /**
+     * Persiste un cambio hecho sobre la lista de tareas. Por defecto vuelve a guardar la lista
+     * completa; las implementaciones que pueden escribir filas sueltas solo escriben los cambios.
+     *
+     * @param todas la lista completa después del cambio
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas que cambiaron
+     * @param eliminadas los IDs de las tareas quitadas
+     */
+    default void guardarCambios(List<Tarea> todas, Collection<Tarea> agregadas,
+                                Collection<Tarea> actualizadas, Collection<Integer> eliminadas) {
+        guardar(todas);
+    }
+
+    /**
+     * Indica si el repositorio resuelve por sí mismo las consultas de {@link #buscarPorId(int)},
+     * {@link #consultar(FiltroTareas, String, PaginaTareas.Orden, long, int, int)} y
+     * {@link #contar(FiltroTareas)}. En ese caso {@link TareaService} no carga las tareas en
+     * memoria, y en {@link #guardarCambios(List, Collection, Collection, Collection)} la lista
+     * completa llega vacía: solo deben escribirse los cambios.
+     *
+     * @return true si el repositorio resuelve las consultas; por defecto false
+     */
+    default boolean admiteConsultas() {
+        return false;
+    }
+
+    /**
+     * Busca una tarea almacenada por su ID.
+     *
+     * @param id el ID de la tarea
+     * @return una copia de la tarea, o null si no existe
+     * @throws UnsupportedOperationException si el repositorio no resuelve consultas
+     */
+    default Tarea buscarPorId(int id) {
+        throw new UnsupportedOperationException("Este repositorio no resuelve consultas.");
+    }
+
+    /**
+     * Obtiene una página de las tareas almacenadas que cumplen un filtro, paginada por clave: la
+     * página empieza después de la última tarea de la anterior, identificada por su clave de orden
+     * y su ID.
+     *
+     * @param filtro el filtro por estado, prioridad y fecha
+     * @param palabra el texto que deben contener el título o la descripción, sin distinguir
+     *                mayúsculas, o null para no buscar texto
+     * @param orden el orden de las tareas; en {@link PaginaTareas.Orden#FECHA} y
+     *              {@link PaginaTareas.Orden#PRIORIDAD} no se incluyen las tareas sin ese dato
+     * @param clave la clave de orden de la última tarea de la página anterior: los días desde la
+     *              época de su fecha, o el ordinal de su prioridad; se ignora al ordenar por ID
+     * @param despuesDe el ID de la última tarea de la página anterior, o 0 para empezar desde el
+     *                  principio
+     * @param limite la cantidad máxima de tareas
+     * @return copias de las tareas, en el orden indicado
+     * @throws UnsupportedOperationException si el repositorio no resuelve consultas
+     */
+    default List<Tarea> consultar(FiltroTareas filtro, String palabra, PaginaTareas.Orden orden,
+                                  long clave, int despuesDe, int limite) {
+        throw new UnsupportedOperationException("Este repositorio no resuelve consultas.");
+    }
+
+    /**
+     * Cuenta las tareas almacenadas que cumplen un filtro, sin leerlas.
+     *
+     * @param filtro el filtro por estado, prioridad y fecha
+     * @return la cantidad de tareas
+     * @throws UnsupportedOperationException si el repositorio no resuelve consultas
+     */
+    default int contar(FiltroTareas filtro) {
+        throw new UnsupportedOperationException("Este repositorio no resuelve consultas.");
+    }
+
+    /**
+     * Obtiene la ruta del segmento comprimido donde se guardan las tareas archivadas.
+     *
+     * @return la ruta del segmento de tareas archivadas
+     */
+    Path getRutaArchivadas();
+
+    /**
+     * Obtiene la ruta donde se guarda el punto de control de los índices del servicio.
+     *
+     * @return la ruta del punto de control, o null si este repositorio no usa puntos de control
+     */
+    default Path getRutaPuntoControl() {
+        return null;
+    }
+
+    /**
+     * Obtiene la ruta donde el servicio persiste su registro de cambios.
+     *
+     * @return la ruta del registro de cambios, o null para conservarlo solo en memoria
+     */
+    default Path getRutaCambios() {
+        return null;
+    }
+
+    /**
+     * Obtiene la ruta donde el servicio guarda las plantillas de tareas recurrentes.
+     *
+     * @return la ruta del archivo de plantillas, o null para conservarlas solo en memoria
+     */
+    default Path getRutaPlantillas() {
+        return null;
+    }
+
+    /**
+     * Obtiene la generación de los datos almacenados: un número que cambia cada vez que el
+     * contenido persistido cambia. Un punto de control de índices solo sirve si se construyó a
+     * partir de la misma generación.
+     *
+     * @return la generación actual, o -1 si el repositorio no la conoce
+     */
+    default long getGeneracion() {
+        return -1;
+    }
+
+    /**
+     * Empieza a vigilar los cambios que otros programas hacen en el almacenamiento.
+     *
+     * @param alCambiar se ejecuta cuando otro programa cambió el almacenamiento; el contenido se
+     *                  obtiene con {@link #leerCambiosExternos()}
+     * @return el vigilante, que debe cerrarse para dejar de vigilar
+     * @throws IOException si el repositorio no admite vigilancia o no se puede registrar
+     */
+    default VigilanteArchivo vigilarCambios(Runnable alCambiar) throws IOException {
+        throw new IOException("Este repositorio no admite vigilar cambios externos.");
+    }
+
+    /**
+     * Devuelve el contenido almacenado si otro programa lo cambió desde la última lectura o
+     * escritura de este repositorio.
+     *
+     * @return las tareas almacenadas, o null si no hubo cambios ajenos o el repositorio no los detecta
+     * @throws IOException si el contenido no se puede leer
+     */
+    default List<Tarea> leerCambiosExternos() throws IOException {
+        return null;
+    }
+
+    /**
+     * Crea el repositorio configurado en la propiedad {@value #PROPIEDAD_REPOSITORIO}:
+     * {@code json} (por defecto) o {@code h2}.
+     *
+     * @return el repositorio por defecto
+     * @throws IllegalArgumentException si el valor de la propiedad no es conocido
+     */
+    static RepositorioTareas porDefecto() {
+        return enCarpeta(Path.of(""));
+    }
+
+    /**
+     * Crea el repositorio configurado en la propiedad {@value #PROPIEDAD_REPOSITORIO}, con sus
+     * archivos ({@code tareas.json} o la base {@code tareas}) dentro de una carpeta.
+     *
+     * @param carpeta la carpeta de los archivos; la ruta vacía es la carpeta de trabajo
+     * @return el repositorio
+     * @throws IllegalArgumentException si el valor de la propiedad no es conocido
+     */
+    static RepositorioTareas enCarpeta(Path carpeta) {
+        String tipo = System.getProperty(PROPIEDAD_REPOSITORIO, "json");
+        return switch (tipo) {
+            case "json" -> new TareaRepository(carpeta.resolve("tareas.json").toString());
+            case "h2" -> new JdbcTareaRepository(carpeta.resolve("tareas"));
+            default -> throw new IllegalArgumentException("Repositorio desconocido: " + tipo);
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package Modelo;
+
+/**
+ * Resultado de una actualización condicionada a la versión de la tarea.
+ *
+ * @param tipo cómo terminó la actualización
+ * @param tarea la tarea con sus datos actuales: los nuevos si se actualizó, o los que había
+ *              escrito otro editor si hubo conflicto; null si la tarea no existe
+ */
+public record ResultadoActualizacion(Tipo tipo, Tarea tarea) {
+
+    /** Posibles resultados de la actualización. */
+    public enum Tipo {
+        /** Los datos se aplicaron y la versión aumentó en uno. */
+        ACTUALIZADA,
+
+        /** Otro editor modificó la tarea después de que se leyó; no se aplicó ningún cambio. */
+        CONFLICTO,
+
+        /** No existe ninguna tarea con ese ID. */
+        NO_ENCONTRADA
+    }
+
+    /**
+     * Indica si los cambios se aplicaron.
+     *
+     * @return true si la tarea se actualizó
+     */
+    public boolean esExitosa() {
+        return tipo == Tipo.ACTUALIZADA;
+    }
+}
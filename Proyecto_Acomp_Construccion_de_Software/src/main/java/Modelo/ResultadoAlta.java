@@ -0,0 +1,39 @@
+package Modelo;
+
+/**
+ * Resultado de agregar una tarea.
+ *
+ * @param tarea la tarea creada, con su ID asignado; null si se rechazó
+ * @param error el motivo del rechazo; null si se agregó
+ */
+public record ResultadoAlta(Tarea tarea, ErrorValidacion error) {
+
+    /**
+     * Crea el resultado de una tarea agregada.
+     *
+     * @param tarea la tarea creada
+     * @return el resultado
+     */
+    public static ResultadoAlta agregada(Tarea tarea) {
+        return new ResultadoAlta(tarea, null);
+    }
+
+    /**
+     * Crea el resultado de una tarea rechazada.
+     *
+     * @param error el motivo del rechazo
+     * @return el resultado
+     */
+    public static ResultadoAlta rechazada(ErrorValidacion error) {
+        return new ResultadoAlta(null, error);
+    }
+
+    /**
+     * Indica si la tarea se agregó.
+     *
+     * @return true si la tarea pasó la validación y se agregó
+     */
+    public boolean esExitosa() {
+        return error == null;
+    }
+}
@@ -0,0 +1,93 @@
+package Modelo;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Códec que usa {@link TareaTypeAdapter} directamente sobre {@link JsonReader} y {@link JsonWriter}.
+ * <p>
+ * En modo indentado produce el mismo formato que {@link GsonTareaCodec}; en modo compacto omite
+ * espacios y saltos de línea, lo que reduce notablemente el tamaño del archivo.
+ */
+public class StreamingTareaCodec implements TareaCodec {
+
+    /** Nombre del códec en modo indentado. */
+    public static final String NOMBRE = "streaming";
+
+    /** Nombre del códec en modo compacto. */
+    public static final String NOMBRE_COMPACTO = "compacto";
+
+    /** Adaptador compartido; no guarda estado. */
+    private static final TareaTypeAdapter ADAPTADOR = new TareaTypeAdapter();
+
+    /** Indica si la salida se escribe sin indentación. */
+    private final boolean compacto;
+
+    /**
+     * Crea el códec en el modo indicado.
+     *
+     * @param compacto true para escribir sin espacios ni saltos de línea
+     */
+    public StreamingTareaCodec(boolean compacto) {
+        this.compacto = compacto;
+    }
+
+    @Override
+    public String nombre() {
+        return compacto ? NOMBRE_COMPACTO : NOMBRE;
+    }
+
+    @Override
+    public void escribir(List<Tarea> tareas, Writer destino) throws IOException {
+        JsonWriter writer = new JsonWriter(destino);
+        if (!compacto) {
+            writer.setIndent("  ");
+        }
+        writer.beginArray();
+        for (Tarea tarea : tareas) {
+            ADAPTADOR.write(writer, tarea);
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    @Override
+    public List<Tarea> leer(Reader origen) throws IOException {
+        JsonReader reader = new JsonReader(origen);
+        List<Tarea> tareas = new ArrayList<>();
+        JsonToken inicio;
+        try {
+            inicio = reader.peek();
+        } catch (EOFException e) {
+            return tareas; // archivo vacío
+        }
+        if (inicio == JsonToken.NULL) {
+            return tareas;
+        }
+        try {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                tareas.add(ADAPTADOR.read(reader));
+            }
+            reader.endArray();
+        } catch (JsonParseException e) {
+            throw new IOException(e);
+        }
+        return tareas;
+    }
+
+    @Override
+    public TypeAdapter<Tarea> adaptador() {
+        return ADAPTADOR;
+    }
+}
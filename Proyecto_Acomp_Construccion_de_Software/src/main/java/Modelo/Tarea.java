@@ -1,6 +1,8 @@
 package Modelo;
 
 import java.time.LocalDate;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Representa una tarea con atributos como título, descripción, fecha de vencimiento,
@@ -9,8 +11,11 @@ import java.time.LocalDate;
  * Cada tarea tiene un identificador único que se asigna automáticamente al crearla.
  */
 public class Tarea {
-    /** Contador utilizado para generar IDs únicos para cada tarea. */
-    private static int contadorId = 1;
+    /**
+     * Contador utilizado para generar IDs únicos para cada tarea. Es atómico porque las tareas se
+     * crean en el hilo de eventos mientras otro hilo carga un espacio y reserva sus IDs.
+     */
+    private static final AtomicInteger contadorId = new AtomicInteger(1);
 
     /** Identificador único de la tarea. */
     private int id;
@@ -30,6 +35,12 @@ public class Tarea {
     /** Estado actual de la tarea. */
     private Estado estado;
 
+    /**
+     * Versión de los datos de la tarea. Aumenta en uno con cada modificación y permite detectar
+     * que otro editor la cambió desde que se leyó (control de concurrencia optimista).
+     */
+    private volatile int version;
+
     /**
      * Crea una nueva instancia de {@code Tarea} con los valores especificados.
      *
@@ -41,7 +52,29 @@ public class Tarea {
      */
     public Tarea(String titulo, String descripcion, LocalDate fechaVencimiento,
                  Prioridad prioridad, Estado estado) {
-        this.id = contadorId++;
+        this.id = contadorId.getAndIncrement();
+        this.titulo = titulo;
+        this.descripcion = descripcion;
+        this.fechaVencimiento = fechaVencimiento;
+        this.prioridad = prioridad;
+        this.estado = estado;
+    }
+
+    /**
+     * Reconstruye una tarea ya existente conservando su ID, por ejemplo al leerla del archivo.
+     * <p>
+     * A diferencia del otro constructor, no consume un ID del contador.
+     *
+     * @param id el identificador de la tarea
+     * @param titulo el título de la tarea
+     * @param descripcion la descripción de la tarea
+     * @param fechaVencimiento la fecha de vencimiento de la tarea
+     * @param prioridad la prioridad de la tarea
+     * @param estado el estado actual de la tarea
+     */
+    public Tarea(int id, String titulo, String descripcion, LocalDate fechaVencimiento,
+                 Prioridad prioridad, Estado estado) {
+        this.id = id;
         this.titulo = titulo;
         this.descripcion = descripcion;
         this.fechaVencimiento = fechaVencimiento;
@@ -153,6 +186,25 @@ public class Tarea {
         this.estado = estado;
     }
 
+    /**
+     * Obtiene la versión actual de los datos de la tarea.
+     *
+     * @return la versión de la tarea
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Establece la versión de la tarea. Solo se usa al reconstruir tareas persistidas y al
+     * registrar modificaciones desde el servicio.
+     *
+     * @param version la nueva versión
+     */
+    void setVersion(int version) {
+        this.version = version;
+    }
+
     /**
      * Establece un nuevo valor para el contador de IDs.
      * <p>
@@ -162,7 +214,45 @@ public class Tarea {
      * @param nuevoValor el nuevo valor para el contador de IDs
      */
     public static void setContadorId(int nuevoValor) {
-        contadorId = nuevoValor;
+        contadorId.set(nuevoValor);
+    }
+
+    /**
+     * Garantiza que el contador de IDs no vuelva a entregar un ID ya usado.
+     *
+     * @param id un ID existente; el contador pasa a ser al menos {@code id + 1}
+     */
+    static void reservarHasta(int id) {
+        contadorId.accumulateAndGet(id + 1, Math::max);
+    }
+
+    /**
+     * Indica si otra tarea tiene el mismo título, descripción, fecha, prioridad y estado.
+     * El ID no se compara.
+     *
+     * @param otra la tarea con la que comparar
+     * @return true si todos los datos coinciden
+     */
+    public boolean tieneMismosDatos(Tarea otra) {
+        return Objects.equals(titulo, otra.titulo)
+                && Objects.equals(descripcion, otra.descripcion)
+                && Objects.equals(fechaVencimiento, otra.fechaVencimiento)
+                && prioridad == otra.prioridad
+                && estado == otra.estado;
+    }
+
+    /**
+     * Copia en esta tarea el título, la descripción, la fecha, la prioridad y el estado de otra.
+     * El ID no se modifica.
+     *
+     * @param otra la tarea de la que se copian los datos
+     */
+    public void copiarDatosDe(Tarea otra) {
+        this.titulo = otra.titulo;
+        this.descripcion = otra.descripcion;
+        this.fechaVencimiento = otra.fechaVencimiento;
+        this.prioridad = otra.prioridad;
+        this.estado = otra.estado;
     }
 
     /**
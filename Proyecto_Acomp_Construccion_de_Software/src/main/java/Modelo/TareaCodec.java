@@ -0,0 +1,94 @@
+package Modelo;
+
+import com.google.gson.TypeAdapter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Define cómo se convierten las tareas a JSON y de vuelta al persistirlas.
+ * <p>
+ * El repositorio delega toda la serialización en un códec, de modo que el formato se puede
+ * cambiar sin tocar la lógica de persistencia. Los códecs incluidos son:
+ * <ul>
+ *   <li>{@code gson}: enlace reflexivo de Gson con salida indentada (comportamiento original).</li>
+ *   <li>{@code streaming}: {@link TareaTypeAdapter} escrito a mano, con salida indentada.</li>
+ *   <li>{@code compacto}: {@link TareaTypeAdapter} sin espacios ni saltos de línea.</li>
+ * </ul>
+ * Se pueden registrar códecs adicionales como servicio de {@link ServiceLoader}.
+ * El códec por defecto se elige con la propiedad del sistema {@code tareas.codec}.
+ */
+public interface TareaCodec {
+
+    /** Propiedad del sistema que indica el nombre del códec por defecto. */
+    String PROPIEDAD_CODEC = "tareas.codec";
+
+    /**
+     * Obtiene el nombre con el que se selecciona el códec.
+     *
+     * @return el nombre del códec
+     */
+    String nombre();
+
+    /**
+     * Escribe la lista de tareas como un arreglo JSON.
+     *
+     * @param tareas las tareas a escribir
+     * @param destino el flujo de salida
+     * @throws IOException si ocurre un error de escritura
+     */
+    void escribir(List<Tarea> tareas, Writer destino) throws IOException;
+
+    /**
+     * Lee un arreglo JSON de tareas.
+     *
+     * @param origen el flujo de entrada
+     * @return las tareas leídas, o una lista vacía si el contenido está vacío
+     * @throws IOException si ocurre un error de lectura o el JSON no es válido
+     */
+    List<Tarea> leer(Reader origen) throws IOException;
+
+    /**
+     * Obtiene el adaptador que lee y escribe una sola tarea. Debe poder usarse desde varios hilos.
+     *
+     * @return el adaptador de tareas del códec
+     */
+    TypeAdapter<Tarea> adaptador();
+
+    /**
+     * Obtiene el códec configurado en la propiedad {@value #PROPIEDAD_CODEC}, o {@code gson} si no se indica.
+     *
+     * @return el códec por defecto
+     */
+    static TareaCodec porDefecto() {
+        return porNombre(System.getProperty(PROPIEDAD_CODEC, GsonTareaCodec.NOMBRE));
+    }
+
+    /**
+     * Busca un códec por su nombre entre los incluidos y los registrados con {@link ServiceLoader}.
+     *
+     * @param nombre el nombre del códec
+     * @return el códec correspondiente
+     * @throws IllegalArgumentException si no existe un códec con ese nombre
+     */
+    static TareaCodec porNombre(String nombre) {
+        switch (nombre) {
+            case GsonTareaCodec.NOMBRE:
+                return new GsonTareaCodec();
+            case StreamingTareaCodec.NOMBRE:
+                return new StreamingTareaCodec(false);
+            case StreamingTareaCodec.NOMBRE_COMPACTO:
+                return new StreamingTareaCodec(true);
+            default:
+                for (TareaCodec codec : ServiceLoader.load(TareaCodec.class)) {
+                    if (codec.nombre().equals(nombre)) {
+                        return codec;
+                    }
+                }
+                throw new IllegalArgumentException("Códec desconocido: " + nombre);
+        }
+    }
+}
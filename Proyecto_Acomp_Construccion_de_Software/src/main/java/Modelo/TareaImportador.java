@@ -0,0 +1,260 @@
+package Modelo;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Importa tareas de forma masiva desde archivos CSV o JSON Lines.
+ * <p>
+ * La lectura se hace línea a línea, sin cargar el archivo completo en memoria, y las tareas
+ * leídas se envían a {@link TareaService#agregarTareas(java.util.Collection)} en lotes de tamaño
+ * fijo, de modo que el archivo de tareas se guarda una vez por lote y no una vez por tarea.
+ * <p>
+ * Formato CSV esperado (la cabecera es opcional):
+ * {@code titulo,descripcion,fechaVencimiento,prioridad,estado}. Los campos pueden ir entre
+ * comillas dobles, escapando las comillas internas como {@code ""}.
+ * <p>
+ * En JSON Lines cada línea es un objeto con las mismas propiedades que en {@code tareas.json}.
+ */
+public class TareaImportador {
+
+    /** Cantidad de tareas que se envían al servicio en cada lote si no se indica otra. */
+    public static final int TAMANIO_LOTE_POR_DEFECTO = 1000;
+
+    /** Servicio que recibe los lotes de tareas importadas. */
+    private final TareaService service;
+
+    /** Cantidad máxima de tareas por lote. */
+    private final int tamanioLote;
+
+    /**
+     * Crea un importador con el tamaño de lote por defecto.
+     *
+     * @param service el servicio donde se agregarán las tareas
+     */
+    public TareaImportador(TareaService service) {
+        this(service, TAMANIO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Crea un importador con un tamaño de lote específico.
+     *
+     * @param service el servicio donde se agregarán las tareas
+     * @param tamanioLote cantidad máxima de tareas por lote, mayor que cero
+     */
+    public TareaImportador(TareaService service, int tamanioLote) {
+        if (tamanioLote <= 0) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero.");
+        }
+        this.service = service;
+        this.tamanioLote = tamanioLote;
+    }
+
+    /**
+     * Importa un archivo eligiendo el formato por su extensión: {@code .csv} para CSV y
+     * cualquier otra (por ejemplo {@code .jsonl}) para JSON Lines.
+     *
+     * @param archivo ruta del archivo a importar
+     * @return el resumen de la importación
+     * @throws IOException si ocurre un error de lectura
+     */
+    public ResultadoImportacion importar(Path archivo) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            if (archivo.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv")) {
+                return importarCsv(reader);
+            }
+            return importarJsonLineas(reader);
+        }
+    }
+
+    /**
+     * Importa tareas desde un flujo en formato CSV.
+     *
+     * @param entrada el flujo de caracteres a leer
+     * @return el resumen de la importación
+     * @throws IOException si ocurre un error de lectura
+     */
+    public ResultadoImportacion importarCsv(Reader entrada) throws IOException {
+        return importar(entrada, true);
+    }
+
+    /**
+     * Importa tareas desde un flujo en formato JSON Lines.
+     *
+     * @param entrada el flujo de caracteres a leer
+     * @return el resumen de la importación
+     * @throws IOException si ocurre un error de lectura
+     */
+    public ResultadoImportacion importarJsonLineas(Reader entrada) throws IOException {
+        return importar(entrada, false);
+    }
+
+    /**
+     * Recorre el flujo línea a línea y envía las tareas al servicio por lotes.
+     *
+     * @param entrada el flujo de caracteres a leer
+     * @param csv true si el formato es CSV, false si es JSON Lines
+     * @return el resumen de la importación
+     * @throws IOException si ocurre un error de lectura
+     */
+    private ResultadoImportacion importar(Reader entrada, boolean csv) throws IOException {
+        BufferedReader reader = entrada instanceof BufferedReader br ? br : new BufferedReader(entrada);
+        List<Tarea> lote = new ArrayList<>(tamanioLote);
+        int leidas = 0;
+        int agregadas = 0;
+        boolean primeraLinea = true;
+
+        String linea;
+        while ((linea = reader.readLine()) != null) {
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (csv && primeraLinea && linea.trim().toLowerCase(Locale.ROOT).startsWith("titulo")) {
+                primeraLinea = false;
+                continue; // cabecera
+            }
+            primeraLinea = false;
+            leidas++;
+
+            Tarea tarea = csv ? parsearCsv(linea) : parsearJson(linea);
+            if (tarea == null) {
+                continue;
+            }
+            lote.add(tarea);
+            if (lote.size() == tamanioLote) {
+                agregadas += service.agregarTareas(lote).size();
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            agregadas += service.agregarTareas(lote).size();
+        }
+        // Las líneas mal formadas y las tareas que el servicio rechaza cuentan como inválidas
+        return new ResultadoImportacion(leidas, agregadas, leidas - agregadas);
+    }
+
+    /**
+     * Convierte una línea CSV en una tarea.
+     *
+     * @param linea la línea a convertir
+     * @return la tarea leída, o null si la línea no tiene el formato esperado
+     */
+    private Tarea parsearCsv(String linea) {
+        List<String> campos = separarCampos(linea);
+        if (campos.size() != 5) {
+            return null;
+        }
+        return construir(campos.get(0), campos.get(1), campos.get(2), campos.get(3), campos.get(4));
+    }
+
+    /**
+     * Convierte una línea JSON en una tarea.
+     *
+     * @param linea la línea a convertir
+     * @return la tarea leída, o null si la línea no es un objeto JSON válido
+     */
+    private Tarea parsearJson(String linea) {
+        try {
+            JsonObject objeto = JsonParser.parseString(linea).getAsJsonObject();
+            return construir(texto(objeto, "titulo"), texto(objeto, "descripcion"),
+                    texto(objeto, "fechaVencimiento"), texto(objeto, "prioridad"), texto(objeto, "estado"));
+        } catch (JsonParseException | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Obtiene el valor de texto de una propiedad JSON.
+     *
+     * @param objeto el objeto JSON
+     * @param nombre el nombre de la propiedad
+     * @return el valor como texto, o null si no existe
+     */
+    private static String texto(JsonObject objeto, String nombre) {
+        JsonElement valor = objeto.get(nombre);
+        return valor == null || valor.isJsonNull() ? null : valor.getAsString();
+    }
+
+    /**
+     * Construye una tarea a partir de sus campos en texto.
+     *
+     * @param titulo el título de la tarea
+     * @param descripcion la descripción de la tarea
+     * @param fecha la fecha de vencimiento en formato ISO-8601
+     * @param prioridad el nombre de la prioridad
+     * @param estado el nombre del estado
+     * @return la tarea, o null si la fecha, la prioridad o el estado no son válidos
+     */
+    private static Tarea construir(String titulo, String descripcion, String fecha,
+                                   String prioridad, String estado) {
+        try {
+            Tarea tarea = new Tarea();
+            tarea.setTitulo(titulo);
+            tarea.setDescripcion(descripcion);
+            tarea.setFechaVencimiento(LocalDate.parse(fecha.trim()));
+            tarea.setPrioridad(Prioridad.valueOf(prioridad.trim().toUpperCase(Locale.ROOT)));
+            tarea.setEstado(Estado.valueOf(estado.trim().toUpperCase(Locale.ROOT)));
+            return tarea;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Separa una línea CSV en campos respetando las comillas dobles.
+     *
+     * @param linea la línea a separar
+     * @return la lista de campos
+     */
+    static List<String> separarCampos(String linea) {
+        List<String> campos = new ArrayList<>(5);
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+
+    /**
+     * Resumen de una importación.
+     *
+     * @param leidas cantidad de registros leídos del archivo
+     * @param agregadas cantidad de tareas agregadas al servicio
+     * @param invalidas cantidad de registros descartados por formato o validación
+     */
+    public record ResultadoImportacion(int leidas, int agregadas, int invalidas) {
+    }
+}
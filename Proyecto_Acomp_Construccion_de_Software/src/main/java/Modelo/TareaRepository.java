@@ -1,51 +1,224 @@
 package Modelo;
 
-import com.google.gson.*;
-import com.google.gson.reflect.TypeToken;
 import Modelo.Tarea;
 
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
-import java.time.LocalDate;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Repositorio encargado de gestionar la persistencia de las tareas en un archivo JSON.
+ * Es la implementación por defecto de {@link RepositorioTareas}.
  * <p>
  * Proporciona métodos para agregar, eliminar, obtener y almacenar tareas.
- * Utiliza la librería Gson para la serialización/deserialización de objetos, incluyendo
- * el manejo especial del tipo {@link LocalDate}.
+ * La serialización se delega en un {@link TareaCodec}, que por defecto se elige con la
+ * propiedad del sistema {@code tareas.codec}. El archivo se puede escribir comprimido según la
+ * {@link Compresion} configurada; al cargarlo el formato se reconoce por sus primeros bytes.
+ * <p>
+ * Varios procesos pueden usar el mismo archivo a la vez (por ejemplo la aplicación y un script
+ * por lotes). Cada escritura toma el bloqueo exclusivo de un archivo auxiliar ({@code tareas.lock}),
+ * escribe un archivo temporal y lo renombra de forma atómica sobre el original, así que los
+ * lectores nunca ven un archivo a medio escribir. El archivo auxiliar guarda además la generación,
+ * que aumenta con cada escritura: si al guardar resulta que otro proceso escribió desde la última
+ * lectura, los cambios propios se aplican sobre el contenido actual en lugar de pisarlo.
+ * <p>
+ * Un archivo que existe pero no se puede leer o decodificar nunca se reemplaza por el contenido en
+ * memoria: la carga inicial falla con una excepción y, si el archivo se daña después, los cambios
+ * dejan de guardarse hasta que se pueda volver a leer.
  */
-public class TareaRepository {
+public class TareaRepository implements RepositorioTareas {
 
-    /** Nombre del archivo JSON donde se almacenan las tareas. */
+    /** Nombre del archivo JSON donde se almacenan las tareas por defecto. */
     private static final String ARCHIVO = "tareas.json";
 
+    /** Ruta del archivo JSON que utiliza esta instancia del repositorio. */
+    private final String archivo;
+
+    /**
+     * Tamaño en bytes a partir del cual el archivo se carga en paralelo. Se puede cambiar con la
+     * propiedad del sistema {@code tareas.umbralCargaParalela}.
+     */
+    static final long UMBRAL_CARGA_PARALELA = Long.getLong("tareas.umbralCargaParalela", 1024 * 1024);
+
     /** Lista de tareas en memoria. */
     private List<Tarea> tareas;
 
-    /** Instancia de Gson configurada para manejar LocalDate y formato bonito. */
-    private final Gson gson;
+    /** Códec usado para leer y escribir el archivo. */
+    private final TareaCodec codec;
+
+    /** Compresión con la que se escribe el archivo. */
+    private final Compresion compresion;
+
+    /** Generación que indica que el contenido en memoria no refleja el del archivo. */
+    private static final long SIN_SINCRONIZAR = -1;
+
+    /** Fecha de modificación y tamaño del archivo tras la última escritura de este repositorio. */
+    private volatile Firma firmaPropia;
+
+    /** Bloqueo entre procesos del archivo, con su contador de generación. */
+    private final BloqueoArchivo bloqueo;
+
+    /**
+     * Generación del contenido que este repositorio leyó o escribió por última vez, o
+     * {@link #SIN_SINCRONIZAR} si la última escritura incorporó cambios de otro proceso que
+     * todavía no se recargaron.
+     */
+    private volatile long generacionPropia = SIN_SINCRONIZAR;
+
+    /**
+     * Error de la última lectura del archivo al guardar un cambio, o null si se pudo leer. Mientras
+     * exista no se guarda ningún cambio, para no pisar un archivo dañado que todavía se puede reparar.
+     */
+    private volatile IOException errorLectura;
 
     /**
      * Crea una instancia del repositorio y carga las tareas desde el archivo si existe.
+     *
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer o no es válido
      */
     public TareaRepository() {
-        this.gson = new GsonBuilder()
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
-                .setPrettyPrinting()
-                .create();
+        this(ARCHIVO);
+    }
+
+    /**
+     * Crea una instancia del repositorio asociada a un archivo concreto y carga
+     * las tareas desde él si existe.
+     *
+     * @param archivo ruta del archivo JSON donde se almacenan las tareas
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer o no es válido
+     */
+    public TareaRepository(String archivo) {
+        this(archivo, TareaCodec.porDefecto());
+    }
+
+    /**
+     * Crea una instancia del repositorio con un archivo y un códec concretos, y carga
+     * las tareas desde el archivo si existe.
+     *
+     * @param archivo ruta del archivo JSON donde se almacenan las tareas
+     * @param codec el códec con el que se lee y escribe el archivo
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer o no es válido
+     */
+    public TareaRepository(String archivo, TareaCodec codec) {
+        this(archivo, codec, Compresion.porDefecto());
+    }
+
+    /**
+     * Crea una instancia del repositorio con un archivo, un códec y una compresión concretos, y
+     * carga las tareas desde el archivo si existe. El archivo se lee aunque se haya escrito con
+     * otra compresión.
+     *
+     * @param archivo ruta del archivo donde se almacenan las tareas
+     * @param codec el códec con el que se lee y escribe el archivo
+     * @param compresion la compresión con la que se escribe el archivo
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer o no es válido
+     */
+    public TareaRepository(String archivo, TareaCodec codec, Compresion compresion) {
+        this.archivo = archivo;
+        this.codec = codec;
+        this.compresion = compresion;
+        this.bloqueo = new BloqueoArchivo(rutaJunto(".lock"));
         this.tareas = cargarDesdeArchivo();
     }
 
+    /**
+     * Obtiene la ruta del segmento comprimido donde se guardan las tareas archivadas, ubicado
+     * junto al archivo principal (por ejemplo {@code tareas-archivadas.jsonl.gz}).
+     *
+     * @return la ruta del segmento de tareas archivadas
+     */
+    @Override
+    public Path getRutaArchivadas() {
+        return rutaJunto("-archivadas.jsonl.gz");
+    }
+
+    /**
+     * Obtiene la ruta del punto de control de los índices, ubicado junto al archivo principal
+     * (por ejemplo {@code tareas-indice.bin}).
+     *
+     * @return la ruta del punto de control
+     */
+    @Override
+    public Path getRutaPuntoControl() {
+        return rutaJunto("-indice.bin");
+    }
+
+    /**
+     * Obtiene la ruta del registro de cambios, ubicado junto al archivo principal
+     * (por ejemplo {@code tareas-cambios.jsonl}).
+     *
+     * @return la ruta del registro de cambios
+     */
+    @Override
+    public Path getRutaCambios() {
+        return rutaJunto("-cambios.jsonl");
+    }
+
+    /**
+     * Obtiene la ruta del archivo de plantillas recurrentes, ubicado junto al archivo principal
+     * (por ejemplo {@code tareas-plantillas.json}).
+     *
+     * @return la ruta del archivo de plantillas
+     */
+    @Override
+    public Path getRutaPlantillas() {
+        return rutaJunto("-plantillas.json");
+    }
+
+    /**
+     * Construye la ruta de un archivo auxiliar en la carpeta del archivo principal, con el nombre
+     * de este sin extensión seguido de un sufijo.
+     *
+     * @param sufijo el sufijo, con su extensión
+     * @return la ruta del archivo auxiliar
+     */
+    private Path rutaJunto(String sufijo) {
+        Path ruta = Path.of(archivo);
+        String nombre = ruta.getFileName().toString();
+        int punto = nombre.lastIndexOf('.');
+        String base = punto > 0 ? nombre.substring(0, punto) : nombre;
+        return ruta.resolveSibling(base + sufijo);
+    }
+
+    /**
+     * Obtiene la generación del contenido que este repositorio leyó o escribió por última vez,
+     * combinada con la fecha de modificación y el tamaño del archivo en ese momento. Así también
+     * cambia si el archivo se editó a mano, sin pasar por el bloqueo.
+     *
+     * @return la generación, o 0 si el archivo no existía
+     */
+    @Override
+    public long getGeneracion() {
+        Firma firma = firmaPropia;
+        return firma == null ? 0 : (generacionPropia * 31 + firma.modificado()) * 31 + firma.tamanio();
+    }
+
     /**
      * Obtiene una copia de la lista de tareas almacenadas.
      *
      * @return lista de tareas
      */
+    @Override
     public List<Tarea> obtenerTareas() {
         return new ArrayList<>(tareas);
     }
@@ -71,75 +244,339 @@ public class TareaRepository {
     }
 
     /**
-     * Guarda la lista de tareas en el archivo JSON.
+     * Guarda la lista de tareas reescribiendo el archivo JSON completo.
+     *
+     * @param tareas lista de tareas a guardar
+     * @see #guardarEnArchivo(List)
+     */
+    @Override
+    public void guardar(List<Tarea> tareas) {
+        guardarEnArchivo(tareas);
+    }
+
+    /**
+     * Guarda la lista de tareas en el archivo JSON, reemplazando su contenido aunque otro proceso
+     * lo haya cambiado.
+     * <p>
+     * La escritura se hace con el bloqueo exclusivo tomado y mediante un archivo temporal que se
+     * renombra sobre el original, así que un fallo a mitad de camino deja el archivo anterior intacto.
      *
      * @param tareas lista de tareas a guardar
      */
-    public void guardarEnArchivo(List<Tarea> tareas) {
-        try (FileWriter writer = new FileWriter(ARCHIVO)) {
-            gson.toJson(tareas, writer);
+    public synchronized void guardarEnArchivo(List<Tarea> tareas) {
+        try {
+            bloqueo.confirmar(generacion -> {
+                escribirAtomico(tareas);
+                generacionPropia = generacion + 1;
+                return null;
+            });
         } catch (IOException e) {
-            e.printStackTrace();
+            generacionPropia = SIN_SINCRONIZAR;
+            Registro.global().error("TareaRepository", "No se pudo guardar el archivo " + archivo, e);
         }
     }
 
+    /**
+     * Guarda un cambio sobre la lista de tareas.
+     * <p>
+     * Si nadie más escribió el archivo desde la última lectura o escritura de este repositorio, se
+     * escribe la lista completa. Si otro proceso lo hizo, se lee el contenido actual y se le aplican
+     * solo estos cambios: las tareas agregadas se añaden (con un ID nuevo si el otro proceso ya usó
+     * el suyo), las modificadas reemplazan a las del archivo si todavía existen y las eliminadas se
+     * quitan. En ese caso la memoria queda desactualizada hasta llamar a {@link #leerCambiosExternos()}.
+     * <p>
+     * Si el archivo cambió pero no se puede leer o decodificar, el cambio no se guarda y el error
+     * se registra: escribir la lista en memoria pisaría un archivo que todavía puede repararse.
+     * Los cambios vuelven a guardarse en cuanto el archivo se puede leer de nuevo.
+     *
+     * @param todas la lista completa después del cambio
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas que cambiaron
+     * @param eliminadas los IDs de las tareas quitadas
+     */
+    @Override
+    public synchronized void guardarCambios(List<Tarea> todas, Collection<Tarea> agregadas,
+                                            Collection<Tarea> actualizadas, Collection<Integer> eliminadas) {
+        Path ruta = Path.of(archivo);
+        try {
+            bloqueo.confirmar(generacion -> {
+                List<Tarea> actuales = null;
+                if (errorLectura != null || generacion != generacionPropia
+                        || !Objects.equals(Firma.de(ruta), firmaPropia)) {
+                    actuales = leerSiExiste(ruta);
+                }
+                if (actuales == null) {
+                    escribirAtomico(todas); // nadie más escribió: la lista en memoria es el archivo
+                    generacionPropia = generacion + 1;
+                } else {
+                    escribirAtomico(fusionar(actuales, agregadas, actualizadas, eliminadas));
+                    generacionPropia = SIN_SINCRONIZAR;
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            generacionPropia = SIN_SINCRONIZAR;
+            Registro.global().error("TareaRepository", errorLectura != null
+                    ? "No se guardó el cambio porque el archivo " + archivo + " no se puede leer"
+                    : "No se pudo guardar el archivo " + archivo, e);
+        }
+    }
+
+    /**
+     * Indica si el último intento de guardar un cambio no pudo leer el archivo, y por eso los
+     * cambios no se están guardando.
+     *
+     * @return true si el archivo está dañado o no se puede leer
+     */
+    public boolean isIlegible() {
+        return errorLectura != null;
+    }
+
+    /**
+     * Devuelve el contenido actual del archivo si otro proceso lo escribió desde la última lectura
+     * o escritura de este repositorio. Comprobarlo solo lee la generación y la fecha del archivo.
+     *
+     * @return las tareas del archivo, o null si no hubo cambios ajenos
+     * @throws IOException si el archivo no se puede leer o no es JSON válido
+     */
+    @Override
+    public synchronized List<Tarea> leerCambiosExternos() throws IOException {
+        Path ruta = Path.of(archivo);
+        return bloqueo.leer(generacion -> {
+            if (generacion == generacionPropia && Objects.equals(Firma.de(ruta), firmaPropia)) {
+                return null;
+            }
+            List<Tarea> contenido = Files.exists(ruta) ? leer(ruta).tareas() : List.of();
+            errorLectura = null;
+            generacionPropia = generacion;
+            firmaPropia = Firma.de(ruta);
+            return contenido;
+        });
+    }
+
+    /**
+     * Escribe las tareas en un archivo temporal junto al original, lo fuerza a disco y lo renombra
+     * de forma atómica sobre el original. Debe llamarse con el bloqueo exclusivo tomado.
+     *
+     * @param tareas las tareas a escribir
+     * @throws IOException si no se puede escribir o renombrar el archivo
+     */
+    private void escribirAtomico(List<Tarea> tareas) throws IOException {
+        Path ruta = Path.of(archivo).toAbsolutePath();
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 OutputStream salida = compresion.comprimir(Channels.newOutputStream(canal));
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8))) {
+                codec.escribir(tareas, writer);
+                writer.flush();
+                Compresion.terminar(salida);
+                canal.force(false);
+            }
+            Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporal);
+        }
+        firmaPropia = Firma.de(ruta);
+    }
+
+    /**
+     * Lee el archivo para aplicarle cambios, o devuelve una lista vacía si no existe. Un error de
+     * lectura queda registrado en {@link #errorLectura} hasta que una lectura posterior funcione.
+     *
+     * @param ruta el archivo a leer
+     * @return las tareas del archivo
+     * @throws IOException si el archivo existe pero no se puede leer o no es válido
+     */
+    private List<Tarea> leerSiExiste(Path ruta) throws IOException {
+        if (!Files.exists(ruta)) {
+            errorLectura = null;
+            return List.of();
+        }
+        try {
+            CargadorParalelo.Resultado resultado = leer(ruta);
+            Tarea.reservarHasta(resultado.maxId()); // los IDs del otro proceso no deben volver a asignarse
+            errorLectura = null;
+            return resultado.tareas();
+        } catch (IOException e) {
+            errorLectura = e;
+            throw e;
+        }
+    }
+
+    /**
+     * Aplica un cambio propio sobre el contenido que escribió otro proceso.
+     *
+     * @param actuales las tareas que contiene el archivo
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas que cambiaron
+     * @param eliminadas los IDs de las tareas quitadas
+     * @return el contenido combinado, en el orden del archivo y con las tareas nuevas al final
+     */
+    private static List<Tarea> fusionar(List<Tarea> actuales, Collection<Tarea> agregadas,
+                                        Collection<Tarea> actualizadas, Collection<Integer> eliminadas) {
+        Map<Integer, Tarea> porId = new LinkedHashMap<>();
+        for (Tarea t : actuales) {
+            porId.put(t.getId(), t);
+        }
+        for (int id : eliminadas) {
+            porId.remove(id);
+        }
+        for (Tarea t : actualizadas) {
+            porId.replace(t.getId(), t); // si el otro proceso la eliminó, sigue eliminada
+        }
+        for (Tarea t : agregadas) {
+            Tarea nueva = t;
+            if (porId.containsKey(t.getId())) {
+                // El otro proceso asignó el mismo ID a otra tarea: esta recibe uno nuevo
+                nueva = new Tarea(t.getTitulo(), t.getDescripcion(), t.getFechaVencimiento(),
+                        t.getPrioridad(), t.getEstado());
+                nueva.setVersion(t.getVersion());
+            }
+            porId.put(nueva.getId(), nueva);
+        }
+        return new ArrayList<>(porId.values());
+    }
+
+    /**
+     * Lee el contenido actual del archivo sin modificar el estado del repositorio.
+     *
+     * @return las tareas que contiene el archivo
+     * @throws IOException si el archivo no se puede leer o no es JSON válido
+     */
+    public List<Tarea> leerArchivo() throws IOException {
+        return bloqueo.leer(generacion -> leer(Path.of(archivo)).tareas());
+    }
+
+    /**
+     * Empieza a vigilar el archivo y avisa cada vez que otro programa lo modifica.
+     * <p>
+     * Las escrituras hechas por este mismo repositorio se ignoran comparando la generación y la
+     * fecha del archivo. El aviso se ejecuta en el hilo del vigilante; el contenido se obtiene
+     * después con {@link #leerCambiosExternos()}.
+     *
+     * @param alCambiar se ejecuta cuando hay cambios ajenos
+     * @return el vigilante, que debe cerrarse para dejar de vigilar
+     * @throws IOException si no se puede registrar la vigilancia
+     */
+    @Override
+    public VigilanteArchivo vigilarCambios(Runnable alCambiar) throws IOException {
+        Path ruta = Path.of(archivo);
+        return new VigilanteArchivo(ruta, () -> {
+            try {
+                if (bloqueo.generacion() != generacionPropia || !Objects.equals(Firma.de(ruta), firmaPropia)) {
+                    alCambiar.run();
+                }
+            } catch (IOException e) {
+                // no se pudo leer la generación: se espera al siguiente cambio
+            }
+        });
+    }
+
     /**
      * Carga la lista de tareas desde el archivo JSON.
      * <p>
-     * Si el archivo no existe o ocurre un error, se devuelve una lista vacía.
-     * Además, actualiza el contador de ID de las tareas con el valor máximo encontrado + 1.
+     * Si el archivo no existe, se devuelve una lista vacía.
+     * Además, garantiza que el contador de ID de las tareas quede por encima del máximo encontrado.
+     * Los archivos a partir de {@link #UMBRAL_CARGA_PARALELA} bytes se decodifican en paralelo
+     * con {@link CargadorParalelo} sobre el pool común.
      *
      * @return lista de tareas cargadas o vacía si no hay datos
+     * @throws UncheckedIOException si el archivo existe pero no se puede leer o no es válido; no se
+     *                              devuelve una lista vacía porque el siguiente guardado lo pisaría
      */
     private List<Tarea> cargarDesdeArchivo() {
-        try (FileReader reader = new FileReader(ARCHIVO)) {
-            Type tareaListType = new TypeToken<ArrayList<Tarea>>() {}.getType();
-            List<Tarea> tareasCargadas = gson.fromJson(reader, tareaListType);
+        Path ruta = Path.of(archivo);
+        try {
+            return bloqueo.leer(generacion -> {
+                if (!Files.exists(ruta)) {
+                    generacionPropia = generacion;
+                    return new ArrayList<>();
+                }
+                CargadorParalelo.Resultado resultado = leer(ruta);
+                Tarea.reservarHasta(resultado.maxId()); // sin bajar el contador si hay otro espacio cargado
+                firmaPropia = Firma.de(ruta);
+                generacionPropia = generacion;
+                return new ArrayList<>(resultado.tareas());
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo cargar el archivo " + archivo, e);
+        }
+    }
+
+    /**
+     * Decodifica el archivo, en paralelo si su tamaño alcanza {@link #UMBRAL_CARGA_PARALELA}.
+     * Los archivos comprimidos se decodifican siempre en el hilo actual, a medida que se
+     * descomprimen, porque la carga en paralelo reparte el texto del archivo entre los hilos.
+     *
+     * @param ruta el archivo a leer
+     * @return las tareas leídas y el mayor ID encontrado
+     * @throws IOException si el archivo no se puede leer o no es JSON válido
+     */
+    private CargadorParalelo.Resultado leer(Path ruta) throws IOException {
+        return Files.size(ruta) >= UMBRAL_CARGA_PARALELA && Compresion.detectar(ruta) == Compresion.Formato.NINGUNA
+                ? cargarEnParalelo(ruta, ForkJoinPool.commonPool())
+                : cargarSecuencial(ruta);
+    }
+
+    /**
+     * Decodifica el archivo completo en el hilo actual, descomprimiéndolo si hace falta.
+     *
+     * @param ruta el archivo a leer
+     * @return las tareas leídas y el mayor ID encontrado
+     * @throws IOException si el archivo no se puede leer
+     */
+    CargadorParalelo.Resultado cargarSecuencial(Path ruta) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Compresion.descomprimir(Files.newInputStream(ruta)), StandardCharsets.UTF_8))) {
+            List<Tarea> tareasCargadas = codec.leer(reader);
 
             int maxId = tareasCargadas.stream()
                     .mapToInt(Tarea::getId)
                     .max()
                     .orElse(0);
-            Tarea.setContadorId(maxId + 1);
-
-            return tareasCargadas;
-        } catch (IOException e) {
-            return new ArrayList<>();
+            return new CargadorParalelo.Resultado(tareasCargadas, maxId);
         }
     }
 
     /**
-     * Adaptador personalizado para serializar y deserializar objetos {@link LocalDate}
-     * en formato ISO-8601 cuando se usa Gson.
+     * Decodifica el archivo repartiendo los objetos entre los hilos de un pool.
+     *
+     * @param ruta el archivo a leer
+     * @param pool el pool donde se decodifica
+     * @return las tareas leídas, en el orden del archivo, y el mayor ID encontrado
+     * @throws IOException si el archivo no se puede leer o no es JSON válido
      */
-    private static class LocalDateAdapter implements JsonSerializer<LocalDate>, JsonDeserializer<LocalDate> {
-
-        /**
-         * Serializa un {@code LocalDate} a un {@code JsonElement}.
-         *
-         * @param date la fecha a serializar
-         * @param typeOfSrc el tipo del objeto de origen
-         * @param context el contexto de serialización
-         * @return representación JSON de la fecha (cadena ISO-8601)
-         */
-        @Override
-        public JsonElement serialize(LocalDate date, Type typeOfSrc, JsonSerializationContext context) {
-            return new JsonPrimitive(date.toString());
+    CargadorParalelo.Resultado cargarEnParalelo(Path ruta, ForkJoinPool pool) throws IOException {
+        try {
+            return new CargadorParalelo(pool, codec.adaptador()).cargar(ruta);
+        } catch (RuntimeException e) {
+            // Los errores de decodificación dentro del pool llegan envueltos como excepciones no comprobadas
+            throw new IOException("No se pudo decodificar " + ruta, e);
         }
+    }
+
+    /**
+     * Fecha de modificación y tamaño de un archivo, usados para reconocer las escrituras propias.
+     *
+     * @param modificado fecha de modificación en nanosegundos
+     * @param tamanio tamaño en bytes
+     */
+    private record Firma(long modificado, long tamanio) {
 
         /**
-         * Deserializa un {@code JsonElement} a un {@code LocalDate}.
+         * Obtiene la firma actual de un archivo.
          *
-         * @param json el elemento JSON
-         * @param typeOfT el tipo del objeto destino
-         * @param context el contexto de deserialización
-         * @return objeto LocalDate correspondiente
-         * @throws JsonParseException si el formato no es válido
+         * @param ruta el archivo
+         * @return la firma, o null si el archivo no existe
          */
-        @Override
-        public LocalDate deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-                throws JsonParseException {
-            return LocalDate.parse(json.getAsString());
+        static Firma de(Path ruta) {
+            try {
+                return new Firma(Files.getLastModifiedTime(ruta).to(TimeUnit.NANOSECONDS), Files.size(ruta));
+            } catch (IOException e) {
+                return null;
+            }
         }
     }
-}
\ No newline at end of file
+}
@@ -4,8 +4,25 @@ import Modelo.Estado;
 import Modelo.Prioridad;
 import Modelo.Tarea;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.Period;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 /**
  * Servicio que gestiona las operaciones sobre las tareas, como agregar, eliminar, actualizar, y filtrar.
@@ -14,23 +31,422 @@ import java.util.*;
  * y proporciona métodos para ordenar y filtrar las tareas según diferentes criterios.
  */
 public class TareaService {
-    /** Lista de tareas cargadas en memoria. */
-    private List<Tarea> tareas = new ArrayList<>();
+    /** Registro donde se informan las altas y los rechazos, fuera del hilo que opera. */
+    private static final Registro REGISTRO = Registro.global();
+
+    /** Origen con el que se identifican los mensajes de este servicio en el registro. */
+    private static final String ORIGEN = "TareaService";
+
+    /**
+     * Lista de tareas cargadas en memoria. Sus cambios estructurales se hacen con la lista
+     * bloqueada, para que otro hilo que guarda un cambio pueda copiarla entera sin verla a medias.
+     */
+    private final List<Tarea> tareas;
+
+    /**
+     * Ordena los guardados: cada uno copia la lista y la escribe antes de que empiece el siguiente,
+     * así una copia más vieja nunca se escribe después de otra más nueva.
+     */
+    private final Object guardado = new Object();
+
+    /**
+     * Índice de las tareas por ID. Permite buscar una tarea desde cualquier hilo sin recorrer la
+     * lista, que solo modifica estructuralmente el hilo de la interfaz. Está ordenado para que las
+     * páginas por ID empiecen directamente después del cursor.
+     */
+    private final ConcurrentNavigableMap<Integer, Tarea> indicePorId = new ConcurrentSkipListMap<>();
     
     /** Instancia de Scanner para recibir entradas del usuario. */
     private final Scanner scanner = new Scanner(System.in);
     
-    /** Repositorio para persistir las tareas en el almacenamiento (archivo JSON). */
-    private final TareaRepository repository;
+    /** Repositorio para persistir las tareas (por defecto, un archivo JSON). */
+    private final RepositorioTareas repository;
+
+    /**
+     * Indica si el repositorio resuelve las consultas ({@link RepositorioTareas#admiteConsultas()}).
+     * En ese caso las tareas no se cargan: la lista, el mapa por ID, los índices y las columnas
+     * quedan vacíos, y cada consulta y cada cambio van al repositorio. Los cambios se hacen con
+     * {@link #guardado} bloqueado, así que leer una tarea y escribirla no se intercala con otro cambio.
+     */
+    private final boolean enRepositorio;
+
+    /** Cantidad de tareas por página al recorrer el repositorio en las operaciones masivas. */
+    static final int TAMANIO_RECORRIDO = 1000;
+
+    /** Antigüedad por defecto que deben tener las tareas completadas para archivarse. */
+    public static final Period ANTIGUEDAD_ARCHIVO = Period.ofDays(30);
+
+    /** Tareas archivadas: fuera de la lista en memoria, en un segmento comprimido en disco. */
+    private final ArchivoTareas archivadas;
+
+    /** Cantidad de eventos que cada suscriptor puede tener pendientes antes de empezar a descartar. */
+    public static final int CAPACIDAD_EVENTOS = 1024;
+
+    /** Publica los cambios en las tareas a los suscriptores sin bloquear a quien los produce. */
+    private final SubmissionPublisher<EventoTarea> publicador;
+
+    /** Hilos que entregan los eventos; se detienen al {@link #cerrar() cerrar} el servicio. */
+    private final ExecutorService hilosEventos;
+
+    /** Cantidad de eventos descartados porque algún suscriptor no los consumía a tiempo. */
+    private final LongAdder eventosDescartados = new LongAdder();
+
+    /** Conteos de las tareas en memoria, actualizados con cada cambio. */
+    private final EstadisticasTareas estadisticas = new EstadisticasTareas();
+
+    /**
+     * Indica si {@link #estadisticas} ya cuenta todas las tareas. Con un repositorio que resuelve
+     * las consultas se llenan recorriéndolo la primera vez que se piden.
+     */
+    private volatile boolean estadisticasCargadas;
+
+    /** Índices por estado, prioridad, fecha y texto de las tareas en memoria. */
+    private final IndiceTareas indice;
+
+    /** Estado, prioridad y fecha de las tareas en memoria en columnas, para los filtros compuestos. */
+    private final ColumnasTareas columnas;
+
+    /** Índice de la búsqueda difusa; se construye la primera vez que se usa. */
+    private volatile BuscadorDifuso buscador;
+
+    /** Últimos cambios numerados, para que otros sistemas se sincronicen de forma incremental. */
+    private final RegistroCambios registroCambios;
+
+    /** Ejecuta los recorridos de las consultas, en paralelo cuando hay muchas tareas. */
+    private final ConsultaParalela consultas;
+
+    /** Resultados de las consultas repetidas, que se descartan solo cuando un cambio los afecta. */
+    private final CacheConsultas cache;
+
+    /**
+     * Memoria aproximada, en bytes, que ocupa cada tarea en memoria sin contar sus textos: el
+     * objeto, su fecha, sus entradas en la lista, el mapa por ID, los índices y las columnas.
+     */
+    static final int BYTES_POR_TAREA = 256;
+
+    /**
+     * Memoria aproximada, en bytes, por cada carácter del título y la descripción: el propio
+     * carácter y su entrada en el índice de trigramas.
+     */
+    static final int BYTES_POR_CARACTER = 6;
+
+    /** Indica si los índices se leyeron del punto de control en lugar de reconstruirse. */
+    private boolean indiceDesdePuntoControl;
+
+    /** Secuencia de cambios que refleja el último punto de control guardado o leído, o -1. */
+    private volatile long secuenciaPuntoControl = -1;
+
+    /** Plantillas de las tareas recurrentes, por ID; sus ocurrencias se generan al consultarlas. */
+    private final ConcurrentNavigableMap<Integer, PlantillaRecurrente> plantillas = new ConcurrentSkipListMap<>();
+
+    /**
+     * ID de la próxima plantilla. Solo crece, para que una plantilla nueva no herede los IDs de
+     * ocurrencia de una eliminada. Se usa con {@link #plantillas} bloqueado.
+     */
+    private int siguienteIdPlantilla = 1;
 
     /**
      * Crea una instancia del servicio con un repositorio específico.
      *
      * @param repository el repositorio para almacenar las tareas
      */
-    public TareaService(TareaRepository repository) {
+    public TareaService(RepositorioTareas repository) {
+        this(repository, CAPACIDAD_EVENTOS);
+    }
+
+    /**
+     * Crea una instancia del servicio indicando cuántos eventos puede acumular cada suscriptor.
+     *
+     * @param repository el repositorio para almacenar las tareas
+     * @param capacidadEventos cantidad máxima de eventos pendientes por suscriptor
+     */
+    public TareaService(RepositorioTareas repository, int capacidadEventos) {
+        this(repository, capacidadEventos, ConsultaParalela.compartida());
+    }
+
+    /**
+     * Crea una instancia del servicio indicando cuántos eventos puede acumular cada suscriptor y
+     * con qué ejecutor se recorren las tareas en las consultas.
+     *
+     * @param repository el repositorio para almacenar las tareas
+     * @param capacidadEventos cantidad máxima de eventos pendientes por suscriptor
+     * @param consultas el ejecutor de los recorridos, que decide cuándo repartirlos entre hilos
+     */
+    public TareaService(RepositorioTareas repository, int capacidadEventos, ConsultaParalela consultas) {
+        this(repository, capacidadEventos, consultas, CacheConsultas.porDefecto());
+    }
+
+    /**
+     * Crea una instancia del servicio indicando además la caché donde se guardan los resultados
+     * de las consultas.
+     *
+     * @param repository el repositorio para almacenar las tareas
+     * @param capacidadEventos cantidad máxima de eventos pendientes por suscriptor
+     * @param consultas el ejecutor de los recorridos, que decide cuándo repartirlos entre hilos
+     * @param cache la caché de resultados; no debe compartirse con otro servicio
+     */
+    public TareaService(RepositorioTareas repository, int capacidadEventos, ConsultaParalela consultas,
+                        CacheConsultas cache) {
         this.repository = repository;
-        this.tareas = new ArrayList<>(repository.obtenerTareas());
+        this.consultas = consultas;
+        this.cache = cache;
+        this.enRepositorio = repository.admiteConsultas();
+        this.tareas = enRepositorio ? new ArrayList<>() : new ArrayList<>(repository.obtenerTareas());
+        for (Tarea t : tareas) {
+            indicePorId.put(t.getId(), t);
+        }
+        if (!enRepositorio) {
+            estadisticas.reiniciar(tareas);
+            estadisticasCargadas = true;
+        }
+        this.indice = enRepositorio ? IndiceTareas.construir(tareas) : cargarIndice();
+        this.columnas = ColumnasTareas.construir(tareas);
+        try {
+            this.archivadas = new ArchivoTareas(repository.getRutaArchivadas());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el archivo de tareas archivadas", e);
+        }
+        try {
+            this.registroCambios = new RegistroCambios(repository.getRutaCambios(), RegistroCambios.CAPACIDAD);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el registro de cambios", e);
+        }
+        if (indiceDesdePuntoControl) {
+            secuenciaPuntoControl = registroCambios.getSecuencia();
+        }
+        if (repository.getRutaPlantillas() != null) {
+            try {
+                ArchivoPlantillas.Contenido contenido = ArchivoPlantillas.leer(repository.getRutaPlantillas());
+                for (PlantillaRecurrente p : contenido.plantillas()) {
+                    plantillas.put(p.getId(), p);
+                }
+                siguienteIdPlantilla = contenido.siguienteId();
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudieron leer las plantillas recurrentes", e);
+            }
+        }
+        this.hilosEventos = Executors.newCachedThreadPool(r -> {
+            Thread hilo = new Thread(r, "eventos-tareas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.publicador = new SubmissionPublisher<>(hilosEventos, capacidadEventos);
+    }
+
+    /**
+     * Suscribe un receptor a los cambios en las tareas.
+     * <p>
+     * La entrega es asíncrona y respeta la demanda que el suscriptor pide con
+     * {@link Flow.Subscription#request(long)}. Quien modifica las tareas nunca espera: si el
+     * suscriptor acumula {@link #CAPACIDAD_EVENTOS} eventos sin consumir, los siguientes se le
+     * descartan y se cuentan en {@link #getEventosDescartados()}. Un suscriptor que pierda eventos
+     * puede resincronizarse con {@link #obtenerTodas()}.
+     *
+     * @param suscriptor el receptor de los eventos
+     */
+    public void suscribir(Flow.Subscriber<? super EventoTarea> suscriptor) {
+        publicador.subscribe(suscriptor);
+    }
+
+    /**
+     * Suscribe una función que procesa cada cambio en las tareas, con demanda ilimitada.
+     *
+     * @param receptor la función que recibe cada evento, en un hilo de eventos
+     * @return un futuro que se completa cuando se cierra el servicio
+     */
+    public CompletableFuture<Void> escuchar(Consumer<? super EventoTarea> receptor) {
+        return publicador.consume(receptor);
+    }
+
+    /**
+     * Obtiene la cantidad de eventos descartados por suscriptores que no los consumían a tiempo.
+     *
+     * @return la cantidad de eventos descartados
+     */
+    public long getEventosDescartados() {
+        return eventosDescartados.sum();
+    }
+
+    /**
+     * Obtiene la caché de resultados de las consultas, con sus contadores de aciertos y fallos.
+     *
+     * @return la caché
+     */
+    public CacheConsultas getCache() {
+        return cache;
+    }
+
+    /**
+     * Carga los índices desde el punto de control del repositorio si corresponde a la generación
+     * actual de los datos; si no existe, está desactualizado o dañado, los reconstruye.
+     *
+     * @return los índices de las tareas cargadas
+     */
+    private IndiceTareas cargarIndice() {
+        Path ruta = repository.getRutaPuntoControl();
+        if (ruta != null) {
+            try {
+                IndiceTareas guardado = IndiceTareas.cargar(ruta, repository.getGeneracion());
+                if (guardado != null && guardado.getCantidad() == tareas.size()) {
+                    indiceDesdePuntoControl = true;
+                    return guardado;
+                }
+            } catch (IOException e) {
+                // no se pudo leer: se reconstruye
+            }
+        }
+        return IndiceTareas.construir(tareas);
+    }
+
+    /**
+     * Registra una tarea nueva o recién modificada en las estadísticas y los índices.
+     *
+     * @param tarea la tarea con sus datos actuales
+     */
+    private void indexar(Tarea tarea) {
+        estadisticas.registrar(tarea);
+        indice.agregar(tarea);
+        columnas.registrar(tarea);
+        cache.invalidar(tarea);
+        BuscadorDifuso b = buscador;
+        if (b != null) {
+            b.agregar(tarea);
+        }
+    }
+
+    /**
+     * Quita una tarea de los índices. Debe llamarse antes de modificarla o después de quitarla,
+     * mientras conserva los datos con los que se indexó.
+     *
+     * @param tarea la tarea con sus datos indexados
+     */
+    private void desindexar(Tarea tarea) {
+        indice.quitar(tarea);
+        columnas.quitar(tarea.getId());
+        cache.invalidarId(tarea.getId());
+        BuscadorDifuso b = buscador;
+        if (b != null) {
+            b.quitar(tarea);
+        }
+    }
+
+    /**
+     * Guarda los índices en el punto de control del repositorio, para que el próximo arranque
+     * no tenga que reconstruirlos. No hace nada si el repositorio no usa puntos de control o
+     * resuelve las consultas, porque entonces no hay índices en memoria.
+     *
+     * @throws IOException si no se puede escribir el punto de control
+     */
+    public void guardarPuntoControl() throws IOException {
+        long secuencia = registroCambios.getSecuencia();
+        Path ruta = repository.getRutaPuntoControl();
+        if (ruta != null && !enRepositorio) {
+            indice.guardar(ruta, repository.getGeneracion());
+        }
+        secuenciaPuntoControl = secuencia;
+    }
+
+    /**
+     * Indica si hubo cambios en las tareas desde el último punto de control, o si los índices se
+     * reconstruyeron al cargar, de modo que el próximo arranque tendría que volver a construirlos.
+     * Las tareas en sí ya están guardadas: cada cambio se persiste en el repositorio al hacerse.
+     *
+     * @return true si conviene llamar a {@link #guardarPuntoControl()} antes de descartar el servicio
+     */
+    public boolean tienePuntoControlPendiente() {
+        return secuenciaPuntoControl != registroCambios.getSecuencia();
+    }
+
+    /**
+     * Estima la memoria que ocupan las tareas en memoria junto con sus índices. Es una
+     * aproximación para decidir qué descargar, no una medición: cuenta
+     * {@value #BYTES_POR_TAREA} bytes por tarea y {@value #BYTES_POR_CARACTER} por cada
+     * carácter de título y descripción. Con un repositorio que resuelve las consultas las tareas
+     * no están en memoria y la estimación es 0.
+     *
+     * @return la memoria estimada en bytes
+     */
+    public long estimarMemoria() {
+        long caracteres = 0;
+        for (Tarea t : indicePorId.values()) {
+            caracteres += (t.getTitulo() == null ? 0 : t.getTitulo().length())
+                    + (t.getDescripcion() == null ? 0 : t.getDescripcion().length());
+        }
+        return (long) indicePorId.size() * BYTES_POR_TAREA + caracteres * BYTES_POR_CARACTER;
+    }
+
+    /**
+     * Obtiene la secuencia del último cambio hecho en las tareas. Cada alta, modificación, baja o
+     * archivado, incluidos los que llegan al recargar el archivo, aumenta la secuencia en uno por
+     * tarea afectada.
+     *
+     * @return la secuencia del último cambio, o 0 si no hubo ninguno
+     */
+    public long getSecuenciaCambios() {
+        return registroCambios.getSecuencia();
+    }
+
+    /**
+     * Escribe como líneas JSON los cambios posteriores a una secuencia, para que un sistema que
+     * replica las tareas solo procese lo que cambió. El formato de cada línea se describe en
+     * {@link RegistroCambios}.
+     *
+     * @param desde la última secuencia que ya procesó el destino (0 para pedir todos)
+     * @param destino donde se escriben las líneas
+     * @return la cantidad de cambios escritos
+     * @throws IllegalArgumentException si esos cambios ya no se conservan; el destino debe copiar
+     *                                  de nuevo todas las tareas con {@link #obtenerTodas()}
+     * @throws IOException si no se puede escribir en el destino
+     */
+    public long exportarCambiosDesde(long desde, Writer destino) throws IOException {
+        return registroCambios.exportarDesde(desde, destino);
+    }
+
+    /**
+     * Obtiene las estadísticas de las tareas en memoria (sin contar las archivadas). Se actualizan
+     * con cada alta, cambio y baja, así que consultarlas no recorre las tareas.
+     * <p>
+     * Con un repositorio que resuelve las consultas, la primera llamada lo recorre por páginas para
+     * contarlas; las estadísticas conservan un resumen por tarea, no las tareas.
+     *
+     * @return las estadísticas
+     */
+    public EstadisticasTareas getEstadisticas() {
+        if (!estadisticasCargadas) {
+            synchronized (guardado) {
+                if (!estadisticasCargadas) {
+                    int despuesDe = 0;
+                    List<Tarea> pagina;
+                    while (!(pagina = paginaDelRepositorio(FiltroTareas.todas(), despuesDe)).isEmpty()) {
+                        despuesDe = pagina.get(pagina.size() - 1).getId();
+                        pagina.forEach(estadisticas::registrar);
+                    }
+                    estadisticasCargadas = true;
+                }
+            }
+        }
+        return estadisticas;
+    }
+
+    /**
+     * Cierra la publicación de eventos; los suscriptores reciben {@code onComplete} y después se
+     * detienen los hilos de entrega.
+     */
+    public void cerrar() {
+        publicador.close();
+        hilosEventos.shutdown();
+    }
+
+    /**
+     * Entrega un evento a los suscriptores sin bloquear; si alguno tiene el búfer lleno se le descarta.
+     *
+     * @param evento el evento a publicar
+     */
+    private void publicar(EventoTarea evento) {
+        publicador.offer(evento, (suscriptor, descartado) -> {
+            eventosDescartados.increment();
+            return false; // no reintentar: el escritor no debe esperar
+        });
     }
 
     /**
@@ -38,30 +454,129 @@ public class TareaService {
      * sea una fecha futura o igual a la actual.
      *
      * @param tarea la tarea a agregar
+     * @return la tarea creada o el motivo por el que se rechazó
+     */
+    public ResultadoAlta agregarTarea(Tarea tarea) {
+        ErrorValidacion error = validar(tarea);
+        if (error != null) {
+            REGISTRO.aviso(ORIGEN, "Tarea rechazada: {}", error.getMensaje());
+            return ResultadoAlta.rechazada(error);
+        }
+
+        Tarea nuevaTarea = crearTarea(tarea);
+        if (!enRepositorio) {
+            synchronized (tareas) {
+                tareas.add(nuevaTarea);
+            }
+            indicePorId.put(nuevaTarea.getId(), nuevaTarea);
+            indexar(nuevaTarea);
+        }
+        guardarCambios(List.of(nuevaTarea), List.of(), List.of()); // Guardar después de agregar
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.agregada(nuevaTarea));
+        }
+        if (REGISTRO.activo(Registro.Nivel.INFO)) {
+            REGISTRO.info(ORIGEN, "Tarea agregada: id={} titulo={}", nuevaTarea.getId(), nuevaTarea.getTitulo());
+        }
+        return ResultadoAlta.agregada(nuevaTarea);
+    }
+
+    /**
+     * Agrega un lote de tareas al sistema guardando el archivo una sola vez.
+     * <p>
+     * Cada tarea se valida con las mismas reglas que {@link #agregarTarea(Tarea)}; las inválidas
+     * se descartan y el resto se agrega en el orden recibido. A diferencia de la versión individual,
+     * no se registra cada tarea agregada sino un único resumen del lote; los motivos de rechazo se
+     * pueden recibir con {@link #agregarTareas(Collection, BiConsumer)}.
+     *
+     * @param nuevas las tareas a agregar
+     * @return las tareas creadas, con sus IDs asignados
      */
-    public void agregarTarea(Tarea tarea) {
+    public List<Tarea> agregarTareas(Collection<? extends Tarea> nuevas) {
+        return agregarTareas(nuevas, (tarea, error) -> { });
+    }
+
+    /**
+     * Agrega un lote de tareas como {@link #agregarTareas(Collection)} e informa cada tarea
+     * rechazada junto con el motivo.
+     *
+     * @param nuevas las tareas a agregar
+     * @param rechazos recibe cada tarea rechazada y su motivo, en el orden recibido
+     * @return las tareas creadas, con sus IDs asignados
+     */
+    public List<Tarea> agregarTareas(Collection<? extends Tarea> nuevas,
+                                     BiConsumer<? super Tarea, ErrorValidacion> rechazos) {
+        List<Tarea> agregadas = new ArrayList<>(nuevas.size());
+        int rechazadas = 0;
+
+        for (Tarea tarea : nuevas) {
+            ErrorValidacion error = validar(tarea);
+            if (error != null) {
+                rechazadas++;
+                rechazos.accept(tarea, error);
+                continue;
+            }
+            agregadas.add(crearTarea(tarea));
+        }
+
+        if (!agregadas.isEmpty()) {
+            if (!enRepositorio) {
+                cache.prepararLote(agregadas.size());
+                synchronized (tareas) {
+                    tareas.addAll(agregadas);
+                }
+                for (Tarea t : agregadas) {
+                    indicePorId.put(t.getId(), t);
+                    indexar(t);
+                }
+            }
+            guardarCambios(agregadas, List.of(), List.of()); // Un único guardado para todo el lote
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.masivo(agregadas, List.of(), List.of()));
+            }
+        }
+        if (REGISTRO.activo(Registro.Nivel.INFO)) {
+            REGISTRO.info(ORIGEN, "Lote procesado: {} tareas agregadas, {} rechazadas.", agregadas.size(), rechazadas);
+        }
+        return agregadas;
+    }
+
+    /**
+     * Valida que la tarea tenga título y que su fecha de vencimiento no sea pasada.
+     *
+     * @param tarea la tarea a validar
+     * @return el motivo del rechazo, o null si la tarea es válida
+     */
+    public ErrorValidacion validar(Tarea tarea) {
         if (tarea.getTitulo() == null || tarea.getTitulo().trim().isEmpty()) {
-            System.out.println("El titulo no puede estar vacio.");
-            return;
+            return ErrorValidacion.TITULO_VACIO;
         }
-        if (tarea.getFechaVencimiento().isBefore(LocalDate.now())) {
-            System.out.println("La fecha de vencimiento debe ser hoy o una fecha futura.");
-            return;
+        if (tarea.getFechaVencimiento() == null || tarea.getFechaVencimiento().isBefore(LocalDate.now())) {
+            return ErrorValidacion.FECHA_PASADA;
         }
+        return null;
+    }
 
-        Tarea nuevaTarea = new Tarea(tarea.getTitulo().trim(), tarea.getDescripcion(), tarea.getFechaVencimiento(), tarea.getPrioridad(), tarea.getEstado());
-        tareas.add(nuevaTarea);
-        repository.guardarEnArchivo(tareas); // Guardar después de agregar
-        System.out.println("Tarea agregada: \n" + nuevaTarea);
+    /**
+     * Crea la tarea definitiva, con un ID nuevo, a partir de los datos recibidos.
+     *
+     * @param tarea la tarea con los datos de origen
+     * @return la nueva tarea
+     */
+    private Tarea crearTarea(Tarea tarea) {
+        return new Tarea(tarea.getTitulo().trim(), tarea.getDescripcion(), tarea.getFechaVencimiento(),
+                tarea.getPrioridad(), tarea.getEstado());
     }
 
     /**
-     * Obtiene todas las tareas almacenadas en el sistema.
+     * Obtiene todas las tareas almacenadas en el sistema. Con un repositorio que resuelve las
+     * consultas las lee todas de él; para recorrer muchas conviene
+     * {@link #obtenerPagina(PaginaTareas.Orden, int, String)}.
      *
      * @return lista de todas las tareas
      */
     public List<Tarea> obtenerTodas() {
-        return new ArrayList<>(tareas);
+        return enRepositorio ? repository.obtenerTareas() : copiarTareas();
     }
 
     /**
@@ -70,7 +585,7 @@ public class TareaService {
      * @param criterioOrdenamiento el criterio de ordenamiento: "fecha", "prioridad" o vacío para no ordenar
      */
     public void listarTareas(String criterioOrdenamiento) {
-        List<Tarea> copia = new ArrayList<>(tareas);
+        List<Tarea> copia = obtenerTodas();
 
         switch (criterioOrdenamiento.toLowerCase()) {
             case "fecha" -> copia.sort(Comparator.comparing(Tarea::getFechaVencimiento));
@@ -111,100 +626,1357 @@ public class TareaService {
     }
 
     /**
-     * Guarda las tareas en el archivo utilizando el repositorio.
+     * Guarda las tareas en el archivo utilizando el repositorio. Con un repositorio que resuelve
+     * las consultas no hace nada: cada cambio ya quedó guardado al hacerse.
      */
     public void guardarTareas() {
-        repository.guardarEnArchivo(tareas); // Guarda la lista de tareas actualizada
+        if (enRepositorio) {
+            return;
+        }
+        synchronized (guardado) {
+            repository.guardar(copiarTareas()); // Guarda la lista de tareas actualizada
+        }
     }
 
     /**
-     * Actualiza una tarea en el sistema según su ID.
+     * Persiste un cambio sobre la lista de tareas y lo anota en el registro de cambios. El
+     * repositorio decide si reescribe todo o solo las tareas afectadas.
      *
-     * @param tarea la tarea actualizada
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas que cambiaron
+     * @param eliminadas los IDs de las tareas quitadas
      */
-    public void actualizarTarea(Tarea tarea) {
-        for (int i = 0; i < tareas.size(); i++) {
-            if (tareas.get(i).getId() == tarea.getId()) {
-                tareas.set(i, tarea);
-                break;
+    private void guardarCambios(Collection<Tarea> agregadas, Collection<Tarea> actualizadas,
+                                Collection<Integer> eliminadas) {
+        synchronized (guardado) {
+            repository.guardarCambios(copiarTareas(), agregadas, actualizadas, eliminadas);
+            registroCambios.registrar(agregadas, actualizadas, eliminadas);
+            if (enRepositorio) {
+                actualizarResumenes(agregadas, actualizadas, eliminadas);
             }
         }
-        guardarTareas();
     }
 
     /**
-     * Elimina una tarea del sistema según su ID.
+     * Con un repositorio que resuelve las consultas, lleva un cambio a las estadísticas y a la
+     * búsqueda difusa si ya se construyeron. Se llama con {@link #guardado} bloqueado, igual que
+     * su construcción, así que ningún cambio queda afuera ni se cuenta dos veces.
      *
-     * @param id el ID de la tarea a eliminar
+     * @param agregadas las tareas nuevas
+     * @param actualizadas las tareas que cambiaron
+     * @param eliminadas los IDs de las tareas quitadas
      */
-    public void eliminarTarea(int id) {
-        Tarea tarea = buscarPorId(id);
-        if (tarea != null) {
-            tareas.remove(tarea);
-            repository.guardarEnArchivo(tareas); // Guardar después de eliminar
+    private void actualizarResumenes(Collection<Tarea> agregadas, Collection<Tarea> actualizadas,
+                                     Collection<Integer> eliminadas) {
+        BuscadorDifuso b = buscador;
+        for (Collection<Tarea> cambiadas : List.of(agregadas, actualizadas)) {
+            for (Tarea t : cambiadas) {
+                if (estadisticasCargadas) {
+                    estadisticas.registrar(t);
+                }
+                if (b != null) {
+                    b.agregar(t);
+                }
+            }
+        }
+        for (int id : eliminadas) {
+            estadisticas.quitar(id);
+            if (b != null) {
+                b.quitar(id);
+            }
         }
     }
 
     /**
-     * Busca una tarea por su ID.
+     * Lee del repositorio la página siguiente de un recorrido por ID de las tareas que cumplen
+     * un filtro.
      *
-     * @param id el ID de la tarea
-     * @return la tarea encontrada o null si no existe
+     * @param filtro el filtro
+     * @param despuesDe el ID de la última tarea de la página anterior, o 0 para la primera
+     * @return hasta {@value #TAMANIO_RECORRIDO} tareas; vacía al terminar
      */
-    private Tarea buscarPorId(int id) {
-        return tareas.stream()
-                .filter(t -> t.getId() == id)
-                .findFirst()
-                .orElse(null);
+    private List<Tarea> paginaDelRepositorio(FiltroTareas filtro, int despuesDe) {
+        return repository.consultar(filtro, null, PaginaTareas.Orden.ID, 0, despuesDe, TAMANIO_RECORRIDO);
     }
 
     /**
-     * Filtra las tareas por su estado.
+     * Obtiene del repositorio todas las tareas que cumplen un filtro y, opcionalmente, contienen
+     * una palabra.
      *
-     * @param estado el estado por el que filtrar
-     * @return lista de tareas con el estado especificado
+     * @param filtro el filtro
+     * @param palabra la palabra a buscar, o null
+     * @param orden el orden del resultado
+     * @return las tareas encontradas
      */
-    public List<Tarea> filtrarPorEstado(Estado estado) {
-        return tareas.stream()
-                .filter(t -> t.getEstado() == estado)
-                .toList();
+    private List<Tarea> consultarRepositorio(FiltroTareas filtro, String palabra, PaginaTareas.Orden orden) {
+        return repository.consultar(filtro, palabra, orden, 0, 0, Integer.MAX_VALUE);
     }
 
     /**
-     * Filtra las tareas por su prioridad.
+     * Copia la lista de tareas con la lista bloqueada. Los guardados pueden llegar desde cualquier
+     * hilo (por ejemplo un compare-and-set desde un script) mientras la interfaz agrega o quita.
      *
-     * @param prioridad la prioridad por la que filtrar
-     * @return lista de tareas con la prioridad especificada
+     * @return una copia de la lista
      */
-    public List<Tarea> filtrarPorPrioridad(Prioridad prioridad) {
-        return tareas.stream()
-                .filter(t -> t.getPrioridad() == prioridad)
-                .toList();
+    private List<Tarea> copiarTareas() {
+        synchronized (tareas) {
+            return new ArrayList<>(tareas);
+        }
     }
 
     /**
-     * Filtra las tareas por su fecha de vencimiento.
+     * Actualiza una tarea en el sistema según su ID, sin comprobar si otro editor la modificó antes.
+     * La versión de la tarea pasa a ser la de la tarea reemplazada más uno. Si es una
+     * {@link OcurrenciaRecurrente}, se materializa como una tarea nueva con sus datos.
      *
-     * @param fecha la fecha de vencimiento por la que filtrar
-     * @return lista de tareas con la fecha de vencimiento especificada
+     * @param tarea la tarea actualizada
+     * @see #actualizarSiVersion(int, Tarea, int)
      */
-    public List<Tarea> filtrarPorFecha(LocalDate fecha) {
-        return tareas.stream()
-                .filter(t -> t.getFechaVencimiento().equals(fecha))
-                .toList();
+    public void actualizarTarea(Tarea tarea) {
+        if (OcurrenciaRecurrente.esOcurrencia(tarea.getId())) {
+            materializar(tarea.getId(), tarea);
+            return;
+        }
+        if (enRepositorio) {
+            ResultadoActualizacion resultado = actualizarEnRepositorio(tarea.getId(), tarea, null);
+            if (!resultado.esExitosa()) {
+                return; // no existe: no hay nada que guardar
+            }
+            tarea.setVersion(resultado.tarea().getVersion());
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.actualizada(tarea));
+            }
+            return;
+        }
+        while (true) {
+            Tarea anterior = indicePorId.get(tarea.getId());
+            if (anterior == null) {
+                return; // no existe: no hay nada que guardar
+            }
+            // El reemplazo se hace con la instancia anterior bloqueada: un compare-and-set en
+            // curso sobre ella termina antes, y los siguientes ven la instancia nueva
+            synchronized (anterior) {
+                if (indicePorId.get(tarea.getId()) != anterior) {
+                    continue; // se reemplazó o se eliminó antes de tomar el bloqueo
+                }
+                synchronized (tareas) {
+                    int posicion = posicionDe(anterior);
+                    if (posicion < 0) {
+                        return; // se quitó al aplicar un contenido externo
+                    }
+                    tarea.setVersion(anterior.getVersion() + 1);
+                    tareas.set(posicion, tarea);
+                }
+                indicePorId.put(tarea.getId(), tarea);
+                if (anterior == tarea) {
+                    // Quien llama ya modificó la instancia: no se conocen los datos indexados
+                    indice.quitarPorId(tarea.getId());
+                    cache.invalidarId(tarea.getId());
+                } else {
+                    desindexar(anterior);
+                }
+                indexar(tarea);
+                break;
+            }
+        }
+        guardarCambios(List.of(), List.of(tarea), List.of());
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.actualizada(tarea));
+        }
     }
 
     /**
-     * Busca tareas que contengan una palabra clave en su título o descripción.
+     * Busca la posición de una instancia en la lista de tareas. Debe llamarse con la lista
+     * bloqueada.
      *
-     * @param palabra la palabra clave a buscar
-     * @return lista de tareas que contienen la palabra clave
+     * @return la posición, o -1 si la instancia no está
      */
-    public List<Tarea> buscarPorPalabraClave(String palabra) {
-        String palabraClave = palabra.toLowerCase();
-        return tareas.stream()
-                .filter(t -> t.getTitulo().toLowerCase().contains(palabraClave)
-                        || t.getDescripcion().toLowerCase().contains(palabraClave))
-                .toList();
+    private int posicionDe(Tarea tarea) {
+        for (int i = 0; i < tareas.size(); i++) {
+            if (tareas.get(i) == tarea) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Actualiza una tarea solo si nadie la modificó desde que se leyó (compare-and-set por versión).
+     * <p>
+     * Copia los datos de {@code datos} sobre la tarea almacenada si su versión sigue siendo
+     * {@code versionEsperada}, y entonces aumenta la versión. El bloqueo es por tarea, de modo que
+     * los editores de tareas distintas no se esperan entre sí; se aplica siempre sobre la instancia
+     * vigente, aunque {@link #actualizarTarea(Tarea)} la haya reemplazado mientras tanto. Puede
+     * llamarse desde cualquier hilo. Si la versión no coincide no se
+     * aplica nada y el resultado trae los datos actuales, para que el llamador decida cómo seguir.
+     * <p>
+     * Si el ID es de una {@link OcurrenciaRecurrente}, la ocurrencia se materializa con los datos
+     * recibidos y el resultado trae la tarea nueva, que tiene otro ID.
+     *
+     * @param id el ID de la tarea a actualizar
+     * @param datos los nuevos datos; su ID y su versión se ignoran
+     * @param versionEsperada la versión que tenía la tarea cuando se leyó
+     * @return el resultado de la actualización
+     */
+    public ResultadoActualizacion actualizarSiVersion(int id, Tarea datos, int versionEsperada) {
+        if (OcurrenciaRecurrente.esOcurrencia(id)) {
+            Tarea creada = materializar(id, datos);
+            return new ResultadoActualizacion(creada == null ? ResultadoActualizacion.Tipo.NO_ENCONTRADA
+                    : ResultadoActualizacion.Tipo.ACTUALIZADA, creada);
+        }
+        if (enRepositorio) {
+            ResultadoActualizacion resultado = actualizarEnRepositorio(id, datos, versionEsperada);
+            if (resultado.esExitosa() && publicador.hasSubscribers()) {
+                publicar(EventoTarea.actualizada(resultado.tarea()));
+            }
+            return resultado;
+        }
+        Tarea actual;
+        while (true) {
+            actual = indicePorId.get(id);
+            if (actual == null) {
+                return new ResultadoActualizacion(ResultadoActualizacion.Tipo.NO_ENCONTRADA, null);
+            }
+            synchronized (actual) {
+                if (indicePorId.get(id) != actual) {
+                    continue; // se reemplazó o se eliminó antes de tomar el bloqueo
+                }
+                if (actual.getVersion() != versionEsperada) {
+                    return new ResultadoActualizacion(ResultadoActualizacion.Tipo.CONFLICTO, actual);
+                }
+                desindexar(actual);
+                actual.copiarDatosDe(datos);
+                actual.setVersion(versionEsperada + 1);
+                indexar(actual);
+                break;
+            }
+        }
+        guardarCambios(List.of(), List.of(actual), List.of());
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.actualizada(actual));
+        }
+        return new ResultadoActualizacion(ResultadoActualizacion.Tipo.ACTUALIZADA, actual);
+    }
+
+    /**
+     * Con un repositorio que resuelve las consultas, copia datos nuevos sobre una tarea almacenada
+     * si su versión es la esperada, y aumenta la versión. La lectura y la escritura se hacen con
+     * {@link #guardado} bloqueado.
+     *
+     * @param id el ID de la tarea a actualizar
+     * @param datos los nuevos datos; su ID y su versión se ignoran
+     * @param versionEsperada la versión que tenía la tarea cuando se leyó, o null para no comprobarla
+     * @return el resultado de la actualización
+     */
+    private ResultadoActualizacion actualizarEnRepositorio(int id, Tarea datos, Integer versionEsperada) {
+        synchronized (guardado) {
+            Tarea actual = repository.buscarPorId(id);
+            if (actual == null) {
+                return new ResultadoActualizacion(ResultadoActualizacion.Tipo.NO_ENCONTRADA, null);
+            }
+            if (versionEsperada != null && actual.getVersion() != versionEsperada) {
+                return new ResultadoActualizacion(ResultadoActualizacion.Tipo.CONFLICTO, actual);
+            }
+            actual.copiarDatosDe(datos);
+            actual.setVersion(actual.getVersion() + 1);
+            guardarCambios(List.of(), List.of(actual), List.of());
+            return new ResultadoActualizacion(ResultadoActualizacion.Tipo.ACTUALIZADA, actual);
+        }
+    }
+
+    /**
+     * Elimina una tarea del sistema según su ID. Si es el de una {@link OcurrenciaRecurrente}, su
+     * plantilla deja de generar esa ocurrencia.
+     *
+     * @param id el ID de la tarea a eliminar
+     */
+    public void eliminarTarea(int id) {
+        if (OcurrenciaRecurrente.esOcurrencia(id)) {
+            omitirOcurrencia(id);
+            return;
+        }
+        Tarea tarea;
+        if (enRepositorio) {
+            synchronized (guardado) {
+                tarea = repository.buscarPorId(id);
+                if (tarea == null) {
+                    return;
+                }
+                guardarCambios(List.of(), List.of(), List.of(id));
+            }
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.eliminada(tarea));
+            }
+            return;
+        }
+        while (true) {
+            tarea = buscarPorId(id);
+            if (tarea == null) {
+                return;
+            }
+            synchronized (tarea) {
+                if (indicePorId.get(id) != tarea) {
+                    continue; // se reemplazó o se eliminó antes de tomar el bloqueo
+                }
+                synchronized (tareas) {
+                    tareas.remove(tarea);
+                }
+                indicePorId.remove(id);
+                estadisticas.quitar(id);
+                desindexar(tarea);
+                break;
+            }
+        }
+        guardarCambios(List.of(), List.of(), List.of(id)); // Guardar después de eliminar
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.eliminada(tarea));
+        }
+    }
+
+    /**
+     * Aplica un mismo cambio a todas las tareas que cumplan un criterio y guarda una sola vez.
+     * <p>
+     * Con un repositorio que resuelve las consultas, las tareas se leen, modifican y guardan por
+     * páginas de {@value #TAMANIO_RECORRIDO}, y se publica un evento masivo por página.
+     *
+     * @param criterio el predicado que selecciona las tareas a modificar
+     * @param cambio la modificación a aplicar sobre cada tarea seleccionada
+     * @return la cantidad de tareas modificadas
+     */
+    public int actualizarTareas(Predicate<Tarea> criterio, Consumer<Tarea> cambio) {
+        return actualizarTareas(FiltroTareas.todas(), criterio, cambio);
+    }
+
+    /**
+     * Aplica un cambio masivo como {@link #actualizarTareas(Predicate, Consumer)}, indicando un
+     * filtro que el criterio ya implica para que el repositorio lea menos filas.
+     *
+     * @param previo un filtro que cumplen todas las tareas que cumplen el criterio
+     * @param criterio el predicado que selecciona las tareas a modificar
+     * @param cambio la modificación a aplicar sobre cada tarea seleccionada
+     * @return la cantidad de tareas modificadas
+     */
+    private int actualizarTareas(FiltroTareas previo, Predicate<Tarea> criterio, Consumer<Tarea> cambio) {
+        if (enRepositorio) {
+            int cantidad = 0;
+            synchronized (guardado) {
+                int despuesDe = 0;
+                List<Tarea> pagina;
+                while (!(pagina = paginaDelRepositorio(previo, despuesDe)).isEmpty()) {
+                    despuesDe = pagina.get(pagina.size() - 1).getId();
+                    List<Tarea> modificadas = new ArrayList<>();
+                    for (Tarea t : pagina) {
+                        if (criterio.test(t)) {
+                            cambio.accept(t);
+                            t.setVersion(t.getVersion() + 1);
+                            modificadas.add(t);
+                        }
+                    }
+                    if (!modificadas.isEmpty()) {
+                        guardarCambios(List.of(), modificadas, List.of());
+                        if (publicador.hasSubscribers()) {
+                            publicar(EventoTarea.masivo(List.of(), modificadas, List.of()));
+                        }
+                        cantidad += modificadas.size();
+                    }
+                }
+            }
+            return cantidad;
+        }
+        List<Tarea> modificadas = new ArrayList<>();
+        for (Tarea t : tareas) {
+            if (criterio.test(t)) {
+                modificadas.add(t);
+            }
+        }
+        cache.prepararLote(modificadas.size());
+        for (Tarea t : modificadas) {
+            synchronized (t) {
+                desindexar(t);
+                cambio.accept(t);
+                t.setVersion(t.getVersion() + 1);
+                indexar(t);
+            }
+        }
+        if (!modificadas.isEmpty()) {
+            guardarCambios(List.of(), modificadas, List.of());
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.masivo(List.of(), modificadas, List.of()));
+            }
+        }
+        return modificadas.size();
+    }
+
+    /**
+     * Marca como completadas todas las tareas pendientes cuya fecha de vencimiento ya pasó. Las
+     * tareas sin fecha, que pueden venir del archivo, no vencen.
+     *
+     * @return la cantidad de tareas marcadas como completadas
+     */
+    public int completarVencidas() {
+        LocalDate hoy = LocalDate.now();
+        return actualizarTareas(FiltroTareas.todas().conEstados(Estado.PENDIENTE),
+                t -> t.getEstado() == Estado.PENDIENTE && t.getFechaVencimiento() != null
+                        && t.getFechaVencimiento().isBefore(hoy),
+                t -> t.setEstado(Estado.COMPLETADA));
+    }
+
+    /**
+     * Elimina todas las tareas que cumplan un criterio y guarda una sola vez. Con un repositorio
+     * que resuelve las consultas se recorre por páginas, como en
+     * {@link #actualizarTareas(Predicate, Consumer)}.
+     *
+     * @param criterio el predicado que selecciona las tareas a eliminar
+     * @return la cantidad de tareas eliminadas
+     */
+    public int eliminarTareas(Predicate<Tarea> criterio) {
+        if (enRepositorio) {
+            int cantidad = 0;
+            synchronized (guardado) {
+                int despuesDe = 0;
+                List<Tarea> pagina;
+                while (!(pagina = paginaDelRepositorio(FiltroTareas.todas(), despuesDe)).isEmpty()) {
+                    despuesDe = pagina.get(pagina.size() - 1).getId();
+                    List<Tarea> eliminadas = pagina.stream().filter(criterio).toList();
+                    if (!eliminadas.isEmpty()) {
+                        guardarCambios(List.of(), List.of(), eliminadas.stream().map(Tarea::getId).toList());
+                        if (publicador.hasSubscribers()) {
+                            publicar(EventoTarea.masivo(List.of(), List.of(), eliminadas));
+                        }
+                        cantidad += eliminadas.size();
+                    }
+                }
+            }
+            return cantidad;
+        }
+        List<Tarea> eliminadas = new ArrayList<>();
+        synchronized (tareas) {
+            tareas.removeIf(t -> criterio.test(t) && eliminadas.add(t));
+        }
+        cache.prepararLote(eliminadas.size());
+        for (Tarea t : eliminadas) {
+            indicePorId.remove(t.getId());
+            estadisticas.quitar(t.getId());
+            desindexar(t);
+        }
+        if (!eliminadas.isEmpty()) {
+            guardarCambios(List.of(), List.of(), eliminadas.stream().map(Tarea::getId).toList());
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.masivo(List.of(), List.of(), eliminadas));
+            }
+        }
+        return eliminadas.size();
+    }
+
+    /**
+     * Aplica a memoria el contenido que otro programa escribió en el archivo, sin recargarlo todo.
+     * <p>
+     * Compara por ID: las tareas nuevas se agregan al final, las que cambiaron se actualizan
+     * sobre la misma instancia (así las vistas que la referencian ven el cambio) y aumentan su
+     * versión, y las que desaparecieron se quitan. No se vuelve a guardar el archivo, porque ya
+     * contiene estos datos.
+     *
+     * @param contenido las tareas que contiene ahora el archivo
+     * @return los cambios aplicados
+     * @throws UnsupportedOperationException si el repositorio resuelve las consultas: no hay
+     *                                       tareas en memoria con las que comparar
+     */
+    public CambiosArchivo aplicarContenidoExterno(List<Tarea> contenido) {
+        if (enRepositorio) {
+            throw new UnsupportedOperationException(
+                    "El contenido externo solo se aplica sobre las tareas cargadas en memoria.");
+        }
+        Map<Integer, Tarea> enMemoria = new HashMap<>();
+        for (Tarea t : copiarTareas()) {
+            enMemoria.put(t.getId(), t);
+        }
+
+        List<Tarea> agregadas = new ArrayList<>();
+        List<Tarea> actualizadas = new ArrayList<>();
+        Set<Integer> presentes = new HashSet<>();
+        for (Tarea nueva : contenido) {
+            presentes.add(nueva.getId());
+            Tarea actual = enMemoria.get(nueva.getId());
+            if (actual == null) {
+                synchronized (tareas) {
+                    tareas.add(nueva);
+                }
+                indicePorId.put(nueva.getId(), nueva);
+                indexar(nueva);
+                agregadas.add(nueva);
+                Tarea.reservarHasta(nueva.getId());
+            } else if (!actual.tieneMismosDatos(nueva)) {
+                synchronized (actual) {
+                    desindexar(actual);
+                    actual.copiarDatosDe(nueva);
+                    // Los programas externos no suelen conocer la versión: el cambio siempre la aumenta
+                    actual.setVersion(Math.max(actual.getVersion() + 1, nueva.getVersion()));
+                    indexar(actual);
+                }
+                actualizadas.add(actual);
+            }
+        }
+
+        List<Tarea> quitadas = new ArrayList<>();
+        synchronized (tareas) {
+            tareas.removeIf(t -> !presentes.contains(t.getId()) && quitadas.add(t));
+        }
+        for (Tarea t : quitadas) {
+            indicePorId.remove(t.getId());
+            estadisticas.quitar(t.getId());
+            desindexar(t);
+        }
+
+        CambiosArchivo cambios = new CambiosArchivo(agregadas, actualizadas,
+                quitadas.stream().map(Tarea::getId).toList());
+        if (!cambios.estaVacio()) {
+            registroCambios.registrar(agregadas, actualizadas, cambios.eliminadas());
+            if (publicador.hasSubscribers()) {
+                publicar(EventoTarea.masivo(agregadas, actualizadas, quitadas));
+            }
+        }
+        return cambios;
+    }
+
+    /**
+     * Recarga los cambios que otros procesos confirmaron en el repositorio desde la última lectura
+     * o escritura de este servicio. Comprobar si los hay es barato; si no hay, no se lee nada. Si
+     * los hay, solo se tocan en memoria las tareas que cambiaron, como en
+     * {@link #aplicarContenidoExterno(List)}.
+     * <p>
+     * Debe llamarse desde el mismo hilo que modifica las tareas (en la interfaz, el hilo de eventos
+     * de Swing).
+     *
+     * @return los cambios aplicados, vacíos si no había cambios ajenos
+     * @throws IOException si el contenido del repositorio no se puede leer
+     */
+    public CambiosArchivo recargarCambiosExternos() throws IOException {
+        List<Tarea> contenido = repository.leerCambiosExternos();
+        if (contenido == null) {
+            return new CambiosArchivo(List.of(), List.of(), List.of());
+        }
+        return aplicarContenidoExterno(contenido);
+    }
+
+    /**
+     * Empieza a vigilar el archivo del repositorio para detectar cambios hechos por otros programas.
+     * <p>
+     * El aviso llega en el hilo del vigilante; quien lo use desde la interfaz debe llamar a
+     * {@link #recargarCambiosExternos()} en el hilo de eventos de Swing.
+     *
+     * @param alCambiar se ejecuta cuando otro programa modificó el archivo
+     * @return el vigilante, que debe cerrarse para dejar de vigilar
+     * @throws IOException si no se puede registrar la vigilancia
+     */
+    public VigilanteArchivo vigilarArchivo(Runnable alCambiar) throws IOException {
+        return repository.vigilarCambios(alCambiar);
+    }
+
+    /**
+     * Archiva las tareas completadas que vencieron hace más de {@link #ANTIGUEDAD_ARCHIVO}.
+     *
+     * @return la cantidad de tareas archivadas
+     * @throws IOException si no se puede escribir el archivo de tareas archivadas
+     * @see #archivarCompletadas(Period)
+     */
+    public int archivarCompletadas() throws IOException {
+        return archivarCompletadas(ANTIGUEDAD_ARCHIVO);
+    }
+
+    /**
+     * Mueve al archivo en frío las tareas completadas cuya fecha de vencimiento es anterior a hoy
+     * menos la antigüedad indicada. Las tareas sin fecha de vencimiento no se archivan nunca.
+     * <p>
+     * Las tareas archivadas dejan de estar en memoria y en {@code tareas.json}, dejan de aparecer en
+     * las consultas normales y se publican como eliminadas en un evento masivo. Siguen disponibles
+     * con las variantes de las consultas que reciben {@code incluirArchivadas}.
+     *
+     * @param antiguedad cuánto tiempo debe haber pasado desde el vencimiento
+     * @return la cantidad de tareas archivadas
+     * @throws IOException si no se puede escribir el archivo de tareas archivadas; en ese caso
+     *                     las tareas siguen en memoria
+     */
+    public int archivarCompletadas(Period antiguedad) throws IOException {
+        LocalDate limite = LocalDate.now().minus(antiguedad);
+        Predicate<Tarea> archivable = t -> t.getEstado() == Estado.COMPLETADA && t.getFechaVencimiento() != null
+                && t.getFechaVencimiento().isBefore(limite);
+        if (enRepositorio) {
+            return archivarDelRepositorio(archivable);
+        }
+        List<Tarea> candidatas = tareas.stream().filter(archivable).toList();
+        if (candidatas.isEmpty()) {
+            return 0;
+        }
+
+        archivadas.archivar(candidatas); // primero el archivo en frío, para no perder tareas si falla
+        Set<Tarea> movidas = Collections.newSetFromMap(new IdentityHashMap<>());
+        movidas.addAll(candidatas);
+        synchronized (tareas) {
+            tareas.removeIf(movidas::contains);
+        }
+        cache.prepararLote(candidatas.size());
+        for (Tarea t : candidatas) {
+            indicePorId.remove(t.getId());
+            estadisticas.quitar(t.getId());
+            desindexar(t);
+        }
+        guardarCambios(List.of(), List.of(), candidatas.stream().map(Tarea::getId).toList());
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.masivo(List.of(), List.of(), candidatas));
+        }
+        return candidatas.size();
+    }
+
+    /**
+     * Con un repositorio que resuelve las consultas, archiva las tareas completadas que cumplen un
+     * criterio recorriéndolas por páginas: cada página se escribe primero en el archivo en frío y
+     * después se elimina del repositorio.
+     *
+     * @param archivable el criterio sobre las tareas completadas
+     * @return la cantidad de tareas archivadas
+     * @throws IOException si no se puede escribir el archivo de tareas archivadas; las páginas
+     *                     anteriores ya quedaron archivadas
+     */
+    private int archivarDelRepositorio(Predicate<Tarea> archivable) throws IOException {
+        FiltroTareas completadas = FiltroTareas.todas().conEstados(Estado.COMPLETADA);
+        int cantidad = 0;
+        synchronized (guardado) {
+            int despuesDe = 0;
+            List<Tarea> pagina;
+            while (!(pagina = paginaDelRepositorio(completadas, despuesDe)).isEmpty()) {
+                despuesDe = pagina.get(pagina.size() - 1).getId();
+                List<Tarea> candidatas = pagina.stream().filter(archivable).toList();
+                if (!candidatas.isEmpty()) {
+                    archivadas.archivar(candidatas);
+                    guardarCambios(List.of(), List.of(), candidatas.stream().map(Tarea::getId).toList());
+                    if (publicador.hasSubscribers()) {
+                        publicar(EventoTarea.masivo(List.of(), List.of(), candidatas));
+                    }
+                    cantidad += candidatas.size();
+                }
+            }
+        }
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la cantidad de tareas archivadas.
+     *
+     * @return la cantidad de tareas en el archivo en frío
+     */
+    public int getCantidadArchivadas() {
+        return archivadas.cantidad();
+    }
+
+    /**
+     * Obtiene todas las tareas, incluyendo opcionalmente las archivadas.
+     *
+     * @param incluirArchivadas true para agregar al final las tareas archivadas
+     * @return lista de tareas
+     */
+    public List<Tarea> obtenerTodas(boolean incluirArchivadas) {
+        return conArchivadas(obtenerTodas(), incluirArchivadas, e -> true);
+    }
+
+    /**
+     * Filtra las tareas por su estado, incluyendo opcionalmente las archivadas.
+     *
+     * @param estado el estado por el que filtrar
+     * @param incluirArchivadas true para agregar al final las tareas archivadas que coinciden
+     * @return lista de tareas con el estado especificado
+     */
+    public List<Tarea> filtrarPorEstado(Estado estado, boolean incluirArchivadas) {
+        return conArchivadas(filtrarPorEstado(estado), incluirArchivadas, e -> e.estado() == estado);
+    }
+
+    /**
+     * Filtra las tareas por su prioridad, incluyendo opcionalmente las archivadas.
+     *
+     * @param prioridad la prioridad por la que filtrar
+     * @param incluirArchivadas true para agregar al final las tareas archivadas que coinciden
+     * @return lista de tareas con la prioridad especificada
+     */
+    public List<Tarea> filtrarPorPrioridad(Prioridad prioridad, boolean incluirArchivadas) {
+        return conArchivadas(filtrarPorPrioridad(prioridad), incluirArchivadas, e -> e.prioridad() == prioridad);
+    }
+
+    /**
+     * Filtra las tareas por su fecha de vencimiento, incluyendo opcionalmente las archivadas.
+     *
+     * @param fecha la fecha de vencimiento por la que filtrar
+     * @param incluirArchivadas true para agregar al final las tareas archivadas que coinciden
+     * @return lista de tareas con la fecha de vencimiento especificada
+     */
+    public List<Tarea> filtrarPorFecha(LocalDate fecha, boolean incluirArchivadas) {
+        return conArchivadas(filtrarPorFecha(fecha), incluirArchivadas, e -> fecha.equals(e.fechaVencimiento()));
+    }
+
+    /**
+     * Busca tareas por palabra clave, incluyendo opcionalmente las archivadas. Incluirlas obliga
+     * a leer el archivo en frío completo.
+     *
+     * @param palabra la palabra clave a buscar
+     * @param incluirArchivadas true para agregar al final las tareas archivadas que coinciden
+     * @return lista de tareas que contienen la palabra clave
+     */
+    public List<Tarea> buscarPorPalabraClave(String palabra, boolean incluirArchivadas) {
+        List<Tarea> resultado = buscarPorPalabraClave(palabra);
+        if (!incluirArchivadas) {
+            return resultado;
+        }
+        String palabraClave = palabra.toLowerCase();
+        try {
+            return unir(resultado, archivadas.filtrar(t -> contiene(t.getTitulo(), palabraClave)
+                    || contiene(t.getDescripcion(), palabraClave)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las tareas archivadas", e);
+        }
+    }
+
+    /**
+     * Agrega a un resultado las tareas archivadas cuya entrada de índice cumple un criterio.
+     *
+     * @param enMemoria el resultado sobre las tareas en memoria
+     * @param incluirArchivadas si se deben agregar las archivadas
+     * @param criterio el criterio sobre las entradas de índice de las archivadas
+     * @return el resultado completo
+     */
+    private List<Tarea> conArchivadas(List<Tarea> enMemoria, boolean incluirArchivadas,
+                                      Predicate<ArchivoTareas.Entrada> criterio) {
+        if (!incluirArchivadas) {
+            return enMemoria;
+        }
+        try {
+            return unir(enMemoria, archivadas.buscar(criterio));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudieron leer las tareas archivadas", e);
+        }
+    }
+
+    /**
+     * Une las tareas en memoria con las archivadas, descartando las archivadas que también están
+     * en memoria (puede ocurrir si el proceso terminó a mitad de un archivado). Con un repositorio
+     * que resuelve las consultas, se le pregunta por cada archivada si la tarea sigue en él.
+     *
+     * @param enMemoria las tareas en memoria
+     * @param deArchivo las tareas archivadas
+     * @return la unión, con las tareas en memoria primero
+     */
+    private List<Tarea> unir(List<Tarea> enMemoria, List<Tarea> deArchivo) {
+        List<Tarea> resultado = new ArrayList<>(enMemoria.size() + deArchivo.size());
+        resultado.addAll(enMemoria);
+        for (Tarea t : deArchivo) {
+            boolean vigente = enRepositorio ? repository.buscarPorId(t.getId()) != null
+                    : indicePorId.containsKey(t.getId());
+            if (!vigente) {
+                resultado.add(t);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Indica si un texto contiene una palabra clave ya convertida a minúsculas.
+     *
+     * @param texto el texto, que puede ser null
+     * @param palabraClave la palabra clave en minúsculas
+     * @return true si el texto la contiene
+     */
+    private static boolean contiene(String texto, String palabraClave) {
+        return texto != null && texto.toLowerCase().contains(palabraClave);
+    }
+
+    /**
+     * Busca una tarea por su ID.
+     *
+     * @param id el ID de la tarea
+     * @return la tarea encontrada o null si no existe
+     */
+    private Tarea buscarPorId(int id) {
+        return indicePorId.get(id);
+    }
+
+    /**
+     * Convierte IDs obtenidos de los índices en las tareas correspondientes.
+     *
+     * @param ids los IDs en orden creciente
+     * @return las tareas, en el mismo orden
+     */
+    private List<Tarea> aTareas(int[] ids) {
+        List<Tarea> resultado = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Tarea t = indicePorId.get(id);
+            if (t != null) {
+                resultado.add(t);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Filtra las tareas por su estado.
+     *
+     * @param estado el estado por el que filtrar
+     * @return lista de tareas con el estado especificado, ordenada por ID
+     */
+    public List<Tarea> filtrarPorEstado(Estado estado) {
+        if (enRepositorio) {
+            return consultarRepositorio(FiltroTareas.todas().conEstados(estado), null, PaginaTareas.Orden.ID);
+        }
+        return cache.obtener("estado:" + estado, t -> t.getEstado() == estado, false,
+                () -> aTareas(indice.conEstado(estado)));
+    }
+
+    /**
+     * Filtra las tareas por su prioridad.
+     *
+     * @param prioridad la prioridad por la que filtrar
+     * @return lista de tareas con la prioridad especificada, ordenada por ID
+     */
+    public List<Tarea> filtrarPorPrioridad(Prioridad prioridad) {
+        if (enRepositorio) {
+            return consultarRepositorio(FiltroTareas.todas().conPrioridades(prioridad), null, PaginaTareas.Orden.ID);
+        }
+        return cache.obtener("prioridad:" + prioridad, t -> t.getPrioridad() == prioridad, false,
+                () -> aTareas(indice.conPrioridad(prioridad)));
+    }
+
+    /**
+     * Filtra las tareas por su fecha de vencimiento.
+     *
+     * @param fecha la fecha de vencimiento por la que filtrar
+     * @return lista de tareas con la fecha de vencimiento especificada, ordenada por ID y seguida
+     *         de las ocurrencias recurrentes de ese día
+     */
+    public List<Tarea> filtrarPorFecha(LocalDate fecha) {
+        if (enRepositorio) {
+            List<Tarea> resultado = consultarRepositorio(FiltroTareas.todas().venceEntre(fecha, fecha), null,
+                    PaginaTareas.Orden.ID);
+            resultado.addAll(obtenerOcurrencias(fecha, fecha));
+            return resultado;
+        }
+        return cache.obtener("fecha:" + fecha, t -> Objects.equals(t.getFechaVencimiento(), fecha), true, () -> {
+            List<Tarea> reales = aTareas(indice.conFecha(fecha));
+            if (plantillas.isEmpty()) {
+                return reales;
+            }
+            List<Tarea> resultado = new ArrayList<>(reales);
+            resultado.addAll(obtenerOcurrencias(fecha, fecha));
+            return resultado;
+        });
+    }
+
+    /**
+     * Obtiene las tareas que vencen entre dos fechas, incluidas ambas, junto con las ocurrencias
+     * de las tareas recurrentes en ese período.
+     *
+     * @param desde la primera fecha
+     * @param hasta la última fecha
+     * @return las tareas ordenadas por fecha y luego por ID
+     */
+    public List<Tarea> filtrarEntreFechas(LocalDate desde, LocalDate hasta) {
+        Predicate<Tarea> enRango = t -> t.getFechaVencimiento() != null
+                && !t.getFechaVencimiento().isBefore(desde) && !t.getFechaVencimiento().isAfter(hasta);
+        if (enRepositorio) {
+            List<Tarea> resultado = consultarRepositorio(FiltroTareas.todas().venceEntre(desde, hasta), null,
+                    PaginaTareas.Orden.FECHA);
+            if (!plantillas.isEmpty()) {
+                resultado.addAll(obtenerOcurrencias(desde, hasta));
+                resultado.sort(Comparator.comparing(Tarea::getFechaVencimiento).thenComparingInt(Tarea::getId));
+            }
+            return resultado;
+        }
+        return cache.obtener("fechas:" + desde + ".." + hasta, enRango, true, () -> {
+            List<Tarea> resultado = aTareas(indice.conFechaEntre(desde, hasta));
+            if (!plantillas.isEmpty()) {
+                resultado.addAll(obtenerOcurrencias(desde, hasta));
+                resultado.sort(Comparator.comparing(Tarea::getFechaVencimiento).thenComparingInt(Tarea::getId));
+            }
+            return resultado;
+        });
+    }
+
+    /**
+     * Busca tareas que contengan una palabra clave en su título o descripción.
+     * <p>
+     * Con palabras de tres letras o más, solo se revisan las tareas que el índice de trigramas
+     * señala como candidatas; las más cortas recorren todas las tareas. Cuando son muchas, la
+     * revisión se reparte entre hilos con {@link ConsultaParalela}. Con un repositorio que
+     * resuelve las consultas, la búsqueda la hace el repositorio.
+     *
+     * @param palabra la palabra clave a buscar
+     * @return lista de tareas que contienen la palabra clave, en el orden de la lista o por ID
+     */
+    public List<Tarea> buscarPorPalabraClave(String palabra) {
+        String palabraClave = palabra.toLowerCase();
+        if (enRepositorio) {
+            return consultarRepositorio(FiltroTareas.todas(), palabraClave, PaginaTareas.Orden.ID);
+        }
+        Predicate<Tarea> coincide = t -> contiene(t.getTitulo(), palabraClave) || contiene(t.getDescripcion(), palabraClave);
+        return cache.obtener("palabra:" + palabraClave, coincide, false, () -> {
+            int[] candidatos = indice.candidatosTexto(palabraClave);
+            return consultas.filtrar(candidatos == null ? tareas : aTareas(candidatos), coincide);
+        });
+    }
+
+    /**
+     * Obtiene las tareas en memoria que cumplen un filtro compuesto por estado, prioridad y rango
+     * de fechas. El filtro se evalúa de una vez sobre columnas compactas de esos tres datos (con
+     * instrucciones vectoriales si están disponibles), sin recorrer las tareas ni intersecar
+     * listas de IDs. Con un repositorio que resuelve las consultas, el filtro se le pasa a él.
+     * Las ocurrencias recurrentes no se incluyen.
+     *
+     * @param filtro el filtro
+     * @return las tareas que lo cumplen
+     */
+    public List<Tarea> filtrar(FiltroTareas filtro) {
+        if (enRepositorio) {
+            return consultarRepositorio(filtro, null, PaginaTareas.Orden.ID);
+        }
+        return cache.obtener("filtro:" + filtro.clave(), filtro::acepta, false,
+                () -> aTareas(columnas.seleccionar(filtro)));
+    }
+
+    /**
+     * Cuenta las tareas en memoria que cumplen un filtro compuesto, sin obtenerlas.
+     *
+     * @param filtro el filtro
+     * @return la cantidad de tareas
+     */
+    public int contar(FiltroTareas filtro) {
+        return enRepositorio ? repository.contar(filtro) : columnas.contar(filtro);
+    }
+
+    /**
+     * Obtiene las tareas en memoria que cumplen un criterio cualquiera, para las consultas que los
+     * índices no resuelven. Cuando hay muchas tareas, el recorrido se reparte entre hilos con
+     * {@link ConsultaParalela}, así que el criterio puede evaluarse desde varios hilos a la vez.
+     * Con un repositorio que resuelve las consultas, se lo recorre por páginas de
+     * {@value #TAMANIO_RECORRIDO} y solo se conservan las que cumplen el criterio.
+     *
+     * @param criterio el criterio
+     * @return las tareas que lo cumplen, en el orden de la lista
+     */
+    public List<Tarea> filtrar(Predicate<? super Tarea> criterio) {
+        if (enRepositorio) {
+            List<Tarea> resultado = new ArrayList<>();
+            int despuesDe = 0;
+            List<Tarea> pagina;
+            while (!(pagina = paginaDelRepositorio(FiltroTareas.todas(), despuesDe)).isEmpty()) {
+                despuesDe = pagina.get(pagina.size() - 1).getId();
+                resultado.addAll(consultas.filtrar(pagina, criterio));
+            }
+            return resultado;
+        }
+        return consultas.filtrar(tareas, criterio);
+    }
+
+    /**
+     * Obtiene una página de todas las tareas en el orden indicado.
+     * <p>
+     * La paginación es por clave: el cursor guarda la clave de orden y el ID de la última tarea
+     * entregada, y la página siguiente empieza buscando esa posición en los índices en vez de
+     * saltear las tareas anteriores. Así cada página cuesta lo mismo sin importar cuántas haya
+     * antes, y las tareas agregadas o eliminadas entre una página y otra no hacen que se repitan
+     * ni se salteen las demás. Con un repositorio que resuelve las consultas, la clave y el ID se
+     * le pasan a él; si no, se usan los índices en memoria.
+     *
+     * @param orden el orden de las tareas; en {@link PaginaTareas.Orden#FECHA} y
+     *              {@link PaginaTareas.Orden#PRIORIDAD} no aparecen las tareas sin ese dato
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param cursor el cursor de la página anterior, o null para la primera
+     * @return la página
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor es de otra consulta
+     */
+    public PaginaTareas obtenerPagina(PaginaTareas.Orden orden, int tamanio, String cursor) {
+        String consulta = "orden:" + orden;
+        CursorPagina desde = leerCursor(cursor, consulta, tamanio);
+        int despuesDe = desde == null ? 0 : desde.id();
+        if (enRepositorio) {
+            ToLongFunction<Tarea> clave = switch (orden) {
+                case ID -> t -> 0;
+                case FECHA -> t -> t.getFechaVencimiento().toEpochDay();
+                case PRIORIDAD -> t -> t.getPrioridad().ordinal();
+            };
+            return paginaDelRepositorio(FiltroTareas.todas(), null, orden, desde, tamanio, consulta, clave);
+        }
+        return switch (orden) {
+            case ID -> {
+                List<Tarea> encontradas = new ArrayList<>(tamanio + 1);
+                var siguientes = desde == null ? indicePorId.values() : indicePorId.tailMap(despuesDe, false).values();
+                for (Tarea t : siguientes) {
+                    if (encontradas.size() > tamanio) {
+                        break;
+                    }
+                    encontradas.add(t);
+                }
+                yield pagina(encontradas, tamanio, consulta, t -> 0);
+            }
+            case FECHA -> pagina(aTareas(indice.porFechaDesde(
+                            desde == null ? null : LocalDate.ofEpochDay(desde.clave()), despuesDe, tamanio + 1)),
+                    tamanio, consulta, t -> t.getFechaVencimiento().toEpochDay());
+            case PRIORIDAD -> pagina(aTareas(indice.porPrioridadDesde(
+                            desde == null ? null : Prioridad.values()[(int) desde.clave()], despuesDe, tamanio + 1)),
+                    tamanio, consulta, t -> t.getPrioridad().ordinal());
+        };
+    }
+
+    /**
+     * Obtiene una página de las tareas con un estado, ordenadas por ID. Ver
+     * {@link #obtenerPagina(PaginaTareas.Orden, int, String)}.
+     *
+     * @param estado el estado por el que filtrar
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param cursor el cursor de la página anterior, o null para la primera
+     * @return la página
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor es de otra consulta
+     */
+    public PaginaTareas filtrarPorEstado(Estado estado, int tamanio, String cursor) {
+        String consulta = "estado:" + estado;
+        CursorPagina desde = leerCursor(cursor, consulta, tamanio);
+        if (enRepositorio) {
+            return paginaDelRepositorio(FiltroTareas.todas().conEstados(estado), null, PaginaTareas.Orden.ID,
+                    desde, tamanio, consulta, t -> 0);
+        }
+        int[] ids = indice.conEstadoDesde(estado, desde == null ? 0 : desde.id(), tamanio + 1);
+        return pagina(aTareas(ids), tamanio, consulta, t -> 0);
+    }
+
+    /**
+     * Obtiene una página de las tareas con una prioridad, ordenadas por ID. Ver
+     * {@link #obtenerPagina(PaginaTareas.Orden, int, String)}.
+     *
+     * @param prioridad la prioridad por la que filtrar
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param cursor el cursor de la página anterior, o null para la primera
+     * @return la página
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor es de otra consulta
+     */
+    public PaginaTareas filtrarPorPrioridad(Prioridad prioridad, int tamanio, String cursor) {
+        String consulta = "prioridad:" + prioridad;
+        CursorPagina desde = leerCursor(cursor, consulta, tamanio);
+        if (enRepositorio) {
+            return paginaDelRepositorio(FiltroTareas.todas().conPrioridades(prioridad), null, PaginaTareas.Orden.ID,
+                    desde, tamanio, consulta, t -> 0);
+        }
+        int[] ids = indice.conPrioridadDesde(prioridad, desde == null ? 0 : desde.id(), tamanio + 1);
+        return pagina(aTareas(ids), tamanio, consulta, t -> 0);
+    }
+
+    /**
+     * Obtiene una página de las tareas que vencen en una fecha, ordenadas por ID. Ver
+     * {@link #obtenerPagina(PaginaTareas.Orden, int, String)}.
+     *
+     * @param fecha la fecha de vencimiento por la que filtrar
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param cursor el cursor de la página anterior, o null para la primera
+     * @return la página
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor es de otra consulta
+     */
+    public PaginaTareas filtrarPorFecha(LocalDate fecha, int tamanio, String cursor) {
+        String consulta = "fecha:" + fecha;
+        CursorPagina desde = leerCursor(cursor, consulta, tamanio);
+        if (enRepositorio) {
+            return paginaDelRepositorio(FiltroTareas.todas().venceEntre(fecha, fecha), null, PaginaTareas.Orden.ID,
+                    desde, tamanio, consulta, t -> 0);
+        }
+        int[] ids = indice.conFechaDesde(fecha, desde == null ? 0 : desde.id(), tamanio + 1);
+        return pagina(aTareas(ids), tamanio, consulta, t -> 0);
+    }
+
+    /**
+     * Obtiene una página de las tareas que contienen una palabra clave en su título o descripción,
+     * ordenadas por ID. Los candidatos del índice de trigramas se revisan desde el cursor y solo
+     * hasta completar la página. Ver {@link #obtenerPagina(PaginaTareas.Orden, int, String)}.
+     *
+     * @param palabra la palabra clave a buscar
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param cursor el cursor de la página anterior, o null para la primera
+     * @return la página
+     * @throws IllegalArgumentException si el tamaño no es positivo o el cursor es de otra consulta
+     */
+    public PaginaTareas buscarPorPalabraClave(String palabra, int tamanio, String cursor) {
+        String palabraClave = palabra.toLowerCase();
+        String consulta = "palabra:" + palabraClave;
+        CursorPagina desde = leerCursor(cursor, consulta, tamanio);
+        if (enRepositorio) {
+            return paginaDelRepositorio(FiltroTareas.todas(), palabraClave, PaginaTareas.Orden.ID,
+                    desde, tamanio, consulta, t -> 0);
+        }
+        int despuesDe = desde == null ? 0 : desde.id();
+        Predicate<Tarea> coincide = t -> contiene(t.getTitulo(), palabraClave) || contiene(t.getDescripcion(), palabraClave);
+        List<Tarea> encontradas = new ArrayList<>(tamanio + 1);
+        int[] candidatos = indice.candidatosTextoDesde(palabraClave, despuesDe, tamanio + 1);
+        if (candidatos == null) {
+            var siguientes = desde == null ? indicePorId.values() : indicePorId.tailMap(despuesDe, false).values();
+            for (Tarea t : siguientes) {
+                if (encontradas.size() > tamanio) {
+                    break;
+                }
+                if (coincide.test(t)) {
+                    encontradas.add(t);
+                }
+            }
+            return pagina(encontradas, tamanio, consulta, t -> 0);
+        }
+        // Los trigramas pueden dar falsos candidatos: se piden más hasta completar la página.
+        while (true) {
+            for (Tarea t : aTareas(candidatos)) {
+                if (coincide.test(t)) {
+                    encontradas.add(t);
+                }
+            }
+            int faltan = tamanio + 1 - encontradas.size();
+            if (faltan <= 0 || candidatos.length == 0) {
+                break;
+            }
+            candidatos = indice.candidatosTextoDesde(palabraClave, candidatos[candidatos.length - 1], faltan);
+        }
+        return pagina(encontradas, tamanio, consulta, t -> 0);
+    }
+
+    /**
+     * Comprueba el tamaño de página y decodifica el cursor de una consulta.
+     *
+     * @param cursor el cursor recibido, o null
+     * @param consulta la consulta que se está paginando
+     * @param tamanio la cantidad máxima de tareas por página
+     * @return el cursor, o null para empezar desde el principio
+     */
+    private static CursorPagina leerCursor(String cursor, String consulta, int tamanio) {
+        if (tamanio <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser positivo: " + tamanio);
+        }
+        return CursorPagina.leer(cursor, consulta);
+    }
+
+    /**
+     * Con un repositorio que resuelve las consultas, le pide las tareas de una página a partir
+     * del cursor.
+     *
+     * @param filtro el filtro de la consulta
+     * @param palabra la palabra a buscar, o null
+     * @param orden el orden de la consulta
+     * @param desde el cursor de la página anterior, o null para la primera
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param consulta la consulta que se está paginando
+     * @param clave la clave de orden de una tarea
+     * @return la página
+     */
+    private PaginaTareas paginaDelRepositorio(FiltroTareas filtro, String palabra, PaginaTareas.Orden orden,
+                                              CursorPagina desde, int tamanio, String consulta,
+                                              ToLongFunction<Tarea> clave) {
+        List<Tarea> encontradas = repository.consultar(filtro, palabra, orden, desde == null ? 0 : desde.clave(),
+                desde == null ? 0 : desde.id(), tamanio + 1);
+        return pagina(encontradas, tamanio, consulta, clave);
+    }
+
+    /**
+     * Arma una página a partir de hasta {@code tamanio + 1} tareas encontradas; si sobra una, hay
+     * página siguiente y el cursor apunta a la última incluida.
+     *
+     * @param encontradas las tareas encontradas, en el orden de la consulta
+     * @param tamanio la cantidad máxima de tareas por página
+     * @param consulta la consulta que se está paginando
+     * @param clave la clave de orden de una tarea
+     * @return la página
+     */
+    private static PaginaTareas pagina(List<Tarea> encontradas, int tamanio, String consulta, ToLongFunction<Tarea> clave) {
+        if (encontradas.size() <= tamanio) {
+            return new PaginaTareas(List.copyOf(encontradas), null);
+        }
+        List<Tarea> incluidas = List.copyOf(encontradas.subList(0, tamanio));
+        Tarea ultima = incluidas.get(tamanio - 1);
+        return new PaginaTareas(incluidas, new CursorPagina(consulta, clave.applyAsLong(ultima), ultima.getId()).codificar());
+    }
+
+    /**
+     * Busca tareas cuyo título o descripción contienen las palabras indicadas, tolerando errores
+     * de escritura, mayúsculas y tildes (por ejemplo "reunion" o "reunoin" encuentran "Reunión").
+     * Los resultados se ordenan de mejor a peor coincidencia. El índice se construye en la primera
+     * búsqueda y después se mantiene con cada cambio. Con un repositorio que resuelve las
+     * consultas, el índice se arma recorriéndolo por páginas y solo guarda IDs; las tareas
+     * encontradas se leen de él.
+     *
+     * @param consulta las palabras a buscar
+     * @param limite la cantidad máxima de resultados
+     * @return las tareas encontradas, de mejor a peor coincidencia
+     */
+    public List<Tarea> buscarDifuso(String consulta, int limite) {
+        BuscadorDifuso b = buscador;
+        if (b == null && enRepositorio) {
+            synchronized (guardado) {
+                b = buscador;
+                if (b == null) {
+                    b = BuscadorDifuso.construir(List.of());
+                    int despuesDe = 0;
+                    List<Tarea> pagina;
+                    while (!(pagina = paginaDelRepositorio(FiltroTareas.todas(), despuesDe)).isEmpty()) {
+                        despuesDe = pagina.get(pagina.size() - 1).getId();
+                        pagina.forEach(b::agregar);
+                    }
+                    buscador = b;
+                }
+            }
+        } else if (b == null) {
+            b = BuscadorDifuso.construir(tareas);
+            buscador = b;
+        }
+        List<Tarea> resultado = new ArrayList<>();
+        for (BuscadorDifuso.Resultado r : b.buscar(consulta, limite)) {
+            Tarea t = enRepositorio ? repository.buscarPorId(r.id()) : indicePorId.get(r.id());
+            if (t != null) {
+                resultado.add(t);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Crea una plantilla de tarea recurrente. Sus ocurrencias no se guardan como tareas: se generan
+     * al consultar un período con {@link #obtenerOcurrencias(LocalDate, LocalDate)},
+     * {@link #filtrarEntreFechas(LocalDate, LocalDate)} o {@link #filtrarPorFecha(LocalDate)}.
+     *
+     * @param datos el título, la descripción y la prioridad de cada ocurrencia, y como fecha de
+     *              vencimiento la de la primera; se valida como {@link #agregarTarea(Tarea)}
+     * @param recurrencia la regla con la que se repite
+     * @return la plantilla creada
+     * @throws IllegalArgumentException si los datos no pasan la validación
+     * @throws IllegalStateException si ya se crearon {@value PlantillaRecurrente#MAX_ID} plantillas,
+     *                               contando las eliminadas
+     */
+    public PlantillaRecurrente agregarPlantilla(Tarea datos, Recurrencia recurrencia) {
+        ErrorValidacion error = validar(datos);
+        if (error != null) {
+            throw new IllegalArgumentException(error.getMensaje());
+        }
+        PlantillaRecurrente plantilla;
+        synchronized (plantillas) {
+            int id = siguienteIdPlantilla;
+            if (id > PlantillaRecurrente.MAX_ID) {
+                throw new IllegalStateException("No se pueden crear más plantillas recurrentes.");
+            }
+            plantilla = new PlantillaRecurrente(id, datos.getTitulo().trim(), datos.getDescripcion(),
+                    datos.getPrioridad(), datos.getFechaVencimiento(), recurrencia);
+            plantillas.put(id, plantilla);
+            siguienteIdPlantilla = id + 1;
+        }
+        cache.invalidarOcurrencias();
+        guardarPlantillas();
+        if (REGISTRO.activo(Registro.Nivel.INFO)) {
+            REGISTRO.info(ORIGEN, "Plantilla recurrente agregada: id={} titulo={}", plantilla.getId(), plantilla.getTitulo());
+        }
+        return plantilla;
+    }
+
+    /**
+     * Obtiene las plantillas de tareas recurrentes.
+     *
+     * @return las plantillas, por ID
+     */
+    public List<PlantillaRecurrente> obtenerPlantillas() {
+        return List.copyOf(plantillas.values());
+    }
+
+    /**
+     * Elimina una plantilla recurrente. Las ocurrencias que ya se materializaron siguen como
+     * tareas normales. Su ID no se vuelve a usar.
+     *
+     * @param id el ID de la plantilla
+     * @return true si la plantilla existía
+     */
+    public boolean eliminarPlantilla(int id) {
+        boolean existia = plantillas.remove(id) != null;
+        if (existia) {
+            cache.invalidarOcurrencias();
+            guardarPlantillas();
+        }
+        return existia;
+    }
+
+    /**
+     * Genera las ocurrencias de todas las plantillas que vencen entre dos fechas, incluidas ambas.
+     * El costo depende de la cantidad de ocurrencias del período, no de cuánto tiempo lleva
+     * repitiéndose cada plantilla.
+     *
+     * @param desde la primera fecha
+     * @param hasta la última fecha
+     * @return las ocurrencias ordenadas por fecha y luego por ID
+     */
+    public List<Tarea> obtenerOcurrencias(LocalDate desde, LocalDate hasta) {
+        List<Tarea> resultado = new ArrayList<>();
+        for (PlantillaRecurrente p : plantillas.values()) {
+            resultado.addAll(p.ocurrenciasEntre(desde, hasta));
+        }
+        resultado.sort(Comparator.comparing(Tarea::getFechaVencimiento).thenComparingInt(Tarea::getId));
+        return resultado;
+    }
+
+    /**
+     * Convierte una ocurrencia recurrente en una tarea real, por ejemplo porque se editó. La
+     * plantilla deja de generar la ocurrencia, así que no aparece duplicada.
+     *
+     * @param idOcurrencia el ID de la ocurrencia
+     * @param datos los datos de la tarea nueva, o null para usar los de la ocurrencia
+     * @return la tarea creada, o null si la ocurrencia no existe o ya se materializó o eliminó
+     */
+    public Tarea materializar(int idOcurrencia, Tarea datos) {
+        PlantillaRecurrente plantilla = plantillas.get(OcurrenciaRecurrente.plantillaDe(idOcurrencia));
+        OcurrenciaRecurrente ocurrencia = plantilla == null ? null
+                : plantilla.ocurrencia(OcurrenciaRecurrente.numeroDe(idOcurrencia));
+        if (ocurrencia == null || !plantilla.omitir(ocurrencia.getFechaVencimiento())) {
+            return null;
+        }
+        cache.invalidarOcurrencias();
+        Tarea origen = datos != null ? datos : ocurrencia;
+        String titulo = origen.getTitulo() == null || origen.getTitulo().isBlank()
+                ? ocurrencia.getTitulo() : origen.getTitulo().trim();
+        Tarea nueva = new Tarea(titulo, origen.getDescripcion(), origen.getFechaVencimiento(),
+                origen.getPrioridad(), origen.getEstado());
+        if (!enRepositorio) {
+            synchronized (tareas) {
+                tareas.add(nueva);
+            }
+            indicePorId.put(nueva.getId(), nueva);
+            indexar(nueva);
+        }
+        guardarPlantillas();
+        guardarCambios(List.of(nueva), List.of(), List.of());
+        if (publicador.hasSubscribers()) {
+            publicar(EventoTarea.agregada(nueva));
+        }
+        return nueva;
+    }
+
+    /**
+     * Hace que la plantilla de una ocurrencia deje de generarla.
+     *
+     * @param idOcurrencia el ID de la ocurrencia
+     */
+    private void omitirOcurrencia(int idOcurrencia) {
+        PlantillaRecurrente plantilla = plantillas.get(OcurrenciaRecurrente.plantillaDe(idOcurrencia));
+        OcurrenciaRecurrente ocurrencia = plantilla == null ? null
+                : plantilla.ocurrencia(OcurrenciaRecurrente.numeroDe(idOcurrencia));
+        if (ocurrencia != null && plantilla.omitir(ocurrencia.getFechaVencimiento())) {
+            cache.invalidarOcurrencias();
+            guardarPlantillas();
+        }
+    }
+
+    /**
+     * Guarda las plantillas en el archivo del repositorio, si tiene uno.
+     */
+    private void guardarPlantillas() {
+        Path ruta = repository.getRutaPlantillas();
+        if (ruta == null) {
+            return;
+        }
+        try {
+            synchronized (plantillas) {
+                ArchivoPlantillas.escribir(ruta, plantillas.values(), siguienteIdPlantilla);
+            }
+        } catch (IOException e) {
+            REGISTRO.error(ORIGEN, "No se pudieron guardar las plantillas recurrentes en " + ruta, e);
+        }
     }
-}
\ No newline at end of file
+}
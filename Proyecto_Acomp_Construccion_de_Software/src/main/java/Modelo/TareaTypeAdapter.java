@@ -0,0 +1,92 @@
+package Modelo;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+
+/**
+ * Adaptador de Gson escrito a mano para {@link Tarea}.
+ * <p>
+ * Lee y escribe directamente sobre el flujo JSON, sin reflexión ni árboles intermedios de
+ * {@code JsonElement}. Produce las mismas propiedades que el enlace reflexivo de Gson, omite
+ * las que son null e ignora las propiedades desconocidas al leer. Los valores con formato
+ * inválido se informan con {@link JsonParseException}, igual que en Gson. No guarda estado, por lo que
+ * una misma instancia puede usarse desde varios hilos.
+ */
+public class TareaTypeAdapter extends TypeAdapter<Tarea> {
+
+    @Override
+    public void write(JsonWriter out, Tarea tarea) throws IOException {
+        if (tarea == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(tarea.getId());
+        if (tarea.getTitulo() != null) {
+            out.name("titulo").value(tarea.getTitulo());
+        }
+        if (tarea.getDescripcion() != null) {
+            out.name("descripcion").value(tarea.getDescripcion());
+        }
+        if (tarea.getFechaVencimiento() != null) {
+            out.name("fechaVencimiento").value(tarea.getFechaVencimiento().toString());
+        }
+        if (tarea.getPrioridad() != null) {
+            out.name("prioridad").value(tarea.getPrioridad().name());
+        }
+        if (tarea.getEstado() != null) {
+            out.name("estado").value(tarea.getEstado().name());
+        }
+        out.name("version").value(tarea.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Tarea read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int id = 0;
+        String titulo = null;
+        String descripcion = null;
+        LocalDate fechaVencimiento = null;
+        Prioridad prioridad = null;
+        Estado estado = null;
+        int version = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String nombre = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            try {
+                switch (nombre) {
+                    case "id" -> id = in.nextInt();
+                    case "titulo" -> titulo = in.nextString();
+                    case "descripcion" -> descripcion = in.nextString();
+                    case "fechaVencimiento" -> fechaVencimiento = LocalDate.parse(in.nextString());
+                    case "prioridad" -> prioridad = Prioridad.valueOf(in.nextString());
+                    case "estado" -> estado = Estado.valueOf(in.nextString());
+                    case "version" -> version = in.nextInt();
+                    default -> in.skipValue();
+                }
+            } catch (DateTimeException | IllegalArgumentException e) {
+                throw new JsonParseException("Valor inválido para '" + nombre + "' en " + in.getPath(), e);
+            }
+        }
+        in.endObject();
+        Tarea tarea = new Tarea(id, titulo, descripcion, fechaVencimiento, prioridad, estado);
+        tarea.setVersion(version);
+        return tarea;
+    }
+}
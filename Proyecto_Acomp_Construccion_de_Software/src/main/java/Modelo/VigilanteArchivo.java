@@ -0,0 +1,116 @@
+package Modelo;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+/**
+ * Vigila un archivo con {@link WatchService} y avisa cuando cambia.
+ * <p>
+ * Se registra sobre el directorio que contiene el archivo, porque {@code WatchService} no permite
+ * vigilar archivos sueltos, y filtra los eventos por nombre. Así también se detectan los editores
+ * que guardan escribiendo un archivo temporal y renombrándolo. Las ráfagas de eventos que produce
+ * una misma escritura se agrupan en un único aviso.
+ * <p>
+ * El aviso se ejecuta en un hilo propio (daemon), nunca en el hilo de la interfaz.
+ */
+public class VigilanteArchivo implements AutoCloseable {
+
+    /** Tiempo sin eventos nuevos que se espera antes de avisar, para agrupar ráfagas. */
+    private static final long ESPERA_AGRUPADO_MS = 150;
+
+    /** Nombre del archivo vigilado dentro de su directorio. */
+    private final Path nombreArchivo;
+
+    /** Servicio de vigilancia del sistema de archivos. */
+    private final WatchService watchService;
+
+    /** Acción que se ejecuta cuando el archivo cambia. */
+    private final Runnable alCambiar;
+
+    /** Hilo que espera los eventos. */
+    private final Thread hilo;
+
+    /**
+     * Empieza a vigilar el archivo indicado.
+     *
+     * @param archivo el archivo a vigilar; su directorio debe existir
+     * @param alCambiar la acción a ejecutar cada vez que el archivo cambia
+     * @throws IOException si no se puede registrar la vigilancia
+     */
+    public VigilanteArchivo(Path archivo, Runnable alCambiar) throws IOException {
+        Path absoluto = archivo.toAbsolutePath();
+        this.nombreArchivo = absoluto.getFileName();
+        this.alCambiar = alCambiar;
+        this.watchService = absoluto.getFileSystem().newWatchService();
+        absoluto.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+
+        this.hilo = new Thread(this::vigilar, "vigilante-" + nombreArchivo);
+        this.hilo.setDaemon(true);
+        this.hilo.start();
+    }
+
+    /**
+     * Bucle del hilo de vigilancia: espera eventos y avisa cuando afectan al archivo.
+     */
+    private void vigilar() {
+        try {
+            while (true) {
+                boolean afectado = procesar(watchService.take());
+                if (!afectado) {
+                    continue;
+                }
+                // Agrupa los eventos que sigan llegando de la misma escritura
+                WatchKey siguiente;
+                while ((siguiente = watchService.poll(ESPERA_AGRUPADO_MS, TimeUnit.MILLISECONDS)) != null) {
+                    procesar(siguiente);
+                }
+                try {
+                    alCambiar.run();
+                } catch (RuntimeException e) {
+                    // un fallo al aplicar un cambio no debe detener la vigilancia
+                    Registro.global().error("VigilanteArchivo", "Falló la recarga del archivo", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // vigilancia cerrada
+        }
+    }
+
+    /**
+     * Consume los eventos de una clave y la deja lista para recibir más.
+     *
+     * @param clave la clave con eventos pendientes
+     * @return true si alguno de los eventos corresponde al archivo vigilado
+     */
+    private boolean procesar(WatchKey clave) {
+        boolean afectado = false;
+        for (WatchEvent<?> evento : clave.pollEvents()) {
+            if (nombreArchivo.equals(evento.context())) {
+                afectado = true;
+            }
+        }
+        clave.reset();
+        return afectado;
+    }
+
+    /**
+     * Deja de vigilar el archivo y termina el hilo de vigilancia.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // no hay nada más que liberar
+        }
+        hilo.interrupt();
+    }
+}
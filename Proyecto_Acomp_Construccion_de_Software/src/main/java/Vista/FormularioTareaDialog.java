@@ -3,6 +3,7 @@ package Vista;
 import Modelo.Tarea;
 import Modelo.Estado;
 import Modelo.Prioridad;
+import Modelo.Recurrencia;
 
 import javax.swing.*;
 import java.awt.*;
@@ -32,6 +33,9 @@ public class FormularioTareaDialog extends JDialog {
     
     /** Campo de texto para ingresar la fecha límite de la tarea. */
     private JTextField campoFechaLimite = new JTextField(10); // Formato: AAAA-MM-DD
+
+    /** ComboBox para elegir si una tarea nueva se repite; el índice 0 es "no se repite". */
+    private JComboBox<String> comboRepetir = new JComboBox<>(new String[]{"No se repite", "Cada día", "Cada semana", "Cada mes"});
     
     /** Indica si el usuario confirmó la acción (guardar o cancelar). */
     private boolean confirmado = false;
@@ -44,9 +48,9 @@ public class FormularioTareaDialog extends JDialog {
     public FormularioTareaDialog(JFrame padre) {
         super(padre, true);
         setTitle("Formulario de Tarea");
-        setSize(350, 200);
+        setSize(350, 230);
         setLocationRelativeTo(padre);
-        construirFormulario();
+        construirFormulario(true);
     }
 
     /**
@@ -58,7 +62,7 @@ public class FormularioTareaDialog extends JDialog {
     public FormularioTareaDialog(JFrame parent, Tarea tareaExistente) {
         super(parent, "Editar Tarea", true);
         setSize(350, 200);
-        construirFormulario();
+        construirFormulario(false);
 
         // Precargar datos de la tarea existente
         campoTitulo.setText(tareaExistente.getTitulo());
@@ -70,12 +74,14 @@ public class FormularioTareaDialog extends JDialog {
 
     /**
      * Método que construye la interfaz del formulario.
+     *
+     * @param conRepeticion si se muestra la opción de repetir la tarea, solo al agregar
      */
-    private void construirFormulario() {
+    private void construirFormulario(boolean conRepeticion) {
         setLayout(new BorderLayout());
 
         // Panel para los campos del formulario
-        JPanel panelCampos = new JPanel(new GridLayout(5, 2));
+        JPanel panelCampos = new JPanel(new GridLayout(conRepeticion ? 6 : 5, 2));
 
         panelCampos.add(new JLabel("Título:"));
         panelCampos.add(campoTitulo);
@@ -92,6 +98,11 @@ public class FormularioTareaDialog extends JDialog {
         panelCampos.add(new JLabel("Fecha límite (AAAA-MM-DD):"));
         panelCampos.add(campoFechaLimite);
 
+        if (conRepeticion) {
+            panelCampos.add(new JLabel("Repetir:"));
+            panelCampos.add(comboRepetir);
+        }
+
         add(panelCampos, BorderLayout.CENTER);
 
         // Panel para los botones de guardar y cancelar
@@ -149,6 +160,16 @@ public class FormularioTareaDialog extends JDialog {
         return tarea;
     }
 
+    /**
+     * Obtiene la regla de repetición elegida para una tarea nueva.
+     *
+     * @return la recurrencia, o null si la tarea no se repite
+     */
+    public Recurrencia getRecurrencia() {
+        int opcion = comboRepetir.getSelectedIndex();
+        return opcion <= 0 ? null : Recurrencia.cada(1, Recurrencia.Frecuencia.values()[opcion - 1]);
+    }
+
     /**
      * Verifica si el usuario ha confirmado la acción (guardar o cancelar).
      *
@@ -0,0 +1,418 @@
+package Vista;
+
+import Modelo.Registro;
+import Modelo.Tarea;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingWorker;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Ordenador de filas para la tabla de tareas.
+ * <p>
+ * A diferencia de {@link javax.swing.table.TableRowSorter}, no compara los valores de las celdas
+ * en cada comparación: antes de ordenar calcula una clave por fila. Los textos se comparan con un
+ * {@link Collator} en español, de modo que las tildes y las mayúsculas no alteran el orden
+ * alfabético, y sus {@link CollationKey} se guardan por tarea para no recalcularlas en el
+ * siguiente orden. Cuando una fila se actualiza se descartan las claves de esa tarea.
+ * <p>
+ * Si el modelo tiene muchas filas, el orden se calcula en segundo plano sobre una copia de las
+ * tareas y se reemplaza de una vez en el hilo de eventos. Mientras tanto la tabla conserva el orden
+ * anterior; las filas agregadas se muestran al final y las eliminadas se quitan. Si el modelo
+ * cambia antes de terminar, ese cálculo se descarta y se empieza otro.
+ * <p>
+ * Como todo componente Swing, debe usarse solo desde el hilo de eventos.
+ */
+public class OrdenadorTareas extends RowSorter<TareaTableModel> {
+
+    /** Cantidad de filas a partir de la cual se ordena en segundo plano. */
+    public static final int UMBRAL_SEGUNDO_PLANO = 20_000;
+
+    /** Cantidad de columnas que se recuerdan como criterios de desempate. */
+    private static final int MAXIMO_CRITERIOS = 3;
+
+    /** El modelo cuyas filas se ordenan. */
+    private final TareaTableModel modelo;
+
+    /** Cantidad de filas a partir de la cual se ordena en segundo plano. */
+    private final int umbral;
+
+    /** Comparador de textos en español. */
+    private final Collator collator = Collator.getInstance(Locale.of("es"));
+
+    /** Claves de comparación de los títulos, por ID de tarea. */
+    private final Map<Integer, ClaveTexto> clavesTitulo = new ConcurrentHashMap<>();
+
+    /** Claves de comparación de las descripciones, por ID de tarea. */
+    private final Map<Integer, ClaveTexto> clavesDescripcion = new ConcurrentHashMap<>();
+
+    /** Criterios de orden, del principal al último desempate. */
+    private List<SortKey> criterios = List.of();
+
+    /** Fila del modelo que se muestra en cada fila de la vista, o null si no hay orden. */
+    private int[] vistaAModelo;
+
+    /** Fila de la vista en la que se muestra cada fila del modelo, o null si no hay orden. */
+    private int[] modeloAVista;
+
+    /** Orden que se está calculando en segundo plano, o null si no hay ninguno. */
+    private SwingWorker<int[], Void> ordenando;
+
+    /**
+     * Crea el ordenador para un modelo, sin ningún criterio de orden.
+     *
+     * @param modelo el modelo de la tabla
+     */
+    public OrdenadorTareas(TareaTableModel modelo) {
+        this(modelo, UMBRAL_SEGUNDO_PLANO);
+    }
+
+    /**
+     * Crea el ordenador indicando a partir de cuántas filas se ordena en segundo plano.
+     *
+     * @param modelo el modelo de la tabla
+     * @param umbral cantidad de filas a partir de la cual se ordena en segundo plano
+     */
+    public OrdenadorTareas(TareaTableModel modelo, int umbral) {
+        this.modelo = modelo;
+        this.umbral = umbral;
+    }
+
+    @Override
+    public TareaTableModel getModel() {
+        return modelo;
+    }
+
+    /**
+     * Ordena por una columna. Si ya era el criterio principal se invierte su sentido; si no, pasa
+     * a ser el principal en sentido ascendente y los anteriores quedan como desempate.
+     *
+     * @param column la columna del modelo
+     */
+    @Override
+    public void toggleSortOrder(int column) {
+        comprobarColumna(column);
+        List<SortKey> nuevos = new ArrayList<>(criterios);
+        SortOrder sentido = SortOrder.ASCENDING;
+        if (!nuevos.isEmpty() && nuevos.get(0).getColumn() == column) {
+            sentido = nuevos.get(0).getSortOrder() == SortOrder.ASCENDING ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+        }
+        nuevos.removeIf(criterio -> criterio.getColumn() == column);
+        nuevos.add(0, new SortKey(column, sentido));
+        setSortKeys(nuevos.subList(0, Math.min(nuevos.size(), MAXIMO_CRITERIOS)));
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> nuevos = keys == null ? List.of() : List.copyOf(keys);
+        for (SortKey criterio : nuevos) {
+            comprobarColumna(criterio.getColumn());
+        }
+        if (nuevos.equals(criterios)) {
+            return;
+        }
+        criterios = nuevos;
+        fireSortOrderChanged();
+        ordenar();
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return criterios;
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (vistaAModelo == null) {
+            comprobarFila(index, modelo.getRowCount());
+            return index;
+        }
+        comprobarFila(index, vistaAModelo.length);
+        return vistaAModelo[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modeloAVista == null) {
+            comprobarFila(index, modelo.getRowCount());
+            return index;
+        }
+        comprobarFila(index, modeloAVista.length);
+        return modeloAVista[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return modelo.getRowCount();
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return modelo.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        vistaAModelo = null;
+        modeloAVista = null;
+        ordenar();
+    }
+
+    /**
+     * Agrega las filas nuevas al final del orden actual y vuelve a ordenar.
+     */
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        if (vistaAModelo != null) {
+            int cantidad = endRow - firstRow + 1;
+            int[] nuevo = Arrays.copyOf(vistaAModelo, vistaAModelo.length + cantidad);
+            for (int v = 0; v < vistaAModelo.length; v++) {
+                if (nuevo[v] >= firstRow) {
+                    nuevo[v] += cantidad;
+                }
+            }
+            for (int i = 0; i < cantidad; i++) {
+                nuevo[vistaAModelo.length + i] = firstRow + i;
+            }
+            usarOrden(nuevo);
+        }
+        ordenar();
+    }
+
+    /**
+     * Quita las filas eliminadas del orden actual y vuelve a ordenar.
+     */
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        if (vistaAModelo != null) {
+            int cantidad = endRow - firstRow + 1;
+            int[] nuevo = new int[vistaAModelo.length - cantidad];
+            int v = 0;
+            for (int fila : vistaAModelo) {
+                if (fila < firstRow) {
+                    nuevo[v++] = fila;
+                } else if (fila > endRow) {
+                    nuevo[v++] = fila - cantidad;
+                }
+            }
+            usarOrden(nuevo);
+        }
+        ordenar();
+    }
+
+    /**
+     * Descarta las claves guardadas de las tareas actualizadas y vuelve a ordenar.
+     */
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        for (int fila = firstRow; fila <= endRow; fila++) {
+            int id = modelo.getTareaEnFila(fila).getId();
+            clavesTitulo.remove(id);
+            clavesDescripcion.remove(id);
+        }
+        ordenar();
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        rowsUpdated(firstRow, endRow);
+    }
+
+    /**
+     * Calcula el orden según los criterios actuales: en este hilo si el modelo es chico o en
+     * segundo plano si es grande. Descarta el cálculo en segundo plano que estuviera en curso.
+     */
+    private void ordenar() {
+        if (ordenando != null) {
+            ordenando.cancel(false);
+            ordenando = null;
+        }
+        if (criterios.isEmpty()) {
+            if (vistaAModelo != null) {
+                reemplazarOrden(null);
+            }
+            return;
+        }
+        List<Tarea> tareas = modelo.getTareas();
+        List<SortKey> pedidos = criterios;
+        if (tareas.size() < umbral) {
+            reemplazarOrden(calcularOrden(tareas, pedidos, collator));
+            return;
+        }
+        Collator propio = (Collator) collator.clone(); // los Collator no son seguros entre hilos
+        SwingWorker<int[], Void> calculo = new SwingWorker<>() {
+            @Override
+            protected int[] doInBackground() {
+                return calcularOrden(tareas, pedidos, propio);
+            }
+
+            @Override
+            protected void done() {
+                if (ordenando != this) {
+                    return; // el modelo o los criterios cambiaron mientras se calculaba
+                }
+                ordenando = null;
+                try {
+                    reemplazarOrden(get());
+                } catch (InterruptedException | ExecutionException e) {
+                    Registro.global().error("OrdenadorTareas", "Falló el orden en segundo plano", e);
+                }
+            }
+        };
+        ordenando = calculo;
+        calculo.execute();
+    }
+
+    /**
+     * Indica si hay un orden calculándose en segundo plano.
+     *
+     * @return true si todavía no se aplicó el último orden pedido
+     */
+    public boolean isOrdenando() {
+        return ordenando != null;
+    }
+
+    /**
+     * Reemplaza el orden de las filas de una sola vez y avisa a la tabla, que conserva la selección.
+     *
+     * @param orden la fila del modelo de cada fila de la vista, o null para el orden del modelo
+     */
+    private void reemplazarOrden(int[] orden) {
+        int[] anterior = vistaAModelo;
+        if (anterior == null) {
+            anterior = new int[modelo.getRowCount()];
+            Arrays.setAll(anterior, i -> i);
+        }
+        usarOrden(orden);
+        fireRowSorterChanged(anterior);
+    }
+
+    private void usarOrden(int[] orden) {
+        vistaAModelo = orden;
+        if (orden == null) {
+            modeloAVista = null;
+            return;
+        }
+        modeloAVista = new int[orden.length];
+        for (int v = 0; v < orden.length; v++) {
+            modeloAVista[orden[v]] = v;
+        }
+    }
+
+    /**
+     * Calcula el orden de las filas. Solo lee la lista recibida y las claves guardadas, así que
+     * puede ejecutarse fuera del hilo de eventos.
+     */
+    private int[] calcularOrden(List<Tarea> tareas, List<SortKey> pedidos, Collator comparador) {
+        Comparator<Integer> orden = null;
+        for (SortKey criterio : pedidos) {
+            if (criterio.getSortOrder() == SortOrder.UNSORTED) {
+                continue;
+            }
+            Comparator<Integer> columna = comparadorColumna(criterio.getColumn(), tareas, comparador);
+            if (criterio.getSortOrder() == SortOrder.DESCENDING) {
+                columna = columna.reversed();
+            }
+            orden = orden == null ? columna : orden.thenComparing(columna);
+        }
+        if (orden == null) {
+            return null;
+        }
+        Integer[] filas = new Integer[tareas.size()];
+        Arrays.setAll(filas, i -> i);
+        Arrays.sort(filas, orden); // estable: a igual clave se respeta el orden del modelo
+        return Arrays.stream(filas).mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Comparador de filas por el valor de una columna, precalculado para todas las filas. */
+    private Comparator<Integer> comparadorColumna(int columna, List<Tarea> tareas, Collator comparador) {
+        int n = tareas.size();
+        switch (columna) {
+            case 0 -> {
+                int[] ids = new int[n];
+                Arrays.setAll(ids, i -> tareas.get(i).getId());
+                return Comparator.comparingInt(i -> ids[i]);
+            }
+            case 1, 2 -> {
+                CollationKey[] claves = columna == 1
+                        ? clavesDeTexto(tareas, clavesTitulo, Tarea::getTitulo, comparador)
+                        : clavesDeTexto(tareas, clavesDescripcion, Tarea::getDescripcion, comparador);
+                Comparator<CollationKey> porClave = Comparator.nullsFirst(Comparator.naturalOrder());
+                return (a, b) -> porClave.compare(claves[a], claves[b]);
+            }
+            case 3, 4 -> {
+                int[] ordinales = new int[n];
+                Arrays.setAll(ordinales, i -> {
+                    Enum<?> valor = columna == 3 ? tareas.get(i).getEstado() : tareas.get(i).getPrioridad();
+                    return valor == null ? -1 : valor.ordinal();
+                });
+                return Comparator.comparingInt(i -> ordinales[i]);
+            }
+            case 5 -> {
+                long[] dias = new long[n];
+                Arrays.setAll(dias, i -> {
+                    LocalDate fecha = tareas.get(i).getFechaVencimiento();
+                    return fecha == null ? Long.MIN_VALUE : fecha.toEpochDay();
+                });
+                return Comparator.comparingLong(i -> dias[i]);
+            }
+            default -> throw new IllegalArgumentException("Columna inválida: " + columna);
+        }
+    }
+
+    /**
+     * Obtiene la clave de comparación del texto de cada tarea, reutilizando las guardadas si el
+     * texto no cambió.
+     */
+    private static CollationKey[] clavesDeTexto(List<Tarea> tareas, Map<Integer, ClaveTexto> guardadas,
+                                                Function<Tarea, String> texto, Collator comparador) {
+        CollationKey[] claves = new CollationKey[tareas.size()];
+        for (int i = 0; i < claves.length; i++) {
+            Tarea tarea = tareas.get(i);
+            String valor = texto.apply(tarea);
+            if (valor == null) {
+                continue;
+            }
+            ClaveTexto clave = guardadas.get(tarea.getId());
+            if (clave == null || !clave.texto().equals(valor)) {
+                clave = new ClaveTexto(valor, comparador.getCollationKey(valor));
+                guardadas.put(tarea.getId(), clave);
+            }
+            claves[i] = clave.clave();
+        }
+        return claves;
+    }
+
+    private void comprobarColumna(int columna) {
+        if (columna < 0 || columna >= modelo.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Columna inválida: " + columna);
+        }
+    }
+
+    private static void comprobarFila(int fila, int cantidad) {
+        if (fila < 0 || fila >= cantidad) {
+            throw new IndexOutOfBoundsException("Fila inválida: " + fila);
+        }
+    }
+
+    /** Clave de comparación de un texto, junto con el texto del que se obtuvo. */
+    private record ClaveTexto(String texto, CollationKey clave) {
+    }
+}
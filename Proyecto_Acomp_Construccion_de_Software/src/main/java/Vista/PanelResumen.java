@@ -0,0 +1,57 @@
+package Vista;
+
+import Modelo.EstadisticasTareas;
+import Modelo.Estado;
+import Modelo.Prioridad;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Panel con un resumen de las tareas: total, cantidad por estado y por prioridad, y vencidas.
+ * <p>
+ * Solo muestra un {@link EstadisticasTareas.Resumen} ya calculado, así que refrescarlo no
+ * recorre las tareas.
+ */
+public class PanelResumen extends JPanel {
+
+    /** Etiqueta con el total de tareas. */
+    private final JLabel lblTotal = new JLabel();
+
+    /** Etiqueta con la cantidad de tareas por estado. */
+    private final JLabel lblEstados = new JLabel();
+
+    /** Etiqueta con la cantidad de tareas por prioridad. */
+    private final JLabel lblPrioridades = new JLabel();
+
+    /** Etiqueta con la cantidad de tareas vencidas. */
+    private final JLabel lblVencidas = new JLabel();
+
+    /**
+     * Crea el panel vacío.
+     */
+    public PanelResumen() {
+        setLayout(new FlowLayout(FlowLayout.LEFT, 16, 4));
+        add(lblTotal);
+        add(lblEstados);
+        add(lblPrioridades);
+        add(lblVencidas);
+    }
+
+    /**
+     * Muestra un resumen en el panel.
+     *
+     * @param resumen el resumen a mostrar
+     */
+    public void mostrar(EstadisticasTareas.Resumen resumen) {
+        lblTotal.setText("Total: " + resumen.total());
+        lblEstados.setText("Pendientes: " + resumen.porEstado().get(Estado.PENDIENTE)
+                + " | En progreso: " + resumen.porEstado().get(Estado.EN_PROGRESO)
+                + " | Completadas: " + resumen.porEstado().get(Estado.COMPLETADA));
+        lblPrioridades.setText("Alta: " + resumen.porPrioridad().get(Prioridad.ALTA)
+                + " | Media: " + resumen.porPrioridad().get(Prioridad.MEDIA)
+                + " | Baja: " + resumen.porPrioridad().get(Prioridad.BAJA));
+        lblVencidas.setText("Vencidas: " + resumen.vencidas());
+        lblVencidas.setForeground(resumen.vencidas() > 0 ? Color.RED.darker() : getForeground());
+    }
+}
@@ -0,0 +1,251 @@
+package Vista;
+
+import Modelo.Estado;
+import Modelo.Prioridad;
+import Modelo.Tarea;
+
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Color;
+import java.awt.Component;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Renderizador de las celdas de la tabla de tareas.
+ * <p>
+ * El renderizador predeterminado de JTable convierte cada valor con {@code toString} en cada
+ * repintado, lo que crea un texto nuevo por celda visible para los IDs y las fechas. Este toma los
+ * datos directamente de la {@link Tarea} de la fila y usa textos ya formateados: los IDs y las
+ * fechas se formatean una sola vez y se guardan, y los estados y prioridades usan el nombre de la
+ * constante. Los colores son constantes compartidas, así que pintar una celda no crea objetos.
+ * Tampoco se interpreta HTML en los textos, por lo que el cambio de texto no necesita avisar a
+ * nadie y se omite el evento que lo notificaba.
+ * <p>
+ * Las filas de tareas vencidas sin completar se resaltan con un fondo rojizo, las prioridades altas
+ * se muestran en rojo y las tareas completadas en gris. Se instala en una tabla con
+ * {@link #instalarEn(JTable)}, que registra un renderizador por tipo de columna.
+ */
+public class RenderizadorTarea extends DefaultTableCellRenderer {
+
+    /** Fondo de las filas de tareas vencidas que no están completadas. */
+    public static final Color FONDO_VENCIDA = new Color(255, 226, 222);
+
+    /** Texto de las prioridades altas. */
+    public static final Color TEXTO_PRIORIDAD_ALTA = new Color(178, 34, 34);
+
+    /** Texto de las tareas completadas. */
+    public static final Color TEXTO_COMPLETADA = Color.GRAY;
+
+    /** Reloj con el que se decide qué día es hoy. */
+    private final Clock reloj;
+
+    /** Día en el que se decidió qué tareas están vencidas. */
+    private LocalDate hoy;
+
+    /** Instante, en milisegundos, en el que termina {@link #hoy}. */
+    private long finDeHoy = Long.MIN_VALUE;
+
+    /**
+     * Crea un renderizador para columnas de texto.
+     *
+     * @param reloj reloj con el que se decide qué día es hoy
+     */
+    public RenderizadorTarea(Clock reloj) {
+        this.reloj = reloj;
+        putClientProperty("html.disable", Boolean.TRUE); // un título con "<html>" se muestra tal cual
+    }
+
+    /**
+     * Instala en una tabla de tareas los renderizadores de cada tipo de columna, usando el reloj
+     * del sistema.
+     *
+     * @param tabla la tabla, que debe usar un {@link TareaTableModel}
+     */
+    public static void instalarEn(JTable tabla) {
+        instalarEn(tabla, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Instala en una tabla de tareas los renderizadores de cada tipo de columna.
+     *
+     * @param tabla la tabla, que debe usar un {@link TareaTableModel}
+     * @param reloj reloj con el que se decide qué día es hoy
+     */
+    public static void instalarEn(JTable tabla, Clock reloj) {
+        tabla.setDefaultRenderer(Object.class, new RenderizadorTarea(reloj));
+        tabla.setDefaultRenderer(String.class, new RenderizadorTarea(reloj));
+        tabla.setDefaultRenderer(Integer.class, new DeId(reloj));
+        tabla.setDefaultRenderer(Estado.class, new DeEstado(reloj));
+        tabla.setDefaultRenderer(Prioridad.class, new DePrioridad(reloj));
+        tabla.setDefaultRenderer(LocalDate.class, new DeFecha(reloj));
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                                                   boolean hasFocus, int row, int column) {
+        Tarea tarea = null;
+        if (table.getModel() instanceof TareaTableModel modelo) {
+            tarea = modelo.getTareaEnFila(table.convertRowIndexToModel(row));
+        }
+        Object texto = tarea == null ? value : texto(tarea, value);
+        super.getTableCellRendererComponent(table, texto, isSelected, hasFocus, row, column);
+        if (tarea != null && !isSelected) {
+            if (estaVencida(tarea)) {
+                setBackground(FONDO_VENCIDA);
+            }
+            Color color = colorDeTexto(tarea);
+            if (color != null) {
+                setForeground(color);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * No avisa los cambios de texto, que solo le interesan a la interfaz de la etiqueta para
+     * interpretar HTML y que crearían un evento por celda pintada. Los demás cambios se avisan
+     * como en {@link DefaultTableCellRenderer}.
+     */
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+        if (!"text".equals(propertyName)) {
+            super.firePropertyChange(propertyName, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Obtiene el texto de la celda. Por defecto es el valor del modelo, que en las columnas de
+     * texto ya es un {@code String}.
+     *
+     * @param tarea la tarea de la fila
+     * @param valor el valor del modelo
+     * @return el texto a mostrar
+     */
+    protected Object texto(Tarea tarea, Object valor) {
+        return valor;
+    }
+
+    /**
+     * Obtiene el color del texto de la celda.
+     *
+     * @param tarea la tarea de la fila
+     * @return el color, o null para usar el de la tabla
+     */
+    protected Color colorDeTexto(Tarea tarea) {
+        return tarea.getEstado() == Estado.COMPLETADA ? TEXTO_COMPLETADA : null;
+    }
+
+    /**
+     * Indica si una tarea está vencida: no está completada y su fecha límite es anterior a hoy.
+     * El día se recalcula solo cuando termina, así que la comprobación no crea objetos.
+     *
+     * @param tarea la tarea
+     * @return true si la tarea está vencida
+     */
+    protected boolean estaVencida(Tarea tarea) {
+        if (tarea.getEstado() == Estado.COMPLETADA || tarea.getFechaVencimiento() == null) {
+            return false;
+        }
+        long ahora = reloj.millis();
+        if (ahora >= finDeHoy) {
+            hoy = LocalDate.now(reloj);
+            finDeHoy = hoy.plusDays(1).atStartOfDay(reloj.getZone()).toInstant().toEpochMilli();
+        }
+        return tarea.getFechaVencimiento().isBefore(hoy);
+    }
+
+    /** Renderizador de la columna de IDs, con los textos guardados por ID. */
+    private static class DeId extends RenderizadorTarea {
+
+        /** Texto de cada ID ya formateado, indexado por ID. */
+        private String[] textos = new String[1024];
+
+        DeId(Clock reloj) {
+            super(reloj);
+            setHorizontalAlignment(SwingConstants.RIGHT);
+        }
+
+        @Override
+        protected Object texto(Tarea tarea, Object valor) {
+            int id = tarea.getId();
+            if (id < 0) {
+                return String.valueOf(id);
+            }
+            if (id >= textos.length) {
+                textos = Arrays.copyOf(textos, Math.max(id + 1, textos.length * 2));
+            }
+            String texto = textos[id];
+            if (texto == null) {
+                texto = String.valueOf(id);
+                textos[id] = texto;
+            }
+            return texto;
+        }
+    }
+
+    /** Renderizador de la columna de fechas, con los textos guardados por fecha. */
+    private static class DeFecha extends RenderizadorTarea {
+
+        /** Texto de cada fecha ya formateado, con el mismo formato que pide el formulario. */
+        private final Map<LocalDate, String> textos = new HashMap<>();
+
+        DeFecha(Clock reloj) {
+            super(reloj);
+            setHorizontalAlignment(SwingConstants.CENTER);
+        }
+
+        @Override
+        protected Object texto(Tarea tarea, Object valor) {
+            LocalDate fecha = tarea.getFechaVencimiento();
+            if (fecha == null) {
+                return "";
+            }
+            String texto = textos.get(fecha);
+            if (texto == null) {
+                texto = fecha.toString();
+                textos.put(fecha, texto);
+            }
+            return texto;
+        }
+    }
+
+    /** Renderizador de la columna de estados. */
+    private static class DeEstado extends RenderizadorTarea {
+
+        DeEstado(Clock reloj) {
+            super(reloj);
+        }
+
+        @Override
+        protected Object texto(Tarea tarea, Object valor) {
+            return tarea.getEstado() == null ? "" : tarea.getEstado().name();
+        }
+    }
+
+    /** Renderizador de la columna de prioridades, con las altas resaltadas. */
+    private static class DePrioridad extends RenderizadorTarea {
+
+        DePrioridad(Clock reloj) {
+            super(reloj);
+        }
+
+        @Override
+        protected Object texto(Tarea tarea, Object valor) {
+            return tarea.getPrioridad() == null ? "" : tarea.getPrioridad().name();
+        }
+
+        @Override
+        protected Color colorDeTexto(Tarea tarea) {
+            Color color = super.colorDeTexto(tarea);
+            if (color == null && tarea.getPrioridad() == Prioridad.ALTA) {
+                return TEXTO_PRIORIDAD_ALTA;
+            }
+            return color;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package Vista;
 
+import Modelo.Estado;
+import Modelo.Prioridad;
 import Modelo.Tarea;
 
 import javax.swing.table.AbstractTableModel;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,6 +19,12 @@ public class TareaTableModel extends AbstractTableModel {
     
     /** Los nombres de las columnas que se mostrarán en la tabla. */
     private final String[] columnas = {"ID", "Titulo", "Descripción", "Estado", "Prioridad", "Fecha Límite"};
+
+    /** El tipo de los valores de cada columna, para elegir su renderizador. */
+    private static final Class<?>[] TIPOS = {Integer.class, String.class, String.class, Estado.class, Prioridad.class, LocalDate.class};
+
+    /** IDs ya convertidos a Integer, indexados por ID, para no crear uno en cada repintado. */
+    private Integer[] ids = new Integer[1024];
     
     /** La lista de tareas que se mostrará en la tabla. */
     private List<Tarea> tareas;
@@ -23,7 +35,7 @@ public class TareaTableModel extends AbstractTableModel {
      * @param tareas La lista de tareas que se mostrará en la tabla.
      */
     public TareaTableModel(List<Tarea> tareas) {
-        this.tareas = tareas;
+        this.tareas = new ArrayList<>(tareas);
     }
 
     /**
@@ -57,7 +69,7 @@ public class TareaTableModel extends AbstractTableModel {
     public Object getValueAt(int rowIndex, int columnIndex) {
         Tarea tarea = tareas.get(rowIndex); // Obtenemos la tarea en la fila indicada
         return switch (columnIndex) { // Según la columna, devolvemos el valor correspondiente
-            case 0 -> tarea.getId();
+            case 0 -> id(tarea.getId());
             case 1 -> tarea.getTitulo();
             case 2 -> tarea.getDescripcion();
             case 3 -> tarea.getEstado();
@@ -78,6 +90,17 @@ public class TareaTableModel extends AbstractTableModel {
         return columnas[column];
     }
 
+    /**
+     * Obtiene el tipo de los valores de una columna.
+     *
+     * @param columnIndex El índice de la columna.
+     * @return La clase de los valores de la columna.
+     */
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return TIPOS[columnIndex];
+    }
+
     /**
      * Obtiene la tarea en una fila específica.
      * 
@@ -94,7 +117,7 @@ public class TareaTableModel extends AbstractTableModel {
      * @param tareas La nueva lista de tareas que se mostrará en la tabla.
      */
     public void setTareas(List<Tarea> tareas) {
-        this.tareas = tareas;
+        this.tareas = new ArrayList<>(tareas);
         fireTableDataChanged(); // Notifica a la JTable que los datos han cambiado
     }
     
@@ -107,4 +130,93 @@ public class TareaTableModel extends AbstractTableModel {
     public Tarea getTareaEnFila(int fila) {
         return tareas.get(fila);
     }
+
+    /**
+     * Obtiene una copia de las tareas de la tabla, en el orden del modelo.
+     *
+     * @return las tareas, en una lista que no cambia aunque cambie la tabla
+     */
+    public List<Tarea> getTareas() {
+        return List.copyOf(tareas);
+    }
+
+    /**
+     * Agrega tareas al final de la tabla notificando solo las filas nuevas.
+     *
+     * @param nuevas las tareas a agregar
+     */
+    public void agregarTareas(List<Tarea> nuevas) {
+        if (nuevas.isEmpty()) {
+            return;
+        }
+        int primera = tareas.size();
+        tareas.addAll(nuevas);
+        fireTableRowsInserted(primera, tareas.size() - 1);
+    }
+
+    /**
+     * Notifica que cambiaron los datos de las tareas indicadas que están en la tabla.
+     *
+     * @param modificadas las tareas modificadas; las que no se muestran se ignoran
+     */
+    public void actualizarTareas(List<Tarea> modificadas) {
+        for (Tarea tarea : modificadas) {
+            int fila = buscarFila(tarea.getId());
+            if (fila != -1) {
+                tareas.set(fila, tarea);
+                fireTableRowsUpdated(fila, fila);
+            }
+        }
+    }
+
+    /**
+     * Quita de la tabla las tareas con los IDs indicados, notificando cada fila eliminada.
+     *
+     * @param ids los IDs de las tareas a quitar
+     */
+    public void eliminarTareas(Collection<Integer> ids) {
+        for (int id : ids) {
+            int fila = buscarFila(id);
+            if (fila != -1) {
+                tareas.remove(fila);
+                fireTableRowsDeleted(fila, fila);
+            }
+        }
+    }
+
+    /**
+     * Obtiene el Integer de un ID, guardándolo para las siguientes llamadas.
+     *
+     * @param id el ID
+     * @return el ID como Integer
+     */
+    private Integer id(int id) {
+        if (id < 0) {
+            return id;
+        }
+        if (id >= ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(id + 1, ids.length * 2));
+        }
+        Integer valor = ids[id];
+        if (valor == null) {
+            valor = id;
+            ids[id] = valor;
+        }
+        return valor;
+    }
+
+    /**
+     * Busca la fila que muestra la tarea con un ID.
+     *
+     * @param id el ID de la tarea
+     * @return el índice de la fila, o -1 si la tarea no se muestra
+     */
+    private int buscarFila(int id) {
+        for (int i = 0; i < tareas.size(); i++) {
+            if (tareas.get(i).getId() == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
 }
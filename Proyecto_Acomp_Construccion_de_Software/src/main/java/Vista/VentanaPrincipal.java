@@ -19,6 +19,14 @@ public class VentanaPrincipal extends JFrame {
     // Definición del JScrollPane que contiene la tabla
     private JScrollPane scrollPane;
 
+    // Panel con el resumen de las tareas
+    private PanelResumen panelResumen;
+
+    // Selector del espacio de trabajo y botón para crear uno nuevo
+    private JLabel lblEspacio;
+    private JComboBox<String> comboEspacios;
+    private JButton btnNuevoEspacio;
+
     /**
      * Constructor de la ventana principal.
      * Inicializa la ventana con los componentes necesarios y configura el diseño.
@@ -36,21 +44,34 @@ public class VentanaPrincipal extends JFrame {
         btnFiltrar = new JButton("Filtrar");
         btnBuscar = new JButton("Buscar");
 
+        // Selector de espacios, que el controlador llena con los espacios existentes
+        lblEspacio = new JLabel("Espacio:");
+        comboEspacios = new JComboBox<>();
+        btnNuevoEspacio = new JButton("Nuevo espacio");
+
         // Inicialización de la tabla de tareas y el JScrollPane
         tablaTareas = new JTable();  // Se conectará luego a un modelo de datos
+        RenderizadorTarea.instalarEn(tablaTareas);  // Textos ya formateados y filas vencidas resaltadas
         scrollPane = new JScrollPane(tablaTareas);  // Permite el desplazamiento en caso de ser necesario
 
         // Creación y configuración del panel de botones
         JPanel panelBotones = new JPanel();
+        panelBotones.add(lblEspacio);
+        panelBotones.add(comboEspacios);
+        panelBotones.add(btnNuevoEspacio);
         panelBotones.add(btnAgregar);
         panelBotones.add(btnActualizar);
         panelBotones.add(btnEliminar);
         panelBotones.add(btnFiltrar);
         panelBotones.add(btnBuscar);
 
+        // Panel de resumen, que el controlador actualiza con las estadísticas del servicio
+        panelResumen = new PanelResumen();
+
         // Agregar los componentes al contenedor de la ventana
         getContentPane().add(panelBotones, BorderLayout.NORTH);  // Agregar panel de botones al norte
         getContentPane().add(scrollPane, BorderLayout.CENTER);  // Agregar la tabla al centro
+        getContentPane().add(panelResumen, BorderLayout.SOUTH);  // Agregar el resumen al sur
     }
 
     /**
@@ -106,4 +127,56 @@ public class VentanaPrincipal extends JFrame {
     public JTable getTablaTareas() {
         return tablaTareas;
     }
+
+    /**
+     * Obtiene el panel con el resumen de las tareas.
+     * 
+     * @return El panel de resumen.
+     */
+    public PanelResumen getPanelResumen() {
+        return panelResumen;
+    }
+
+    /**
+     * Obtiene el selector del espacio de trabajo.
+     * 
+     * @return El selector de espacios.
+     */
+    public JComboBox<String> getComboEspacios() {
+        return comboEspacios;
+    }
+
+    /**
+     * Obtiene el botón para crear un espacio de trabajo.
+     * 
+     * @return El botón para crear un espacio.
+     */
+    public JButton getBtnNuevoEspacio() {
+        return btnNuevoEspacio;
+    }
+
+    /**
+     * Muestra u oculta el selector de espacios, para cuando no se usan espacios de trabajo.
+     * 
+     * @param visible true para mostrarlo.
+     */
+    public void setEspaciosVisibles(boolean visible) {
+        lblEspacio.setVisible(visible);
+        comboEspacios.setVisible(visible);
+        btnNuevoEspacio.setVisible(visible);
+    }
+
+    /**
+     * Indica que se está cargando otro espacio de trabajo: mientras tanto se desactivan las
+     * acciones y se muestra el cursor de espera, pero la ventana sigue respondiendo.
+     * 
+     * @param cambiando true mientras dura el cambio de espacio.
+     */
+    public void setCambiandoEspacio(boolean cambiando) {
+        for (JComponent c : new JComponent[]{comboEspacios, btnNuevoEspacio, btnAgregar, btnActualizar,
+                btnEliminar, btnFiltrar, btnBuscar, tablaTareas}) {
+            c.setEnabled(!cambiando);
+        }
+        setCursor(cambiando ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : Cursor.getDefaultCursor());
+    }
 }
@@ -0,0 +1,72 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscadorDifusoTest {
+
+    @TempDir
+    Path dir;
+
+    private static Tarea tarea(int id, String titulo, String descripcion) {
+        return new Tarea(id, titulo, descripcion, LocalDate.now().plusDays(1), Prioridad.MEDIA, Estado.PENDIENTE);
+    }
+
+    private static List<Integer> ids(List<BuscadorDifuso.Resultado> resultados) {
+        return resultados.stream().map(BuscadorDifuso.Resultado::id).toList();
+    }
+
+    @Test
+    void testDistanciaConTrasposicionYLimite() {
+        assertEquals(0, BuscadorDifuso.distancia("reunion", "reunion", 2));
+        assertEquals(1, BuscadorDifuso.distancia("reunion", "reunoin", 2));
+        assertEquals(1, BuscadorDifuso.distancia("informe", "infome", 2));
+        assertEquals(1, BuscadorDifuso.distancia("informe", "ifnorme", 2));
+        assertEquals(3, BuscadorDifuso.distancia("abcdef", "uvwxyz", 2));
+        assertEquals("reunion de equipo", BuscadorDifuso.normalizar("Reunión de EQUIPO"));
+    }
+
+    @Test
+    void testToleraErroresTildesYOrdenaPorPuntaje() {
+        BuscadorDifuso buscador = BuscadorDifuso.construir(List.of(
+                tarea(1, "Reunión de equipo", "Planificar el sprint"),
+                tarea(2, "Pagar facturas", "Contabilidad"),
+                tarea(3, "Comprar café", "Oficina"),
+                tarea(4, "Informe reunión", "Enviar al equipo")));
+
+        assertEquals(List.of(1, 4), ids(buscador.buscar("reunion", 10)));
+        assertEquals(List.of(1, 4), ids(buscador.buscar("reunoin", 10)));
+        assertEquals(List.of(4), ids(buscador.buscar("infrome reunion", 10)));
+        List<BuscadorDifuso.Resultado> equipo = buscador.buscar("equipo reunion", 10);
+        assertEquals(List.of(1, 4), ids(equipo));
+        assertEquals(2.0, equipo.get(0).puntaje(), 1e-9);
+        assertEquals(List.of(3), ids(buscador.buscar("CAFE", 10)));
+        assertEquals(List.of(2), ids(buscador.buscar("factura", 10)));
+        assertTrue(buscador.buscar("xilofono", 10).isEmpty());
+        assertEquals(1, buscador.buscar("reunion", 1).size());
+    }
+
+    @Test
+    void testServicioMantieneElIndiceConLosCambios() {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        service.agregarTarea(new Tarea("Revisión anual", "Presupuesto", LocalDate.now().plusDays(5), Prioridad.ALTA, Estado.PENDIENTE));
+        Tarea revision = service.obtenerTodas().get(0);
+        assertEquals(List.of(revision), service.buscarDifuso("revision", 10));
+
+        revision.setTitulo("Auditoría anual");
+        revision.setEstado(Estado.EN_PROGRESO);
+        service.actualizarTarea(revision);
+        assertTrue(service.filtrarPorEstado(Estado.PENDIENTE).isEmpty());
+        assertTrue(service.buscarDifuso("revision", 10).isEmpty());
+        assertEquals(List.of(revision), service.buscarDifuso("auditoria", 10));
+
+        service.eliminarTarea(revision.getId());
+        assertTrue(service.buscarDifuso("auditoria", 10).isEmpty());
+    }
+}
@@ -0,0 +1,62 @@
+package Modelo;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mide la latencia de {@link BuscadorDifuso#buscar} con consultas que tienen errores de tipeo.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.BusquedaDifusaBenchmark -Dexec.args="1000000"
+ * </pre>
+ */
+public class BusquedaDifusaBenchmark {
+
+    private static final int CONSULTAS = 2_000;
+    private static final int LIMITE = 50;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        GeneradorTareas generador = new GeneradorTareas(42);
+        List<Tarea> tareas = generador.generar(cantidad);
+
+        long inicio = System.nanoTime();
+        BuscadorDifuso buscador = BuscadorDifuso.construir(tareas);
+        System.out.printf("%,d tareas, índice construido en %.0f ms%n", cantidad, (System.nanoTime() - inicio) / 1e6);
+
+        String[] consultas = new String[CONSULTAS];
+        for (int i = 0; i < CONSULTAS; i++) {
+            String consulta = conError(generador.palabra(), generador);
+            consultas[i] = i % 3 == 0 ? consulta + " " + generador.palabra() : consulta;
+        }
+        for (String consulta : consultas) { // calentamiento
+            buscador.buscar(consulta, LIMITE);
+        }
+
+        long[] tiempos = new long[CONSULTAS];
+        long resultados = 0;
+        for (int i = 0; i < CONSULTAS; i++) {
+            long t = System.nanoTime();
+            resultados += buscador.buscar(consultas[i], LIMITE).size();
+            tiempos[i] = System.nanoTime() - t;
+        }
+        Arrays.sort(tiempos);
+        System.out.printf("%,d consultas, %.1f resultados en promedio%n", CONSULTAS, (double) resultados / CONSULTAS);
+        System.out.printf("mediana %.2f ms, p99 %.2f ms, máximo %.2f ms%n",
+                tiempos[CONSULTAS / 2] / 1e6, tiempos[CONSULTAS * 99 / 100] / 1e6, tiempos[CONSULTAS - 1] / 1e6);
+    }
+
+    /** Intercambia dos letras vecinas de una palabra, como un error de tipeo. */
+    private static String conError(String palabra, GeneradorTareas generador) {
+        if (palabra.length() < 4) {
+            return palabra;
+        }
+        int i = 1 + generador.entero(palabra.length() - 2);
+        char[] letras = palabra.toCharArray();
+        char c = letras[i];
+        letras[i] = letras[i + 1];
+        letras[i + 1] = c;
+        return new String(letras);
+    }
+}
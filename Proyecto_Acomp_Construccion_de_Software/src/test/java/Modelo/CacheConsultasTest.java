@@ -0,0 +1,77 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConsultasTest {
+
+    private static TareaService servicio(Path dir, CacheConsultas cache) {
+        return new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()),
+                TareaService.CAPACIDAD_EVENTOS, ConsultaParalela.compartida(), cache);
+    }
+
+    @Test
+    void testUnCambioSoloInvalidaLasConsultasQueAfecta(@TempDir Path dir) {
+        CacheConsultas cache = new CacheConsultas(16, 10_000);
+        TareaService service = servicio(dir, cache);
+        LocalDate manana = LocalDate.now().plusDays(1);
+        Tarea informe = service.agregarTarea(new Tarea("Informe anual", "", manana, Prioridad.ALTA, Estado.PENDIENTE)).tarea();
+        service.agregarTarea(new Tarea("Compras", "leche", manana.plusDays(1), Prioridad.BAJA, Estado.PENDIENTE));
+
+        assertEquals(1, service.buscarPorPalabraClave("INFORME").size());
+        assertEquals(1, service.buscarPorPalabraClave("informe").size()); // misma clave normalizada
+        assertEquals(1, service.filtrarPorPrioridad(Prioridad.BAJA).size());
+        assertEquals(2, service.filtrarPorEstado(Estado.PENDIENTE).size());
+        assertEquals(1, service.getCache().getAciertos());
+        assertEquals(3, service.getCache().getFallos());
+
+        // Cambia la prioridad del informe: la consulta por prioridad BAJA no lo contenía ni lo acepta
+        Tarea datos = new Tarea(informe.getId(), "Informe anual", "", manana, Prioridad.MEDIA, Estado.PENDIENTE);
+        service.actualizarSiVersion(informe.getId(), datos, informe.getVersion());
+        assertEquals(1, cache.getCantidad());
+        assertEquals(2, cache.getInvalidadas());
+        assertEquals(1, service.filtrarPorPrioridad(Prioridad.BAJA).size());
+        assertEquals(2, service.getCache().getAciertos());
+
+        // La tarea nueva entra en la búsqueda: el resultado se recalcula y la incluye
+        service.agregarTarea(new Tarea("Revisar informe", "", manana, Prioridad.BAJA, Estado.PENDIENTE));
+        assertEquals(2, service.buscarPorPalabraClave("informe").size());
+        assertEquals(2, service.filtrarPorPrioridad(Prioridad.BAJA).size());
+
+        service.eliminarTarea(informe.getId());
+        assertEquals(List.of("Revisar informe"),
+                service.buscarPorPalabraClave("informe").stream().map(Tarea::getTitulo).toList());
+    }
+
+    @Test
+    void testDesalojaLaMenosUsadaYRespetaElLimiteDeTareas(@TempDir Path dir) {
+        CacheConsultas cache = new CacheConsultas(2, 150);
+        TareaService service = servicio(dir, cache);
+        service.agregarTareas(new GeneradorTareas(3).generar(300));
+
+        service.filtrarPorPrioridad(Prioridad.ALTA);
+        service.filtrarPorPrioridad(Prioridad.MEDIA);
+        service.filtrarPorPrioridad(Prioridad.ALTA); // MEDIA pasa a ser la menos usada
+        service.buscarPorPalabraClave("zzz-sin-resultados");
+        assertEquals(2, cache.getCantidad());
+        assertEquals(1, cache.getDesalojadas());
+        long fallos = cache.getFallos();
+        service.filtrarPorPrioridad(Prioridad.ALTA);
+        assertEquals(fallos, cache.getFallos());
+        service.filtrarPorPrioridad(Prioridad.MEDIA);
+        assertEquals(fallos + 1, cache.getFallos());
+        assertTrue(cache.getTareasRetenidas() <= 150);
+
+        // Un resultado mayor que el límite de tareas no se guarda
+        assertEquals(service.obtenerTodas().size(), service.filtrar(FiltroTareas.todas()).size());
+        assertTrue(cache.getTareasRetenidas() <= 150);
+        service.filtrar(FiltroTareas.todas());
+        assertEquals(fallos + 3, cache.getFallos());
+    }
+}
@@ -0,0 +1,60 @@
+package Modelo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Mide cómo escala la carga paralela de {@code tareas.json} al aumentar la cantidad de hilos.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.CargaParalelaBenchmark -Dexec.args="200000"
+ * </pre>
+ * El primer argumento es la cantidad de tareas a generar y el segundo, opcional, el máximo de hilos.
+ */
+public class CargaParalelaBenchmark {
+
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int maxHilos = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+
+        Path archivo = Files.createTempFile("tareas-bench", ".json");
+        TareaRepository repo = new TareaRepository(archivo.toString());
+        repo.guardarEnArchivo(new GeneradorTareas(42).generar(cantidad));
+        System.out.printf("Archivo: %,d tareas, %,d bytes%n", cantidad, Files.size(archivo));
+
+        double base = medir(() -> repo.cargarSecuencial(archivo));
+        System.out.printf("Gson secuencial: %8.1f ms%n", base);
+
+        for (int hilos = 1; hilos <= maxHilos; hilos++) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            double ms = medir(() -> repo.cargarEnParalelo(archivo, pool));
+            System.out.printf("%2d hilos:        %8.1f ms  (x%.2f)%n", hilos, ms, base / ms);
+            pool.shutdown();
+        }
+        Files.deleteIfExists(archivo);
+    }
+
+    /** Ejecuta la carga varias veces tras un calentamiento y devuelve el tiempo medio en ms. */
+    private static double medir(Carga carga) throws Exception {
+        for (int i = 0; i < 2; i++) {
+            carga.ejecutar();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            if (carga.ejecutar().tareas().isEmpty()) {
+                throw new IllegalStateException("La carga no devolvió tareas");
+            }
+        }
+        return (System.nanoTime() - inicio) / 1e6 / REPETICIONES;
+    }
+
+    @FunctionalInterface
+    private interface Carga {
+        CargadorParalelo.Resultado ejecutar() throws Exception;
+    }
+}
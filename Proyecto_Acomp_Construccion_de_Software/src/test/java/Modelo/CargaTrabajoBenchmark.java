@@ -0,0 +1,171 @@
+package Modelo;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reproduce una mezcla de operaciones sobre {@link TareaService} y reporta el rendimiento y los
+ * percentiles de latencia de cada tipo de operación.
+ * <p>
+ * Los datos iniciales y la secuencia de operaciones salen de un {@link GeneradorTareas} con
+ * semilla, así que dos ejecuciones con los mismos argumentos hacen exactamente el mismo trabajo.
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.CargaTrabajoBenchmark -Dexec.args="10000 20000 42 agregar=20,actualizar=30,eliminar=5,filtrar=30,buscar=15"
+ * </pre>
+ * Argumentos, todos opcionales: tareas iniciales, operaciones, semilla y mezcla (pesos relativos).
+ * El repositorio se elige con {@code -Dtareas.repositorio=json|h2} y se crea en un directorio
+ * temporal. El primer 10% de las operaciones (hasta 1000) es calentamiento y no se mide.
+ */
+public class CargaTrabajoBenchmark {
+
+    /** Tipos de operación que se reproducen. */
+    enum Operacion { AGREGAR, ACTUALIZAR, ELIMINAR, FILTRAR, BUSCAR }
+
+    public static void main(String[] args) throws Exception {
+        int iniciales = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        long semilla = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        Map<Operacion, Integer> mezcla = leerMezcla(args.length > 3 ? args[3]
+                : "agregar=20,actualizar=30,eliminar=5,filtrar=30,buscar=15");
+
+        Path dir = Files.createTempDirectory("carga-trabajo");
+        GeneradorTareas generador = new GeneradorTareas(semilla);
+        RepositorioTareas repo = crearRepositorio(dir);
+        repo.guardar(generador.generar(iniciales));
+        if (repo instanceof AutoCloseable cerrable) {
+            cerrable.close();
+        }
+        repo = crearRepositorio(dir); // se vuelve a abrir para cargar los datos como en un arranque normal
+
+        PrintStream consola = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // el servicio imprime cada alta
+        TareaService service = new TareaService(repo);
+        List<Integer> ids = new ArrayList<>(service.obtenerTodas().stream().map(Tarea::getId).toList());
+
+        Operacion[] secuencia = secuencia(mezcla, operaciones, generador);
+        int calentamiento = Math.min(1000, operaciones / 10);
+        Map<Operacion, long[]> latencias = new EnumMap<>(Operacion.class);
+        Map<Operacion, Integer> cantidades = new EnumMap<>(Operacion.class);
+        for (Operacion op : Operacion.values()) {
+            latencias.put(op, new long[operaciones]);
+            cantidades.put(op, 0);
+        }
+
+        long inicioMedido = 0;
+        for (int i = 0; i < secuencia.length; i++) {
+            if (i == calentamiento) {
+                inicioMedido = System.nanoTime();
+            }
+            Operacion op = ids.isEmpty() && (secuencia[i] == Operacion.ACTUALIZAR || secuencia[i] == Operacion.ELIMINAR)
+                    ? Operacion.AGREGAR : secuencia[i];
+            long inicio = System.nanoTime();
+            ejecutar(op, service, generador, ids);
+            long duracion = System.nanoTime() - inicio;
+            if (i >= calentamiento) {
+                int n = cantidades.get(op);
+                latencias.get(op)[n] = duracion;
+                cantidades.put(op, n + 1);
+            }
+        }
+        double segundos = (System.nanoTime() - inicioMedido) / 1e9;
+        service.cerrar();
+        System.setOut(consola);
+
+        System.out.printf("Repositorio %s, %,d tareas iniciales, %,d operaciones medidas en %.2f s (%,.0f ops/s)%n",
+                System.getProperty(RepositorioTareas.PROPIEDAD_REPOSITORIO, "json"), iniciales,
+                operaciones - calentamiento, segundos, (operaciones - calentamiento) / segundos);
+        System.out.printf("%-11s %8s %10s %10s %10s %10s %10s%n",
+                "operacion", "cantidad", "ops/s", "p50 us", "p90 us", "p99 us", "max us");
+        for (Operacion op : Operacion.values()) {
+            int n = cantidades.get(op);
+            if (n == 0) {
+                continue;
+            }
+            long[] valores = Arrays.copyOf(latencias.get(op), n);
+            Arrays.sort(valores);
+            long total = Arrays.stream(valores).sum();
+            System.out.printf("%-11s %,8d %,10.0f %10.1f %10.1f %10.1f %10.1f%n", op.name().toLowerCase(), n,
+                    n / (total / 1e9), percentil(valores, 50), percentil(valores, 90), percentil(valores, 99),
+                    valores[n - 1] / 1e3);
+        }
+        if (repo instanceof AutoCloseable cerrable) {
+            cerrable.close();
+        }
+    }
+
+    /** Ejecuta una operación de la carga de trabajo. */
+    private static void ejecutar(Operacion op, TareaService service, GeneradorTareas generador, List<Integer> ids) {
+        switch (op) {
+            case AGREGAR -> {
+                List<Tarea> creadas = service.agregarTareas(List.of(generador.tareaNueva()));
+                creadas.forEach(t -> ids.add(t.getId()));
+            }
+            case ACTUALIZAR -> service.actualizarTarea(generador.edicion(ids.get(generador.entero(ids.size()))));
+            case ELIMINAR -> {
+                // Se intercambia con el último para quitarlo de la lista en O(1)
+                int posicion = generador.entero(ids.size());
+                int id = ids.get(posicion);
+                ids.set(posicion, ids.get(ids.size() - 1));
+                ids.remove(ids.size() - 1);
+                service.eliminarTarea(id);
+            }
+            case FILTRAR -> {
+                switch (generador.entero(3)) {
+                    case 0 -> service.filtrarPorEstado(generador.estado());
+                    case 1 -> service.filtrarPorPrioridad(generador.prioridad());
+                    default -> service.filtrarPorFecha(generador.fechaCercana());
+                }
+            }
+            case BUSCAR -> service.buscarPorPalabraClave(generador.palabra());
+        }
+    }
+
+    /** Genera la secuencia de operaciones según los pesos de la mezcla. */
+    private static Operacion[] secuencia(Map<Operacion, Integer> mezcla, int operaciones, GeneradorTareas generador) {
+        int totalPesos = mezcla.values().stream().mapToInt(Integer::intValue).sum();
+        Operacion[] secuencia = new Operacion[operaciones];
+        for (int i = 0; i < operaciones; i++) {
+            int r = generador.entero(totalPesos);
+            for (Map.Entry<Operacion, Integer> e : mezcla.entrySet()) {
+                r -= e.getValue();
+                if (r < 0) {
+                    secuencia[i] = e.getKey();
+                    break;
+                }
+            }
+        }
+        return secuencia;
+    }
+
+    /** Lee una mezcla con la forma {@code agregar=20,buscar=10}. */
+    private static Map<Operacion, Integer> leerMezcla(String texto) {
+        Map<Operacion, Integer> mezcla = new LinkedHashMap<>();
+        for (String parte : texto.split(",")) {
+            String[] claveValor = parte.split("=");
+            mezcla.put(Operacion.valueOf(claveValor[0].trim().toUpperCase()), Integer.parseInt(claveValor[1].trim()));
+        }
+        return mezcla;
+    }
+
+    private static RepositorioTareas crearRepositorio(Path dir) {
+        return switch (System.getProperty(RepositorioTareas.PROPIEDAD_REPOSITORIO, "json")) {
+            case "h2" -> new JdbcTareaRepository(dir.resolve("tareas"));
+            default -> new TareaRepository(dir.resolve("tareas.json").toString());
+        };
+    }
+
+    /** Percentil por el método del rango más cercano, en microsegundos. */
+    private static double percentil(long[] ordenados, double p) {
+        int indice = (int) Math.ceil(p / 100 * ordenados.length) - 1;
+        return ordenados[Math.max(0, indice)] / 1e3;
+    }
+}
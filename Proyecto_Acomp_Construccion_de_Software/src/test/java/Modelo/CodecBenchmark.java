@@ -0,0 +1,54 @@
+package Modelo;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * Compara el rendimiento de codificación y decodificación de los códecs de tareas.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.CodecBenchmark -Dexec.args="100000"
+ * </pre>
+ */
+public class CodecBenchmark {
+
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Tarea> tareas = new GeneradorTareas(42).generar(cantidad);
+
+        System.out.printf("%,d tareas%n", cantidad);
+        System.out.printf("%-10s %12s %14s %14s%n", "codec", "bytes", "codificar", "decodificar");
+        for (String nombre : List.of(GsonTareaCodec.NOMBRE, StreamingTareaCodec.NOMBRE, StreamingTareaCodec.NOMBRE_COMPACTO)) {
+            TareaCodec codec = TareaCodec.porNombre(nombre);
+            String json = codificar(codec, tareas);
+
+            for (int i = 0; i < 2; i++) { // calentamiento
+                codificar(codec, tareas);
+                codec.leer(new StringReader(json));
+            }
+            long inicio = System.nanoTime();
+            for (int i = 0; i < REPETICIONES; i++) {
+                codificar(codec, tareas);
+            }
+            double msCodificar = (System.nanoTime() - inicio) / 1e6 / REPETICIONES;
+
+            inicio = System.nanoTime();
+            for (int i = 0; i < REPETICIONES; i++) {
+                codec.leer(new StringReader(json));
+            }
+            double msDecodificar = (System.nanoTime() - inicio) / 1e6 / REPETICIONES;
+
+            System.out.printf("%-10s %,10d B %11.1f ms %11.1f ms%n", nombre, json.length(), msCodificar, msDecodificar);
+        }
+    }
+
+    private static String codificar(TareaCodec codec, List<Tarea> tareas) throws Exception {
+        StringWriter salida = new StringWriter();
+        codec.escribir(tareas, salida);
+        return salida.toString();
+    }
+}
@@ -0,0 +1,81 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnasTareasTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 10, 19);
+
+    private static List<Tarea> tareas() {
+        List<Tarea> tareas = new ArrayList<>(new GeneradorTareas(3, HOY).generar(5_003));
+        // Valores null, que solo cumplen las condiciones que no se restringen
+        tareas.add(new Tarea(900_001, "Sin datos", "", null, null, null));
+        tareas.add(new Tarea(900_002, "Sin fecha", "", null, Prioridad.ALTA, Estado.PENDIENTE));
+        return tareas;
+    }
+
+    private static List<FiltroTareas> filtros() {
+        return List.of(
+                FiltroTareas.todas(),
+                FiltroTareas.todas().conEstados(Estado.PENDIENTE),
+                FiltroTareas.todas().conEstados(Estado.PENDIENTE, Estado.EN_PROGRESO).conPrioridades(Prioridad.ALTA),
+                FiltroTareas.todas().venceEntre(HOY, HOY.plusDays(14)),
+                FiltroTareas.todas().conPrioridades(Prioridad.BAJA, Prioridad.MEDIA).venceEntre(HOY.minusDays(30), HOY),
+                FiltroTareas.todas().conEstados());
+    }
+
+    private static int[] esperado(List<Tarea> tareas, FiltroTareas filtro) {
+        return tareas.stream().filter(filtro::acepta).mapToInt(Tarea::getId).toArray();
+    }
+
+    @Test
+    void testLaEvaluacionVectorialYLaEscalarCoincidenConElFiltroPorTarea() {
+        List<Tarea> tareas = tareas();
+        ColumnasTareas vectorial = ColumnasTareas.construir(tareas);
+        ColumnasTareas escalar = new ColumnasTareas(new EvaluadorEscalar());
+        tareas.forEach(escalar::registrar);
+        // Sin --add-modules jdk.incubator.vector (por ejemplo, desde un IDE) ambas son escalares
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            assertTrue(ColumnasTareas.getEvaluador().startsWith("vectorial"), ColumnasTareas.getEvaluador());
+        }
+
+        for (FiltroTareas filtro : filtros()) {
+            int[] ids = esperado(tareas, filtro);
+            assertArrayEquals(ids, vectorial.seleccionar(filtro));
+            assertArrayEquals(ids, escalar.seleccionar(filtro));
+            assertEquals(ids.length, vectorial.contar(filtro));
+        }
+        assertFalse(FiltroTareas.todas().conEstados(Estado.PENDIENTE).acepta(tareas.get(tareas.size() - 2)));
+        assertTrue(FiltroTareas.todas().conPrioridades(Prioridad.ALTA).acepta(tareas.get(tareas.size() - 1)));
+    }
+
+    @Test
+    void testActualizarYQuitarFilasMantieneLaSeleccion() {
+        List<Tarea> tareas = tareas();
+        ColumnasTareas columnas = ColumnasTareas.construir(tareas);
+        List<Tarea> presentes = new ArrayList<>(tareas);
+        for (int i = 0; i < tareas.size(); i += 2) {
+            columnas.quitar(tareas.get(i).getId()); // más de la mitad: se compacta
+            presentes.remove(tareas.get(i));
+        }
+        Tarea cambiada = presentes.get(10);
+        cambiada.setEstado(Estado.COMPLETADA);
+        columnas.registrar(cambiada);
+        columnas.registrar(tareas.get(0)); // vuelve una quitada
+        presentes.add(tareas.get(0));
+        presentes.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+
+        assertEquals(presentes.size(), columnas.getCantidad());
+        for (FiltroTareas filtro : filtros()) {
+            int[] obtenidos = columnas.seleccionar(filtro).clone();
+            java.util.Arrays.sort(obtenidos);
+            assertArrayEquals(esperado(presentes, filtro), obtenidos);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package Modelo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Compara el tiempo de escritura, el tiempo de carga y el tamaño de {@code tareas.json} con cada
+ * formato y nivel de {@link Compresion}. La carga sin comprimir usa el cargador paralelo si el
+ * archivo supera el umbral, igual que el repositorio.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.CompresionBenchmark -Dexec.args="200000"
+ * </pre>
+ * El primer argumento es la cantidad de tareas a generar y el segundo, opcional, el códec.
+ */
+public class CompresionBenchmark {
+
+    private static final int REPETICIONES = 5;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        TareaCodec codec = TareaCodec.porNombre(args.length > 1 ? args[1] : GsonTareaCodec.NOMBRE);
+        List<Tarea> tareas = new GeneradorTareas(42).generar(cantidad);
+        Path dir = Files.createTempDirectory("tareas-bench");
+        Path archivo = dir.resolve("tareas.json");
+
+        List<Compresion> configuraciones = List.of(Compresion.NINGUNA,
+                Compresion.gzip(Deflater.BEST_SPEED), Compresion.gzip(6), Compresion.gzip(Deflater.BEST_COMPRESSION),
+                Compresion.zlib(Deflater.BEST_SPEED), Compresion.zlib(6), Compresion.zlib(Deflater.BEST_COMPRESSION));
+
+        System.out.printf("%,d tareas, códec %s%n", cantidad, codec.nombre());
+        System.out.printf("%-10s %14s %8s %12s %12s%n", "compresión", "bytes", "razón", "escribir", "cargar");
+        long sinComprimir = 0;
+        for (Compresion compresion : configuraciones) {
+            TareaRepository repo = new TareaRepository(archivo.toString(), codec, compresion);
+            double msEscribir = medir(() -> repo.guardarEnArchivo(tareas));
+            long bytes = Files.size(archivo);
+            if (compresion.formato() == Compresion.Formato.NINGUNA) {
+                sinComprimir = bytes;
+            }
+            double msCargar = medir(() -> {
+                if (repo.leerArchivo().size() != cantidad) {
+                    throw new IllegalStateException("La carga no devolvió todas las tareas");
+                }
+            });
+            String nombre = compresion.formato() == Compresion.Formato.NINGUNA
+                    ? "ninguna" : compresion.formato().name().toLowerCase() + ":" + compresion.nivel();
+            System.out.printf("%-10s %,12d B %7.1fx %9.1f ms %9.1f ms%n",
+                    nombre, bytes, (double) sinComprimir / bytes, msEscribir, msCargar);
+        }
+
+        try (var archivos = Files.list(dir)) {
+            for (Path p : archivos.toList()) {
+                Files.delete(p);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /** Ejecuta la operación varias veces tras un calentamiento y devuelve el tiempo medio en ms. */
+    private static double medir(Operacion operacion) throws Exception {
+        for (int i = 0; i < 2; i++) {
+            operacion.ejecutar();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            operacion.ejecutar();
+        }
+        return (System.nanoTime() - inicio) / 1e6 / REPETICIONES;
+    }
+
+    @FunctionalInterface
+    private interface Operacion {
+        void ejecutar() throws Exception;
+    }
+}
@@ -0,0 +1,79 @@
+package Modelo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Compara el recorrido secuencial con el paralelo de {@link ConsultaParalela} para distintos
+ * tamaños de lista, con un criterio caro (buscar una palabra en el título y la descripción, como
+ * {@link TareaService#buscarPorPalabraClave(String)} sin índice) y uno barato (comparar el
+ * estado). Indica en cada caso el primer tamaño en el que el paralelo resulta más rápido, que es
+ * el dato con el que se elige {@link ConsultaParalela#UMBRAL_POR_DEFECTO}.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.ConsultaParalelaBenchmark -Dexec.args="8"
+ * </pre>
+ * El argumento es el paralelismo; por defecto, la cantidad de procesadores.
+ */
+public class ConsultaParalelaBenchmark {
+
+    private static final int[] TAMANIOS = {1_000, 5_000, 10_000, 20_000, 50_000, 100_000, 250_000, 500_000, 1_000_000};
+    private static final int REPETICIONES = 15;
+
+    public static void main(String[] args) {
+        int paralelismo = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int maximo = TAMANIOS[TAMANIOS.length - 1];
+        List<Tarea> todas = new GeneradorTareas(42).generar(maximo);
+        ConsultaParalela secuencial = new ConsultaParalela(1, 0);
+        ConsultaParalela paralela = new ConsultaParalela(Math.max(2, paralelismo), 0);
+
+        Predicate<Tarea> texto = t -> contiene(t.getTitulo(), "revisión") || contiene(t.getDescripcion(), "revisión");
+        Predicate<Tarea> estado = t -> t.getEstado() == Estado.PENDIENTE;
+        System.out.printf("%d procesadores, paralelismo %d%n", Runtime.getRuntime().availableProcessors(), paralela.getParalelismo());
+        medir("texto", todas, texto, secuencial, paralela);
+        medir("estado", todas, estado, secuencial, paralela);
+        paralela.cerrar();
+    }
+
+    private static void medir(String nombre, List<Tarea> todas, Predicate<Tarea> criterio,
+                              ConsultaParalela secuencial, ConsultaParalela paralela) {
+        System.out.printf("%ncriterio %s%n%10s %14s %14s %8s%n", nombre, "tareas", "secuencial", "paralelo", "mejora");
+        mediana(secuencial, todas, criterio); // calentamiento con la lista completa
+        mediana(paralela, todas, criterio);
+        int cruce = -1;
+        for (int tamanio : TAMANIOS) {
+            List<Tarea> datos = todas.subList(0, tamanio);
+            double seq = mediana(secuencial, datos, criterio);
+            double par = mediana(paralela, datos, criterio);
+            // El cruce es el tamaño desde el cual el paralelo gana en todos los siguientes
+            if (par >= seq || !paralela.enParalelo(tamanio)) {
+                cruce = -1;
+            } else if (cruce < 0) {
+                cruce = tamanio;
+            }
+            System.out.printf("%,10d %11.3f ms %11.3f ms %7.2fx%n", tamanio, seq, par, seq / par);
+        }
+        System.out.println(cruce < 0 ? "el paralelo no fue más rápido en ningún tamaño"
+                : String.format("el paralelo es más rápido desde %,d tareas", cruce));
+    }
+
+    private static double mediana(ConsultaParalela consultas, List<Tarea> datos, Predicate<Tarea> criterio) {
+        for (int i = 0; i < 5; i++) { // calentamiento
+            consultas.filtrar(datos, criterio);
+        }
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            consultas.filtrar(datos, criterio);
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2] / 1e6;
+    }
+
+    private static boolean contiene(String texto, String palabra) {
+        return texto != null && texto.toLowerCase().contains(palabra);
+    }
+}
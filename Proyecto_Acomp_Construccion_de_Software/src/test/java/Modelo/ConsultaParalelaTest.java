@@ -0,0 +1,28 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsultaParalelaTest {
+
+    @Test
+    void testElRecorridoParaleloConservaElOrden() {
+        List<Integer> datos = IntStream.range(0, 100_000).boxed().toList();
+        ConsultaParalela paralela = new ConsultaParalela(4, 10_000);
+        try {
+            assertTrue(paralela.enParalelo(datos.size()));
+            assertFalse(paralela.enParalelo(9_999));
+            List<Integer> esperado = datos.stream().filter(n -> n % 7 == 3).toList();
+            assertEquals(esperado, paralela.filtrar(datos, n -> n % 7 == 3));
+            assertEquals(List.of(1, 2), paralela.filtrar(List.of(1, 2, 3), n -> n < 3));
+        } finally {
+            paralela.cerrar();
+        }
+        assertFalse(new ConsultaParalela(1, 0).enParalelo(1_000_000));
+        assertThrows(IllegalArgumentException.class, () -> new ConsultaParalela(0, 0));
+    }
+}
@@ -0,0 +1,74 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Mide cuántas filas por segundo evalúa cada {@link EvaluadorColumnas} con filtros compuestos
+ * sobre columnas de estado, prioridad y fecha con la distribución de {@link GeneradorTareas}.
+ * Se ejecuta en un solo hilo, así que el resultado es por núcleo.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con el módulo de vectores:
+ * <pre>
+ * MAVEN_OPTS="--add-modules jdk.incubator.vector" mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Modelo.EscaneoColumnasBenchmark -Dexec.args="20000000"
+ * </pre>
+ */
+public class EscaneoColumnasBenchmark {
+
+    private static final int REPETICIONES = 21;
+
+    public static void main(String[] args) throws Exception {
+        int filas = args.length > 0 ? Integer.parseInt(args[0]) : 20_000_000;
+        LocalDate hoy = LocalDate.now();
+        SplittableRandom random = new SplittableRandom(42);
+        byte[] estados = new byte[filas];
+        byte[] prioridades = new byte[filas];
+        int[] fechas = new int[filas];
+        for (int i = 0; i < filas; i++) {
+            int r = random.nextInt(100);
+            estados[i] = (byte) (r < 45 ? 0 : r < 65 ? 1 : 2);
+            r = random.nextInt(100);
+            prioridades[i] = (byte) (r < 20 ? 0 : r < 70 ? 1 : 2);
+            fechas[i] = (int) hoy.toEpochDay() + random.nextInt(-90, 60);
+        }
+
+        FiltroTareas[] filtros = {
+                FiltroTareas.todas().conEstados(Estado.PENDIENTE),
+                FiltroTareas.todas().conEstados(Estado.PENDIENTE, Estado.EN_PROGRESO).conPrioridades(Prioridad.ALTA),
+                FiltroTareas.todas().conEstados(Estado.PENDIENTE, Estado.EN_PROGRESO).conPrioridades(Prioridad.ALTA)
+                        .venceEntre(hoy, hoy.plusDays(14)),
+        };
+        String[] nombres = {"estado", "estado+prioridad", "estado+prioridad+fecha"};
+        EvaluadorColumnas[] evaluadores = {new EvaluadorEscalar(), null};
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            evaluadores[1] = (EvaluadorColumnas) Class.forName("Modelo.EvaluadorVectorial").getDeclaredConstructor().newInstance();
+        }
+
+        System.out.printf("%,d filas%n%-26s %-26s %10s %14s %10s%n", filas, "filtro", "evaluador", "mediana", "filas/s", "selección");
+        long[] seleccion = new long[(filas + 63) >>> 6];
+        for (int f = 0; f < filtros.length; f++) {
+            for (EvaluadorColumnas evaluador : evaluadores) {
+                if (evaluador == null) {
+                    continue;
+                }
+                long[] tiempos = new long[REPETICIONES];
+                for (int i = -5; i < REPETICIONES; i++) { // las primeras 5 son calentamiento
+                    long inicio = System.nanoTime();
+                    evaluador.evaluar(filtros[f], estados, prioridades, fechas, filas, seleccion);
+                    if (i >= 0) {
+                        tiempos[i] = System.nanoTime() - inicio;
+                    }
+                }
+                Arrays.sort(tiempos);
+                long mediana = tiempos[REPETICIONES / 2];
+                long seleccionadas = Arrays.stream(seleccion).map(Long::bitCount).sum();
+                System.out.printf("%-26s %-26s %7.2f ms %,11.0f M %,10d%n", nombres[f], evaluador.nombre(),
+                        mediana / 1e6, filas / (mediana / 1e9) / 1e6, seleccionadas);
+            }
+        }
+        if (evaluadores[1] == null) {
+            System.out.println("jdk.incubator.vector no está disponible: solo se midió la evaluación escalar");
+        }
+    }
+}
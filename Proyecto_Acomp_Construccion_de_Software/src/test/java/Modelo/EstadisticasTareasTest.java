@@ -0,0 +1,117 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EstadisticasTareasTest {
+
+    /** Reloj que la prueba puede adelantar. */
+    private static final class RelojMovil extends Clock {
+        private Instant ahora;
+
+        private RelojMovil(Instant ahora) {
+            this.ahora = ahora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zona) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+
+    private static Tarea tarea(int id, LocalDate fecha, Prioridad prioridad, Estado estado) {
+        return new Tarea(id, "Tarea " + id, "", fecha, prioridad, estado);
+    }
+
+    @Test
+    public void testConteosSeActualizanConCadaCambio() {
+        RelojMovil reloj = new RelojMovil(Instant.parse("2030-01-07T10:00:00Z")); // lunes
+        EstadisticasTareas estadisticas = new EstadisticasTareas(reloj);
+        LocalDate hoy = LocalDate.of(2030, 1, 7);
+
+        estadisticas.reiniciar(List.of(
+                tarea(1, hoy, Prioridad.ALTA, Estado.PENDIENTE),
+                tarea(2, hoy.plusDays(1), Prioridad.ALTA, Estado.EN_PROGRESO),
+                tarea(3, hoy.plusDays(8), Prioridad.BAJA, Estado.PENDIENTE),
+                tarea(4, hoy.minusDays(2), Prioridad.MEDIA, Estado.COMPLETADA)));
+
+        assertEquals(4, estadisticas.getTotal());
+        assertEquals(1, estadisticas.contar(Estado.PENDIENTE, Prioridad.ALTA));
+        assertEquals(2, estadisticas.contar(Prioridad.ALTA));
+        assertEquals(0, estadisticas.getVencidas());
+        assertArrayEquals(new int[] {2, 1, 0}, estadisticas.histogramaSemanal(hoy, 3));
+
+        // Cambiar la prioridad y completar resta la contribución anterior
+        estadisticas.registrar(tarea(2, hoy.plusDays(1), Prioridad.BAJA, Estado.COMPLETADA));
+        assertEquals(0, estadisticas.contar(Estado.EN_PROGRESO));
+        assertEquals(1, estadisticas.contar(Estado.COMPLETADA, Prioridad.BAJA));
+        assertArrayEquals(new int[] {1, 1, 0}, estadisticas.histogramaSemanal(hoy, 3));
+
+        estadisticas.quitar(3);
+        assertEquals(3, estadisticas.getTotal());
+        assertArrayEquals(new int[] {1, 0, 0}, estadisticas.histogramaSemanal(hoy, 3));
+    }
+
+    @Test
+    public void testVencidasAvanzanConElDia() {
+        RelojMovil reloj = new RelojMovil(Instant.parse("2030-01-07T10:00:00Z"));
+        EstadisticasTareas estadisticas = new EstadisticasTareas(reloj);
+        LocalDate hoy = LocalDate.of(2030, 1, 7);
+        estadisticas.registrar(tarea(1, hoy, Prioridad.ALTA, Estado.PENDIENTE));
+        estadisticas.registrar(tarea(2, hoy.plusDays(2), Prioridad.ALTA, Estado.PENDIENTE));
+        estadisticas.registrar(tarea(3, hoy, Prioridad.ALTA, Estado.COMPLETADA));
+        assertEquals(0, estadisticas.getVencidas());
+
+        reloj.ahora = Instant.parse("2030-01-08T00:00:00Z");
+        assertEquals(1, estadisticas.getVencidas());
+
+        reloj.ahora = Instant.parse("2030-01-20T00:00:00Z");
+        assertEquals(2, estadisticas.getVencidas());
+
+        // Completar una tarea vencida la descuenta
+        estadisticas.registrar(tarea(1, hoy, Prioridad.ALTA, Estado.COMPLETADA));
+        assertEquals(1, estadisticas.getVencidas());
+    }
+
+    @Test
+    public void testCoincideConLosFiltrosDelServicio(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        service.agregarTareas(List.of(
+                new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea("Dos", "", manana, Prioridad.MEDIA, Estado.PENDIENTE),
+                new Tarea("Tres", "", manana, Prioridad.BAJA, Estado.EN_PROGRESO)));
+        service.actualizarTareas(t -> t.getPrioridad() == Prioridad.ALTA, t -> t.setEstado(Estado.COMPLETADA));
+        Tarea dos = service.filtrarPorPrioridad(Prioridad.MEDIA).get(0);
+        service.eliminarTarea(dos.getId());
+
+        EstadisticasTareas estadisticas = service.getEstadisticas();
+        for (Estado estado : Estado.values()) {
+            assertEquals(service.filtrarPorEstado(estado).size(), estadisticas.contar(estado));
+        }
+        for (Prioridad prioridad : Prioridad.values()) {
+            assertEquals(service.filtrarPorPrioridad(prioridad).size(), estadisticas.contar(prioridad));
+        }
+        assertEquals(2, estadisticas.resumen().total());
+    }
+}
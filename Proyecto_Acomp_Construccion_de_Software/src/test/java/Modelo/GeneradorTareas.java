@@ -0,0 +1,189 @@
+package Modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Genera tareas sintéticas reproducibles para pruebas de carga y benchmarks.
+ * <p>
+ * Con la misma semilla y la misma fecha de referencia siempre produce las mismas tareas. Las
+ * distribuciones imitan un uso real:
+ * <ul>
+ *   <li>Prioridad: 20% alta, 50% media, 30% baja.</li>
+ *   <li>Estado: 45% pendiente, 20% en progreso, 35% completada.</li>
+ *   <li>Fecha: las abiertas vencen casi siempre en las próximas semanas (distribución
+ *       exponencial con media de 14 días) y un 10% ya está vencida; las completadas vencieron
+ *       en los últimos 90 días.</li>
+ *   <li>Título de 2 a 8 palabras; descripción vacía en el 20% de los casos y, si no, con una
+ *       cantidad de palabras log-normal (mediana 12, máximo 200).</li>
+ * </ul>
+ * Las palabras salen de un vocabulario fijo con acentos, para ejercitar la codificación UTF-8 y
+ * las búsquedas.
+ */
+public class GeneradorTareas {
+
+    /** Vocabulario del que se toman las palabras de títulos y descripciones. */
+    static final String[] VOCABULARIO = {
+            "revisar", "informe", "reunión", "cliente", "presupuesto", "enviar", "correo", "llamar",
+            "proveedor", "factura", "diseño", "pruebas", "versión", "despliegue", "documentación",
+            "análisis", "datos", "equipo", "planificación", "sprint", "error", "corrección", "módulo",
+            "interfaz", "base", "migración", "contrato", "legal", "compras", "inventario", "pedido",
+            "entrega", "capacitación", "evaluación", "auditoría", "seguridad", "respaldo", "servidor",
+            "red", "licencia", "renovar", "actualizar", "preparar", "presentación", "trimestral",
+            "anual", "semanal", "urgente", "pendiente", "aprobación", "firma", "revisión", "código",
+            "calidad", "métricas", "objetivos", "campaña", "marketing", "ventas", "soporte"
+    };
+
+    private final SplittableRandom random;
+    private final LocalDate hoy;
+
+    /**
+     * Crea un generador con una semilla y la fecha actual como referencia.
+     *
+     * @param semilla la semilla del generador
+     */
+    public GeneradorTareas(long semilla) {
+        this(semilla, LocalDate.now());
+    }
+
+    /**
+     * Crea un generador.
+     *
+     * @param semilla la semilla del generador
+     * @param hoy la fecha a partir de la cual se calculan los vencimientos
+     */
+    public GeneradorTareas(long semilla, LocalDate hoy) {
+        this.random = new SplittableRandom(semilla);
+        this.hoy = hoy;
+    }
+
+    /**
+     * Genera un conjunto de datos con IDs consecutivos desde 1, listo para guardar en un
+     * repositorio. Puede incluir tareas vencidas y completadas.
+     *
+     * @param cantidad la cantidad de tareas
+     * @return las tareas generadas
+     */
+    public List<Tarea> generar(int cantidad) {
+        List<Tarea> tareas = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            Estado estado = estado();
+            tareas.add(new Tarea(i, titulo(), descripcion(), fecha(estado), prioridad(), estado));
+        }
+        return tareas;
+    }
+
+    /**
+     * Genera los datos de una tarea que {@link TareaService} acepta como nueva (fecha de hoy
+     * en adelante). No consume IDs del contador.
+     *
+     * @return la tarea, con ID 0
+     */
+    public Tarea tareaNueva() {
+        Estado estado = random.nextInt(100) < 80 ? Estado.PENDIENTE : Estado.EN_PROGRESO;
+        return new Tarea(0, titulo(), descripcion(), hoy.plusDays(diasHastaVencer()), prioridad(), estado);
+    }
+
+    /**
+     * Genera datos nuevos para una tarea existente, como los que produciría una edición.
+     *
+     * @param id el ID de la tarea editada
+     * @return la tarea con los nuevos datos
+     */
+    public Tarea edicion(int id) {
+        Estado estado = estado();
+        return new Tarea(id, titulo(), descripcion(), fecha(estado), prioridad(), estado);
+    }
+
+    /**
+     * Elige una palabra del vocabulario, para usarla como término de búsqueda.
+     *
+     * @return una palabra
+     */
+    public String palabra() {
+        return VOCABULARIO[random.nextInt(VOCABULARIO.length)];
+    }
+
+    /**
+     * Elige una fecha de vencimiento cercana, para usarla como filtro.
+     *
+     * @return una fecha entre hoy y dentro de 30 días
+     */
+    public LocalDate fechaCercana() {
+        return hoy.plusDays(random.nextInt(31));
+    }
+
+    /**
+     * Elige una prioridad con la distribución del generador.
+     *
+     * @return la prioridad
+     */
+    public Prioridad prioridad() {
+        int r = random.nextInt(100);
+        return r < 20 ? Prioridad.ALTA : r < 70 ? Prioridad.MEDIA : Prioridad.BAJA;
+    }
+
+    /**
+     * Elige un estado con la distribución del generador.
+     *
+     * @return el estado
+     */
+    public Estado estado() {
+        int r = random.nextInt(100);
+        return r < 45 ? Estado.PENDIENTE : r < 65 ? Estado.EN_PROGRESO : Estado.COMPLETADA;
+    }
+
+    /**
+     * Devuelve un número entero uniforme en {@code [0, limite)}.
+     *
+     * @param limite el límite exclusivo
+     * @return el número
+     */
+    public int entero(int limite) {
+        return random.nextInt(limite);
+    }
+
+    private LocalDate fecha(Estado estado) {
+        if (estado == Estado.COMPLETADA) {
+            return hoy.minusDays(random.nextInt(90));
+        }
+        if (random.nextInt(100) < 10) {
+            return hoy.minusDays(1 + random.nextInt(30));
+        }
+        return hoy.plusDays(diasHastaVencer());
+    }
+
+    private int diasHastaVencer() {
+        return (int) Math.min(365, -14 * Math.log(1 - random.nextDouble()));
+    }
+
+    private String titulo() {
+        return frase(2 + random.nextInt(7), true);
+    }
+
+    private String descripcion() {
+        if (random.nextInt(100) < 20) {
+            return "";
+        }
+        // Log-normal con mediana 12 palabras
+        double normal = random.nextGaussian();
+        int palabras = (int) Math.max(1, Math.min(200, Math.round(12 * Math.exp(0.8 * normal))));
+        return frase(palabras, false);
+    }
+
+    private String frase(int palabras, boolean mayuscula) {
+        StringBuilder sb = new StringBuilder(palabras * 9);
+        for (int i = 0; i < palabras; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(palabra());
+        }
+        if (mayuscula) {
+            sb.setCharAt(0, Character.toUpperCase(sb.charAt(0)));
+        }
+        return sb.toString();
+    }
+}
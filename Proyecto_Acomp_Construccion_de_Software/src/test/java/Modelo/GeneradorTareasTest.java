@@ -0,0 +1,42 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneradorTareasTest {
+
+    private static final LocalDate HOY = LocalDate.of(2030, 3, 1);
+
+    @Test
+    public void testMismaSemillaMismosDatos() {
+        List<Tarea> a = new GeneradorTareas(7, HOY).generar(500);
+        List<Tarea> b = new GeneradorTareas(7, HOY).generar(500);
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(a.get(i).getId(), b.get(i).getId());
+            assertTrue(a.get(i).tieneMismosDatos(b.get(i)));
+        }
+        assertFalse(a.get(0).tieneMismosDatos(new GeneradorTareas(8, HOY).generar(1).get(0)));
+    }
+
+    @Test
+    public void testDistribuciones() {
+        List<Tarea> tareas = new GeneradorTareas(1, HOY).generar(20_000);
+        double completadas = tareas.stream().filter(t -> t.getEstado() == Estado.COMPLETADA).count() / 20_000.0;
+        double altas = tareas.stream().filter(t -> t.getPrioridad() == Prioridad.ALTA).count() / 20_000.0;
+        assertEquals(0.35, completadas, 0.02);
+        assertEquals(0.20, altas, 0.02);
+        assertTrue(tareas.stream().allMatch(t -> !t.getTitulo().isBlank()));
+        // Las completadas nunca vencen en el futuro
+        assertTrue(tareas.stream().filter(t -> t.getEstado() == Estado.COMPLETADA)
+                .noneMatch(t -> t.getFechaVencimiento().isAfter(HOY)));
+
+        GeneradorTareas generador = new GeneradorTareas(1, HOY);
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(generador.tareaNueva().getFechaVencimiento().isBefore(HOY));
+        }
+    }
+}
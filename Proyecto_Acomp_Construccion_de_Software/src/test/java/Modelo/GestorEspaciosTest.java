@@ -0,0 +1,119 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GestorEspaciosTest {
+
+    private static GestorEspacios gestor(Path dir, long presupuesto, AtomicInteger aperturas) {
+        return new GestorEspacios(dir, presupuesto, carpeta -> {
+            aperturas.incrementAndGet();
+            return new TareaRepository(carpeta.resolve("tareas.json").toString());
+        });
+    }
+
+    private static void agregar(TareaService service, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            service.agregarTarea(new Tarea("Tarea " + i, "Descripción", LocalDate.now().plusDays(1),
+                    Prioridad.MEDIA, Estado.PENDIENTE));
+        }
+    }
+
+    @Test
+    void testCargaAlUsarYDescargaGuardandoElPuntoDeControl(@TempDir Path dir) {
+        AtomicInteger aperturas = new AtomicInteger();
+        GestorEspacios espacios = gestor(dir, 0, aperturas);
+        assertEquals(List.of(GestorEspacios.PRINCIPAL), espacios.nombres());
+        assertEquals(0, aperturas.get());
+
+        TareaService alfa = espacios.activar("alfa");
+        agregar(alfa, 3);
+        assertTrue(alfa.tienePuntoControlPendiente());
+        assertSame(alfa, espacios.activar("alfa"));
+        assertEquals(1, aperturas.get());
+
+        // Sin presupuesto, el espacio que deja de estar activo se descarga enseguida
+        TareaService beta = espacios.activar("beta");
+        assertEquals(List.of("beta"), espacios.getCargados());
+        assertTrue(Files.exists(dir.resolve("alfa").resolve("tareas-indice.bin")), "Debe guardarse el punto de control");
+        assertEquals(List.of(GestorEspacios.PRINCIPAL, "alfa", "beta"), espacios.nombres());
+
+        TareaService alfaOtraVez = espacios.activar("alfa");
+        assertNotSame(alfa, alfaOtraVez);
+        assertEquals(3, aperturas.get());
+        assertEquals(3, alfaOtraVez.obtenerTodas().size());
+        assertFalse(alfaOtraVez.tienePuntoControlPendiente(), "Los índices deben leerse del punto de control");
+        assertTrue(beta.obtenerTodas().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> espacios.activar("../fuera"));
+        espacios.close();
+        assertTrue(espacios.getCargados().isEmpty());
+    }
+
+    @Test
+    void testDescargaElMenosUsadoQueNoEstaActivo(@TempDir Path dir) {
+        long memoriaPorEspacio;
+        try (GestorEspacios sinLimite = gestor(dir, Long.MAX_VALUE, new AtomicInteger())) {
+            for (String nombre : List.of("a", "b", "c")) {
+                try (GestorEspacios.Prestamo prestamo = sinLimite.obtener(nombre)) {
+                    agregar(prestamo.getService(), 10);
+                }
+            }
+            try (GestorEspacios.Prestamo prestamo = sinLimite.obtener("a")) {
+                memoriaPorEspacio = prestamo.getService().estimarMemoria();
+            }
+            assertEquals(3 * memoriaPorEspacio, sinLimite.getMemoriaEstimada());
+        }
+
+        GestorEspacios espacios = gestor(dir, 3 * memoriaPorEspacio - 1, new AtomicInteger());
+        espacios.activar("a");
+        espacios.activar("b");
+        espacios.activar("c");
+        assertEquals(List.of("b", "c"), espacios.getCargados());
+
+        espacios.activar("b");
+        espacios.activar("a"); // "c" es el menos usado de los inactivos
+        assertEquals(List.of("b", "a"), espacios.getCargados());
+        assertEquals("a", espacios.getActivo());
+
+        espacios.obtener("c").close(); // el activo se conserva aunque sea el menos usado
+        assertEquals(List.of("a", "c"), espacios.getCargados());
+        assertTrue(espacios.getMemoriaEstimada() <= espacios.getPresupuesto());
+    }
+
+    @Test
+    void testUnEspacioPrestadoNoSeDescargaHastaDevolverlo(@TempDir Path dir) {
+        AtomicInteger aperturas = new AtomicInteger();
+        GestorEspacios espacios = gestor(dir, 0, aperturas);
+        GestorEspacios.Prestamo prestamo = espacios.obtener("alfa");
+        TareaService alfa = prestamo.getService();
+        agregar(alfa, 2);
+
+        // Sin presupuesto, solo el activo y los prestados siguen cargados
+        espacios.activar("beta");
+        espacios.activar("gamma");
+        assertEquals(List.of("alfa", "gamma"), espacios.getCargados());
+        try (GestorEspacios.Prestamo otro = espacios.obtener("alfa")) {
+            assertSame(alfa, otro.getService(), "No debe cargarse un segundo servicio sobre los mismos archivos");
+        }
+        assertTrue(espacios.estaCargado("alfa"), "Sigue prestado una vez");
+        assertEquals(3, aperturas.get());
+
+        prestamo.close();
+        prestamo.close();
+        assertEquals(List.of("gamma"), espacios.getCargados());
+        assertThrows(IllegalStateException.class, prestamo::getService);
+        try (GestorEspacios.Prestamo otra = espacios.obtener("alfa")) {
+            assertEquals(2, otra.getService().obtenerTodas().size());
+        }
+        assertEquals(4, aperturas.get());
+    }
+}
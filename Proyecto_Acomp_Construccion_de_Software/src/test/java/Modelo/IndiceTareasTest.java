@@ -0,0 +1,131 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceTareasTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testGuardarYCargarConservaLosIndices() throws IOException {
+        List<Tarea> tareas = new GeneradorTareas(7).generar(500);
+        IndiceTareas original = IndiceTareas.construir(tareas);
+        Path ruta = dir.resolve("indice.bin");
+        original.guardar(ruta, 12);
+
+        IndiceTareas cargado = IndiceTareas.cargar(ruta, 12);
+
+        assertNotNull(cargado);
+        assertEquals(500, cargado.getCantidad());
+        for (Estado e : Estado.values()) {
+            assertArrayEquals(original.conEstado(e), cargado.conEstado(e));
+        }
+        for (Prioridad p : Prioridad.values()) {
+            assertArrayEquals(original.conPrioridad(p), cargado.conPrioridad(p));
+        }
+        LocalDate fecha = tareas.get(0).getFechaVencimiento();
+        assertArrayEquals(original.conFecha(fecha), cargado.conFecha(fecha));
+        String palabra = tareas.get(0).getTitulo().toLowerCase();
+        assertArrayEquals(original.candidatosTexto(palabra), cargado.candidatosTexto(palabra));
+    }
+
+    @Test
+    void testCargarDescartaGeneracionDistintaOArchivoDaniado() throws IOException {
+        Path ruta = dir.resolve("indice.bin");
+        assertNull(IndiceTareas.cargar(ruta, 1));
+
+        IndiceTareas.construir(new GeneradorTareas(7).generar(100)).guardar(ruta, 1);
+        assertNull(IndiceTareas.cargar(ruta, 2));
+
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), canal.size() - 1);
+        }
+        assertNull(IndiceTareas.cargar(ruta, 1));
+    }
+
+    @Test
+    void testQuitarPorIdTrasEditarLaTareaNoDejaEntradas() {
+        Tarea tarea = new Tarea(1, "Informe anual", "", LocalDate.of(2030, 1, 1), Prioridad.ALTA, Estado.PENDIENTE);
+        IndiceTareas indice = IndiceTareas.construir(List.of(tarea));
+
+        tarea.setTitulo("Compras");
+        indice.quitarPorId(1);
+        indice.agregar(tarea);
+        indice.quitarPorId(99); // no estaba: la cantidad no cambia
+
+        assertEquals(1, indice.getCantidad());
+        assertArrayEquals(new int[0], indice.candidatosTexto("informe"));
+        assertArrayEquals(new int[]{1}, indice.candidatosTexto("compras"));
+    }
+
+    @Test
+    void testQuitarUnaTareaNoIndexadaNoCambiaLaCantidad() {
+        Tarea tarea = new Tarea(1, "Informe anual", "", LocalDate.of(2030, 1, 1), Prioridad.ALTA, Estado.PENDIENTE);
+        Tarea vacia = new Tarea(2, "", null, null, null, null);
+        IndiceTareas indice = IndiceTareas.construir(List.of(tarea, vacia));
+        assertEquals(2, indice.getCantidad());
+
+        indice.quitar(new Tarea(99, "Otra", "", LocalDate.of(2030, 1, 1), Prioridad.ALTA, Estado.PENDIENTE));
+        indice.quitar(tarea);
+        indice.quitar(tarea); // ya no estaba
+        assertEquals(1, indice.getCantidad());
+        indice.quitar(vacia); // sin datos indexables, pero se contó al agregarla
+        assertEquals(0, indice.getCantidad());
+    }
+
+    @Test
+    void testServicioUsaLosIndicesTrasReiniciar() throws IOException {
+        TareaRepository repo = new TareaRepository(dir.resolve("tareas.json").toString());
+        TareaService service = new TareaService(repo);
+        service.agregarTareas(new GeneradorTareas(3).generar(200));
+        Tarea primera = service.obtenerTodas().get(0);
+        primera.setTitulo("Revisar presupuesto anual");
+        service.actualizarTarea(primera);
+        service.guardarPuntoControl();
+        assertNotNull(IndiceTareas.cargar(repo.getRutaPuntoControl(), repo.getGeneracion()));
+
+        TareaService reiniciado = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+
+        for (Estado e : Estado.values()) {
+            assertEquals(service.filtrarPorEstado(e).stream().map(Tarea::getId).toList(),
+                    reiniciado.filtrarPorEstado(e).stream().map(Tarea::getId).toList());
+        }
+        assertEquals(List.of(primera.getId()),
+                reiniciado.buscarPorPalabraClave("PRESUPUESTO anual").stream().map(Tarea::getId).toList());
+        reiniciado.eliminarTarea(primera.getId());
+        assertTrue(reiniciado.buscarPorPalabraClave("presupuesto anual").isEmpty());
+    }
+
+    @Test
+    void testFiltrosCoincidenConRecorrido() {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        service.agregarTareas(new GeneradorTareas(11).generar(300));
+        List<Tarea> todas = service.obtenerTodas();
+        for (Tarea t : todas.subList(0, 50)) {
+            t.setEstado(Estado.COMPLETADA);
+            service.actualizarTarea(t);
+        }
+        for (Prioridad p : Prioridad.values()) {
+            assertEquals(todas.stream().filter(t -> t.getPrioridad() == p).map(Tarea::getId).toList(),
+                    service.filtrarPorPrioridad(p).stream().map(Tarea::getId).toList());
+        }
+        assertEquals(todas.stream().filter(t -> t.getEstado() == Estado.COMPLETADA).map(Tarea::getId).toList(),
+                service.filtrarPorEstado(Estado.COMPLETADA).stream().map(Tarea::getId).toList());
+        String palabra = GeneradorTareas.VOCABULARIO[0];
+        assertEquals(todas.stream().filter(t -> t.getTitulo().toLowerCase().contains(palabra)
+                        || t.getDescripcion().toLowerCase().contains(palabra)).map(Tarea::getId).toList(),
+                service.buscarPorPalabraClave(palabra).stream().map(Tarea::getId).toList());
+    }
+}
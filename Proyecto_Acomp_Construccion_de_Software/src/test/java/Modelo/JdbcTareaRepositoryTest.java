@@ -0,0 +1,144 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcTareaRepositoryTest {
+
+    @Test
+    public void testCambiosDelServicioPersisten(@TempDir Path dir) {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        int idDos;
+        try (JdbcTareaRepository repo = new JdbcTareaRepository(dir.resolve("tareas"))) {
+            TareaService service = new TareaService(repo);
+            service.agregarTareas(List.of(
+                    new Tarea("Uno", "primera", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                    new Tarea("Dos", "segunda", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                    new Tarea("Tres", "tercera", manana.plusDays(1), Prioridad.BAJA, Estado.EN_PROGRESO)));
+            List<Tarea> todas = service.obtenerTodas();
+            idDos = todas.get(1).getId();
+            service.actualizarSiVersion(idDos, new Tarea(idDos, "Dos", "editada", manana, Prioridad.MEDIA,
+                    Estado.COMPLETADA), todas.get(1).getVersion());
+            service.eliminarTarea(todas.get(0).getId());
+            service.cerrar();
+        }
+
+        try (JdbcTareaRepository repo = new JdbcTareaRepository(dir.resolve("tareas"))) {
+            List<Tarea> guardadas = repo.obtenerTareas();
+            assertEquals(2, guardadas.size());
+            Tarea dos = guardadas.get(0);
+            assertEquals(idDos, dos.getId());
+            assertEquals("editada", dos.getDescripcion());
+            assertEquals(Estado.COMPLETADA, dos.getEstado());
+            assertEquals(1, dos.getVersion());
+        }
+    }
+
+    @Test
+    public void testFiltrosSeResuelvenEnSql(@TempDir Path dir) {
+        LocalDate manana = LocalDate.now().plusDays(1);
+        try (JdbcTareaRepository repo = new JdbcTareaRepository(dir.resolve("tareas"))) {
+            TareaService service = new TareaService(repo);
+            service.agregarTareas(List.of(
+                    new Tarea("Informe al 100%", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                    new Tarea("Informe", "borrador_1", manana, Prioridad.MEDIA, Estado.EN_PROGRESO),
+                    new Tarea("Compras", "", manana.plusDays(2), Prioridad.ALTA, Estado.PENDIENTE)));
+
+            // Las tareas no se cargan en memoria: cada consulta va a la base
+            assertEquals(0, service.estimarMemoria());
+            assertEquals(2, service.filtrarPorEstado(Estado.PENDIENTE).size());
+            assertEquals(2, service.filtrarPorPrioridad(Prioridad.ALTA).size());
+            assertEquals(2, service.filtrarPorFecha(manana).size());
+            assertEquals(3, service.filtrarEntreFechas(manana, manana.plusDays(2)).size());
+            assertEquals(2, service.buscarPorPalabraClave("INFORME").size());
+            // Los comodines de LIKE se buscan de forma literal
+            assertEquals(1, service.buscarPorPalabraClave("100%").size());
+            assertEquals(1, service.buscarPorPalabraClave("_1").size());
+            assertEquals(0, service.buscarPorPalabraClave("%x").size());
+
+            FiltroTareas filtro = FiltroTareas.todas().conEstados(Estado.PENDIENTE).conPrioridades(Prioridad.ALTA)
+                    .venceEntre(manana.plusDays(1), manana.plusDays(5));
+            assertEquals(List.of("Compras"), service.filtrar(filtro).stream().map(Tarea::getTitulo).toList());
+            assertEquals(1, service.contar(filtro));
+            assertEquals(0, service.contar(FiltroTareas.todas().conEstados()));
+            assertEquals(3, service.getEstadisticas().getTotal());
+            assertEquals("Compras", service.buscarDifuso("compars", 1).get(0).getTitulo());
+            service.cerrar();
+        }
+    }
+
+    @Test
+    public void testPaginasSeLeenDelRepositorio(@TempDir Path dir) {
+        LocalDate hoy = LocalDate.now();
+        try (JdbcTareaRepository repo = new JdbcTareaRepository(dir.resolve("tareas"))) {
+            TareaService service = new TareaService(repo);
+            List<Tarea> agregadas = service.agregarTareas(List.of(
+                    new Tarea("A", "", hoy.plusDays(3), Prioridad.BAJA, Estado.PENDIENTE),
+                    new Tarea("B", "", hoy.plusDays(1), Prioridad.ALTA, Estado.PENDIENTE),
+                    new Tarea("C", "", hoy.plusDays(2), Prioridad.MEDIA, Estado.PENDIENTE),
+                    new Tarea("D", "", hoy.plusDays(1), Prioridad.ALTA, Estado.PENDIENTE),
+                    new Tarea("E", "", hoy.plusDays(2), Prioridad.BAJA, Estado.PENDIENTE)));
+
+            assertEquals(List.of("A", "B", "C", "D", "E"), titulos(service, PaginaTareas.Orden.ID));
+            assertEquals(List.of("B", "D", "C", "E", "A"), titulos(service, PaginaTareas.Orden.FECHA));
+            assertEquals(List.of("B", "D", "C", "A", "E"), titulos(service, PaginaTareas.Orden.PRIORIDAD));
+
+            // Una baja entre páginas no hace repetir ni saltear tareas
+            PaginaTareas primera = service.obtenerPagina(PaginaTareas.Orden.FECHA, 2, null);
+            service.eliminarTarea(agregadas.get(1).getId());
+            PaginaTareas segunda = service.obtenerPagina(PaginaTareas.Orden.FECHA, 2, primera.siguiente());
+            assertEquals(List.of("C", "E"), segunda.tareas().stream().map(Tarea::getTitulo).toList());
+            service.cerrar();
+        }
+    }
+
+    @Test
+    public void testCambiosSeAplicanEnElRepositorio(@TempDir Path dir) {
+        LocalDate ayer = LocalDate.now().minusDays(1);
+        try (JdbcTareaRepository repo = new JdbcTareaRepository(dir.resolve("tareas"))) {
+            // Más tareas que una página de recorrido, escritas directamente porque vencieron
+            List<Tarea> vencidas = new ArrayList<>();
+            for (int i = 0; i < TareaService.TAMANIO_RECORRIDO + 10; i++) {
+                vencidas.add(new Tarea("Vencida " + i, "", ayer, Prioridad.MEDIA, Estado.PENDIENTE));
+            }
+            repo.guardarCambios(List.of(), vencidas, List.of(), List.of());
+            TareaService service = new TareaService(repo);
+            assertEquals(vencidas.size(), service.getEstadisticas().contar(Estado.PENDIENTE));
+
+            int id = vencidas.get(0).getId();
+            Tarea datos = new Tarea(id, "Editada", "", ayer, Prioridad.ALTA, Estado.EN_PROGRESO);
+            assertTrue(service.actualizarSiVersion(id, datos, 0).esExitosa());
+            ResultadoActualizacion conflicto = service.actualizarSiVersion(id, datos, 0);
+            assertEquals(ResultadoActualizacion.Tipo.CONFLICTO, conflicto.tipo());
+            assertEquals(1, conflicto.tarea().getVersion());
+
+            assertEquals(vencidas.size() - 1, service.completarVencidas());
+            assertEquals(vencidas.size() - 1, service.getEstadisticas().contar(Estado.COMPLETADA));
+            assertEquals(1, service.eliminarTareas(t -> t.getEstado() == Estado.EN_PROGRESO));
+            assertNull(repo.buscarPorId(id));
+            assertEquals(vencidas.size() - 1, repo.contar(FiltroTareas.todas().conEstados(Estado.COMPLETADA)));
+            service.cerrar();
+        }
+    }
+
+    /**
+     * Recorre todas las páginas de dos tareas en un orden.
+     */
+    private static List<String> titulos(TareaService service, PaginaTareas.Orden orden) {
+        List<String> titulos = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaTareas pagina = service.obtenerPagina(orden, 2, cursor);
+            pagina.tareas().forEach(t -> titulos.add(t.getTitulo()));
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        return titulos;
+    }
+}
@@ -0,0 +1,111 @@
+package Modelo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginacionTest {
+
+    private TareaService service;
+
+    @BeforeEach
+    void crearServicio(@TempDir Path dir) {
+        service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        service.agregarTareas(new GeneradorTareas(7).generar(600));
+    }
+
+    /** Recorre todas las páginas de una consulta y devuelve los IDs en el orden entregado. */
+    private static List<Integer> recorrer(BiFunction<Integer, String, PaginaTareas> consulta, int tamanio) {
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaTareas pagina = consulta.apply(tamanio, cursor);
+            assertTrue(pagina.tareas().size() <= tamanio);
+            pagina.tareas().forEach(t -> ids.add(t.getId()));
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Integer> ids(List<Tarea> tareas) {
+        return tareas.stream().map(Tarea::getId).toList();
+    }
+
+    @Test
+    void testLasPaginasCoincidenConLasConsultasCompletas() {
+        List<Tarea> todas = service.obtenerTodas();
+        assertTrue(todas.size() > 100);
+        Comparator<Tarea> porId = Comparator.comparingInt(Tarea::getId);
+
+        assertEquals(ids(todas.stream().sorted(porId).toList()),
+                recorrer((n, c) -> service.obtenerPagina(PaginaTareas.Orden.ID, n, c), 7));
+        assertEquals(ids(todas.stream().sorted(Comparator.comparing(Tarea::getFechaVencimiento).thenComparing(porId)).toList()),
+                recorrer((n, c) -> service.obtenerPagina(PaginaTareas.Orden.FECHA, n, c), 7));
+        assertEquals(ids(todas.stream().sorted(Comparator.comparing(Tarea::getPrioridad).thenComparing(porId)).toList()),
+                recorrer((n, c) -> service.obtenerPagina(PaginaTareas.Orden.PRIORIDAD, n, c), 7));
+
+        assertEquals(ids(service.filtrarPorEstado(Estado.PENDIENTE)),
+                recorrer((n, c) -> service.filtrarPorEstado(Estado.PENDIENTE, n, c), 5));
+        assertEquals(ids(service.filtrarPorPrioridad(Prioridad.ALTA)),
+                recorrer((n, c) -> service.filtrarPorPrioridad(Prioridad.ALTA, n, c), 5));
+        LocalDate fecha = todas.get(0).getFechaVencimiento();
+        assertEquals(ids(service.filtrarPorFecha(fecha)),
+                recorrer((n, c) -> service.filtrarPorFecha(fecha, n, c), 2));
+        for (String palabra : List.of("informe", "Revisión", "de")) {
+            assertEquals(ids(service.buscarPorPalabraClave(palabra)),
+                    recorrer((n, c) -> service.buscarPorPalabraClave(palabra, n, c), 4), palabra);
+        }
+        assertTrue(recorrer((n, c) -> service.buscarPorPalabraClave("inexistente", n, c), 4).isEmpty());
+    }
+
+    @Test
+    void testLosCambiosEntrePaginasNoRepitenNiSaltean() {
+        List<Tarea> antes = service.obtenerTodas();
+        Set<Integer> vistos = new HashSet<>();
+        List<Integer> orden = new ArrayList<>();
+        LocalDate manana = LocalDate.now().plusDays(1);
+        String cursor = null;
+        int pagina = 0;
+        do {
+            PaginaTareas actual = service.obtenerPagina(PaginaTareas.Orden.FECHA, 10, cursor);
+            for (Tarea t : actual.tareas()) {
+                assertTrue(vistos.add(t.getId()), "repetida: " + t.getId());
+                orden.add(t.getId());
+            }
+            cursor = actual.siguiente();
+            // Entre páginas se agregan tareas antes y después de la posición actual
+            service.agregarTarea(new Tarea("Nueva " + pagina, "", manana.plusDays(pagina % 40), Prioridad.MEDIA, Estado.PENDIENTE));
+            pagina++;
+        } while (cursor != null);
+
+        for (Tarea t : antes) {
+            assertTrue(vistos.contains(t.getId()), "salteada: " + t.getId());
+        }
+        Comparator<Tarea> porFecha = Comparator.comparing(Tarea::getFechaVencimiento).thenComparingInt(Tarea::getId);
+        List<Integer> esperado = ids(service.obtenerTodas().stream().filter(t -> vistos.contains(t.getId())).sorted(porFecha).toList());
+        assertEquals(esperado, orden);
+    }
+
+    @Test
+    void testRechazaCursoresDeOtraConsulta() {
+        String cursor = service.filtrarPorEstado(Estado.PENDIENTE, 3, null).siguiente();
+        assertNotNull(cursor);
+        assertEquals(3, service.filtrarPorEstado(Estado.PENDIENTE, 3, cursor).tareas().size());
+        assertThrows(IllegalArgumentException.class, () -> service.filtrarPorEstado(Estado.COMPLETADA, 3, cursor));
+        assertThrows(IllegalArgumentException.class, () -> service.obtenerPagina(PaginaTareas.Orden.ID, 3, cursor));
+        assertThrows(IllegalArgumentException.class, () -> service.obtenerPagina(PaginaTareas.Orden.ID, 3, "no es un cursor"));
+        assertThrows(IllegalArgumentException.class, () -> service.obtenerPagina(PaginaTareas.Orden.ID, 3, "AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> service.obtenerPagina(PaginaTareas.Orden.ID, 0, null));
+    }
+}
@@ -0,0 +1,137 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanificadorVencimientosTest {
+
+    private static final Instant ORIGEN = Instant.parse("2030-01-01T00:00:00Z");
+
+    private final List<AvisoVencimiento> avisos = new ArrayList<>();
+
+    private PlanificadorVencimientos crearPlanificador() {
+        PlanificadorVencimientos planificador =
+                new PlanificadorVencimientos(Clock.fixed(ORIGEN, ZoneOffset.UTC), Duration.ofHours(1));
+        planificador.agregarOyente(avisos::add);
+        return planificador;
+    }
+
+    private static Tarea tarea(int id, LocalDate fecha, Estado estado) {
+        return new Tarea(id, "Tarea " + id, "", fecha, Prioridad.MEDIA, estado);
+    }
+
+    @Test
+    public void testAvisaVenceHoyYLuegoVencida() {
+        PlanificadorVencimientos planificador = crearPlanificador();
+        planificador.programar(tarea(1, LocalDate.of(2030, 1, 2), Estado.PENDIENTE));
+
+        planificador.avanzarHasta(Instant.parse("2030-01-01T23:59:00Z"));
+        assertTrue(avisos.isEmpty());
+
+        planificador.avanzarHasta(Instant.parse("2030-01-02T00:00:00Z"));
+        assertEquals(1, avisos.size());
+        assertEquals(AvisoVencimiento.Tipo.VENCE_HOY, avisos.get(0).tipo());
+
+        planificador.avanzarHasta(Instant.parse("2030-01-03T00:00:00Z"));
+        assertEquals(2, avisos.size());
+        assertEquals(AvisoVencimiento.Tipo.VENCIDA, avisos.get(1).tipo());
+        assertEquals(0, planificador.getPendientes());
+
+        // Una edición que no cambia la fecha no repite los avisos
+        planificador.programar(tarea(1, LocalDate.of(2030, 1, 2), Estado.EN_PROGRESO));
+        planificador.avanzarHasta(Instant.parse("2030-01-10T00:00:00Z"));
+        assertEquals(2, avisos.size());
+    }
+
+    @Test
+    public void testCancelarYReprogramar() {
+        PlanificadorVencimientos planificador = crearPlanificador();
+        planificador.programar(tarea(1, LocalDate.of(2030, 1, 5), Estado.PENDIENTE));
+        planificador.programar(tarea(2, LocalDate.of(2030, 1, 5), Estado.PENDIENTE));
+        assertEquals(2, planificador.getPendientes());
+
+        planificador.programar(tarea(1, LocalDate.of(2030, 1, 5), Estado.COMPLETADA));
+        planificador.programar(tarea(2, LocalDate.of(2030, 1, 8), Estado.PENDIENTE));
+        assertEquals(1, planificador.getPendientes());
+
+        planificador.avanzarHasta(Instant.parse("2030-01-07T12:00:00Z"));
+        assertTrue(avisos.isEmpty());
+
+        planificador.avanzarHasta(Instant.parse("2030-01-08T00:00:00Z"));
+        assertEquals(1, avisos.size());
+        assertEquals(2, avisos.get(0).tarea().getId());
+        assertEquals(LocalDate.of(2030, 1, 8), avisos.get(0).fechaVencimiento());
+    }
+
+    @Test
+    public void testVencimientosLejanosYPasados() {
+        PlanificadorVencimientos planificador = crearPlanificador();
+        // Más de un año de tics de una hora: pasa por los niveles superiores de la rueda
+        planificador.programar(tarea(1, LocalDate.of(2031, 6, 1), Estado.PENDIENTE));
+        // Venció antes de crear el planificador: solo se avisa que está vencida
+        planificador.programar(tarea(2, LocalDate.of(2029, 12, 20), Estado.PENDIENTE));
+
+        planificador.avanzarHasta(ORIGEN);
+        assertEquals(1, avisos.size());
+        assertEquals(AvisoVencimiento.Tipo.VENCIDA, avisos.get(0).tipo());
+
+        planificador.avanzarHasta(Instant.parse("2031-05-31T23:00:00Z"));
+        assertEquals(1, avisos.size());
+
+        planificador.avanzarHasta(Instant.parse("2031-06-01T00:00:00Z"));
+        assertEquals(2, avisos.size());
+        assertEquals(AvisoVencimiento.Tipo.VENCE_HOY, avisos.get(1).tipo());
+        assertEquals(1, avisos.get(1).tarea().getId());
+    }
+
+    @Test
+    public void testMuchosVencimientos() {
+        PlanificadorVencimientos planificador = crearPlanificador();
+        for (int i = 1; i <= 100_000; i++) {
+            planificador.programar(tarea(i, LocalDate.of(2030, 1, 1).plusDays(i % 400), Estado.PENDIENTE));
+        }
+        assertEquals(100_000, planificador.getPendientes());
+
+        planificador.avanzarHasta(Instant.parse("2031-03-01T00:00:00Z"));
+        long venceHoy = avisos.stream().filter(a -> a.tipo() == AvisoVencimiento.Tipo.VENCE_HOY).count();
+        assertEquals(100_000, venceHoy);
+        // Cada aviso llega el día de su fecha (los de la fecha de origen en el primer tic)
+        assertTrue(avisos.stream().allMatch(a -> a.tipo() != AvisoVencimiento.Tipo.VENCE_HOY
+                || a.fechaVencimiento().equals(a.tarea().getFechaVencimiento())));
+    }
+
+    @Test
+    public void testConectarConServicio(@TempDir Path dir) throws InterruptedException {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        PlanificadorVencimientos planificador = new PlanificadorVencimientos(Clock.systemUTC(), Duration.ofMinutes(1));
+        planificador.conectar(service);
+
+        service.agregarTarea(new Tarea("Entregar", "", LocalDate.now(ZoneOffset.UTC).plusDays(3), Prioridad.ALTA, Estado.PENDIENTE));
+        esperarPendientes(planificador, 1);
+
+        Tarea tarea = service.obtenerTodas().get(0);
+        Tarea completada = new Tarea(tarea.getId(), "Entregar", "", tarea.getFechaVencimiento(), Prioridad.ALTA, Estado.COMPLETADA);
+        service.actualizarTarea(completada);
+        esperarPendientes(planificador, 0);
+        service.cerrar();
+    }
+
+    private static void esperarPendientes(PlanificadorVencimientos planificador, int esperados) throws InterruptedException {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (planificador.getPendientes() != esperados && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertEquals(esperados, planificador.getPendientes());
+    }
+}
@@ -0,0 +1,112 @@
+package Modelo;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroCambiosTest {
+
+    @TempDir
+    Path dir;
+
+    private TareaService crearServicio() {
+        return new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+    }
+
+    private static List<JsonObject> leer(String lineas) {
+        return lineas.lines().map(l -> JsonParser.parseString(l).getAsJsonObject()).toList();
+    }
+
+    @Test
+    void testExportaSoloLosCambiosPosteriores() throws IOException {
+        TareaService service = crearServicio();
+        service.agregarTarea(new Tarea("Informe", "Mensual", LocalDate.now().plusDays(3), Prioridad.ALTA, Estado.PENDIENTE));
+        service.agregarTarea(new Tarea("Compras", "Semana", LocalDate.now().plusDays(1), Prioridad.BAJA, Estado.PENDIENTE));
+        long desde = service.getSecuenciaCambios();
+        assertEquals(2, desde);
+
+        Tarea informe = service.obtenerTodas().get(0);
+        informe.setEstado(Estado.EN_PROGRESO);
+        service.actualizarTarea(informe);
+        int idCompras = service.obtenerTodas().get(1).getId();
+        service.eliminarTarea(idCompras);
+
+        StringWriter salida = new StringWriter();
+        assertEquals(2, service.exportarCambiosDesde(desde, salida));
+        List<JsonObject> cambios = leer(salida.toString());
+        assertEquals(3, cambios.get(0).get("secuencia").getAsLong());
+        assertEquals("ACTUALIZADA", cambios.get(0).get("tipo").getAsString());
+        assertEquals("EN_PROGRESO", cambios.get(0).getAsJsonObject("tarea").get("estado").getAsString());
+        assertEquals("ELIMINADA", cambios.get(1).get("tipo").getAsString());
+        assertEquals(idCompras, cambios.get(1).get("id").getAsInt());
+        assertFalse(cambios.get(1).has("tarea"));
+
+        StringWriter vacia = new StringWriter();
+        assertEquals(0, service.exportarCambiosDesde(service.getSecuenciaCambios(), vacia));
+        assertEquals("", vacia.toString());
+    }
+
+    @Test
+    void testLaSecuenciaContinuaTrasReabrirYElArchivoCoincide() throws IOException {
+        TareaService service = crearServicio();
+        service.agregarTareas(new GeneradorTareas(5).generar(20));
+        long ultima = service.getSecuenciaCambios();
+        assertEquals(service.obtenerTodas().size(), ultima);
+        StringWriter enMemoria = new StringWriter();
+        service.exportarCambiosDesde(ultima - 5, enMemoria);
+
+        StringWriter desdeArchivo = new StringWriter();
+        long escritos = RegistroCambios.exportarArchivo(dir.resolve("tareas-cambios.jsonl"), ultima - 5, desdeArchivo);
+        assertEquals(5, escritos);
+        assertEquals(enMemoria.toString(), desdeArchivo.toString());
+
+        TareaService reabierto = crearServicio();
+        assertEquals(ultima, reabierto.getSecuenciaCambios());
+        reabierto.eliminarTarea(reabierto.obtenerTodas().get(0).getId());
+        assertEquals(ultima + 1, reabierto.getSecuenciaCambios());
+    }
+
+    @Test
+    void testRegistroAcotadoRechazaSecuenciasOlvidadas() throws IOException {
+        Path ruta = dir.resolve("cambios.jsonl");
+        RegistroCambios registro = new RegistroCambios(ruta, 3);
+        for (int i = 1; i <= 10; i++) {
+            registro.registrar(List.of(), List.of(), List.of(i));
+        }
+
+        assertTrue(registro.cubre(7));
+        assertFalse(registro.cubre(6));
+        assertThrows(IllegalArgumentException.class, () -> registro.exportarDesde(2, new StringWriter()));
+        assertThrows(IllegalArgumentException.class,
+                () -> RegistroCambios.exportarArchivo(ruta, 2, new StringWriter()));
+        assertTrue(Files.readAllLines(ruta).size() <= 6);
+
+        StringWriter salida = new StringWriter();
+        assertEquals(3, registro.exportarDesde(7, salida));
+        assertEquals(List.of(8L, 9L, 10L), leer(salida.toString()).stream()
+                .map(o -> o.get("secuencia").getAsLong()).toList());
+    }
+
+    @Test
+    void testLineaCortadaSeDescartaAlAbrir() throws IOException {
+        Path ruta = dir.resolve("cambios.jsonl");
+        RegistroCambios registro = new RegistroCambios(ruta, 100);
+        registro.registrar(List.of(), List.of(), List.of(1, 2));
+        Files.writeString(ruta, Files.readString(ruta) + "{\"secuencia\":3,\"ti");
+
+        RegistroCambios reabierto = new RegistroCambios(ruta, 100);
+        assertEquals(2, reabierto.getSecuencia());
+        reabierto.registrar(List.of(), List.of(), List.of(3));
+        assertEquals(3, new RegistroCambios(ruta, 100).getSecuencia());
+    }
+}
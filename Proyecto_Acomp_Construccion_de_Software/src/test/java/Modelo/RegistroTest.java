@@ -0,0 +1,102 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroTest {
+
+    @Test
+    void testFiltraPorNivelYReemplazaArgumentos() {
+        StringWriter salida = new StringWriter();
+        Registro registro = new Registro(salida, 16, Registro.Nivel.INFO);
+        registro.depuracion("Prueba", "no se escribe {}", 1);
+        registro.info("Prueba", "Tarea agregada: id={} titulo={}", 7, "Informe");
+        registro.error("Prueba", "Falló el guardado", new IOException("disco lleno"));
+        registro.setNivel(Registro.Nivel.ERROR);
+        registro.aviso("Prueba", "tampoco se escribe");
+        registro.cerrar();
+
+        String texto = salida.toString();
+        assertFalse(texto.contains("no se escribe"));
+        assertTrue(texto.contains("INFO  [main] Prueba - Tarea agregada: id=7 titulo=Informe"), texto);
+        assertTrue(texto.contains("ERROR [main] Prueba - Falló el guardado"), texto);
+        assertTrue(texto.contains("java.io.IOException: disco lleno"), texto);
+        assertFalse(registro.activo(Registro.Nivel.AVISO));
+    }
+
+    @Test
+    void testVariosHilosEscribenSinPerderNiDesordenarMensajes() throws Exception {
+        StringWriter salida = new StringWriter();
+        Registro registro = new Registro(salida, 1 << 16, Registro.Nivel.INFO);
+        List<Thread> hilos = new ArrayList<>();
+        for (int h = 0; h < 4; h++) {
+            Thread hilo = new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    registro.info("Prueba", "mensaje {}", i);
+                }
+            }, "productor-" + h);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+        registro.vaciar();
+
+        assertEquals(0, registro.getDescartados());
+        int[] siguiente = new int[4];
+        String[] lineas = salida.toString().split(System.lineSeparator());
+        assertEquals(20_000, lineas.length);
+        for (String linea : lineas) {
+            int hilo = linea.charAt(linea.indexOf("[productor-") + 11) - '0';
+            int numero = Integer.parseInt(linea.substring(linea.lastIndexOf(' ') + 1));
+            assertEquals(siguiente[hilo]++, numero); // cada hilo en el orden en que registró
+        }
+        registro.cerrar();
+    }
+
+    @Test
+    void testBuferLlenoDescartaYAvisa() throws Exception {
+        CountDownLatch bloqueado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        StringWriter salida = new StringWriter();
+        Writer lento = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) {
+                bloqueado.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                salida.write(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Registro registro = new Registro(lento, 4, Registro.Nivel.INFO);
+        registro.info("Prueba", "primero");
+        bloqueado.await(); // el hilo de fondo quedó trabado escribiendo
+        for (int i = 0; i < 20; i++) {
+            registro.info("Prueba", "mensaje {}", i);
+        }
+        assertTrue(registro.getDescartados() > 0);
+        liberar.countDown();
+        registro.cerrar();
+        assertTrue(salida.toString().contains("Se descartaron " + registro.getDescartados() + " mensajes"), salida.toString());
+    }
+}
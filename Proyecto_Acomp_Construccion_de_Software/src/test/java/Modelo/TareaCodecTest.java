@@ -0,0 +1,58 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TareaCodecTest {
+
+    private final List<Tarea> tareas = List.of(
+            new Tarea(7, "Título \"con\" comillas", "Descripción con acentos: áéíóú ñ",
+                    LocalDate.of(2030, 2, 28), Prioridad.ALTA, Estado.PENDIENTE),
+            new Tarea(9, "Sin descripción", null, LocalDate.of(2031, 1, 1), Prioridad.BAJA, Estado.COMPLETADA));
+
+    @Test
+    public void testStreamingIndentadoGeneraElMismoJsonQueGson() throws IOException {
+        assertEquals(escribir(new GsonTareaCodec()), escribir(new StreamingTareaCodec(false)));
+    }
+
+    @Test
+    public void testCompactoEsMasPequenioYSeLeeIgual() throws IOException {
+        String indentado = escribir(new GsonTareaCodec());
+        String compacto = escribir(new StreamingTareaCodec(true));
+        assertTrue(compacto.length() < indentado.length());
+        assertFalse(compacto.contains("\n"));
+
+        // Cualquier códec debe poder leer lo que escribe otro
+        List<Tarea> leidas = new GsonTareaCodec().leer(new StringReader(compacto));
+        assertEquals(tareas.size(), leidas.size());
+        for (int i = 0; i < tareas.size(); i++) {
+            assertEquals(tareas.get(i).toString(), leidas.get(i).toString());
+            assertEquals(tareas.get(i).getDescripcion(), leidas.get(i).getDescripcion());
+        }
+    }
+
+    @Test
+    public void testStreamingRechazaValoresInvalidos() {
+        String json = "[{\"id\":1,\"titulo\":\"X\",\"prioridad\":\"URGENTE\"}]";
+        assertThrows(IOException.class, () -> new StreamingTareaCodec(false).leer(new StringReader(json)));
+    }
+
+    @Test
+    public void testPorNombre() {
+        assertEquals("compacto", TareaCodec.porNombre("compacto").nombre());
+        assertThrows(IllegalArgumentException.class, () -> TareaCodec.porNombre("xml"));
+    }
+
+    private String escribir(TareaCodec codec) throws IOException {
+        StringWriter salida = new StringWriter();
+        codec.escribir(tareas, salida);
+        return salida.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TareaImportadorTest {
+
+    @Test
+    public void testImportarCsvPorLotes(@TempDir Path dir) throws IOException {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        String manana = LocalDate.now().plusDays(1).toString();
+        String csv = "titulo,descripcion,fechaVencimiento,prioridad,estado\n"
+                + "Comprar,\"Leche, pan\"," + manana + ",alta,PENDIENTE\n"
+                + "\"Llamar a \"\"Ana\"\"\",," + manana + ",MEDIA,EN_PROGRESO\n"
+                + "Sin fecha,,no-es-fecha,BAJA,PENDIENTE\n"
+                + "Revisar,Informe," + manana + ",BAJA,COMPLETADA\n";
+
+        TareaImportador.ResultadoImportacion resultado =
+                new TareaImportador(service, 2).importarCsv(new StringReader(csv));
+
+        assertEquals(4, resultado.leidas());
+        assertEquals(3, resultado.agregadas());
+        assertEquals(1, resultado.invalidas());
+        List<Tarea> tareas = service.obtenerTodas();
+        assertEquals("Leche, pan", tareas.get(0).getDescripcion());
+        assertEquals("Llamar a \"Ana\"", tareas.get(1).getTitulo());
+    }
+
+    @Test
+    public void testImportarJsonLineas(@TempDir Path dir) throws IOException {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        String manana = LocalDate.now().plusDays(1).toString();
+        String jsonl = "{\"titulo\":\"Uno\",\"descripcion\":\"A\",\"fechaVencimiento\":\"" + manana
+                + "\",\"prioridad\":\"ALTA\",\"estado\":\"PENDIENTE\"}\n"
+                + "{ roto\n";
+
+        TareaImportador.ResultadoImportacion resultado =
+                new TareaImportador(service).importarJsonLineas(new StringReader(jsonl));
+
+        assertEquals(1, resultado.agregadas());
+        assertEquals(1, resultado.invalidas());
+        assertEquals(Prioridad.ALTA, service.obtenerTodas().get(0).getPrioridad());
+    }
+}
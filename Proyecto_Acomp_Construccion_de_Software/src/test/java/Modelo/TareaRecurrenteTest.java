@@ -0,0 +1,111 @@
+package Modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TareaRecurrenteTest {
+
+    private static List<LocalDate> fechas(List<Tarea> tareas) {
+        return tareas.stream().map(Tarea::getFechaVencimiento).toList();
+    }
+
+    @Test
+    void testRecurrenciaCalculaOcurrenciasSinRecorrerLasAnteriores() {
+        Recurrencia mensual = Recurrencia.cada(1, Recurrencia.Frecuencia.MENSUAL);
+        LocalDate inicio = LocalDate.of(2026, 1, 31);
+        assertEquals(LocalDate.of(2026, 2, 28), mensual.fecha(inicio, 1));
+        assertEquals(LocalDate.of(2026, 3, 31), mensual.fecha(inicio, 2));
+        assertEquals(2, mensual.primeraDesde(inicio, LocalDate.of(2026, 3, 1)));
+        assertEquals(1, mensual.primeraDesde(inicio, LocalDate.of(2026, 2, 28)));
+
+        PlantillaRecurrente cadaDosDias = new PlantillaRecurrente(1, "Regar", "", Prioridad.BAJA,
+                LocalDate.of(2000, 1, 1), Recurrencia.cada(2, Recurrencia.Frecuencia.DIARIA));
+        List<Tarea> lejanas = cadaDosDias.ocurrenciasEntre(LocalDate.of(2030, 6, 1), LocalDate.of(2030, 6, 7));
+        assertEquals(List.of(LocalDate.of(2030, 6, 2), LocalDate.of(2030, 6, 4), LocalDate.of(2030, 6, 6)), fechas(lejanas));
+        OcurrenciaRecurrente primera = (OcurrenciaRecurrente) lejanas.get(0);
+        assertTrue(OcurrenciaRecurrente.esOcurrencia(primera.getId()));
+        assertEquals(primera.getFechaVencimiento(), cadaDosDias.ocurrencia(primera.getNumero()).getFechaVencimiento());
+
+        PlantillaRecurrente conFin = new PlantillaRecurrente(2, "Curso", "", Prioridad.MEDIA, LocalDate.of(2026, 1, 5),
+                new Recurrencia(Recurrencia.Frecuencia.SEMANAL, 1, LocalDate.of(2026, 1, 20)));
+        assertEquals(3, conFin.ocurrenciasEntre(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31)).size());
+        assertThrows(IllegalArgumentException.class, () -> Recurrencia.cada(0, Recurrencia.Frecuencia.DIARIA));
+    }
+
+    @Test
+    void testLasOcurrenciasSeConsultanComoTareasYSeMaterializanAlEditar(@TempDir Path dir) throws Exception {
+        Path archivo = dir.resolve("tareas.json");
+        TareaService service = new TareaService(new TareaRepository(archivo.toString()));
+        LocalDate hoy = LocalDate.now();
+        Tarea real = service.agregarTarea(new Tarea("Informe", "", hoy.plusDays(3), Prioridad.ALTA, Estado.PENDIENTE)).tarea();
+        PlantillaRecurrente semanal = service.agregarPlantilla(
+                new Tarea("Sacar la basura", "", hoy, Prioridad.MEDIA, Estado.PENDIENTE),
+                Recurrencia.cada(1, Recurrencia.Frecuencia.SEMANAL));
+
+        assertEquals(1, service.obtenerTodas().size());
+        assertEquals(List.of(hoy, hoy.plusWeeks(1), hoy.plusWeeks(2)), fechas(service.obtenerOcurrencias(hoy, hoy.plusDays(20))));
+        List<Tarea> periodo = service.filtrarEntreFechas(hoy, hoy.plusDays(7));
+        assertEquals(List.of(hoy, hoy.plusDays(3), hoy.plusWeeks(1)), fechas(periodo));
+        assertEquals(real.getId(), periodo.get(1).getId());
+        assertEquals(1, service.filtrarPorFecha(hoy.plusWeeks(1)).size());
+        assertFalse(Files.readString(archivo).contains("basura"));
+
+        // Editar una ocurrencia la convierte en tarea y la plantilla deja de generarla
+        Tarea ocurrencia = service.filtrarPorFecha(hoy.plusWeeks(1)).get(0);
+        Tarea datos = new Tarea(ocurrencia.getId(), "Sacar la basura y reciclar", "", hoy.plusWeeks(1).plusDays(1),
+                Prioridad.MEDIA, Estado.EN_PROGRESO);
+        ResultadoActualizacion resultado = service.actualizarSiVersion(ocurrencia.getId(), datos, ocurrencia.getVersion());
+        assertEquals(ResultadoActualizacion.Tipo.ACTUALIZADA, resultado.tipo());
+        assertTrue(resultado.tarea().getId() > 0);
+        assertEquals(Estado.EN_PROGRESO, resultado.tarea().getEstado());
+        assertEquals(2, service.obtenerTodas().size());
+        assertEquals(List.of(hoy, hoy.plusWeeks(1).plusDays(1), hoy.plusWeeks(2)), fechas(service.filtrarEntreFechas(hoy, hoy.plusDays(14)).stream()
+                .filter(t -> t.getTitulo().startsWith("Sacar")).toList()));
+        assertEquals(ResultadoActualizacion.Tipo.NO_ENCONTRADA,
+                service.actualizarSiVersion(ocurrencia.getId(), datos, 0).tipo());
+
+        // Eliminar una ocurrencia solo la excluye
+        service.eliminarTarea(service.obtenerOcurrencias(hoy.plusWeeks(2), hoy.plusWeeks(2)).get(0).getId());
+        assertEquals(List.of(hoy, hoy.plusWeeks(3)), fechas(service.obtenerOcurrencias(hoy, hoy.plusDays(21))));
+
+        // La plantilla y sus excepciones se conservan al volver a abrir
+        TareaService reabierto = new TareaService(new TareaRepository(archivo.toString()));
+        assertEquals(semanal.getId(), reabierto.obtenerPlantillas().get(0).getId());
+        assertEquals(List.of(hoy, hoy.plusWeeks(3)), fechas(reabierto.obtenerOcurrencias(hoy, hoy.plusDays(21))));
+        assertTrue(reabierto.eliminarPlantilla(semanal.getId()));
+        assertTrue(reabierto.obtenerOcurrencias(hoy, hoy.plusDays(21)).isEmpty());
+        assertEquals(2, reabierto.obtenerTodas().size());
+
+        // Una plantilla nueva no reutiliza el ID de la eliminada ni hereda sus excepciones
+        PlantillaRecurrente otra = reabierto.agregarPlantilla(
+                new Tarea("Regar", "", hoy, Prioridad.BAJA, Estado.PENDIENTE), Recurrencia.cada(1, Recurrencia.Frecuencia.SEMANAL));
+        assertNotEquals(semanal.getId(), otra.getId());
+        assertEquals(List.of(hoy, hoy.plusWeeks(1), hoy.plusWeeks(2), hoy.plusWeeks(3)),
+                fechas(reabierto.obtenerOcurrencias(hoy, hoy.plusDays(21))));
+        assertEquals(otra.getId() + 1, new TareaService(new TareaRepository(archivo.toString()))
+                .agregarPlantilla(new Tarea("Podar", "", hoy, Prioridad.BAJA, Estado.PENDIENTE),
+                        Recurrencia.cada(1, Recurrencia.Frecuencia.MENSUAL)).getId());
+    }
+
+    @Test
+    void testSeLeeElArchivoDePlantillasSinElProximoId(@TempDir Path dir) throws Exception {
+        Files.writeString(dir.resolve("tareas-plantillas.json"), """
+                [{"id": 3, "titulo": "Regar", "inicio": "2026-01-01", "frecuencia": "DIARIA", "intervalo": 2,
+                  "excepciones": ["2026-01-03"]}]
+                """);
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        assertEquals(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5)),
+                fechas(service.obtenerOcurrencias(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 6))));
+        PlantillaRecurrente nueva = service.agregarPlantilla(
+                new Tarea("Podar", "", LocalDate.now(), Prioridad.BAJA, Estado.PENDIENTE),
+                Recurrencia.cada(1, Recurrencia.Frecuencia.MENSUAL));
+        assertEquals(4, nueva.getId());
+    }
+}
@@ -8,9 +8,15 @@ import Modelo.Estado;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,4 +49,133 @@ class TareaRepositoryTest {
         assertTrue(tareasObtenidas.contains(tarea1), "Debe contener tarea1");
         assertTrue(tareasObtenidas.contains(tarea2), "Debe contener tarea2");
     }
+
+    @Test
+    public void testCargaParalelaConservaOrdenYMaxId(@TempDir Path dir) throws Exception {
+        Path archivo = dir.resolve("tareas.json");
+        TareaRepository repo = new TareaRepository(archivo.toString());
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            // Llaves, comillas escapadas y acentos dentro de las cadenas no deben confundir al cargador
+            tareas.add(new Tarea("Título {" + i + "}", "Dice \"hola\" [" + i + "] \\",
+                    LocalDate.of(2030, 1, 1).plusDays(i), Prioridad.values()[i % 3], Estado.values()[i % 3]));
+        }
+        repo.guardarEnArchivo(tareas);
+
+        CargadorParalelo.Resultado secuencial = repo.cargarSecuencial(archivo);
+        CargadorParalelo.Resultado paralelo = repo.cargarEnParalelo(archivo, new ForkJoinPool(4));
+
+        assertEquals(secuencial.maxId(), paralelo.maxId());
+        assertEquals(tareas.get(tareas.size() - 1).getId(), paralelo.maxId());
+        assertEquals(secuencial.tareas().size(), paralelo.tareas().size());
+        for (int i = 0; i < tareas.size(); i++) {
+            assertEquals(tareas.get(i).getId(), paralelo.tareas().get(i).getId());
+            assertEquals(tareas.get(i).getTitulo(), paralelo.tareas().get(i).getTitulo());
+            assertEquals(tareas.get(i).getDescripcion(), paralelo.tareas().get(i).getDescripcion());
+        }
+    }
+
+    @Test
+    public void testDosProcesosNoSePisanLosCambios(@TempDir Path dir) throws Exception {
+        String archivo = dir.resolve("tareas.json").toString();
+        TareaService procesoA = new TareaService(new TareaRepository(archivo));
+        TareaService procesoB = new TareaService(new TareaRepository(archivo));
+
+        procesoA.agregarTarea(new Tarea("De A", "Primera", LocalDate.now().plusDays(2), Prioridad.ALTA, Estado.PENDIENTE));
+        // B no leyó el cambio de A: su escritura se aplica sobre el contenido actual en vez de pisarlo
+        procesoB.agregarTarea(new Tarea("De B", "Segunda", LocalDate.now().plusDays(3), Prioridad.BAJA, Estado.PENDIENTE));
+
+        List<String> enArchivo = new TareaRepository(archivo).obtenerTareas().stream().map(Tarea::getTitulo).toList();
+        assertEquals(List.of("De A", "De B"), enArchivo);
+
+        CambiosArchivo enB = procesoB.recargarCambiosExternos();
+        assertEquals(List.of("De A"), enB.agregadas().stream().map(Tarea::getTitulo).toList());
+        CambiosArchivo enA = procesoA.recargarCambiosExternos();
+        assertEquals(List.of("De B"), enA.agregadas().stream().map(Tarea::getTitulo).toList());
+        assertTrue(procesoA.recargarCambiosExternos().estaVacio());
+
+        try (var archivos = Files.list(dir)) {
+            assertTrue(archivos.noneMatch(p -> p.toString().endsWith(".tmp")), "No deben quedar temporales");
+        }
+    }
+
+    @Test
+    public void testIdRepetidoPorOtroProcesoRecibeIdNuevo(@TempDir Path dir) throws Exception {
+        String archivo = dir.resolve("tareas.json").toString();
+        TareaRepository repoA = new TareaRepository(archivo);
+        TareaRepository repoB = new TareaRepository(archivo);
+        Tarea deA = new Tarea(500, "De A", "x", LocalDate.now(), Prioridad.MEDIA, Estado.PENDIENTE);
+        Tarea deB = new Tarea(500, "De B", "y", LocalDate.now(), Prioridad.MEDIA, Estado.PENDIENTE);
+
+        repoA.guardarCambios(List.of(deA), List.of(deA), List.of(), List.of());
+        assertNull(repoA.leerCambiosExternos());
+        repoB.guardarCambios(List.of(deB), List.of(deB), List.of(), List.of());
+
+        List<Tarea> contenido = repoA.leerCambiosExternos();
+        assertNotNull(contenido);
+        assertEquals(2, contenido.size());
+        assertEquals(500, contenido.get(0).getId());
+        assertEquals("De A", contenido.get(0).getTitulo());
+        assertEquals("De B", contenido.get(1).getTitulo());
+        assertNotEquals(500, contenido.get(1).getId());
+    }
+
+    @Test
+    public void testArchivoComprimidoSeReconoceAlCargar(@TempDir Path dir) throws Exception {
+        String archivo = dir.resolve("tareas.json").toString();
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tareas.add(new Tarea("Tarea " + i, "Descripción repetida " + i,
+                    LocalDate.of(2030, 1, 1).plusDays(i), Prioridad.values()[i % 3], Estado.values()[i % 3]));
+        }
+        new TareaRepository(archivo, TareaCodec.porDefecto(), Compresion.NINGUNA).guardarEnArchivo(tareas);
+        long sinComprimir = Files.size(Path.of(archivo));
+
+        for (Compresion compresion : List.of(Compresion.gzip(9), Compresion.zlib(1), Compresion.NINGUNA)) {
+            new TareaRepository(archivo, TareaCodec.porDefecto(), compresion).guardarEnArchivo(tareas);
+            assertEquals(compresion.formato(), Compresion.detectar(Path.of(archivo)));
+            if (compresion.formato() != Compresion.Formato.NINGUNA) {
+                assertTrue(Files.size(Path.of(archivo)) < sinComprimir / 4, "El JSON indentado debe comprimirse");
+            }
+
+            // Se lee con otra configuración: el formato sale de la cabecera del archivo
+            List<Tarea> leidas = new TareaRepository(archivo, TareaCodec.porDefecto(), Compresion.zlib(6)).obtenerTareas();
+            assertEquals(tareas.size(), leidas.size());
+            assertEquals(tareas.get(199).getTitulo(), leidas.get(199).getTitulo());
+            assertEquals(tareas.get(199).getFechaVencimiento(), leidas.get(199).getFechaVencimiento());
+        }
+        assertThrows(IllegalArgumentException.class, () -> Compresion.gzip(10));
+    }
+
+    @Test
+    public void testArchivoDanadoNoSeReemplaza(@TempDir Path dir) throws Exception {
+        Path archivo = dir.resolve("tareas.json");
+        List<Tarea> tareas = new GeneradorTareas(7).generar(10_000);
+        new TareaRepository(archivo.toString()).guardarEnArchivo(tareas);
+        assertTrue(Files.size(archivo) >= TareaRepository.UMBRAL_CARGA_PARALELA, "Debe usarse la carga paralela");
+
+        // Un error de sintaxis en un archivo grande llega al llamador en lugar de cargar una lista vacía
+        String danado = Files.readString(archivo).replaceFirst(":", "::");
+        Files.writeString(archivo, danado);
+        assertThrows(UncheckedIOException.class, () -> new TareaRepository(archivo.toString()));
+        assertEquals(danado, Files.readString(archivo));
+
+        // Si se daña después de cargarlo, los cambios dejan de guardarse hasta que se repare
+        Path pequeno = dir.resolve("pequeno.json");
+        TareaRepository repo = new TareaRepository(pequeno.toString());
+        Tarea primera = new Tarea("Primera", "", LocalDate.now(), Prioridad.MEDIA, Estado.PENDIENTE);
+        repo.guardarCambios(List.of(primera), List.of(primera), List.of(), List.of());
+        String valido = Files.readString(pequeno);
+        Files.writeString(pequeno, valido.replaceFirst(":", "::"));
+
+        Tarea segunda = new Tarea("Segunda", "", LocalDate.now(), Prioridad.MEDIA, Estado.PENDIENTE);
+        repo.guardarCambios(List.of(primera, segunda), List.of(segunda), List.of(), List.of());
+        assertTrue(repo.isIlegible());
+        assertEquals(valido.replaceFirst(":", "::"), Files.readString(pequeno));
+
+        Files.writeString(pequeno, valido);
+        repo.guardarCambios(List.of(primera, segunda), List.of(segunda), List.of(), List.of());
+        assertFalse(repo.isIlegible());
+        assertEquals(List.of("Primera", "Segunda"), repo.leerArchivo().stream().map(Tarea::getTitulo).toList());
+    }
 }
@@ -1,9 +1,23 @@
 package Modelo;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.Period;
+import java.util.Collection;
+import java.util.List;
+import java.util.ArrayList;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import Modelo.Tarea;
 import Modelo.Prioridad;
 import Modelo.Estado;
@@ -30,4 +44,313 @@ class TareaServiceTest {
     private boolean fechaEsValida(Tarea tarea) {
         return !tarea.getFechaVencimiento().isBefore(LocalDate.now());
     }
+
+    @Test
+    public void testAgregarTareasEnLoteDescartaInvalidas(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+
+        List<Tarea> agregadas = service.agregarTareas(List.of(
+                new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea(" ", "", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Dos", "", LocalDate.now().minusDays(1), Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Tres", "", manana, Prioridad.MEDIA, Estado.EN_PROGRESO)));
+
+        assertEquals(2, agregadas.size());
+        assertEquals(2, service.obtenerTodas().size());
+        // Lo guardado en disco debe coincidir con lo agregado
+        assertEquals(2, new TareaRepository(dir.resolve("tareas.json").toString()).obtenerTareas().size());
+    }
+
+    @Test
+    public void testValidacionDevuelveMotivosDeRechazo(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+
+        ResultadoAlta alta = service.agregarTarea(new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE));
+        assertTrue(alta.esExitosa());
+        assertEquals(service.obtenerTodas().get(0), alta.tarea());
+        ResultadoAlta rechazo = service.agregarTarea(new Tarea("", "", manana, Prioridad.ALTA, Estado.PENDIENTE));
+        assertEquals(ErrorValidacion.TITULO_VACIO, rechazo.error());
+        assertNull(rechazo.tarea());
+
+        List<ErrorValidacion> motivos = new ArrayList<>();
+        service.agregarTareas(List.of(
+                new Tarea("Dos", "", LocalDate.now().minusDays(1), Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Tres", "", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea(null, "", manana, Prioridad.BAJA, Estado.PENDIENTE)),
+                (tarea, error) -> motivos.add(error));
+        assertEquals(List.of(ErrorValidacion.FECHA_PASADA, ErrorValidacion.TITULO_VACIO), motivos);
+        assertEquals(2, service.obtenerTodas().size());
+    }
+
+    @Test
+    public void testActualizarYEliminarTareasPorCriterio(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        service.agregarTareas(List.of(
+                new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea("Dos", "", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Tres", "", manana, Prioridad.BAJA, Estado.EN_PROGRESO)));
+
+        int modificadas = service.actualizarTareas(t -> t.getPrioridad() == Prioridad.BAJA,
+                t -> t.setEstado(Estado.COMPLETADA));
+        assertEquals(2, modificadas);
+        assertEquals(2, service.filtrarPorEstado(Estado.COMPLETADA).size());
+
+        int eliminadas = service.eliminarTareas(t -> t.getEstado() == Estado.COMPLETADA);
+        assertEquals(2, eliminadas);
+        assertEquals(1, service.obtenerTodas().size());
+    }
+
+    @Test
+    public void testCompletarVencidasIgnoraTareasSinFecha(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        // Las tareas cargadas del archivo no pasan por la validación y pueden no tener fecha
+        service.aplicarContenidoExterno(List.of(
+                new Tarea(900, "Sin fecha", "", null, Prioridad.MEDIA, Estado.PENDIENTE),
+                new Tarea(901, "Vencida", "", LocalDate.now().minusDays(1), Prioridad.MEDIA, Estado.PENDIENTE)));
+
+        assertEquals(1, service.completarVencidas());
+        assertEquals(List.of("Sin fecha"),
+                service.filtrarPorEstado(Estado.PENDIENTE).stream().map(Tarea::getTitulo).toList());
+    }
+
+    @Test
+    public void testAplicarContenidoExternoSoloCambiaLoDistinto(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<Tarea> originales = service.agregarTareas(List.of(
+                new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea("Dos", "", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Tres", "", manana, Prioridad.MEDIA, Estado.PENDIENTE)));
+        Tarea uno = originales.get(0);
+        Tarea dos = originales.get(1);
+        int idExterno = originales.get(2).getId() + 100;
+
+        // El archivo externo conserva "Uno", cambia "Dos", borra "Tres" y agrega una tarea nueva
+        CambiosArchivo cambios = service.aplicarContenidoExterno(List.of(
+                new Tarea(uno.getId(), "Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea(dos.getId(), "Dos", "", manana, Prioridad.BAJA, Estado.COMPLETADA),
+                new Tarea(idExterno, "Externa", "", manana, Prioridad.BAJA, Estado.PENDIENTE)));
+
+        assertEquals(List.of(dos), cambios.actualizadas());
+        assertEquals(Estado.COMPLETADA, dos.getEstado(), "Se actualiza la misma instancia");
+        assertEquals(List.of(originales.get(2).getId()), cambios.eliminadas());
+        assertEquals(1, cambios.agregadas().size());
+        assertEquals(3, service.obtenerTodas().size());
+        assertTrue(new Tarea("Nueva", "", manana, Prioridad.BAJA, Estado.PENDIENTE).getId() > idExterno,
+                "Los IDs nuevos no deben chocar con los del archivo externo");
+    }
+
+    @Test
+    public void testPublicaEventosDeCambio(@TempDir Path dir) throws InterruptedException {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        List<EventoTarea> recibidos = new CopyOnWriteArrayList<>();
+        CountDownLatch esperados = new CountDownLatch(3);
+        service.escuchar(evento -> {
+            recibidos.add(evento);
+            esperados.countDown();
+        });
+
+        LocalDate manana = LocalDate.now().plusDays(1);
+        service.agregarTarea(new Tarea("Uno", "", manana, Prioridad.ALTA, Estado.PENDIENTE));
+        service.agregarTareas(List.of(new Tarea("Dos", "", manana, Prioridad.BAJA, Estado.PENDIENTE)));
+        service.eliminarTareas(t -> t.getTitulo().equals("Uno"));
+
+        assertTrue(esperados.await(5, TimeUnit.SECONDS));
+        assertEquals(EventoTarea.Tipo.AGREGADA, recibidos.get(0).tipo());
+        assertEquals(EventoTarea.Tipo.MASIVO, recibidos.get(1).tipo());
+        assertEquals("Uno", recibidos.get(2).eliminadas().get(0).getTitulo());
+        service.cerrar();
+    }
+
+    @Test
+    public void testSuscriptorLentoNoBloqueaAlEscritor(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()), 4);
+        // Suscriptor que nunca pide eventos
+        service.suscribir(new Flow.Subscriber<>() {
+            public void onSubscribe(Flow.Subscription s) { }
+            public void onNext(EventoTarea e) { }
+            public void onError(Throwable t) { }
+            public void onComplete() { }
+        });
+
+        LocalDate manana = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 10; i++) {
+            service.agregarTareas(List.of(new Tarea("T" + i, "", manana, Prioridad.MEDIA, Estado.PENDIENTE)));
+        }
+
+        assertEquals(10, service.obtenerTodas().size());
+        assertTrue(service.getEventosDescartados() > 0);
+        service.cerrar();
+    }
+
+    @Test
+    public void testActualizarSiVersionDetectaConflictos(@TempDir Path dir) {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        Tarea tarea = service.agregarTareas(List.of(
+                new Tarea("Original", "", manana, Prioridad.MEDIA, Estado.PENDIENTE))).get(0);
+        int versionLeida = tarea.getVersion();
+
+        Tarea cambioA = new Tarea(0, "Editor A", "", manana, Prioridad.ALTA, Estado.EN_PROGRESO);
+        Tarea cambioB = new Tarea(0, "Editor B", "", manana, Prioridad.BAJA, Estado.PENDIENTE);
+
+        ResultadoActualizacion primero = service.actualizarSiVersion(tarea.getId(), cambioA, versionLeida);
+        ResultadoActualizacion segundo = service.actualizarSiVersion(tarea.getId(), cambioB, versionLeida);
+
+        assertEquals(ResultadoActualizacion.Tipo.ACTUALIZADA, primero.tipo());
+        assertEquals(versionLeida + 1, tarea.getVersion());
+        assertEquals(ResultadoActualizacion.Tipo.CONFLICTO, segundo.tipo());
+        assertEquals("Editor A", segundo.tarea().getTitulo(), "El conflicto devuelve los datos vigentes");
+        assertEquals(ResultadoActualizacion.Tipo.NO_ENCONTRADA,
+                service.actualizarSiVersion(-1, cambioB, 0).tipo());
+    }
+
+    @Test
+    public void testEditoresConcurrentesSobreLaMismaTarea(@TempDir Path dir) throws Exception {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        Tarea tarea = service.agregarTareas(List.of(
+                new Tarea("Compartida", "", manana, Prioridad.MEDIA, Estado.PENDIENTE))).get(0);
+
+        // Cada editor reintenta con la versión vigente hasta lograr su cambio
+        int editores = 4;
+        int cambiosPorEditor = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(editores);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int e = 0; e < editores; e++) {
+            String nombre = "Editor " + e;
+            futuros.add(pool.submit(() -> {
+                for (int i = 0; i < cambiosPorEditor; i++) {
+                    Tarea datos = new Tarea(0, nombre + " " + i, "", manana, Prioridad.MEDIA, Estado.PENDIENTE);
+                    while (!service.actualizarSiVersion(tarea.getId(), datos, tarea.getVersion()).esExitosa()) {
+                        Thread.onSpinWait();
+                    }
+                }
+            }));
+        }
+        for (Future<?> f : futuros) {
+            f.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(editores * cambiosPorEditor, tarea.getVersion(), "Ningún cambio se pierde");
+    }
+
+    @Test
+    public void testCompareAndSetDesdeOtroHiloMientrasLaInterfazCambiaLaLista(@TempDir Path dir) throws Exception {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        int id = service.agregarTarea(new Tarea("Compartida", "", manana, Prioridad.MEDIA, Estado.PENDIENTE)).tarea().getId();
+        int cambiosDelScript = 100;
+        int reemplazos = 20;
+
+        // Un script aplica cambios por versión mientras el hilo principal agrega, quita y reemplaza instancias
+        ExecutorService script = Executors.newSingleThreadExecutor();
+        Future<?> futuro = script.submit(() -> {
+            int version = 0;
+            for (int i = 0; i < cambiosDelScript; i++) {
+                Tarea datos = new Tarea(0, "Script " + i, "", manana, Prioridad.ALTA, Estado.PENDIENTE);
+                ResultadoActualizacion r;
+                while (!(r = service.actualizarSiVersion(id, datos, version)).esExitosa()) {
+                    version = r.tarea().getVersion();
+                }
+                version = r.tarea().getVersion();
+            }
+        });
+        for (int i = 0; i < reemplazos; i++) {
+            Tarea otra = service.agregarTarea(new Tarea("Otra " + i, "", manana, Prioridad.BAJA, Estado.PENDIENTE)).tarea();
+            Tarea vigente = service.obtenerTodas().stream().filter(t -> t.getId() == id).findFirst().orElseThrow();
+            service.actualizarTarea(new Tarea(id, vigente.getTitulo(), "", manana, Prioridad.MEDIA, Estado.PENDIENTE));
+            service.eliminarTarea(otra.getId());
+        }
+        futuro.get(30, TimeUnit.SECONDS);
+        script.shutdown();
+
+        Tarea finalTarea = service.obtenerTodas().stream().filter(t -> t.getId() == id).findFirst().orElseThrow();
+        assertEquals(cambiosDelScript + reemplazos, finalTarea.getVersion(), "Ningún cambio del script se pierde");
+        assertEquals(1, service.obtenerTodas().size());
+    }
+
+    @Test
+    public void testActualizarTareaMientrasOtroHiloQuitaTareas(@TempDir Path dir) throws Exception {
+        AtomicInteger guardados = new AtomicInteger();
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()) {
+            @Override
+            public synchronized void guardarCambios(List<Tarea> todas, Collection<Tarea> agregadas,
+                                                    Collection<Tarea> actualizadas, Collection<Integer> eliminadas) {
+                guardados.incrementAndGet();
+                super.guardarCambios(todas, agregadas, actualizadas, eliminadas);
+            }
+        });
+        LocalDate manana = LocalDate.now().plusDays(1);
+        List<Tarea> otras = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            otras.add(new Tarea("Otra " + i, "", manana, Prioridad.BAJA, Estado.PENDIENTE));
+        }
+        List<Tarea> agregadas = service.agregarTareas(otras);
+        Tarea ultima = service.agregarTarea(new Tarea("Última", "", manana, Prioridad.MEDIA, Estado.PENDIENTE)).tarea();
+
+        // Quitar tareas anteriores corre la posición de la última mientras se reemplaza
+        ExecutorService otroHilo = Executors.newSingleThreadExecutor();
+        Future<?> futuro = otroHilo.submit(() -> agregadas.forEach(t -> service.eliminarTarea(t.getId())));
+        for (int i = 0; i < 200; i++) {
+            service.actualizarTarea(new Tarea(ultima.getId(), "Última " + i, "", manana, Prioridad.ALTA, Estado.PENDIENTE));
+        }
+        futuro.get(30, TimeUnit.SECONDS);
+        otroHilo.shutdown();
+
+        assertEquals(List.of("Última 199"), service.obtenerTodas().stream().map(Tarea::getTitulo).toList());
+        assertEquals(ultima.getVersion() + 200, service.obtenerTodas().get(0).getVersion());
+
+        // Una tarea que no existe no se guarda
+        int antes = guardados.get();
+        service.actualizarTarea(new Tarea(999_999, "Fantasma", "", manana, Prioridad.ALTA, Estado.PENDIENTE));
+        assertEquals(antes, guardados.get());
+        assertEquals(1, service.obtenerTodas().size());
+    }
+
+    @Test
+    public void testArchivarCompletadasAntiguas(@TempDir Path dir) throws Exception {
+        String archivo = dir.resolve("tareas.json").toString();
+        TareaService service = new TareaService(new TareaRepository(archivo));
+        LocalDate manana = LocalDate.now().plusDays(1);
+        service.agregarTareas(List.of(
+                new Tarea("Informe viejo", "", manana, Prioridad.ALTA, Estado.PENDIENTE),
+                new Tarea("Reunión vieja", "", manana, Prioridad.BAJA, Estado.PENDIENTE),
+                new Tarea("Actual", "", manana, Prioridad.BAJA, Estado.PENDIENTE)));
+        service.actualizarTareas(t -> t.getTitulo().contains("vie"), t -> {
+            t.setEstado(Estado.COMPLETADA);
+            t.setFechaVencimiento(LocalDate.now().minusDays(60));
+        });
+
+        assertEquals(2, service.archivarCompletadas(Period.ofDays(30)));
+        assertEquals(1, service.obtenerTodas().size());
+        assertEquals(2, service.getCantidadArchivadas());
+        assertTrue(service.filtrarPorEstado(Estado.COMPLETADA).isEmpty());
+        assertEquals(2, service.filtrarPorEstado(Estado.COMPLETADA, true).size());
+        assertEquals(1, service.filtrarPorPrioridad(Prioridad.BAJA, false).size());
+        assertEquals(2, service.filtrarPorPrioridad(Prioridad.BAJA, true).size());
+        assertEquals("Informe viejo", service.buscarPorPalabraClave("informe", true).get(0).getTitulo());
+        assertEquals(3, service.obtenerTodas(true).size());
+
+        // Al reabrir, las archivadas siguen disponibles y sus IDs no se reutilizan
+        TareaService reabierto = new TareaService(new TareaRepository(archivo));
+        assertEquals(2, reabierto.getCantidadArchivadas());
+        int maxArchivado = reabierto.obtenerTodas(true).stream().mapToInt(Tarea::getId).max().orElseThrow();
+        assertTrue(new Tarea("Nueva", "", manana, Prioridad.BAJA, Estado.PENDIENTE).getId() > maxArchivado);
+    }
+
+    @Test
+    public void testArchivarIgnoraCompletadasSinFecha(@TempDir Path dir) throws Exception {
+        TareaService service = new TareaService(new TareaRepository(dir.resolve("tareas.json").toString()));
+        service.aplicarContenidoExterno(List.of(
+                new Tarea(910, "Sin fecha", "", null, Prioridad.MEDIA, Estado.COMPLETADA),
+                new Tarea(911, "Antigua", "", LocalDate.now().minusDays(60), Prioridad.MEDIA, Estado.COMPLETADA)));
+
+        assertEquals(1, service.archivarCompletadas(Period.ofDays(30)));
+        assertEquals(List.of("Sin fecha"), service.obtenerTodas().stream().map(Tarea::getTitulo).toList());
+    }
 }
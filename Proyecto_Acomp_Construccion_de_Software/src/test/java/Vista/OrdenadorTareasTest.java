@@ -0,0 +1,104 @@
+package Vista;
+
+import Modelo.Estado;
+import Modelo.Prioridad;
+import Modelo.Tarea;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.RowSorter.SortKey;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import javax.swing.event.TableModelEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrdenadorTareasTest {
+
+    private static Tarea tarea(int id, String titulo, int dias) {
+        return new Tarea(id, titulo, "", LocalDate.now().plusDays(dias), Prioridad.MEDIA, Estado.PENDIENTE);
+    }
+
+    private static List<Integer> idsEnVista(OrdenadorTareas ordenador) {
+        List<Integer> ids = new ArrayList<>();
+        for (int v = 0; v < ordenador.getViewRowCount(); v++) {
+            ids.add(ordenador.getModel().getTareaEnFila(ordenador.convertRowIndexToModel(v)).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void testOrdenaTitulosSinImportarTildesNiMayusculas() throws Exception {
+        AtomicReference<List<Integer>> resultado = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            TareaTableModel modelo = new TareaTableModel(List.of(
+                    tarea(1, "Bote", 3), tarea(2, "árbol", 1), tarea(3, "Abeja", 2), tarea(4, "zanahoria", 1)));
+            OrdenadorTareas ordenador = new OrdenadorTareas(modelo);
+            ordenador.toggleSortOrder(1);
+            List<Integer> ascendente = idsEnVista(ordenador);
+            ordenador.toggleSortOrder(1);
+            List<Integer> descendente = idsEnVista(ordenador);
+            ordenador.toggleSortOrder(5); // por fecha, con el título como desempate
+            resultado.set(List.of(ascendente.get(0), ascendente.get(1), ascendente.get(2), ascendente.get(3),
+                    descendente.get(0), idsEnVista(ordenador).get(0), idsEnVista(ordenador).get(1)));
+            assertEquals(2, ordenador.getSortKeys().size());
+            assertEquals(new SortKey(5, SortOrder.ASCENDING), ordenador.getSortKeys().get(0));
+        });
+        assertEquals(List.of(3, 2, 1, 4, 4, 4, 2), resultado.get());
+    }
+
+    @Test
+    void testActualizarYAgregarFilasReordena() throws Exception {
+        SwingUtilities.invokeAndWait(() -> {
+            TareaTableModel modelo = new TareaTableModel(List.of(tarea(1, "Beta", 1), tarea(2, "Gamma", 1)));
+            OrdenadorTareas ordenador = new OrdenadorTareas(modelo);
+            modelo.addTableModelListener(e -> {
+                switch (e.getType()) {
+                    case TableModelEvent.INSERT -> ordenador.rowsInserted(e.getFirstRow(), e.getLastRow());
+                    case TableModelEvent.UPDATE -> ordenador.rowsUpdated(e.getFirstRow(), e.getLastRow());
+                    default -> ordenador.allRowsChanged();
+                }
+            });
+            ordenador.toggleSortOrder(1);
+            assertEquals(List.of(1, 2), idsEnVista(ordenador));
+
+            modelo.actualizarTareas(List.of(tarea(1, "Omega", 1)));
+            assertEquals(List.of(2, 1), idsEnVista(ordenador));
+
+            modelo.agregarTareas(List.of(tarea(3, "Alfa", 1)));
+            assertEquals(List.of(3, 2, 1), idsEnVista(ordenador));
+            assertEquals(2, ordenador.convertRowIndexToView(0));
+        });
+    }
+
+    @Test
+    void testOrdenaEnSegundoPlanoYReemplazaElOrden() throws Exception {
+        List<Tarea> tareas = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            tareas.add(tarea(i, "Tarea " + (1_000 - i), i % 7));
+        }
+        AtomicReference<OrdenadorTareas> ordenador = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            ordenador.set(new OrdenadorTareas(new TareaTableModel(tareas), 100));
+            ordenador.get().toggleSortOrder(0);
+            ordenador.get().toggleSortOrder(0); // el primer cálculo se descarta
+            assertTrue(ordenador.get().isOrdenando());
+            assertEquals(0, ordenador.get().convertRowIndexToModel(0)); // sigue el orden anterior
+        });
+
+        AtomicBoolean listo = new AtomicBoolean();
+        for (int i = 0; i < 500 && !listo.get(); i++) {
+            Thread.sleep(10);
+            SwingUtilities.invokeAndWait(() -> listo.set(!ordenador.get().isOrdenando()));
+        }
+        assertTrue(listo.get());
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(1_000, idsEnVista(ordenador.get()).get(0));
+            assertEquals(1, idsEnVista(ordenador.get()).get(999));
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package Vista;
+
+import Modelo.Estado;
+import Modelo.GeneradorTareas;
+import Modelo.Prioridad;
+
+import javax.swing.JTable;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.function.IntConsumer;
+
+/**
+ * Mide el tiempo y la memoria que se reserva al pintar cada cuadro de una tabla de tareas que se
+ * desplaza, comparando los renderizadores predeterminados de JTable con {@link RenderizadorTarea}.
+ * <p>
+ * No es una prueba unitaria (Surefire no la ejecuta); se lanza a mano con:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=Vista.PintadoTablaBenchmark -Dexec.args="100000"
+ * </pre>
+ */
+public class PintadoTablaBenchmark {
+
+    private static final int ANCHO = 800;
+    private static final int ALTO = 600;
+    private static final int CUADROS = 3_000;
+    private static final int FILAS_POR_CUADRO = 7;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        TareaTableModel modelo = new TareaTableModel(new GeneradorTareas(42).generar(cantidad));
+
+        System.out.printf("%,d filas, %,d cuadros de %dx%d%n", cantidad, CUADROS, ANCHO, ALTO);
+        System.out.printf("%-18s %-9s %12s %14s%n", "renderizador", "etapa", "por cuadro", "reservado");
+        SwingUtilities.invokeAndWait(() -> {
+            for (int ronda = 0; ronda < 3; ronda++) {
+                medir("predeterminado", tabla(modelo, false));
+                medir("RenderizadorTarea", tabla(modelo, true));
+            }
+        });
+    }
+
+    private static JTable tabla(TareaTableModel modelo, boolean propio) {
+        JTable tabla = new JTable(modelo);
+        if (propio) {
+            RenderizadorTarea.instalarEn(tabla);
+        } else {
+            for (Class<?> tipo : new Class<?>[]{Object.class, String.class, Integer.class, Estado.class, Prioridad.class, LocalDate.class}) {
+                tabla.setDefaultRenderer(tipo, new DefaultTableCellRenderer());
+            }
+        }
+        tabla.setSize(ANCHO, tabla.getRowHeight() * modelo.getRowCount());
+        tabla.doLayout();
+        return tabla;
+    }
+
+    /**
+     * Mide el pintado completo de cada cuadro y, por separado, solo la preparación de los
+     * renderizadores de sus celdas, que es la parte que depende de ellos; el resto es el dibujo
+     * del texto de Java2D.
+     */
+    private static void medir(String nombre, JTable tabla) {
+        BufferedImage imagen = new BufferedImage(ANCHO, ALTO, BufferedImage.TYPE_INT_RGB);
+        medir(nombre, "pintar", cuadro -> pintar(tabla, imagen, cuadro));
+        medir(nombre, "preparar", cuadro -> preparar(tabla, cuadro));
+    }
+
+    private static void medir(String nombre, String etapa, IntConsumer cuadro) {
+        for (int i = 0; i < CUADROS; i++) { // calentamiento
+            cuadro.accept(i);
+        }
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long reservadoAntes = hilos.getCurrentThreadAllocatedBytes();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < CUADROS; i++) {
+            cuadro.accept(i);
+        }
+        double usPorCuadro = (System.nanoTime() - inicio) / 1e3 / CUADROS;
+        long reservado = (hilos.getCurrentThreadAllocatedBytes() - reservadoAntes) / CUADROS;
+        System.out.printf("%-18s %-9s %9.1f us %,12d B%n", nombre, etapa, usPorCuadro, reservado);
+    }
+
+    /** Posición vertical de la vista en un cuadro del desplazamiento. */
+    private static int desplazamiento(JTable tabla, int cuadro) {
+        int maximo = tabla.getHeight() - ALTO;
+        return (int) ((long) cuadro * FILAS_POR_CUADRO * tabla.getRowHeight() % maximo);
+    }
+
+    /** Pinta el cuadro de la vista desplazada hasta la posición del cuadro indicado. */
+    private static void pintar(JTable tabla, BufferedImage imagen, int cuadro) {
+        int y = desplazamiento(tabla, cuadro);
+        Graphics2D g = imagen.createGraphics();
+        try {
+            g.translate(0, -y);
+            g.setClip(0, y, ANCHO, ALTO);
+            tabla.paint(g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /** Prepara el renderizador de cada celda visible en el cuadro, como lo hace el pintado. */
+    private static void preparar(JTable tabla, int cuadro) {
+        int y = desplazamiento(tabla, cuadro);
+        int primera = y / tabla.getRowHeight();
+        int ultima = Math.min(tabla.getRowCount() - 1, (y + ALTO) / tabla.getRowHeight());
+        for (int fila = primera; fila <= ultima; fila++) {
+            for (int columna = 0; columna < tabla.getColumnCount(); columna++) {
+                tabla.prepareRenderer(tabla.getCellRenderer(fila, columna), fila, columna);
+            }
+        }
+    }
+}